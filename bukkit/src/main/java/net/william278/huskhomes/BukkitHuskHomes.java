@@ -46,7 +46,7 @@ import net.william278.huskhomes.network.PluginMessageBroker;
 import net.william278.huskhomes.network.RedisBroker;
 import net.william278.huskhomes.position.Location;
 import net.william278.huskhomes.position.World;
-import net.william278.huskhomes.random.NormalDistributionEngine;
+import net.william278.huskhomes.random.PerWorldEngine;
 import net.william278.huskhomes.random.RandomTeleportEngine;
 import net.william278.huskhomes.user.BukkitUser;
 import net.william278.huskhomes.user.ConsoleUser;
@@ -56,6 +56,7 @@ import net.william278.huskhomes.util.*;
 import org.bstats.bukkit.Metrics;
 import org.bstats.charts.SimplePie;
 import org.bukkit.Bukkit;
+import org.bukkit.Material;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.PluginDescriptionFile;
 import org.bukkit.plugin.java.JavaPlugin;
@@ -75,7 +76,8 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.stream.Collectors;
 
-public class BukkitHuskHomes extends JavaPlugin implements HuskHomes, BukkitTaskRunner, BukkitEventDispatcher, PluginMessageListener, BukkitSafetyResolver {
+public class BukkitHuskHomes extends JavaPlugin implements HuskHomes, BukkitTaskRunner, BukkitEventDispatcher,
+        PluginMessageListener, BukkitSafetyResolver, BukkitChunkPreloader {
 
     /**
      * Metrics ID for <a href="https://bstats.org/plugin/bukkit/HuskHomes/8430">HuskHomes on Bukkit</a>.
@@ -92,10 +94,10 @@ public class BukkitHuskHomes extends JavaPlugin implements HuskHomes, BukkitTask
     private RandomTeleportEngine randomTeleportEngine;
     private Spawn serverSpawn;
     private UnsafeBlocks unsafeBlocks;
+    private Set<Material> unsafeMaterials;
     private List<Hook> hooks;
     private List<Command> commands;
     private Map<String, List<String>> globalPlayerList;
-    private Set<UUID> currentlyOnWarmup;
     private Server server;
     @Nullable
     private Broker broker;
@@ -133,7 +135,6 @@ public class BukkitHuskHomes extends JavaPlugin implements HuskHomes, BukkitTask
         this.tasks = new ConcurrentHashMap<>();
         this.savedUsers = new HashSet<>();
         this.globalPlayerList = new HashMap<>();
-        this.currentlyOnWarmup = new HashSet<>();
         this.validator = new Validator(this);
 
         // Load settings and locales
@@ -168,7 +169,7 @@ public class BukkitHuskHomes extends JavaPlugin implements HuskHomes, BukkitTask
         }
 
         // Set the random teleport engine
-        setRandomTeleportEngine(new NormalDistributionEngine(this));
+        setRandomTeleportEngine(new PerWorldEngine(this));
 
         // Register plugin hooks (Economy, Maps, Plan)
         initialize("hooks", (plugin) -> {
@@ -403,12 +404,6 @@ public class BukkitHuskHomes extends JavaPlugin implements HuskHomes, BukkitTask
         return globalPlayerList;
     }
 
-    @Override
-    @NotNull
-    public Set<UUID> getCurrentlyOnWarmup() {
-        return currentlyOnWarmup;
-    }
-
     @Override
     @NotNull
     public String getServerName() {
@@ -423,6 +418,7 @@ public class BukkitHuskHomes extends JavaPlugin implements HuskHomes, BukkitTask
     @Override
     public void setUnsafeBlocks(@NotNull UnsafeBlocks unsafeBlocks) {
         this.unsafeBlocks = unsafeBlocks;
+        this.unsafeMaterials = BukkitSafetyResolver.compileUnsafeMaterials(unsafeBlocks);
     }
 
     @Override
@@ -431,6 +427,12 @@ public class BukkitHuskHomes extends JavaPlugin implements HuskHomes, BukkitTask
         return unsafeBlocks;
     }
 
+    @Override
+    @NotNull
+    public Set<Material> getUnsafeMaterials() {
+        return unsafeMaterials;
+    }
+
     @Override
     @NotNull
     public List<World> getWorlds() {
@@ -0,0 +1,68 @@
+/*
+ * This file is part of HuskHomes, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.util;
+
+import io.papermc.lib.PaperLib;
+import net.william278.huskhomes.BukkitHuskHomes;
+import net.william278.huskhomes.position.Location;
+import org.jetbrains.annotations.NotNull;
+import space.arim.morepaperlib.scheduling.GracefulScheduling;
+
+import java.util.concurrent.CompletableFuture;
+
+public interface BukkitChunkPreloader extends ChunkPreloader {
+
+    @Override
+    default CompletableFuture<Boolean> preloadChunk(@NotNull Location location) {
+        final org.bukkit.Location bukkitLocation = BukkitAdapter.adaptLocation(location).orElse(null);
+        if (bukkitLocation == null || bukkitLocation.getWorld() == null) {
+            return CompletableFuture.completedFuture(false);
+        }
+
+        // Load the chunk asynchronously where supported, then hold it with a plugin ticket
+        final CompletableFuture<Boolean> loaded = new CompletableFuture<>();
+        getScheduler().regionSpecificScheduler(bukkitLocation).run(() -> PaperLib.getChunkAtAsync(bukkitLocation)
+                .thenAccept(chunk -> {
+                    chunk.addPluginChunkTicket(BukkitHuskHomes.getInstance());
+                    loaded.complete(true);
+                })
+                .exceptionally(e -> {
+                    loaded.complete(false);
+                    return null;
+                }));
+        return loaded;
+    }
+
+    @Override
+    default void releaseChunk(@NotNull Location location) {
+        BukkitAdapter.adaptLocation(location).ifPresent(bukkitLocation -> {
+            if (bukkitLocation.getWorld() == null) {
+                return;
+            }
+            getScheduler().regionSpecificScheduler(bukkitLocation).run(() -> bukkitLocation.getWorld()
+                    .removePluginChunkTicket(bukkitLocation.getBlockX() >> 4, bukkitLocation.getBlockZ() >> 4,
+                            BukkitHuskHomes.getInstance()));
+        });
+    }
+
+    @NotNull
+    GracefulScheduling getScheduler();
+
+}
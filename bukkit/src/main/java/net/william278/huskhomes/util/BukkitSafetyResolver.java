@@ -24,9 +24,13 @@ import net.william278.huskhomes.position.Location;
 import org.bukkit.Chunk;
 import org.bukkit.ChunkSnapshot;
 import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.WorldBorder;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.EnumSet;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 
 public interface BukkitSafetyResolver extends SafetyResolver {
@@ -43,48 +47,97 @@ public interface BukkitSafetyResolver extends SafetyResolver {
             return CompletableFuture.completedFuture(Optional.empty());
         }
 
-        // Search nearby blocks for a safe location
+        // Search the candidate's chunk for the best safe location
+        final World world = bukkitLocation.getWorld();
         return PaperLib.getChunkAtAsync(bukkitLocation)
                 .thenApply(Chunk::getChunkSnapshot)
-                .thenApply(snapshot -> findSafeLocationNear(
-                        location,
-                        snapshot,
-                        bukkitLocation.getWorld().getMinHeight()
-                ));
+                .thenApply(snapshot -> findSafeLocationIn(location, snapshot, world));
     }
 
     /**
-     * Search for a safe ground location near the given location
+     * Search every column of a chunk for the best safe ground location, preferring columns near the given location
      *
      * @param location The location to search around
-     * @param snapshot The chunk snapshot to search
-     * @param minY     The minimum Y value of the world
-     * @return An optional safe location, within 4 blocks of the given location
+     * @param snapshot The snapshot of the chunk containing the location
+     * @param world    The world the chunk is in
+     * @return An optional safe location, within the same chunk as the given location
+     */
+    private Optional<Location> findSafeLocationIn(@NotNull Location location, @NotNull ChunkSnapshot snapshot,
+                                                  @NotNull World world) {
+        final int minY = world.getMinHeight();
+        final int maxY = world.getMaxHeight();
+        final int blockX = snapshot.getX() << 4;
+        final int blockZ = snapshot.getZ() << 4;
+        final WorldBorder border = world.getWorldBorder();
+        return ChunkColumnScanner.findBestColumn(
+                        (int) Math.floor(location.getX()),
+                        (int) Math.floor(location.getZ()),
+                        (x, z) -> getGroundY(snapshot, x, z, minY),
+                        (x, y, z) -> y > minY && y + 2 < maxY
+                                     && isSafeColumn(snapshot, x, y, z)
+                                     && border.isInside(new org.bukkit.Location(world, blockX + x, y, blockZ + z)))
+                .map(column -> Location.at(
+                        blockX + column.x() + 0.5d,
+                        column.groundY() + 1,
+                        blockZ + column.z() + 0.5d,
+                        location.getWorld()
+                ));
+    }
+
+    // Get the y coordinate of the highest block in a column from the snapshot's heightmap
+    private static int getGroundY(@NotNull ChunkSnapshot snapshot, int x, int z, int minY) {
+        final int y = Math.max(minY, snapshot.getHighestBlockYAt(x, z));
+        if (y > minY && snapshot.getBlockType(x, y, z).isAir()) {
+            return y - 1;
+        }
+        return y;
+    }
+
+    // Check the ground is safe to stand on, and that there is safe room to stand above it
+    private boolean isSafeColumn(@NotNull ChunkSnapshot snapshot, int x, int y, int z) {
+        return isBlockSafe(snapshot.getBlockType(x, y, z))
+               && isPassable(snapshot.getBlockType(x, y + 1, z))
+               && isPassable(snapshot.getBlockType(x, y + 2, z));
+    }
+
+    private boolean isPassable(@NotNull Material material) {
+        return material.isAir() || (!material.isSolid() && isBlockSafe(material));
+    }
+
+    /**
+     * Returns if the block, by provided material, is safe
+     *
+     * @param material The block material
+     * @return {@code true} if the material is not an unsafe block, {@code false} otherwise
      */
-    private Optional<Location> findSafeLocationNear(@NotNull Location location, @NotNull ChunkSnapshot snapshot, int minY) {
-        final int chunkX = ((int) location.getX()) & 0xF;
-        final int chunkZ = ((int) location.getZ()) & 0xF;
+    default boolean isBlockSafe(@NotNull Material material) {
+        return !getUnsafeMaterials().contains(material);
+    }
 
-        for (int dX = -SEARCH_RADIUS; dX <= SEARCH_RADIUS; dX++) {
-            for (int dZ = -SEARCH_RADIUS; dZ <= SEARCH_RADIUS; dZ++) {
-                final int x = chunkX + dX;
-                final int z = chunkZ + dZ;
-                if (x < 0 || x >= 16 || z < 0 || z >= 16) {
-                    continue;
-                }
-                final int y = Math.max((minY + 1), snapshot.getHighestBlockYAt(x, z));
-                final Material blockType = snapshot.getBlockType(chunkX, y, chunkZ);
-                if (isBlockSafe(blockType.getKey().toString())) {
-                    return Optional.of(Location.at(
-                            (location.getX() + dX) + 0.5d,
-                            y + 1,
-                            (location.getZ() + dZ) + 0.5d,
-                            location.getWorld()
-                    ));
-                }
+    /**
+     * Get the set of unsafe block materials, compiled from the {@link UnsafeBlocks} when they are loaded
+     *
+     * @return the unsafe materials
+     */
+    @NotNull
+    Set<Material> getUnsafeMaterials();
+
+    /**
+     * Compile the unsafe blocks into a set of materials, backed by a bit set indexed by material
+     *
+     * @param unsafeBlocks The unsafe blocks
+     * @return the unsafe materials
+     */
+    @NotNull
+    static Set<Material> compileUnsafeMaterials(@NotNull UnsafeBlocks unsafeBlocks) {
+        final Set<Material> materials = EnumSet.noneOf(Material.class);
+        for (String key : unsafeBlocks.getUnsafeKeys()) {
+            final Material material = Material.matchMaterial(key);
+            if (material != null) {
+                materials.add(material);
             }
         }
-        return Optional.empty();
+        return materials;
     }
 
 }
@@ -57,6 +57,15 @@ public interface BukkitTaskRunner extends TaskRunner {
         return taskId;
     }
 
+    @Override
+    default int runSyncRepeating(@NotNull Runnable runnable, long period) {
+        final int taskId = getNextTaskId();
+        getTasks().put(taskId, getScheduler().globalRegionalScheduler().runAtFixedRate(
+                runnable, 1L, Math.max(1L, period))
+        );
+        return taskId;
+    }
+
     @Override
     default void runLater(@NotNull Runnable runnable, long delay) {
         getScheduler().asyncScheduler().runDelayed(runnable, getDurationTicks(delay));
@@ -0,0 +1,78 @@
+/*
+ * This file is part of HuskHomes, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.random;
+
+import net.william278.huskhomes.position.Location;
+import net.william278.huskhomes.position.World;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of each random teleport sampler on a single thread; see {@link AllCores} for the throughput
+ * with every core sampling at once. Run with {@code ./gradlew :common:jmh}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(1)
+public class SamplerBenchmark {
+
+    private static final float MEAN = 0.75f;
+    private static final float STANDARD_DEVIATION = 2f;
+    private static final float SPAWN_RADIUS = 500f;
+    private static final float MAX_RADIUS = 3000f;
+    private static final World WORLD = World.from("world", UUID.randomUUID());
+    private static final Location ORIGIN = Location.at(0, 0, 0, 0, 0, WORLD);
+    private static final RegionEngine.Region REGION = new RegionEngine.Region(
+            -MAX_RADIUS, -MAX_RADIUS, MAX_RADIUS, MAX_RADIUS);
+
+    @Benchmark
+    public Location normal() {
+        return NormalDistributionEngine.generateLocation(ORIGIN, MEAN, STANDARD_DEVIATION, SPAWN_RADIUS, MAX_RADIUS);
+    }
+
+    @Benchmark
+    public Location uniform() {
+        return UniformDiskEngine.generateLocation(ORIGIN, SPAWN_RADIUS, MAX_RADIUS);
+    }
+
+    @Benchmark
+    public Location square() {
+        return SquareEngine.generateLocation(ORIGIN, SPAWN_RADIUS, MAX_RADIUS);
+    }
+
+    @Benchmark
+    public Location region() {
+        return RegionEngine.generateLocation(WORLD, REGION);
+    }
+
+    /**
+     * The same samplers with every core sampling at once, showing whether they contend on shared state
+     */
+    @Threads(Threads.MAX)
+    public static class AllCores extends SamplerBenchmark {
+    }
+
+}
@@ -0,0 +1,122 @@
+/*
+ * This file is part of HuskHomes, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.util;
+
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares unsafe block lookups against the uncompiled list, the compiled key set, and an identity set of block
+ * types as used by the platform fast paths. Run with {@code ./gradlew :common:jmh}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@OperationsPerInvocation(UnsafeBlocksBenchmark.BLOCKS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UnsafeBlocksBenchmark {
+
+    static final int BLOCKS = 64;
+
+    private List<String> bundled;
+    private UnsafeBlocks blocks;
+    private String[] keys;
+    private Object[] blockTypes;
+    private Set<Object> unsafeTypes;
+
+    @Setup
+    public void setup() throws IOException {
+        bundled = readBundledBlocks();
+        blocks = new UnsafeBlocks();
+        blocks.unsafeBlocks = bundled;
+
+        // Mostly safe blocks, as in a real chunk scan
+        keys = new String[BLOCKS];
+        blockTypes = new Object[BLOCKS];
+        final Map<String, Object> registry = new HashMap<>();
+        for (int i = 0; i < BLOCKS; i++) {
+            keys[i] = i % 8 == 0 ? bundled.get(i % bundled.size()) : "minecraft:block_" + i;
+            blockTypes[i] = registry.computeIfAbsent(keys[i], key -> new Object());
+        }
+        unsafeTypes = Collections.newSetFromMap(new IdentityHashMap<>());
+        blocks.getUnsafeKeys().forEach(key -> Optional.ofNullable(registry.get(key)).ifPresent(unsafeTypes::add));
+    }
+
+    @Benchmark
+    public int list() {
+        int unsafe = 0;
+        for (String key : keys) {
+            if (bundled.contains(key.startsWith("minecraft:") ? key : "minecraft:" + key)) {
+                unsafe++;
+            }
+        }
+        return unsafe;
+    }
+
+    @Benchmark
+    public int keySet() {
+        int unsafe = 0;
+        for (String key : keys) {
+            if (blocks.isUnsafe(key)) {
+                unsafe++;
+            }
+        }
+        return unsafe;
+    }
+
+    @Benchmark
+    public int identitySet() {
+        int unsafe = 0;
+        for (Object blockType : blockTypes) {
+            if (unsafeTypes.contains(blockType)) {
+                unsafe++;
+            }
+        }
+        return unsafe;
+    }
+
+    // Read the list of unsafe blocks bundled with the plugin
+    @NotNull
+    private static List<String> readBundledBlocks() throws IOException {
+        final List<String> blocks = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(Objects.requireNonNull(
+                UnsafeBlocksBenchmark.class.getClassLoader().getResourceAsStream("safety/unsafe_blocks.yml")),
+                StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.startsWith("- ")) {
+                    blocks.add(line.substring(2).replace("'", ""));
+                }
+            }
+        }
+        return blocks;
+    }
+
+}
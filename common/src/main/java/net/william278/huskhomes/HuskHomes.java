@@ -63,7 +63,8 @@ import java.util.stream.Stream;
 /**
  * Represents a cross-platform instance of the plugin
  */
-public interface HuskHomes extends TaskRunner, EventDispatcher, SafetyResolver, TransactionResolver {
+public interface HuskHomes extends TaskRunner, EventDispatcher, SafetyResolver, ChunkPreloader,
+        TransactionResolver {
 
     int SPIGOT_RESOURCE_ID = 83767;
 
@@ -379,9 +380,6 @@ public interface HuskHomes extends TaskRunner, EventDispatcher, SafetyResolver,
         return getLocalPlayerList(true);
     }
 
-    @NotNull
-    Set<UUID> getCurrentlyOnWarmup();
-
     /**
      * Returns if the given user is currently warming up to teleport to a home.
      *
@@ -389,7 +387,7 @@ public interface HuskHomes extends TaskRunner, EventDispatcher, SafetyResolver,
      * @return If the user is currently warming up.
      */
     default boolean isWarmingUp(@NotNull UUID userUuid) {
-        return this.getCurrentlyOnWarmup().contains(userUuid);
+        return getManager().warmups().isWarmingUp(userUuid);
     }
 
     /**
@@ -25,9 +25,13 @@ import net.william278.huskhomes.config.Locales;
 import net.william278.huskhomes.position.Home;
 import net.william278.huskhomes.position.Position;
 import net.william278.huskhomes.position.Warp;
+import net.william278.huskhomes.position.World;
+import net.william278.huskhomes.random.AdmissionController;
+import net.william278.huskhomes.random.PerWorldEngine;
 import net.william278.huskhomes.random.RandomTeleportEngine;
 import net.william278.huskhomes.teleport.Teleport;
 import net.william278.huskhomes.teleport.TeleportBuilder;
+import net.william278.huskhomes.teleport.TeleportMetrics;
 import net.william278.huskhomes.teleport.TeleportationException;
 import net.william278.huskhomes.user.OnlineUser;
 import net.william278.huskhomes.user.SavedUser;
@@ -39,6 +43,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
@@ -92,7 +97,19 @@ public abstract class BaseHuskHomesAPI {
      * @since 3.0
      */
     public CompletableFuture<Optional<Position>> getUserLastPosition(@NotNull User user) {
-        return plugin.supplyAsync(() -> plugin.getDatabase().getLastPosition(user));
+        return plugin.supplyAsync(() -> plugin.getManager().history().getPosition(user, 1));
+    }
+
+    /**
+     * Returns the previous positions of this user, as used in the {@code /back} command, most recent first. The number
+     * of positions kept is set by the {@code back_command_history_size} config option
+     *
+     * @param user The {@link User} to get the position history of
+     * @return The user's previous {@link Position}s, most recent first
+     * @since 4.4
+     */
+    public CompletableFuture<List<Position>> getUserPositionHistory(@NotNull User user) {
+        return plugin.supplyAsync(() -> plugin.getManager().history().getPositions(user));
     }
     
     /**
@@ -103,7 +120,7 @@ public abstract class BaseHuskHomesAPI {
      * @since 4.2.1
      */
     public void setUserLastPosition(@NotNull User user, @NotNull Position position) {
-        plugin.runAsync(() -> plugin.getDatabase().setLastPosition(user, position));
+        plugin.runAsync(() -> plugin.getManager().history().addPosition(user, position));
     }
 
     /**
@@ -233,6 +250,34 @@ public abstract class BaseHuskHomesAPI {
         return plugin.supplyAsync(() -> plugin.getDatabase().getPublicHomes());
     }
 
+    /**
+     * Get public homes within a radius of a {@link Position}, on the same server and in the same world, nearest first.
+     * Homes are looked up in the plugin's cache rather than the database, so this can be called on any thread
+     *
+     * @param center The {@link Position} to search around
+     * @param radius The horizontal distance from the position to search within, in blocks
+     * @param limit  The maximum number of homes to return
+     * @return A list of public {@link Home}s within the radius, nearest first
+     * @since 4.4
+     */
+    @NotNull
+    public final List<Home> getNearbyPublicHomes(@NotNull Position center, double radius, int limit) {
+        return plugin.getManager().homes().getNearbyPublicHomes(center, radius, limit);
+    }
+
+    /**
+     * Get the public home nearest to a {@link Position}, on the same server and in the same world.
+     * Homes are looked up in the plugin's cache rather than the database, so this can be called on any thread
+     *
+     * @param center The {@link Position} to search from
+     * @return The nearest public {@link Home}, or an empty {@link Optional} if there are none in the world
+     * @since 4.4
+     */
+    @NotNull
+    public final Optional<Home> getNearestPublicHome(@NotNull Position center) {
+        return plugin.getManager().homes().getNearestPublicHome(center);
+    }
+
     /**
      * Get a {@link Home} from the database owned by a given {@link User} with the specified name
      *
@@ -441,6 +486,34 @@ public abstract class BaseHuskHomesAPI {
         return plugin.supplyAsync(() -> plugin.getDatabase().getWarps());
     }
 
+    /**
+     * Get {@link Warp}s within a radius of a {@link Position}, on the same server and in the same world, nearest first.
+     * Warps are looked up in the plugin's cache rather than the database, so this can be called on any thread
+     *
+     * @param center The {@link Position} to search around
+     * @param radius The horizontal distance from the position to search within, in blocks
+     * @param limit  The maximum number of warps to return
+     * @return A list of {@link Warp}s within the radius, nearest first
+     * @since 4.4
+     */
+    @NotNull
+    public final List<Warp> getNearbyWarps(@NotNull Position center, double radius, int limit) {
+        return plugin.getManager().warps().getNearbyWarps(center, radius, limit);
+    }
+
+    /**
+     * Get the {@link Warp} nearest to a {@link Position}, on the same server and in the same world.
+     * Warps are looked up in the plugin's cache rather than the database, so this can be called on any thread
+     *
+     * @param center The {@link Position} to search from
+     * @return The nearest {@link Warp}, or an empty {@link Optional} if there are none in the world
+     * @since 4.4
+     */
+    @NotNull
+    public final Optional<Warp> getNearestWarp(@NotNull Position center) {
+        return plugin.getManager().warps().getNearestWarp(center);
+    }
+
     /**
      * Get a {@link Warp} from the database with the specified name
      *
@@ -658,10 +731,23 @@ public abstract class BaseHuskHomesAPI {
         return Teleport.builder(plugin);
     }
 
+    /**
+     * Get the {@link TeleportMetrics} recording how long each phase of teleports on this server has taken, by
+     * {@link Teleport.Type}
+     *
+     * @return The teleport metrics
+     * @since 4.4
+     */
+    @NotNull
+    public final TeleportMetrics getTeleportMetrics() {
+        return plugin.getManager().metrics();
+    }
 
     /**
      * Attempt to teleport an {@link OnlineUser} to a randomly generated {@link Position}. The {@link Position} will be
-     * generated by the current {@link RandomTeleportEngine}
+     * generated by the current {@link RandomTeleportEngine}, or taken from those it generated in advance if no
+     * arguments are passed. Like {@code /rtp}, the search may be queued while the server is busy, or turned away (and
+     * the user told) if it is too busy
      *
      * @param user          The {@link OnlineUser} to teleport
      * @param timedTeleport Whether the teleport should be timed or not (requiring a warmup where they must stand still
@@ -670,8 +756,17 @@ public abstract class BaseHuskHomesAPI {
      * @since 3.0
      */
     public final void randomlyTeleportPlayer(@NotNull OnlineUser user, boolean timedTeleport, @NotNull String... rtpArgs) {
-        plugin.getRandomTeleportEngine()
-                .getRandomPosition(user.getPosition().getWorld(), rtpArgs)
+        final World world = user.getPosition().getWorld();
+        final AdmissionController.Ticket<Optional<Position>> ticket = plugin.getManager().rtpAdmission()
+                .submit(user.getUuid(), () -> rtpArgs.length == 0
+                        ? plugin.getManager().randomPositions().getRandomPosition(world)
+                        : plugin.getRandomTeleportEngine().getRandomPosition(world, rtpArgs));
+        if (!ticket.isAccepted()) {
+            plugin.getLocales().getLocale(ticket.status() == AdmissionController.Status.ALREADY_PENDING
+                    ? "error_rtp_in_progress" : "error_rtp_server_busy").ifPresent(user::sendMessage);
+            return;
+        }
+        ticket.result()
                 .thenAccept(position -> {
                     if (position.isEmpty()) {
                         throw new IllegalStateException("Random teleport engine returned an empty position");
@@ -690,6 +785,10 @@ public abstract class BaseHuskHomesAPI {
                         e.displayMessage(user, plugin, rtpArgs);
                     }
                 }).exceptionally(e -> {
+                    if (e.getCause() instanceof TimeoutException) {
+                        plugin.getLocales().getLocale("error_rtp_server_busy").ifPresent(user::sendMessage);
+                        return null;
+                    }
                     throw new IllegalStateException("Random teleport engine threw an exception", e);
                 });
     }
@@ -716,6 +815,28 @@ public abstract class BaseHuskHomesAPI {
      */
     public final void setRandomTeleportEngine(@NotNull RandomTeleportEngine randomTeleportEngine) {
         plugin.setRandomTeleportEngine(randomTeleportEngine);
+        plugin.getManager().randomPositions().invalidateAll();
+    }
+
+    /**
+     * Register a {@link RandomTeleportEngine} by id, so that server owners can choose it for worlds in the plugin config
+     * ({@code rtp.engine} and {@code rtp.world_engines}). Registering an engine with the id of an existing engine,
+     * including the built-in {@code normal}, {@code uniform}, {@code square} and {@code region} engines, replaces it.
+     *
+     * @param id                   the id of the engine, as used in the config
+     * @param randomTeleportEngine the {@link RandomTeleportEngine} to register
+     * @throws IllegalStateException if the per-world engine has been replaced using
+     *                               {@link #setRandomTeleportEngine(RandomTeleportEngine)}
+     * @since 4.4
+     */
+    public final void registerRandomTeleportEngine(@NotNull String id,
+                                                   @NotNull RandomTeleportEngine randomTeleportEngine) {
+        if (!(plugin.getRandomTeleportEngine() instanceof PerWorldEngine engines)) {
+            throw new IllegalStateException("The random teleport engine has been replaced with "
+                                            + plugin.getRandomTeleportEngine().getName());
+        }
+        engines.register(id, randomTeleportEngine);
+        plugin.getManager().randomPositions().invalidateAll();
     }
 
     /**
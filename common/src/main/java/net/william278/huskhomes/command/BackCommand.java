@@ -34,13 +34,20 @@ import java.util.Optional;
 public class BackCommand extends InGameCommand {
 
     protected BackCommand(@NotNull HuskHomes plugin) {
-        super("back", List.of(), "", plugin);
+        super("back", List.of(), "[number]", plugin);
         addAdditionalPermissions(Map.of("death", false));
     }
 
     @Override
     public void execute(@NotNull OnlineUser executor, @NotNull String[] args) {
-        final Optional<Position> lastPosition = plugin.getDatabase().getLastPosition(executor);
+        final Optional<Integer> index = parseIntArg(args, 0);
+        if (args.length > 0 && (index.isEmpty() || index.get() < 1)) {
+            plugin.getLocales().getLocale("error_invalid_syntax", getUsage())
+                    .ifPresent(executor::sendMessage);
+            return;
+        }
+
+        final Optional<Position> lastPosition = plugin.getManager().history().getPosition(executor, index.orElse(1));
         if (lastPosition.isEmpty()) {
             plugin.getLocales().getLocale("error_no_last_position")
                     .ifPresent(executor::sendMessage);
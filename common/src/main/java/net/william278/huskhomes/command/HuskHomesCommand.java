@@ -27,7 +27,12 @@ import net.william278.desertwell.util.UpdateChecker;
 import net.william278.huskhomes.HuskHomes;
 import net.william278.huskhomes.config.Locales;
 import net.william278.huskhomes.importer.Importer;
+import net.william278.huskhomes.manager.WarmupManager;
+import net.william278.huskhomes.random.CandidateEvaluator;
+import net.william278.huskhomes.teleport.Teleport;
+import net.william278.huskhomes.teleport.TeleportMetrics;
 import net.william278.huskhomes.user.CommandUser;
+import net.william278.huskhomes.util.LatencyHistogram;
 import net.william278.paginedown.PaginatedList;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -35,6 +40,7 @@ import org.jetbrains.annotations.Nullable;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.StringJoiner;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -45,7 +51,8 @@ public class HuskHomesCommand extends Command implements TabProvider {
             "help", false,
             "reload", true,
             "import", true,
-            "update", true
+            "update", true,
+            "status", true
     );
 
     private final UpdateChecker updateChecker;
@@ -102,6 +109,7 @@ public class HuskHomesCommand extends Command implements TabProvider {
                     executor.sendMessage(new MineDown("[Error:](#ff3300) [Failed to reload the plugin. Check console for errors.](#ff7e5e)"));
                     return;
                 }
+                plugin.getManager().randomPositions().invalidateAll();
                 executor.sendMessage(new MineDown("""
                         [HuskHomes](#00fb9a bold) [| Reloaded config & message files.](#00fb9a)
                         [ℹ If you have modified the database or cross-server message broker settings, you need to restart your server for these changes to take effect.](gray)"""
@@ -116,6 +124,15 @@ public class HuskHomesCommand extends Command implements TabProvider {
                 plugin.getLocales().getLocale("update_available", checked.getLatestVersion().toString(),
                         plugin.getVersion().toString()).ifPresent(executor::sendMessage);
             });
+            case "status" -> {
+                if (parseStringArg(args, 1).map(arg -> arg.equalsIgnoreCase("reset")).orElse(false)) {
+                    plugin.getManager().metrics().reset();
+                    plugin.getManager().rtpCandidates().resetStats();
+                    executor.sendMessage(new MineDown("[HuskHomes](#00fb9a bold) [| Reset teleport timings and random teleport statistics.](#00fb9a)"));
+                    return;
+                }
+                executor.sendMessage(getStatus());
+            }
             case "import" -> {
                 if (plugin.getImporters().isEmpty()) {
                     plugin.getLocales().getLocale("error_no_importers_available")
@@ -154,6 +171,58 @@ public class HuskHomesCommand extends Command implements TabProvider {
         }
     }
 
+    // Get the current teleport load and the timings of each teleport phase, in milliseconds
+    @NotNull
+    private MineDown getStatus() {
+        final WarmupManager warmups = plugin.getManager().warmups();
+        final StringJoiner status = new StringJoiner("\n")
+                .add("[HuskHomes](#00fb9a bold) [| Teleport status](#00fb9a)")
+                .add(String.format("[Active warmups:](gray) [%d](white) [• Preloaded chunks:](gray) [%d](white) "
+                                   + "[• Queued bulk teleports:](gray) [%d](white) [• Pending requests:](gray) [%d](white) "
+                                   + "[• Pooled RTP positions:](gray) [%d](white) "
+                                   + "[• RTP candidates in flight:](gray) [%d](white)",
+                        warmups.getActiveWarmupCount(), warmups.getPreloadedChunks().getPreloadedChunkCount(),
+                        plugin.getManager().bulkTeleports().getQueuedCount(),
+                        plugin.getManager().requests().getPendingRequestCount(),
+                        plugin.getManager().randomPositions().getPooledCount(),
+                        plugin.getManager().rtpCandidates().getInFlightCount()));
+        final CandidateEvaluator.SearchStats rtp = plugin.getManager().rtpCandidates().getStats();
+        status.add(String.format("[Random teleports:](gray) [%d found, %d failed](white) "
+                                 + "[• Per success:](gray) [%.1f attempts, %.1f chunk loads](white) "
+                                 + "[• Grid cells:](gray) [%d](white)",
+                rtp.successes(), rtp.failures(), rtp.getMeanAttempts(), rtp.getMeanChunkLoads(),
+                plugin.getManager().rtpGrid().getCellCount()));
+        status.add(String.format("[Server TPS:](gray) [%.1f](white) [• RTP searches running:](gray) [%d](white) "
+                                 + "[• Queued RTPs:](gray) [%d](white)",
+                plugin.getManager().tickRate().getTickRate(),
+                plugin.getManager().rtpAdmission().getRunningCount(),
+                plugin.getManager().rtpAdmission().getQueuedCount()));
+
+        final TeleportMetrics metrics = plugin.getManager().metrics();
+        boolean recorded = false;
+        for (Teleport.Type type : Teleport.Type.values()) {
+            for (TeleportMetrics.Phase phase : TeleportMetrics.Phase.values()) {
+                final LatencyHistogram histogram = metrics.getHistogram(type, phase);
+                if (histogram.getCount() == 0) {
+                    continue;
+                }
+                recorded = true;
+                status.add(String.format("[%s %s:](gray) [n=%d p50=%.1f p95=%.1f p99=%.1f max=%.1f ms](white)",
+                        type.name().toLowerCase(), phase.getName(), histogram.getCount(),
+                        toMillis(histogram.getValueAtPercentile(50)), toMillis(histogram.getValueAtPercentile(95)),
+                        toMillis(histogram.getValueAtPercentile(99)), toMillis(histogram.getMax())));
+            }
+        }
+        if (!recorded) {
+            status.add("[No teleports have been timed yet.](gray)");
+        }
+        return new MineDown(status.toString());
+    }
+
+    private static double toMillis(long micros) {
+        return micros / 1000d;
+    }
+
     @NotNull
     private PaginatedList getCommandList(@NotNull CommandUser user) {
         return PaginatedList.of(plugin.getCommands().stream()
@@ -197,6 +266,7 @@ public class HuskHomesCommand extends Command implements TabProvider {
                 case "help" -> IntStream.rangeClosed(1, getCommandList(user).getTotalPages())
                         .mapToObj(Integer::toString).toList();
                 case "import" -> List.of("start", "list");
+                case "status" -> List.of("reset");
                 default -> null;
             };
             case 3 -> {
@@ -21,7 +21,10 @@ package net.william278.huskhomes.command;
 
 import net.william278.huskhomes.HuskHomes;
 import net.william278.huskhomes.hook.EconomyHook;
+import net.william278.huskhomes.manager.ServerLoadTable;
+import net.william278.huskhomes.position.Position;
 import net.william278.huskhomes.position.World;
+import net.william278.huskhomes.random.AdmissionController;
 import net.william278.huskhomes.teleport.Teleport;
 import net.william278.huskhomes.teleport.TeleportBuilder;
 import net.william278.huskhomes.teleport.TeleportationException;
@@ -36,6 +39,7 @@ import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.TimeoutException;
 
 public class RtpCommand extends Command implements UserListTabProvider {
 
@@ -64,10 +68,17 @@ public class RtpCommand extends Command implements UserListTabProvider {
             return;
         }
 
-        // Validate, then execute the RTP
+        // Validate, then execute the RTP, on the least busy server if no world was given and RTPs are networked
         final OnlineUser teleporter = optionalTeleporter.get();
-        this.validateRtp(teleporter, executor, args.length > 1 ? removeFirstArg(args) : args)
-                .ifPresent(world -> this.executeRtp(teleporter, executor, world, args));
+        final String[] rtpArgs = args.length > 1 ? removeFirstArg(args) : args;
+        final boolean networked = rtpArgs.length == 0 && plugin.getManager().networkRtp().isEnabled();
+        this.validateRtp(teleporter, executor, rtpArgs, networked).ifPresent(world -> {
+            if (networked) {
+                this.executeNetworkedRtp(teleporter, executor, args);
+            } else {
+                this.executeRtp(teleporter, executor, world, args);
+            }
+        });
     }
 
     @Nullable
@@ -89,9 +100,12 @@ public class RtpCommand extends Command implements UserListTabProvider {
      * @param teleporter The user to teleport
      * @param executor   The user executing the command
      * @param args       The command arguments
+     * @param networked  Whether the server to randomly teleport on will be chosen from the network, in which case
+     *                   the world the user is currently in may be restricted
      * @return The world to randomly teleport in, if successful
      */
-    private Optional<World> validateRtp(@NotNull OnlineUser teleporter, @NotNull CommandUser executor, @NotNull String[] args) {
+    private Optional<World> validateRtp(@NotNull OnlineUser teleporter, @NotNull CommandUser executor,
+                                        @NotNull String[] args, boolean networked) {
         // Check permissions if the user is being teleported by another player
         if (!executor.equals(teleporter) && !executor.hasPermission(getPermission("other"))) {
             plugin.getLocales().getLocale("error_no_permission")
@@ -121,7 +135,7 @@ public class RtpCommand extends Command implements UserListTabProvider {
                     .ifPresent(executor::sendMessage);
             return Optional.empty();
         }
-        if (plugin.getSettings().isWorldRtpRestricted(world)) {
+        if (!networked && plugin.getSettings().isWorldRtpRestricted(world)) {
             plugin.getLocales().getLocale("error_rtp_restricted_world")
                     .ifPresent(executor::sendMessage);
             return Optional.empty();
@@ -152,37 +166,114 @@ public class RtpCommand extends Command implements UserListTabProvider {
      */
     private void executeRtp(@NotNull OnlineUser teleporter, @NotNull CommandUser executor, @NotNull World world,
                             @NotNull String[] args) {
-        // Generate a random position
+        // Queue the search for a random position, unless the server is too busy. Pooled positions are generated
+        // without arguments, so the engine is used directly when there are any to pass to it
+        final String[] rtpArgs = args.length > 1 ? removeFirstArg(args) : args;
+        final AdmissionController.Ticket<Optional<Position>> ticket = plugin.getManager().rtpAdmission()
+                .submit(teleporter.getUuid(), () -> rtpArgs.length == 0
+                        ? plugin.getManager().randomPositions().getRandomPosition(world)
+                        : plugin.getRandomTeleportEngine().getRandomPosition(world, rtpArgs));
+        switch (ticket.status()) {
+            case REJECTED -> {
+                plugin.getLocales().getLocale("error_rtp_server_busy")
+                        .ifPresent(executor::sendMessage);
+                return;
+            }
+            case ALREADY_PENDING -> {
+                plugin.getLocales().getLocale("error_rtp_in_progress")
+                        .ifPresent(executor::sendMessage);
+                return;
+            }
+            case QUEUED -> plugin.getLocales().getLocale("rtp_queued", Integer.toString(ticket.position()))
+                    .ifPresent(teleporter::sendMessage);
+            default -> plugin.getLocales().getLocale("teleporting_random_generation")
+                    .ifPresent(teleporter::sendMessage);
+        }
+        ticket.result().whenComplete((position, e) -> {
+            if (e == null) {
+                this.teleport(teleporter, executor, position, args);
+            } else if (e instanceof TimeoutException) {
+                plugin.getLocales().getLocale("error_rtp_server_busy")
+                        .ifPresent(executor::sendMessage);
+            }
+        });
+    }
+
+    /**
+     * Executes the random teleport on the least busy server on the network, which may be this one
+     *
+     * @param teleporter The player to teleport
+     * @param executor   The player executing the command
+     * @param args       Arguments to pass to the RTP engine
+     */
+    private void executeNetworkedRtp(@NotNull OnlineUser teleporter, @NotNull CommandUser executor,
+                                     @NotNull String[] args) {
+        // Only send the player to another world if they could have chosen it themselves
+        final String currentWorld = teleporter.getPosition().getWorld().getName();
+        final boolean anyWorld = executor.hasPermission(getPermission("world"));
+        final Optional<ServerLoadTable.Target> target = plugin.getManager().networkRtp()
+                .chooseServer(world -> anyWorld || world.equals(currentWorld));
+        if (target.isEmpty()) {
+            plugin.getLocales().getLocale("error_rtp_server_busy")
+                    .ifPresent(executor::sendMessage);
+            return;
+        }
+
+        // Randomly teleport on this server
+        if (target.get().server().equals(plugin.getServerName())) {
+            final Optional<World> world = plugin.getWorlds().stream()
+                    .filter(local -> local.getName().equals(target.get().world()))
+                    .findFirst();
+            if (world.isEmpty()) {
+                plugin.getLocales().getLocale("error_rtp_server_busy")
+                        .ifPresent(executor::sendMessage);
+                return;
+            }
+            this.executeRtp(teleporter, executor, world.get(), args);
+            return;
+        }
+
+        // Get a position from the chosen server, then teleport there
         plugin.getLocales().getLocale("teleporting_random_generation")
                 .ifPresent(teleporter::sendMessage);
-        plugin.getRandomTeleportEngine()
-                .getRandomPosition(world, args.length > 1 ? removeFirstArg(args) : args)
-                .thenAccept(position -> {
-                    if (position.isEmpty()) {
-                        plugin.getLocales().getLocale("error_rtp_randomization_timeout")
+        plugin.getManager().networkRtp().requestPosition(teleporter, target.get())
+                .whenComplete((position, e) -> {
+                    if (e != null) {
+                        plugin.getLocales().getLocale("error_rtp_server_busy")
                                 .ifPresent(executor::sendMessage);
                         return;
                     }
+                    this.teleport(teleporter, executor, position, args);
+                });
+    }
 
-                    // Build and execute the teleport
-                    final TeleportBuilder builder = Teleport.builder(plugin)
-                            .teleporter(teleporter)
-                            .target(position.get());
-                    try {
-                        if (executor.equals(teleporter)) {
-                            builder.toTimedTeleport().execute();
-                        } else {
-                            builder.toTeleport().execute();
-                        }
-                    } catch (TeleportationException e) {
-                        e.displayMessage(executor, plugin, args);
-                        return;
-                    }
+    // Teleport the player to the random position found, if one was found, and put them on cooldown
+    private void teleport(@NotNull OnlineUser teleporter, @NotNull CommandUser executor,
+                          @NotNull Optional<Position> position, @NotNull String[] args) {
+        if (position.isEmpty()) {
+            plugin.getLocales().getLocale("error_rtp_randomization_timeout")
+                    .ifPresent(executor::sendMessage);
+            return;
+        }
 
-                    // Update their RTP cooldown
-                    plugin.editUserData(teleporter, (SavedUser saved) -> saved.setRtpCooldown(Instant.now()
-                            .plus(plugin.getSettings().getRtpCooldownLength(), ChronoUnit.MINUTES)));
-                });
+        // Build and execute the teleport
+        final TeleportBuilder builder = Teleport.builder(plugin)
+                .teleporter(teleporter)
+                .target(position.get());
+        try {
+            if (executor.equals(teleporter)) {
+                builder.toTimedTeleport().execute();
+            } else {
+                builder.toTeleport().execute();
+            }
+        } catch (TeleportationException e) {
+            e.displayMessage(executor, plugin, args);
+            return;
+        }
+
+        // Update their RTP cooldown
+        plugin.editUserData(teleporter, (SavedUser saved) -> saved.setRtpCooldown(Instant.now()
+                .plus(plugin.getSettings().getRtpCooldownLength(), ChronoUnit.MINUTES)));
     }
 
 }
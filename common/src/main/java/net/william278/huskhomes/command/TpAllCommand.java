@@ -23,8 +23,6 @@ import net.william278.huskhomes.HuskHomes;
 import net.william278.huskhomes.network.Message;
 import net.william278.huskhomes.network.Payload;
 import net.william278.huskhomes.position.Position;
-import net.william278.huskhomes.teleport.Teleport;
-import net.william278.huskhomes.teleport.TeleportationException;
 import net.william278.huskhomes.user.OnlineUser;
 import org.jetbrains.annotations.NotNull;
 
@@ -45,18 +43,15 @@ public class TpAllCommand extends InGameCommand {
             return;
         }
 
+        // Teleport local players over several ticks, and notify the executor once done
         final Position targetPosition = executor.getPosition();
-        try {
-            for (OnlineUser user : plugin.getOnlineUsers()) {
-                Teleport.builder(plugin)
-                        .teleporter(user)
-                        .target(targetPosition)
-                        .toTeleport().execute();
-            }
-        } catch (TeleportationException e) {
-            e.displayMessage(executor, plugin, args);
-            return;
-        }
+        final List<OnlineUser> teleporters = plugin.getOnlineUsers().stream()
+                .filter(user -> !user.equals(executor))
+                .toList();
+        plugin.getManager().bulkTeleports().teleportAll(teleporters, targetPosition)
+                .thenAccept(teleported -> plugin.getLocales()
+                        .getLocale("teleporting_all_players_complete", Integer.toString(teleported))
+                        .ifPresent(executor::sendMessage));
 
         if (plugin.getSettings().doCrossServer()) {
             Message.builder()
@@ -66,7 +61,7 @@ public class TpAllCommand extends InGameCommand {
                     .build().send(plugin.getMessenger(), executor);
         }
 
-        plugin.getLocales().getLocale("teleporting_all_players")
+        plugin.getLocales().getLocale("teleporting_all_players", Integer.toString(teleporters.size()))
                 .ifPresent(executor::sendMessage);
     }
 
@@ -46,9 +46,9 @@ public class TpaAllCommand extends InGameCommand {
             return;
         }
 
-        plugin.getManager().requests().sendTeleportAllRequest(executor);
-        plugin.getLocales().getLocale("tpaall_request_sent")
-                .ifPresent(executor::sendMessage);
+        plugin.getManager().requests().sendTeleportAllRequest(executor)
+                .thenAccept(sent -> plugin.getLocales().getLocale("tpaall_request_sent", Integer.toString(sent))
+                        .ifPresent(executor::sendMessage));
     }
 
 }
@@ -99,7 +99,8 @@ public class Settings {
             Database.Table.SAVED_POSITION_DATA.name().toLowerCase(), Database.Table.SAVED_POSITION_DATA.getDefaultName(),
             Database.Table.HOME_DATA.name().toLowerCase(), Database.Table.HOME_DATA.getDefaultName(),
             Database.Table.WARP_DATA.name().toLowerCase(), Database.Table.WARP_DATA.getDefaultName(),
-            Database.Table.TELEPORT_DATA.name().toLowerCase(), Database.Table.TELEPORT_DATA.getDefaultName()
+            Database.Table.TELEPORT_DATA.name().toLowerCase(), Database.Table.TELEPORT_DATA.getDefaultName(),
+            Database.Table.POSITION_HISTORY_DATA.name().toLowerCase(), Database.Table.POSITION_HISTORY_DATA.getDefaultName()
     );
 
     @NotNull
@@ -133,6 +134,11 @@ public class Settings {
 
     @YamlKey("general.teleport_request_expiry_time")
     private int teleportRequestExpiryTime = 60;
+
+    @YamlComment("Max teleport requests a player can have pending at once. When exceeded, the oldest is dropped")
+    @YamlKey("general.max_pending_teleport_requests")
+    private int maxPendingTeleportRequests = 10;
+
     @YamlKey("general.strict_tpa_here_requests")
     private boolean strictTpaHereRequests = true;
 
@@ -151,12 +157,20 @@ public class Settings {
     @YamlKey("general.back_command_save_teleport_event")
     private boolean backCommandSaveOnTeleportEvent = false;
 
+    @YamlComment("How many previous positions to remember for each player, which they can return to with /back <number>")
+    @YamlKey("general.back_command_history_size")
+    private int backCommandHistorySize = 5;
+
     @YamlKey("general.list_items_per_page")
     private int listItemsPerPage = 12;
 
     @YamlKey("general.asynchronous_teleports")
     private boolean asynchronousTeleports = true;
 
+    @YamlComment("Max players to teleport (or send a request to) per tick with /tpall and /tpaall")
+    @YamlKey("general.bulk_teleports_per_tick")
+    private int bulkTeleportsPerTick = 10;
+
     @YamlKey("general.play_sound_effects")
     private boolean playSoundEffects = true;
 
@@ -192,6 +206,10 @@ public class Settings {
     @YamlKey("cross_server.global_respawning")
     private boolean globalRespawning = false;
 
+    @YamlComment("Seconds to wait for a response from another server (e.g. when teleporting to a player) before giving up")
+    @YamlKey("cross_server.request_timeout")
+    private int crossServerRequestTimeout = 5;
+
     @YamlKey("cross_server.redis_credentials.host")
     private String redisHost = "localhost";
 
@@ -204,6 +222,32 @@ public class Settings {
     @YamlKey("cross_server.redis_credentials.use_ssl")
     private boolean redisUseSsl = false;
 
+    @YamlComment("Number of threads handling inbound Redis messages, and the max messages queued per thread")
+    @YamlKey("cross_server.redis_workers.threads")
+    private int redisWorkerThreads = 4;
+
+    @YamlKey("cross_server.redis_workers.queue_size")
+    private int redisWorkerQueueSize = 512;
+
+    @YamlComment("Hand cross-server teleports over through Redis instead of the database (requires Redis 6.2+)."
+                 + " Pending teleports expire after the TTL, in seconds")
+    @YamlKey("cross_server.redis_teleport_handoff.enabled")
+    private boolean redisTeleportHandoff = false;
+
+    @YamlKey("cross_server.redis_teleport_handoff.ttl")
+    private int redisTeleportHandoffTtl = 30;
+
+    @YamlComment("Send players who /rtp to the least busy server with worlds open to random teleports. Leave servers empty"
+                 + " to allow any server. Seconds to wait for the chosen server to find a position before giving up")
+    @YamlKey("cross_server.random_teleport.enabled")
+    private boolean crossServerRtp = false;
+
+    @YamlKey("cross_server.random_teleport.servers")
+    private List<String> crossServerRtpServers = List.of();
+
+    @YamlKey("cross_server.random_teleport.timeout")
+    private int crossServerRtpTimeout = 20;
+
 
     // Rtp command settings
     @YamlComment("Random teleport (/rtp) command settings")
@@ -225,6 +269,48 @@ public class Settings {
     @YamlKey("rtp.restricted_worlds")
     private List<String> rtpRestrictedWorlds = List.of("world_nether", "world_the_end");
 
+    @YamlComment("The engine to generate random positions with: normal, uniform (evenly over the radius), square or region")
+    @YamlKey("rtp.engine")
+    private String rtpEngine = "normal";
+
+    @YamlComment("Use a different engine for specific worlds (world name: engine)")
+    @YamlKey("rtp.world_engines")
+    private Map<String, String> rtpWorldEngines = Map.of();
+
+    @YamlComment("Areas to generate positions in for worlds using the region engine (world name: min_x,min_z,max_x,max_z)")
+    @YamlKey("rtp.regions")
+    private Map<String, String> rtpRegions = Map.of("world", "-5000,-5000,5000,5000");
+
+    @YamlComment("How many safe positions to generate in advance for each world, so /rtp doesn't have to wait. 0 to disable")
+    @YamlKey("rtp.pool_size")
+    private int rtpPoolSize = 5;
+
+    @YamlComment("Learn which areas of each world rarely have safe positions (e.g. oceans), and check fewer positions there")
+    @YamlKey("rtp.adaptive_sampling")
+    private boolean rtpAdaptiveSampling = true;
+
+    @YamlComment("How many candidate positions to check at once for each random teleport")
+    @YamlKey("rtp.candidates_per_search")
+    private int rtpCandidatesPerSearch = 3;
+
+    @YamlComment("Max candidate positions to check at once across all random teleports, as each may load a chunk")
+    @YamlKey("rtp.max_candidates_in_flight")
+    private int rtpMaxCandidatesInFlight = 12;
+
+    @YamlComment("Max random teleports to search for at once. Further requests queue, and are turned away if the queue is full")
+    @YamlKey("rtp.max_concurrent_searches")
+    private int rtpMaxConcurrentSearches = 4;
+
+    @YamlKey("rtp.max_queued_requests")
+    private int rtpMaxQueuedRequests = 20;
+
+    @YamlComment("Below this TPS, search for one random teleport at a time; below the pause TPS, turn /rtp requests away")
+    @YamlKey("rtp.throttle_tps")
+    private double rtpThrottleTps = 18d;
+
+    @YamlKey("rtp.pause_tps")
+    private double rtpPauseTps = 15d;
+
 
     // Economy settings
     @YamlComment("Charge for certain actions (requires Vault)")
@@ -258,6 +344,10 @@ public class Settings {
     @YamlKey("map_hook.show_warps")
     private boolean warpsOnMap = true;
 
+    @YamlComment("Show public homes as one marker where at least this many are close together, to keep web maps fast (0 to disable)")
+    @YamlKey("map_hook.cluster_public_homes")
+    private int publicHomeClusterThreshold = 10;
+
 
     // Disabled commands
     @YamlComment("Disabled commands (e.g. ['/home', '/warp'] to disable /home and /warp)")
@@ -360,6 +450,10 @@ public class Settings {
         return teleportRequestExpiryTime;
     }
 
+    public int getMaxPendingTeleportRequests() {
+        return Math.max(1, maxPendingTeleportRequests);
+    }
+
     public boolean doStrictTpaHereRequests() {
         return strictTpaHereRequests;
     }
@@ -384,6 +478,10 @@ public class Settings {
         return backCommandSaveOnTeleportEvent;
     }
 
+    public int getBackCommandHistorySize() {
+        return Math.max(1, backCommandHistorySize);
+    }
+
     public int getListItemsPerPage() {
         return listItemsPerPage;
     }
@@ -392,6 +490,10 @@ public class Settings {
         return asynchronousTeleports;
     }
 
+    public int getBulkTeleportsPerTick() {
+        return bulkTeleportsPerTick;
+    }
+
     public boolean doPlaySoundEffects() {
         return playSoundEffects;
     }
@@ -427,6 +529,23 @@ public class Settings {
         return globalRespawning;
     }
 
+    public int getCrossServerRequestTimeout() {
+        return crossServerRequestTimeout;
+    }
+
+    public boolean doCrossServerRtp() {
+        return crossServerRtp;
+    }
+
+    public boolean isCrossServerRtpServer(@NotNull String server) {
+        return crossServerRtpServers.isEmpty()
+               || crossServerRtpServers.stream().anyMatch(name -> name.equalsIgnoreCase(server));
+    }
+
+    public int getCrossServerRtpTimeout() {
+        return Math.max(1, crossServerRtpTimeout);
+    }
+
     public String getRedisHost() {
         return redisHost;
     }
@@ -443,6 +562,22 @@ public class Settings {
         return redisUseSsl;
     }
 
+    public int getRedisWorkerThreads() {
+        return redisWorkerThreads;
+    }
+
+    public int getRedisWorkerQueueSize() {
+        return redisWorkerQueueSize;
+    }
+
+    public boolean doRedisTeleportHandoff() {
+        return redisTeleportHandoff;
+    }
+
+    public int getRedisTeleportHandoffTtl() {
+        return redisTeleportHandoffTtl;
+    }
+
     public int getRtpCooldownLength() {
         return rtpCooldownLength;
     }
@@ -463,6 +598,38 @@ public class Settings {
         return rtpDistributionStandardDeviation;
     }
 
+    public int getRtpPoolSize() {
+        return Math.max(0, rtpPoolSize);
+    }
+
+    public boolean doRtpAdaptiveSampling() {
+        return rtpAdaptiveSampling;
+    }
+
+    public int getRtpCandidatesPerSearch() {
+        return Math.max(1, rtpCandidatesPerSearch);
+    }
+
+    public int getRtpMaxCandidatesInFlight() {
+        return Math.max(1, rtpMaxCandidatesInFlight);
+    }
+
+    public int getRtpMaxConcurrentSearches() {
+        return Math.max(1, rtpMaxConcurrentSearches);
+    }
+
+    public int getRtpMaxQueuedRequests() {
+        return Math.max(0, rtpMaxQueuedRequests);
+    }
+
+    public double getRtpThrottleTps() {
+        return rtpThrottleTps;
+    }
+
+    public double getRtpPauseTps() {
+        return Math.min(rtpPauseTps, rtpThrottleTps);
+    }
+
     public boolean isWorldRtpRestricted(@NotNull World world) {
         final String worldName = world.getName();
         final String filteredName = worldName.startsWith("minecraft:") ? worldName.substring(10) : worldName;
@@ -471,6 +638,29 @@ public class Settings {
                 .anyMatch(name -> name.equalsIgnoreCase(filteredName));
     }
 
+    @NotNull
+    public String getRtpEngine(@NotNull World world) {
+        return getRtpWorldValue(rtpWorldEngines, world).orElse(rtpEngine).toLowerCase(Locale.ENGLISH);
+    }
+
+    @NotNull
+    public Optional<String> getRtpRegion(@NotNull World world) {
+        return getRtpWorldValue(rtpRegions, world);
+    }
+
+    @NotNull
+    private Optional<String> getRtpWorldValue(@NotNull Map<String, String> values, @NotNull World world) {
+        final String worldName = world.getName();
+        final String filteredName = worldName.startsWith("minecraft:") ? worldName.substring(10) : worldName;
+        return values.entrySet().stream()
+                .filter(entry -> {
+                    final String name = entry.getKey();
+                    return (name.startsWith("minecraft:") ? name.substring(10) : name).equalsIgnoreCase(filteredName);
+                })
+                .map(Map.Entry::getValue)
+                .findFirst();
+    }
+
     public boolean doEconomy() {
         return economy;
     }
@@ -506,6 +696,10 @@ public class Settings {
         return warpsOnMap;
     }
 
+    public int getPublicHomeClusterThreshold() {
+        return Math.max(0, publicHomeClusterThreshold);
+    }
+
     public boolean isCommandDisabled(Command type) {
         return disabledCommands.stream().anyMatch(disabled -> {
             final String command = (disabled.startsWith("/") ? disabled.substring(1) : disabled);
@@ -78,7 +78,8 @@ public abstract class Database {
                 .replaceAll("%teleports_table%", plugin.getSettings().getTableName(Table.TELEPORT_DATA))
                 .replaceAll("%saved_positions_table%", plugin.getSettings().getTableName(Table.SAVED_POSITION_DATA))
                 .replaceAll("%homes_table%", plugin.getSettings().getTableName(Table.HOME_DATA))
-                .replaceAll("%warps_table%", plugin.getSettings().getTableName(Table.WARP_DATA));
+                .replaceAll("%warps_table%", plugin.getSettings().getTableName(Table.WARP_DATA))
+                .replaceAll("%position_history_table%", plugin.getSettings().getTableName(Table.POSITION_HISTORY_DATA));
     }
 
     /**
@@ -305,6 +306,22 @@ public abstract class Database {
      */
     public abstract void setLastPosition(@NotNull User user, @NotNull Position position);
 
+    /**
+     * Get the saved {@code /back} position history of a {@link User}
+     *
+     * @param user The {@link User} to get the position history of
+     * @return The user's previous {@link Position}s, most recent first, or an empty list if none have been saved
+     */
+    public abstract List<Position> getPositionHistory(@NotNull User user);
+
+    /**
+     * Save the {@code /back} position history of a {@link User}, replacing any previously saved history
+     *
+     * @param user      The {@link User} to save the position history of
+     * @param positions The user's previous {@link Position}s, most recent first
+     */
+    public abstract void setPositionHistory(@NotNull User user, @NotNull List<Position> positions);
+
     /**
      * Get the offline {@link Position} of a specified {@link User}
      *
@@ -415,7 +432,8 @@ public abstract class Database {
         SAVED_POSITION_DATA("huskhomes_saved_positions"),
         HOME_DATA("huskhomes_homes"),
         WARP_DATA("huskhomes_warps"),
-        TELEPORT_DATA("huskhomes_teleports");
+        TELEPORT_DATA("huskhomes_teleports"),
+        POSITION_HISTORY_DATA("huskhomes_position_history");
 
         private final String defaultName;
 
@@ -709,6 +709,44 @@ public class MySqlDatabase extends Database {
         }
     }
 
+    @Override
+    public List<Position> getPositionHistory(@NotNull User user) {
+        try (Connection connection = getConnection()) {
+            try (PreparedStatement statement = connection.prepareStatement(formatStatementTables("""
+                    SELECT `history`
+                    FROM `%position_history_table%`
+                    WHERE `player_uuid`=?"""))) {
+                statement.setString(1, user.getUuid().toString());
+
+                final ResultSet resultSet = statement.executeQuery();
+                if (resultSet.next()) {
+                    return List.of(plugin.getGson().fromJson(resultSet.getString("history"), Position[].class));
+                }
+            }
+        } catch (SQLException e) {
+            plugin.log(Level.SEVERE, "Failed to query the position history of " + user.getUsername(), e);
+        }
+        return List.of();
+    }
+
+    @Override
+    public void setPositionHistory(@NotNull User user, @NotNull List<Position> positions) {
+        try (Connection connection = getConnection()) {
+            try (PreparedStatement statement = connection.prepareStatement(formatStatementTables("""
+                    INSERT INTO `%position_history_table%` (`player_uuid`, `history`)
+                    VALUES (?,?)
+                    ON DUPLICATE KEY UPDATE `history`=?;"""))) {
+                final String history = plugin.getGson().toJson(positions.toArray(Position[]::new));
+                statement.setString(1, user.getUuid().toString());
+                statement.setString(2, history);
+                statement.setString(3, history);
+                statement.executeUpdate();
+            }
+        } catch (SQLException e) {
+            plugin.log(Level.SEVERE, "Failed to set the position history of " + user.getUsername(), e);
+        }
+    }
+
     @Override
     public Optional<Position> getOfflinePosition(@NotNull User user) {
         try (Connection connection = getConnection()) {
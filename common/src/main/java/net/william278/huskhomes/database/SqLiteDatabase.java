@@ -718,6 +718,38 @@ public class SqLiteDatabase extends Database {
         }
     }
 
+    @Override
+    public List<Position> getPositionHistory(@NotNull User user) {
+        try (PreparedStatement statement = getConnection().prepareStatement(formatStatementTables("""
+                SELECT `history`
+                FROM `%position_history_table%`
+                WHERE `player_uuid`=?"""))) {
+            statement.setString(1, user.getUuid().toString());
+
+            final ResultSet resultSet = statement.executeQuery();
+            if (resultSet.next()) {
+                return List.of(plugin.getGson().fromJson(resultSet.getString("history"), Position[].class));
+            }
+        } catch (SQLException e) {
+            plugin.log(Level.SEVERE, "Failed to query the position history of " + user.getUsername(), e);
+        }
+        return List.of();
+    }
+
+    @Override
+    public void setPositionHistory(@NotNull User user, @NotNull List<Position> positions) {
+        try (PreparedStatement statement = getConnection().prepareStatement(formatStatementTables("""
+                INSERT INTO `%position_history_table%` (`player_uuid`, `history`)
+                VALUES (?,?)
+                ON CONFLICT (`player_uuid`) DO UPDATE SET `history`=excluded.`history`;"""))) {
+            statement.setString(1, user.getUuid().toString());
+            statement.setString(2, plugin.getGson().toJson(positions.toArray(Position[]::new)));
+            statement.executeUpdate();
+        } catch (SQLException e) {
+            plugin.log(Level.SEVERE, "Failed to set the position history of " + user.getUsername(), e);
+        }
+    }
+
     @Override
     public Optional<Position> getOfflinePosition(@NotNull User user) {
 
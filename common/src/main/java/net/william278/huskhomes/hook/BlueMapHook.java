@@ -26,10 +26,8 @@ import de.bluecolored.bluemap.api.markers.MarkerSet;
 import de.bluecolored.bluemap.api.markers.POIMarker;
 import net.william278.desertwell.util.ThrowingConsumer;
 import net.william278.huskhomes.HuskHomes;
-import net.william278.huskhomes.position.Home;
-import net.william278.huskhomes.position.Warp;
+import net.william278.huskhomes.position.Position;
 import net.william278.huskhomes.position.World;
-import net.william278.huskhomes.user.User;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -40,7 +38,9 @@ import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 
 /**
@@ -48,6 +48,18 @@ import java.util.logging.Level;
  */
 public class BlueMapHook extends MapHook {
 
+    private static final String ICON_PATH = "icons/huskhomes/";
+
+    /**
+     * The furthest camera distance, in blocks, at which markers are shown
+     */
+    private static final double MAX_DISTANCE = 5000;
+
+    /**
+     * The furthest camera distance at which the {@link MarkerClusters.Band#NEAR near} band of public homes is shown
+     */
+    private static final double NEAR_MAX_DISTANCE = 1000;
+
     private Map<String, MarkerSet> publicHomesMarkerSets;
     private Map<String, MarkerSet> warpsMarkerSets;
 
@@ -81,66 +93,75 @@ public class BlueMapHook extends MapHook {
     }
 
     @Override
-    public void updateHome(@NotNull Home home) {
-        if (!isValidPosition(home)) {
+    protected void applyHomeUpdates(@NotNull List<MarkerClusters.Change> changes) {
+        if (publicHomesMarkerSets == null) {
             return;
         }
 
-        this.editPublicHomesMarkerSet(home.getWorld(), (markerSet -> {
-            final String markerId = home.getOwner().getUuid() + ":" + home.getUuid();
-            markerSet.remove(markerId);
-            markerSet.put(markerId, POIMarker.builder()
-                    .label("/phome " + home.getIdentifier())
-                    .position(home.getX(), home.getY(), home.getZ())
-                    .maxDistance(5000)
-                    .icon(getIcon(PUBLIC_HOME_MARKER_IMAGE_NAME), 25, 25)
-                    .build());
-        }));
-    }
-
-    @Override
-    public void removeHome(@NotNull Home home) {
-        this.editPublicHomesMarkerSet(home.getWorld(), markerSet -> markerSet
-                .remove(home.getOwner().getUuid() + ":" + home.getUuid()));
-
-    }
+        final String icon = getIcon(PUBLIC_HOME_MARKER_IMAGE_NAME);
+        changes.forEach(change -> {
+            final MarkerSet markerSet = publicHomesMarkerSets.get(change.cell().world());
+            if (markerSet == null) {
+                return;
+            }
 
-    @Override
-    public void clearHomes(@NotNull User user) {
-        if (publicHomesMarkerSets != null) {
-            publicHomesMarkerSets.values().forEach(markerSet -> markerSet.getMarkers().keySet()
-                    .removeIf(markerId -> markerId.startsWith(user.getUuid().toString())));
-        }
+            change.getRemovedHomes().forEach(home -> markerSet.remove(getHomeMarkerId(change.band(), home)));
+            if (change.isClusterRemoved()) {
+                markerSet.remove(change.getClusterId());
+            }
+            if (change.isClustered()) {
+                final Position position = getClusterPosition(change.after());
+                markerSet.put(change.getClusterId(), withDistances(POIMarker.builder(), change.band())
+                        .label(getClusterLabel(change.after()))
+                        .detail(MarkerInformationPopup.cluster(change.after(), getClusterLabel(change.after()),
+                                ICON_PATH + PUBLIC_HOME_MARKER_IMAGE_NAME
+                        ).toHtml())
+                        .position(position.getX(), position.getY(), position.getZ())
+                        .icon(icon, 25, 25)
+                        .build());
+                return;
+            }
+            change.after().forEach(home -> markerSet.put(getHomeMarkerId(change.band(), home),
+                    withDistances(POIMarker.builder(), change.band())
+                            .label("/phome " + home.getIdentifier())
+                            .position(home.getX(), home.getY(), home.getZ())
+                            .icon(icon, 25, 25)
+                            .build()));
+        });
     }
 
     @Override
-    public void updateWarp(@NotNull Warp warp) {
-        if (!isValidPosition(warp)) {
+    protected void applyWarpUpdates(@NotNull MarkerUpdates.Batch batch) {
+        if (warpsMarkerSets == null) {
             return;
         }
 
-        this.editWarpsMarkerSet(warp.getWorld(), (markerSet -> {
-            final String markerId = warp.getUuid().toString();
-            markerSet.remove(markerId);
-            markerSet.put(markerId, POIMarker.builder()
-                    .label("/warp " + warp.getName())
-                    .position(warp.getX(), warp.getY(), warp.getZ())
-                    .maxDistance(5000)
-                    .icon(getIcon(WARP_MARKER_IMAGE_NAME), 25, 25)
-                    .build());
-        }));
-    }
-
-    @Override
-    public void removeWarp(@NotNull Warp warp) {
-        editWarpsMarkerSet(warp.getWorld(), markerSet -> markerSet.remove(warp.getUuid().toString()));
-    }
-
-    @Override
-    public void clearWarps() {
-        if (warpsMarkerSets != null) {
+        if (batch.clearWarps()) {
             warpsMarkerSets.values().forEach(markerSet -> markerSet.getMarkers().clear());
         }
+        batch.removedWarps().forEach(warp -> editMarkerSet(warpsMarkerSets, warp.getWorld(),
+                markerSet -> markerSet.remove(warp.getUuid().toString())));
+        if (!batch.updatedWarps().isEmpty()) {
+            final String icon = getIcon(WARP_MARKER_IMAGE_NAME);
+            batch.updatedWarps().forEach(warp -> editMarkerSet(warpsMarkerSets, warp.getWorld(),
+                    markerSet -> markerSet.put(warp.getUuid().toString(), POIMarker.builder()
+                            .label("/warp " + warp.getName())
+                            .position(warp.getX(), warp.getY(), warp.getZ())
+                            .maxDistance(MAX_DISTANCE)
+                            .icon(icon, 25, 25)
+                            .build())));
+        }
+    }
+
+    // Show public home markers only at the camera distances of their zoom band
+    @NotNull
+    private static POIMarker.Builder withDistances(@NotNull POIMarker.Builder builder,
+                                                   @NotNull MarkerClusters.Band band) {
+        return switch (band) {
+            case ALL -> builder.maxDistance(MAX_DISTANCE);
+            case NEAR -> builder.maxDistance(NEAR_MAX_DISTANCE);
+            case FAR -> builder.minDistance(NEAR_MAX_DISTANCE).maxDistance(MAX_DISTANCE);
+        };
     }
 
     @Nullable
@@ -164,24 +185,17 @@ public class BlueMapHook extends MapHook {
                 }
             }
 
-            return "icons/huskhomes/" + iconFileName;
+            return ICON_PATH + iconFileName;
         }).orElse(null);
     }
 
-    private void editPublicHomesMarkerSet(@NotNull World world, @NotNull ThrowingConsumer<MarkerSet> editor) {
-        editMapWorld(world, (mapWorld -> {
-            if (publicHomesMarkerSets != null) {
-                editor.accept(publicHomesMarkerSets.get(world.getName()));
-            }
-        }));
-    }
-
-    private void editWarpsMarkerSet(@NotNull World world, @NotNull ThrowingConsumer<MarkerSet> editor) {
-        editMapWorld(world, (mapWorld -> {
-            if (warpsMarkerSets != null) {
-                editor.accept(warpsMarkerSets.get(world.getName()));
-            }
-        }));
+    // Marker sets are only created for worlds BlueMap renders, so worlds without one are skipped
+    private void editMarkerSet(@NotNull Map<String, MarkerSet> markerSets, @NotNull World world,
+                               @NotNull Consumer<MarkerSet> editor) {
+        final MarkerSet markerSet = markerSets.get(world.getName());
+        if (markerSet != null) {
+            editor.accept(markerSet);
+        }
     }
 
     private void editMapWorld(@NotNull World world, @NotNull ThrowingConsumer<BlueMapWorld> editor) {
@@ -20,9 +20,7 @@
 package net.william278.huskhomes.hook;
 
 import net.william278.huskhomes.HuskHomes;
-import net.william278.huskhomes.position.Home;
-import net.william278.huskhomes.position.Warp;
-import net.william278.huskhomes.user.User;
+import net.william278.huskhomes.position.Position;
 import org.dynmap.DynmapCommonAPI;
 import org.dynmap.DynmapCommonAPIListener;
 import org.dynmap.markers.Marker;
@@ -31,6 +29,9 @@ import org.dynmap.markers.MarkerSet;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -39,11 +40,15 @@ import java.util.Optional;
 public class DynmapHook extends MapHook {
 
     private static final String ICON_PATH = "/tiles/_markers_/";
+
+    /**
+     * The Dynmap zoom level from which the {@link MarkerClusters.Band#NEAR near} band of public homes is shown
+     */
+    private static final int NEAR_MIN_ZOOM = 3;
+
     @Nullable
     private DynmapCommonAPI dynmapApi;
     @Nullable
-    private MarkerSet publicHomesMarkers;
-    @Nullable
     private MarkerSet warpsMarkers;
 
     public DynmapHook(@NotNull HuskHomes plugin) {
@@ -59,8 +64,7 @@ public class DynmapHook extends MapHook {
 
                 if (plugin.getSettings().doPublicHomesOnMap()) {
                     getMarkerIcon(PUBLIC_HOME_MARKER_IMAGE_NAME).orElseThrow();
-                    dynmapApi.getMarkerAPI().createMarkerSet(getPublicHomesKey(),
-                            getPublicHomesMarkerSetName(), dynmapApi.getMarkerAPI().getMarkerIcons(), false);
+                    clusters.getBands().forEach(band -> getPublicHomesMarkerSet(band));
                 }
                 if (plugin.getSettings().doWarpsOnMap()) {
                     getMarkerIcon(WARP_MARKER_IMAGE_NAME).orElseThrow();
@@ -73,81 +77,71 @@ public class DynmapHook extends MapHook {
         });
     }
 
+    // Redraw the changed cells in a single synchronous task
     @Override
-    public void updateHome(@NotNull Home home) {
-        if (!isValidPosition(home)) {
-            return;
-        }
-
-        plugin.runSync(() -> {
-            final String markerId = home.getOwner().getUuid() + ":" + home.getUuid();
-            getPublicHomesMarkerSet().ifPresent(markerSet -> {
-                markerSet.getMarkers().stream()
-                        .filter(marker -> marker.getMarkerID().equals(markerId))
-                        .forEach(Marker::deleteMarker);
-                markerSet.createMarker(markerId, home.getName(), home.getWorld().getName(),
-                                home.getX(), home.getY(), home.getZ(),
-                                getMarkerIcon(PUBLIC_HOME_MARKER_IMAGE_NAME).orElseThrow(), false)
-                        .setDescription(MarkerInformationPopup.publicHome(
-                                home, ICON_PATH + PUBLIC_HOME_MARKER_IMAGE_NAME, plugin
-                        ).toHtml());
-            });
-        });
-    }
-
-    @Override
-    public void removeHome(@NotNull Home home) {
-        plugin.runSync(() -> {
-            final String markerId = home.getOwner().getUuid() + ":" + home.getUuid();
-            getPublicHomesMarkerSet().ifPresent(markerSet -> markerSet.getMarkers().stream()
-                    .filter(marker -> marker.getMarkerID().equals(markerId))
-                    .forEach(Marker::deleteMarker));
-        });
-    }
-
-    @Override
-    public void clearHomes(@NotNull User user) {
-        plugin.runSync(() -> getPublicHomesMarkerSet().ifPresent(markerSet -> markerSet.getMarkers().stream()
-                .filter(marker -> marker.getMarkerID().startsWith(user.getUuid().toString()))
-                .forEach(Marker::deleteMarker)));
+    protected void applyHomeUpdates(@NotNull List<MarkerClusters.Change> changes) {
+        plugin.runSync(() -> getMarkerIcon(PUBLIC_HOME_MARKER_IMAGE_NAME).ifPresent(icon -> {
+            final Map<MarkerClusters.Band, Optional<MarkerSet>> markerSets = new EnumMap<>(MarkerClusters.Band.class);
+            changes.forEach(change -> markerSets.computeIfAbsent(change.band(), this::getPublicHomesMarkerSet)
+                    .ifPresent(markerSet -> {
+                        change.getRemovedHomes().forEach(home -> deleteMarker(markerSet,
+                                getHomeMarkerId(change.band(), home)));
+                        if (change.isClusterRemoved()) {
+                            deleteMarker(markerSet, change.getClusterId());
+                        }
+                        if (change.isClustered()) {
+                            setMarker(markerSet, change.getClusterId(), getClusterLabel(change.after()),
+                                    getClusterPosition(change.after()), icon, MarkerInformationPopup.cluster(
+                                            change.after(), getClusterLabel(change.after()),
+                                            ICON_PATH + PUBLIC_HOME_MARKER_IMAGE_NAME
+                                    ).toHtml());
+                            return;
+                        }
+                        change.after().forEach(home -> setMarker(markerSet, getHomeMarkerId(change.band(), home),
+                                home.getName(), home, icon, MarkerInformationPopup.publicHome(
+                                        home, ICON_PATH + PUBLIC_HOME_MARKER_IMAGE_NAME, plugin
+                                ).toHtml()));
+                    }));
+        }));
     }
 
+    // Apply the whole batch in a single synchronous task
     @Override
-    public void updateWarp(@NotNull Warp warp) {
-        if (!isValidPosition(warp)) {
-            return;
-        }
-
-        plugin.runSync(() -> {
-            final String markerId = warp.getUuid().toString();
-            getWarpsMarkerSet().ifPresent(markerSet -> {
-                markerSet.getMarkers().stream()
-                        .filter(marker -> marker.getMarkerID().equals(markerId))
-                        .forEach(Marker::deleteMarker);
-                markerSet.createMarker(markerId, warp.getName(), warp.getWorld().getName(),
-                                warp.getX(), warp.getY(), warp.getZ(),
-                                getMarkerIcon(WARP_MARKER_IMAGE_NAME).orElseThrow(), false)
-                        .setDescription(MarkerInformationPopup.warp(
+    protected void applyWarpUpdates(@NotNull MarkerUpdates.Batch batch) {
+        plugin.runSync(() -> getWarpsMarkerSet().ifPresent(markerSet -> {
+            if (batch.clearWarps()) {
+                markerSet.getMarkers().forEach(Marker::deleteMarker);
+            }
+            batch.removedWarps().forEach(warp -> deleteMarker(markerSet, warp.getUuid().toString()));
+            if (!batch.updatedWarps().isEmpty()) {
+                final MarkerIcon icon = getMarkerIcon(WARP_MARKER_IMAGE_NAME).orElseThrow();
+                batch.updatedWarps().forEach(warp -> setMarker(markerSet, warp.getUuid().toString(), warp.getName(),
+                        warp, icon, MarkerInformationPopup.warp(
                                 warp, ICON_PATH + WARP_MARKER_IMAGE_NAME, plugin
-                        ).toHtml());
-            });
-        });
+                        ).toHtml()));
+            }
+        }));
     }
 
-    @Override
-    public void removeWarp(@NotNull Warp warp) {
-        plugin.runSync(() -> {
-            final String markerId = warp.getUuid().toString();
-            getWarpsMarkerSet().ifPresent(markerSet -> markerSet.getMarkers().stream()
-                    .filter(marker -> marker.getMarkerID().equals(markerId))
-                    .forEach(Marker::deleteMarker));
-        });
+    // Update a marker in place if it exists, so it is not removed and re-added on the web map
+    private void setMarker(@NotNull MarkerSet markerSet, @NotNull String markerId, @NotNull String label,
+                           @NotNull Position position, @NotNull MarkerIcon icon, @NotNull String description) {
+        Marker marker = markerSet.findMarker(markerId);
+        if (marker == null) {
+            marker = markerSet.createMarker(markerId, label, position.getWorld().getName(),
+                    position.getX(), position.getY(), position.getZ(), icon, false);
+        } else {
+            marker.setLabel(label);
+            marker.setLocation(position.getWorld().getName(), position.getX(), position.getY(), position.getZ());
+        }
+        marker.setDescription(description);
     }
 
-    @Override
-    public void clearWarps() {
-        plugin.runSync(() -> getWarpsMarkerSet().ifPresent(markerSet -> markerSet.getMarkers()
-                .forEach(Marker::deleteMarker)));
+    private static void deleteMarker(@NotNull MarkerSet markerSet, @NotNull String markerId) {
+        final Marker marker = markerSet.findMarker(markerId);
+        if (marker != null) {
+            marker.deleteMarker();
+        }
     }
 
     private Optional<DynmapCommonAPI> getDynmap() {
@@ -167,15 +161,22 @@ public class DynmapHook extends MapHook {
         });
     }
 
-    private Optional<MarkerSet> getPublicHomesMarkerSet() {
+    // Each zoom band has its own marker set, shown only at that band's zoom levels
+    @NotNull
+    private Optional<MarkerSet> getPublicHomesMarkerSet(@NotNull MarkerClusters.Band band) {
+        final String key = band == MarkerClusters.Band.FAR ? getPublicHomesKey() + "_far" : getPublicHomesKey();
         return getDynmap().map(api -> {
-            publicHomesMarkers = api.getMarkerAPI().getMarkerSet(getPublicHomesKey());
+            MarkerSet publicHomesMarkers = api.getMarkerAPI().getMarkerSet(key);
             if (publicHomesMarkers == null) {
-                publicHomesMarkers = api.getMarkerAPI().createMarkerSet(getPublicHomesKey(), getPublicHomesMarkerSetName(),
+                publicHomesMarkers = api.getMarkerAPI().createMarkerSet(key, getPublicHomesMarkerSetName(),
                         api.getMarkerAPI().getMarkerIcons(), false);
             } else {
                 publicHomesMarkers.setMarkerSetLabel(getPublicHomesMarkerSetName());
             }
+            switch (band) {
+                case NEAR -> publicHomesMarkers.setMinZoom(NEAR_MIN_ZOOM);
+                case FAR -> publicHomesMarkers.setMaxZoom(NEAR_MIN_ZOOM - 1);
+            }
             return publicHomesMarkers;
         });
     }
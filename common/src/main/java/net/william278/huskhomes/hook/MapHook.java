@@ -21,6 +21,7 @@ package net.william278.huskhomes.hook;
 
 import net.william278.huskhomes.HuskHomes;
 import net.william278.huskhomes.position.Home;
+import net.william278.huskhomes.position.Position;
 import net.william278.huskhomes.position.SavedPosition;
 import net.william278.huskhomes.position.Warp;
 import net.william278.huskhomes.user.User;
@@ -28,8 +29,9 @@ import org.apache.commons.text.StringEscapeUtils;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
 
 /**
  * A hook for a mapping plugin, such as Dynmap
@@ -39,24 +41,46 @@ public abstract class MapHook extends Hook {
     protected static final String WARP_MARKER_IMAGE_NAME = "warp";
     protected static final String PUBLIC_HOME_MARKER_IMAGE_NAME = "public-home";
 
+    /**
+     * Ticks to wait after a marker first changes before applying changes, so bursts of changes are applied together
+     */
+    private static final long FLUSH_DELAY = 10L;
+
+    /**
+     * The most marker changes to apply in one tick; further changes are applied over the following ticks
+     */
+    private static final int MAX_CHANGES_PER_FLUSH = 250;
+
+    /**
+     * The most homes to list in a cluster marker's popup
+     */
+    private static final int MAX_CLUSTER_POPUP_HOMES = 20;
+
+    private final MarkerUpdates updates = new MarkerUpdates();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+    protected final MarkerClusters clusters;
+
     protected MapHook(@NotNull HuskHomes plugin, @NotNull String name) {
         super(plugin, name);
+        this.clusters = new MarkerClusters(plugin.getSettings().getPublicHomeClusterThreshold());
     }
 
     /**
-     * Populate the map with public homes and warps
+     * Populate the map with public homes and warps. Markers are fetched asynchronously and added over several ticks
      */
     protected void populateMap() {
-        if (plugin.getSettings().doPublicHomesOnMap()) {
-            plugin.getDatabase()
-                    .getLocalPublicHomes(plugin)
-                    .forEach(this::updateHome);
-        }
-        if (plugin.getSettings().doWarpsOnMap()) {
-            plugin.getDatabase()
-                    .getLocalWarps(plugin)
-                    .forEach(this::updateWarp);
-        }
+        plugin.runAsync(() -> {
+            if (plugin.getSettings().doPublicHomesOnMap()) {
+                plugin.getDatabase()
+                        .getLocalPublicHomes(plugin)
+                        .forEach(this::updateHome);
+            }
+            if (plugin.getSettings().doWarpsOnMap()) {
+                plugin.getDatabase()
+                        .getLocalWarps(plugin)
+                        .forEach(this::updateWarp);
+            }
+        });
     }
 
     /**
@@ -64,40 +88,110 @@ public abstract class MapHook extends Hook {
      *
      * @param home the home to update
      */
-    public abstract void updateHome(@NotNull Home home);
+    public final void updateHome(@NotNull Home home) {
+        if (isValidPosition(home)) {
+            updates.updateHome(home);
+            scheduleFlush();
+        }
+    }
 
     /**
      * Removes a home from the map
      *
      * @param home the home to remove
      */
-    public abstract void removeHome(@NotNull Home home);
+    public final void removeHome(@NotNull Home home) {
+        updates.removeHome(home);
+        scheduleFlush();
+    }
 
     /**
      * Clears homes owned by a player from the map
      *
      * @param user the player whose homes to clear
      */
-    public abstract void clearHomes(@NotNull User user);
+    public final void clearHomes(@NotNull User user) {
+        updates.clearHomes(user);
+        scheduleFlush();
+    }
 
     /**
      * Update a warp, adding it to the map if it exists, or updating it on the map if it doesn't
      *
      * @param warp the warp to update
      */
-    public abstract void updateWarp(@NotNull Warp warp);
+    public final void updateWarp(@NotNull Warp warp) {
+        if (isValidPosition(warp)) {
+            updates.updateWarp(warp);
+            scheduleFlush();
+        }
+    }
 
     /**
      * Removes a warp from the map
      *
      * @param warp the warp to remove
      */
-    public abstract void removeWarp(@NotNull Warp warp);
+    public final void removeWarp(@NotNull Warp warp) {
+        updates.removeWarp(warp);
+        scheduleFlush();
+    }
 
     /**
      * Clears all warps from the map
      */
-    public abstract void clearWarps();
+    public final void clearWarps() {
+        updates.clearWarps();
+        scheduleFlush();
+    }
+
+    /**
+     * Redraw the public home markers in cells whose homes have changed. Called with at most one set of changes at a
+     * time; markers are drawn in each of the {@link MarkerClusters#getBands() zoom bands}
+     *
+     * @param changes the changed cells, each drawn as a cluster marker if {@link MarkerClusters.Change#isClustered()},
+     *                or otherwise as a marker for each home
+     */
+    protected abstract void applyHomeUpdates(@NotNull List<MarkerClusters.Change> changes);
+
+    /**
+     * Apply the warp changes in a batch of marker changes. Called with at most one batch at a time
+     *
+     * @param batch the changes to apply, in the order: clears, then removals, then updates; home changes are ignored
+     */
+    protected abstract void applyWarpUpdates(@NotNull MarkerUpdates.Batch batch);
+
+    // Apply changes after a short delay, to coalesce changes made in quick succession
+    private void scheduleFlush() {
+        if (flushScheduled.compareAndSet(false, true)) {
+            plugin.runLater(this::flush, FLUSH_DELAY);
+        }
+    }
+
+    // Apply the next batch of changes, then continue next tick if there are more
+    private void flush() {
+        try {
+            final MarkerUpdates.Batch batch = updates.drain(MAX_CHANGES_PER_FLUSH);
+            if (batch.hasHomeChanges()) {
+                applyHomeUpdates(clusters.apply(batch));
+            }
+            if (batch.hasWarpChanges()) {
+                applyWarpUpdates(batch);
+            }
+        } catch (Throwable e) {
+            plugin.log(Level.WARNING, "Failed to update " + getName() + " markers", e);
+        }
+        if (!updates.isEmpty()) {
+            plugin.runLater(this::flush, 1L);
+            return;
+        }
+
+        // Changes queued while the flag was still set would otherwise be left waiting
+        flushScheduled.set(false);
+        if (!updates.isEmpty() && flushScheduled.compareAndSet(false, true)) {
+            plugin.runLater(this::flush, 1L);
+        }
+    }
 
     /**
      * Returns if the position is valid to be set on this server
@@ -117,6 +211,46 @@ public abstract class MapHook extends Hook {
         return !plugin.getSettings().doCrossServer() || position.getServer().equals(plugin.getServerName());
     }
 
+    /**
+     * Get a marker ID for a home, unique across zoom bands. Markers in the {@link MarkerClusters.Band#ALL} band keep
+     * the ID used before public homes were clustered
+     *
+     * @param band the zoom band of the marker
+     * @param home the home
+     * @return the marker ID
+     */
+    @NotNull
+    protected static String getHomeMarkerId(@NotNull MarkerClusters.Band band, @NotNull Home home) {
+        final String markerId = home.getOwner().getUuid() + ":" + home.getUuid();
+        return band == MarkerClusters.Band.ALL ? markerId : band.name().toLowerCase(Locale.ENGLISH) + ":" + markerId;
+    }
+
+    /**
+     * Get the position to show a cluster marker at, in the middle of its homes
+     *
+     * @param homes the homes in the cluster
+     * @return the position of the cluster marker
+     */
+    @NotNull
+    protected static Position getClusterPosition(@NotNull List<Home> homes) {
+        final Home first = homes.get(0);
+        return Position.at(homes.stream().mapToDouble(Home::getX).average().orElse(first.getX()),
+                homes.stream().mapToDouble(Home::getY).average().orElse(first.getY()),
+                homes.stream().mapToDouble(Home::getZ).average().orElse(first.getZ()),
+                first.getWorld(), first.getServer());
+    }
+
+    /**
+     * Get the label of a cluster marker
+     *
+     * @param homes the homes in the cluster
+     * @return the cluster label
+     */
+    @NotNull
+    protected final String getClusterLabel(@NotNull List<Home> homes) {
+        return getPublicHomesMarkerSetName() + " (" + homes.size() + ")";
+    }
+
     @NotNull
     protected final String getPublicHomesKey() {
         return plugin.getKey(getName().toLowerCase(), "public_home_markers").toString();
@@ -152,9 +286,13 @@ public abstract class MapHook extends Hook {
         @NotNull
         private final Map<String, String> fields;
 
+        @NotNull
+        private final List<String> entries;
+
         private MarkerInformationPopup(@NotNull String title) {
             this.title = title;
             this.fields = new HashMap<>();
+            this.entries = new ArrayList<>();
         }
 
         @NotNull
@@ -176,6 +314,19 @@ public abstract class MapHook extends Hook {
                     .field("Command", "/phome " + home.getSafeIdentifier());
         }
 
+        @NotNull
+        protected static DynmapHook.MarkerInformationPopup cluster(@NotNull List<Home> homes, @NotNull String title,
+                                                                   @NotNull String thumbnail) {
+            final MarkerInformationPopup popup = MarkerInformationPopup.create(title).thumbnail(thumbnail);
+            homes.stream()
+                    .limit(MAX_CLUSTER_POPUP_HOMES)
+                    .forEach(home -> popup.entry("/phome " + home.getSafeIdentifier()));
+            if (homes.size() > MAX_CLUSTER_POPUP_HOMES) {
+                popup.entry("... and " + (homes.size() - MAX_CLUSTER_POPUP_HOMES) + " more");
+            }
+            return popup;
+        }
+
         @NotNull
         protected static DynmapHook.MarkerInformationPopup create(@NotNull String title) {
             return new MarkerInformationPopup(title);
@@ -193,6 +344,12 @@ public abstract class MapHook extends Hook {
             return this;
         }
 
+        @NotNull
+        protected DynmapHook.MarkerInformationPopup entry(@NotNull String entry) {
+            entries.add(entry);
+            return this;
+        }
+
         @NotNull
         protected String toHtml() {
             final StringBuilder html = new StringBuilder();
@@ -211,6 +368,9 @@ public abstract class MapHook extends Hook {
                     .append(": </span><span>")
                     .append(StringEscapeUtils.escapeHtml4(value))
                     .append("</span><br/>"));
+            entries.forEach(entry -> html.append("<span>")
+                    .append(StringEscapeUtils.escapeHtml4(entry))
+                    .append("</span><br/>"));
             return html.toString();
         }
     }
@@ -0,0 +1,235 @@
+/*
+ * This file is part of HuskHomes, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.hook;
+
+import net.william278.huskhomes.position.Home;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+
+/**
+ * Groups public home markers into clusters, so that areas dense with public homes are shown with a single marker.
+ * <p>
+ * Homes are kept in a grid of square cells for each {@link Band zoom band}, with larger cells when zoomed further
+ * out. A cell holding at least the threshold number of homes is shown as one cluster marker, and otherwise as a marker
+ * for each home. Changes are applied incrementally: applying a batch returns only the cells whose contents changed,
+ * with the homes they held before and after, so that a map only redraws those cells.
+ * <p>
+ * Not thread-safe; batches must be applied one at a time.
+ */
+public class MarkerClusters {
+
+    private final int threshold;
+    private final List<Band> bands;
+    private final Map<Band, Map<Cell, Map<UUID, Home>>> cells = new EnumMap<>(Band.class);
+
+    // Each home as it was when last applied, as homes are moved in place
+    private final Map<UUID, Placed> placed = new HashMap<>();
+
+    /**
+     * Create a set of marker clusters
+     *
+     * @param threshold the number of homes in a cell at which they are shown as a cluster, or {@code 0} to show every
+     *                  home individually, in the single {@link Band#ALL} band
+     */
+    public MarkerClusters(int threshold) {
+        this.threshold = threshold > 0 ? threshold : Integer.MAX_VALUE;
+        this.bands = threshold > 0 ? List.of(Band.NEAR, Band.FAR) : List.of(Band.ALL);
+        this.bands.forEach(band -> cells.put(band, new HashMap<>()));
+    }
+
+    /**
+     * Get the zoom bands markers are shown in, closest first
+     *
+     * @return the zoom bands
+     */
+    @NotNull
+    public List<Band> getBands() {
+        return bands;
+    }
+
+    /**
+     * Apply the public home changes in a batch
+     *
+     * @param batch the batch of changes to apply; warp changes are ignored
+     * @return the cells whose contents changed
+     */
+    @NotNull
+    public List<Change> apply(@NotNull MarkerUpdates.Batch batch) {
+        final Map<Band, Map<Cell, List<Home>>> touched = new EnumMap<>(Band.class);
+        bands.forEach(band -> touched.put(band, new LinkedHashMap<>()));
+
+        if (!batch.clearedHomeOwners().isEmpty()) {
+            placed.values().stream()
+                    .map(Placed::home)
+                    .filter(home -> batch.clearedHomeOwners().contains(home.getOwner().getUuid()))
+                    .toList()
+                    .forEach(home -> remove(home.getUuid(), touched));
+        }
+        batch.removedHomes().forEach(home -> remove(home.getUuid(), touched));
+        batch.updatedHomes().forEach(home -> {
+            remove(home.getUuid(), touched);
+            final Point point = Point.of(home);
+            placed.put(home.getUuid(), new Placed(home, point));
+            for (Band band : bands) {
+                final Cell cell = band.getCell(point);
+                touch(band, cell, touched);
+                cells.get(band).computeIfAbsent(cell, c -> new LinkedHashMap<>()).put(home.getUuid(), home);
+            }
+        });
+
+        final List<Change> changes = new ArrayList<>();
+        touched.forEach((band, bandCells) -> bandCells.forEach((cell, before) -> {
+            final Map<UUID, Home> members = cells.get(band).get(cell);
+            final List<Home> after = members == null ? List.of() : List.copyOf(members.values());
+            changes.add(new Change(band, cell, before, after,
+                    before.size() >= threshold, after.size() >= threshold));
+        }));
+        return changes;
+    }
+
+    private void remove(@NotNull UUID homeId, @NotNull Map<Band, Map<Cell, List<Home>>> touched) {
+        final Placed home = placed.remove(homeId);
+        if (home == null) {
+            return;
+        }
+        for (Band band : bands) {
+            final Cell cell = band.getCell(home.point());
+            touch(band, cell, touched);
+            final Map<UUID, Home> members = cells.get(band).get(cell);
+            members.remove(homeId);
+            if (members.isEmpty()) {
+                cells.get(band).remove(cell);
+            }
+        }
+    }
+
+    // Record what a cell held before it is first changed
+    private void touch(@NotNull Band band, @NotNull Cell cell, @NotNull Map<Band, Map<Cell, List<Home>>> touched) {
+        touched.get(band).computeIfAbsent(cell, c -> {
+            final Map<UUID, Home> members = cells.get(band).get(cell);
+            return members == null ? List.of() : List.copyOf(members.values());
+        });
+    }
+
+    /**
+     * A range of zoom levels, within which homes are clustered in cells of the same size
+     */
+    public enum Band {
+        /**
+         * Every zoom level, used when clustering is disabled
+         */
+        ALL(9),
+        /**
+         * Zoomed in, with small cells
+         */
+        NEAR(6),
+        /**
+         * Zoomed out, with large cells
+         */
+        FAR(9);
+
+        private final int cellShift;
+
+        Band(int cellShift) {
+            this.cellShift = cellShift;
+        }
+
+        @NotNull
+        private Cell getCell(@NotNull Point point) {
+            return new Cell(point.world(), (int) Math.floor(point.x()) >> cellShift,
+                    (int) Math.floor(point.z()) >> cellShift);
+        }
+    }
+
+    /**
+     * A cell of the grid
+     *
+     * @param world the name of the world the cell is in
+     * @param x     the x coordinate of the cell
+     * @param z     the z coordinate of the cell
+     */
+    public record Cell(@NotNull String world, int x, int z) {
+    }
+
+    /**
+     * A change to the homes in a cell
+     *
+     * @param band          the zoom band of the cell
+     * @param cell          the cell
+     * @param before        the homes in the cell before the change
+     * @param after         the homes in the cell after the change
+     * @param wasClustered  whether the cell was shown as a cluster before the change
+     * @param isClustered   whether the cell is shown as a cluster after the change
+     */
+    public record Change(@NotNull Band band, @NotNull Cell cell, @NotNull List<Home> before,
+                         @NotNull List<Home> after, boolean wasClustered, boolean isClustered) {
+
+        /**
+         * Get the homes whose individual markers should be removed
+         *
+         * @return the homes no longer shown individually in this cell
+         */
+        @NotNull
+        public List<Home> getRemovedHomes() {
+            if (wasClustered) {
+                return List.of();
+            }
+            if (isClustered) {
+                return before;
+            }
+            final Set<UUID> remaining = new HashSet<>();
+            after.forEach(home -> remaining.add(home.getUuid()));
+            return before.stream().filter(home -> !remaining.contains(home.getUuid())).toList();
+        }
+
+        /**
+         * Get whether the cell's cluster marker should be removed
+         *
+         * @return whether the cell was shown as a cluster, but no longer is
+         */
+        public boolean isClusterRemoved() {
+            return wasClustered && !isClustered;
+        }
+
+        /**
+         * Get a marker ID for the cell's cluster, unique across worlds and bands
+         *
+         * @return the cluster marker ID
+         */
+        @NotNull
+        public String getClusterId() {
+            return "cluster:" + band.name().toLowerCase(Locale.ENGLISH) + ":" + cell.world() + ":"
+                    + cell.x() + ":" + cell.z();
+        }
+
+    }
+
+    private record Placed(@NotNull Home home, @NotNull Point point) {
+    }
+
+    private record Point(@NotNull String world, double x, double z) {
+        @NotNull
+        private static Point of(@NotNull Home home) {
+            return new Point(home.getWorld().getName(), home.getX(), home.getZ());
+        }
+    }
+
+}
@@ -0,0 +1,150 @@
+/*
+ * This file is part of HuskHomes, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.hook;
+
+import net.william278.huskhomes.position.Home;
+import net.william278.huskhomes.position.Warp;
+import net.william278.huskhomes.user.User;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+
+/**
+ * A thread-safe queue of changes to the markers a {@link MapHook} shows, waiting to be applied.
+ * <p>
+ * Changes to the same home or warp are coalesced, so only its latest state is applied, however many times it changed
+ * while waiting. Changes are drained in batches of limited size, in the order the markers were first changed. Clearing
+ * a player's homes or all warps discards the waiting changes it covers, and is applied before any other change in the
+ * next batch.
+ */
+public class MarkerUpdates {
+
+    private final Map<UUID, Change<Home>> homes = new LinkedHashMap<>();
+    private final Map<UUID, Change<Warp>> warps = new LinkedHashMap<>();
+    private final Set<UUID> clearedHomeOwners = new HashSet<>();
+    private boolean warpsCleared;
+
+    public synchronized void updateHome(@NotNull Home home) {
+        homes.put(home.getUuid(), new Change<>(home, false));
+    }
+
+    public synchronized void removeHome(@NotNull Home home) {
+        homes.put(home.getUuid(), new Change<>(home, true));
+    }
+
+    public synchronized void clearHomes(@NotNull User owner) {
+        homes.values().removeIf(change -> change.position().getOwner().getUuid().equals(owner.getUuid()));
+        clearedHomeOwners.add(owner.getUuid());
+    }
+
+    public synchronized void updateWarp(@NotNull Warp warp) {
+        warps.put(warp.getUuid(), new Change<>(warp, false));
+    }
+
+    public synchronized void removeWarp(@NotNull Warp warp) {
+        warps.put(warp.getUuid(), new Change<>(warp, true));
+    }
+
+    public synchronized void clearWarps() {
+        warps.clear();
+        warpsCleared = true;
+    }
+
+    /**
+     * Get whether there are no changes waiting
+     *
+     * @return whether the queue is empty
+     */
+    public synchronized boolean isEmpty() {
+        return homes.isEmpty() && warps.isEmpty() && clearedHomeOwners.isEmpty() && !warpsCleared;
+    }
+
+    /**
+     * Get the number of homes and warps with changes waiting
+     *
+     * @return the number of waiting changes
+     */
+    public synchronized int size() {
+        return homes.size() + warps.size();
+    }
+
+    /**
+     * Take the next batch of changes off the queue
+     *
+     * @param maxChanges the most home and warp changes to take; clears are always taken
+     * @return the batch of changes
+     */
+    @NotNull
+    public synchronized Batch drain(int maxChanges) {
+        final Batch batch = new Batch(warpsCleared, Set.copyOf(clearedHomeOwners), new ArrayList<>(),
+                new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+        warpsCleared = false;
+        clearedHomeOwners.clear();
+
+        int remaining = Math.max(1, maxChanges);
+        remaining = drain(homes, batch.updatedHomes(), batch.removedHomes(), remaining);
+        drain(warps, batch.updatedWarps(), batch.removedWarps(), remaining);
+        return batch;
+    }
+
+    private static <T> int drain(@NotNull Map<UUID, Change<T>> changes, @NotNull List<T> updated,
+                                 @NotNull List<T> removed, int remaining) {
+        final Iterator<Change<T>> iterator = changes.values().iterator();
+        while (remaining > 0 && iterator.hasNext()) {
+            final Change<T> change = iterator.next();
+            iterator.remove();
+            (change.removed() ? removed : updated).add(change.position());
+            remaining--;
+        }
+        return remaining;
+    }
+
+    /**
+     * A batch of changes to apply to a map, in the order: clears, then removals, then updates
+     *
+     * @param clearWarps        whether to clear all warps
+     * @param clearedHomeOwners the UUIDs of players whose homes to clear
+     * @param updatedHomes      homes to add, or update if they are already shown
+     * @param removedHomes      homes to remove
+     * @param updatedWarps      warps to add, or update if they are already shown
+     * @param removedWarps      warps to remove
+     */
+    public record Batch(boolean clearWarps, @NotNull Set<UUID> clearedHomeOwners, @NotNull List<Home> updatedHomes,
+                        @NotNull List<Home> removedHomes, @NotNull List<Warp> updatedWarps,
+                        @NotNull List<Warp> removedWarps) {
+
+        public boolean hasHomeChanges() {
+            return !clearedHomeOwners.isEmpty() || !updatedHomes.isEmpty() || !removedHomes.isEmpty();
+        }
+
+        public boolean hasWarpChanges() {
+            return clearWarps || !updatedWarps.isEmpty() || !removedWarps.isEmpty();
+        }
+
+        public boolean isEmpty() {
+            return !hasHomeChanges() && !hasWarpChanges();
+        }
+
+    }
+
+    private record Change<T>(@NotNull T position, boolean removed) {
+    }
+
+}
@@ -36,9 +36,9 @@ import net.pl3x.map.core.markers.option.Tooltip;
 import net.pl3x.map.core.world.World;
 import net.william278.huskhomes.HuskHomes;
 import net.william278.huskhomes.position.Home;
+import net.william278.huskhomes.position.Position;
 import net.william278.huskhomes.position.SavedPosition;
 import net.william278.huskhomes.position.Warp;
-import net.william278.huskhomes.user.User;
 import org.jetbrains.annotations.NotNull;
 
 import javax.imageio.ImageIO;
@@ -46,7 +46,10 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.util.Collection;
 import java.util.LinkedList;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.stream.Collectors;
 
@@ -55,8 +58,9 @@ public class Pl3xMapHook extends MapHook implements EventListener {
     private static final String ICON_PATH = "/images/icon/registered/";
     private static final String WARPS_LAYER = "warp_markers";
     private static final String PUBLIC_HOMES_LAYER = "public_home_markers";
-    private final ConcurrentLinkedQueue<Home> publicHomes = new ConcurrentLinkedQueue<>();
-    private final ConcurrentLinkedQueue<Warp> warps = new ConcurrentLinkedQueue<>();
+    private final Map<UUID, Home> publicHomes = new ConcurrentHashMap<>();
+    private final Map<MarkerClusters.Cell, List<Home>> publicHomeClusters = new ConcurrentHashMap<>();
+    private final Map<UUID, Warp> warps = new ConcurrentHashMap<>();
 
     public Pl3xMapHook(@NotNull HuskHomes plugin) {
         super(plugin, "Pl3xMap");
@@ -67,40 +71,32 @@ public class Pl3xMapHook extends MapHook implements EventListener {
         Pl3xMap.api().getEventRegistry().register(this);
     }
 
+    // Layers read the stored positions when Pl3xMap next renders them. Pl3xMap layers are drawn at every zoom level,
+    // so only the closest zoom band is used
     @Override
-    public void updateHome(@NotNull Home home) {
-        publicHomes.remove(home);
-        if (isValidPosition(home)) {
-            publicHomes.add(home);
-        }
-    }
-
-    @Override
-    public void removeHome(@NotNull Home home) {
-        publicHomes.remove(home);
-    }
-
-    @Override
-    public void clearHomes(@NotNull User user) {
-        publicHomes.removeIf(home -> home.getOwner().equals(user));
+    protected void applyHomeUpdates(@NotNull List<MarkerClusters.Change> changes) {
+        changes.stream()
+                .filter(change -> change.band() == clusters.getBands().get(0))
+                .forEach(change -> {
+                    change.getRemovedHomes().forEach(home -> publicHomes.remove(home.getUuid()));
+                    if (change.isClusterRemoved()) {
+                        publicHomeClusters.remove(change.cell());
+                    }
+                    if (change.isClustered()) {
+                        publicHomeClusters.put(change.cell(), change.after());
+                        return;
+                    }
+                    change.after().forEach(home -> publicHomes.put(home.getUuid(), home));
+                });
     }
 
     @Override
-    public void updateWarp(@NotNull Warp warp) {
-        warps.remove(warp);
-        if (isValidPosition(warp)) {
-            warps.add(warp);
+    protected void applyWarpUpdates(@NotNull MarkerUpdates.Batch batch) {
+        if (batch.clearWarps()) {
+            warps.clear();
         }
-    }
-
-    @Override
-    public void removeWarp(@NotNull Warp warp) {
-        warps.remove(warp);
-    }
-
-    @Override
-    public void clearWarps() {
-        warps.clear();
+        batch.removedWarps().forEach(warp -> warps.remove(warp.getUuid()));
+        batch.updatedWarps().forEach(warp -> warps.put(warp.getUuid(), warp));
     }
 
     private void registerIcon(@NotNull String key, @NotNull String iconFileName) {
@@ -140,10 +136,7 @@ public class Pl3xMapHook extends MapHook implements EventListener {
         Pl3xMap.api().getWorldRegistry().forEach(this::registerLayers);
 
         // Update home positions
-        plugin.runAsync(() -> {
-            plugin.getDatabase().getLocalPublicHomes(plugin).forEach(this::updateHome);
-            plugin.getDatabase().getLocalWarps(plugin).forEach(this::updateWarp);
-        });
+        this.populateMap();
     }
 
     @EventHandler
@@ -169,6 +162,16 @@ public class Pl3xMapHook extends MapHook implements EventListener {
                 .build();
     }
 
+    @NotNull
+    public Options getClusterMarkerOptions(@NotNull List<Home> homes) {
+        return Options.builder()
+                .tooltip(new Tooltip(getClusterLabel(homes)))
+                .popup(new Popup(MarkerInformationPopup.cluster(
+                        homes, getClusterLabel(homes), ICON_PATH + PUBLIC_HOMES_LAYER
+                ).toHtml()))
+                .build();
+    }
+
     public static class WarpsLayer extends SimpleLayer {
 
         private final Pl3xMapHook hook;
@@ -183,7 +186,7 @@ public class Pl3xMapHook extends MapHook implements EventListener {
         @Override
         @NotNull
         public Collection<Marker<?>> getMarkers() {
-            return hook.warps.stream()
+            return hook.warps.values().stream()
                     .filter(warp -> warp.getWorld().getName().equals(mapWorld.getName()))
                     .map(warp -> Icon.of(
                             hook.plugin.getKey("warp_" + warp.getUuid()).asString(),
@@ -209,7 +212,7 @@ public class Pl3xMapHook extends MapHook implements EventListener {
         @Override
         @NotNull
         public Collection<Marker<?>> getMarkers() {
-            return hook.publicHomes.stream()
+            final Collection<Marker<?>> markers = hook.publicHomes.values().stream()
                     .filter(home -> home.getWorld().getName().equals(mapWorld.getName()))
                     .map(home -> Marker.icon(
                             hook.plugin.getKey("public_home_" + home.getUuid()).asString(),
@@ -217,6 +220,17 @@ public class Pl3xMapHook extends MapHook implements EventListener {
                             PUBLIC_HOMES_LAYER
                     ).setOptions(hook.getMarkerOptions(home)))
                     .collect(Collectors.toCollection(LinkedList::new));
+            hook.publicHomeClusters.forEach((cell, homes) -> {
+                if (cell.world().equals(mapWorld.getName())) {
+                    final Position position = getClusterPosition(homes);
+                    markers.add(Marker.icon(
+                            hook.plugin.getKey("public_home_cluster_" + cell.x() + "_" + cell.z()).asString(),
+                            Point.of(position.getX(), position.getZ()),
+                            PUBLIC_HOMES_LAYER
+                    ).setOptions(hook.getClusterMarkerOptions(homes)));
+                }
+            });
+            return markers;
         }
 
     }
@@ -26,15 +26,19 @@ import net.william278.huskhomes.command.Command;
 import net.william278.huskhomes.network.Broker;
 import net.william278.huskhomes.network.Message;
 import net.william278.huskhomes.network.Payload;
+import net.william278.huskhomes.network.PluginMessageBroker;
 import net.william278.huskhomes.position.Position;
 import net.william278.huskhomes.teleport.Teleport;
 import net.william278.huskhomes.teleport.TeleportBuilder;
+import net.william278.huskhomes.teleport.TeleportMetrics;
 import net.william278.huskhomes.teleport.TeleportationException;
 import net.william278.huskhomes.user.OnlineUser;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 
 /**
@@ -55,16 +59,22 @@ public class EventListener {
      * @param onlineUser the joining {@link OnlineUser}
      */
     protected final void handlePlayerJoin(@NotNull OnlineUser onlineUser) {
+        final long joinTime = System.nanoTime();
         plugin.runAsync(() -> {
             // Ensure the user is in the database
             plugin.getDatabase().ensureUser(onlineUser);
 
             // Handle cross-server checks
             if (plugin.getSettings().doCrossServer()) {
-                this.handleInboundTeleport(onlineUser);
+                this.handleInboundTeleport(onlineUser, joinTime);
 
-                // Synchronize the global player list
-                plugin.runLater(() -> this.synchronizeGlobalPlayerList(onlineUser, plugin.getLocalPlayerList()), 40L);
+                // Send messages queued while nobody was online, then synchronize the global player list
+                plugin.runLater(() -> {
+                    if (plugin.getMessenger() instanceof PluginMessageBroker broker) {
+                        broker.flushQueuedMessages(onlineUser);
+                    }
+                    this.synchronizeGlobalPlayerList(onlineUser, plugin.getLocalPlayerList());
+                }, 40L);
 
                 // Request updated player lists from other servers
                 if (plugin.getOnlineUsers().size() == 1) {
@@ -94,9 +104,10 @@ public class EventListener {
      * Handle inbound cross-server teleports
      *
      * @param teleporter user to handle the checks for
+     * @param joinTime   the {@link System#nanoTime()} the user joined at
      */
-    private void handleInboundTeleport(@NotNull OnlineUser teleporter) {
-        plugin.getDatabase().getCurrentTeleport(teleporter).ifPresent(teleport -> {
+    private void handleInboundTeleport(@NotNull OnlineUser teleporter, long joinTime) {
+        plugin.getMessenger().consumeCurrentTeleport(teleporter).ifPresent(teleport -> {
             if (teleport.getType() == Teleport.Type.RESPAWN) {
                 handleInboundRespawn(teleporter);
                 return;
@@ -107,7 +118,8 @@ public class EventListener {
             } catch (TeleportationException e) {
                 e.displayMessage(teleporter, plugin);
             }
-            plugin.getDatabase().setCurrentTeleport(teleporter, null);
+            plugin.getManager().metrics().record(teleport.getType(), TeleportMetrics.Phase.INBOUND_PICKED_UP,
+                    System.nanoTime() - joinTime, TimeUnit.NANOSECONDS);
             teleport.displayTeleportingComplete(teleporter);
         });
     }
@@ -149,7 +161,6 @@ public class EventListener {
                 e.displayMessage(teleporter, plugin);
             }
         }
-        plugin.getDatabase().setCurrentTeleport(teleporter, null);
         plugin.getDatabase().setRespawnPosition(teleporter, bedPosition.orElse(null));
     }
 
@@ -159,6 +170,15 @@ public class EventListener {
      * @param onlineUser the leaving {@link OnlineUser}
      */
     protected final void handlePlayerLeave(@NotNull OnlineUser onlineUser) {
+        // Cancel any teleport warmup
+        plugin.getManager().warmups().cancelWarmup(onlineUser.getUuid());
+
+        // Clear this user's pending teleport requests
+        plugin.getManager().requests().removeAllTeleportRequests(onlineUser);
+
+        // Save and unload this user's /back history
+        plugin.runAsync(() -> plugin.getManager().history().unload(onlineUser));
+
         // Set offline position
         plugin.getDatabase().setOfflinePosition(onlineUser, onlineUser.getPosition());
 
@@ -204,6 +224,27 @@ public class EventListener {
         }
     }
 
+    /**
+     * Handle when a player moves, cancelling their teleport warmup if they have moved too far
+     *
+     * @param uuid the UUID of the player who moved
+     * @param x    the player's new x coordinate
+     * @param y    the player's new y coordinate
+     * @param z    the player's new z coordinate
+     */
+    protected final void handlePlayerMove(@NotNull UUID uuid, double x, double y, double z) {
+        plugin.getManager().warmups().handleMovement(uuid, x, y, z);
+    }
+
+    /**
+     * Handle when a player takes damage, cancelling their teleport warmup
+     *
+     * @param uuid the UUID of the player who took damage
+     */
+    protected final void handlePlayerDamage(@NotNull UUID uuid) {
+        plugin.getManager().warmups().handleDamage(uuid);
+    }
+
     /**
      * Handle when a {@link OnlineUser} dies
      *
@@ -212,7 +253,7 @@ public class EventListener {
     protected final void handlePlayerDeath(@NotNull OnlineUser onlineUser) {
         if (plugin.getSettings().doBackCommandReturnByDeath() && plugin.getCommand(BackCommand.class)
                 .map(Command::getPermission).map(onlineUser::hasPermission).orElse(false)) {
-            plugin.getDatabase().setLastPosition(onlineUser, onlineUser.getPosition());
+            plugin.getManager().history().addPosition(onlineUser, onlineUser.getPosition());
         }
     }
 
@@ -274,8 +315,7 @@ public class EventListener {
             return;
         }
 
-        plugin.runAsync(() -> plugin.getDatabase().getUserData(onlineUser.getUuid())
-                .ifPresent(data -> plugin.getDatabase().setLastPosition(data.getUser(), sourcePosition)));
+        plugin.getManager().history().addPosition(onlineUser, sourcePosition);
     }
 
     /**
@@ -294,6 +334,8 @@ public class EventListener {
      * Handle when the plugin is disabling (server is shutting down)
      */
     public final void handlePluginDisable() {
+        plugin.getManager().history().flushAll();
+        plugin.getManager().saveRtpGrid();
         plugin.log(Level.INFO, "Successfully disabled HuskHomes v" + plugin.getVersion());
     }
 
@@ -0,0 +1,237 @@
+/*
+ * This file is part of HuskHomes, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.manager;
+
+import net.william278.huskhomes.HuskHomes;
+import net.william278.huskhomes.position.Position;
+import net.william278.huskhomes.teleport.Teleport;
+import net.william278.huskhomes.teleport.TeleportationException;
+import net.william278.huskhomes.user.OnlineUser;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Predicate;
+
+/**
+ * Spreads bulk operations, like teleporting every player with {@code /tpall}, over several ticks.
+ * <p>
+ * Each tick, up to {@link net.william278.huskhomes.config.Settings#getBulkTeleportsPerTick()} actions are run from
+ * the queued batches, in the order they were submitted. Teleports within a batch are grouped by destination chunk,
+ * and each destination chunk is preloaded until the last teleport to it has been executed. Teleports themselves are
+ * run on the teleporter's own scheduler, so on Folia each lands on the region that owns the player.
+ */
+public class BulkTeleportManager {
+
+    /**
+     * Ticks to keep a destination chunk loaded after the last teleport to it is executed
+     */
+    private static final long CHUNK_RELEASE_DELAY = 40L;
+
+    private final HuskHomes plugin;
+    private final Deque<Batch> batches = new ArrayDeque<>();
+    private int taskId = -1;
+
+    protected BulkTeleportManager(@NotNull HuskHomes plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Teleport users to the same position, spread over several ticks
+     *
+     * @param teleporters the users to teleport
+     * @param target      the position to teleport them to
+     * @return a future completing with the number of users successfully teleported, once all have been processed
+     */
+    @NotNull
+    public CompletableFuture<Integer> teleportAll(@NotNull Collection<OnlineUser> teleporters,
+                                                  @NotNull Position target) {
+        final Map<OnlineUser, Position> teleports = new LinkedHashMap<>();
+        teleporters.forEach(teleporter -> teleports.put(teleporter, target));
+        return teleport(teleports);
+    }
+
+    /**
+     * Teleport users to positions, spread over several ticks and grouped by destination chunk
+     *
+     * @param teleports a map of users to the positions to teleport them to
+     * @return a future completing with the number of users successfully teleported, once all have been processed
+     */
+    @NotNull
+    public CompletableFuture<Integer> teleport(@NotNull Map<OnlineUser, Position> teleports) {
+        final Map<PreloadedChunks.ChunkKey, List<Entry>> groups = new LinkedHashMap<>();
+        final List<Entry> remoteEntries = new ArrayList<>();
+        final PreloadedChunks preloadedChunks = plugin.getManager().warmups().getPreloadedChunks();
+        teleports.forEach((teleporter, target) -> {
+            final Entry entry = new Entry(teleporter, user -> executeTeleport(user, target));
+            if (!isLocal(target)) {
+                remoteEntries.add(entry);
+                return;
+            }
+            groups.computeIfAbsent(preloadedChunks.acquire(target), key -> new ArrayList<>()).add(entry);
+        });
+
+        final List<Entry> entries = new ArrayList<>();
+        groups.forEach((destination, group) -> {
+            group.set(group.size() - 1, group.get(group.size() - 1).releasing(destination));
+            entries.addAll(group);
+        });
+        entries.addAll(remoteEntries);
+        return submit(entries);
+    }
+
+    /**
+     * Run an action for each user, spread over several ticks
+     *
+     * @param users  the users to run the action for
+     * @param action the action to run, returning {@code true} if it succeeded
+     * @return a future completing with the number of users the action succeeded for, once all have been processed
+     */
+    @NotNull
+    public CompletableFuture<Integer> schedule(@NotNull Collection<OnlineUser> users,
+                                               @NotNull Predicate<OnlineUser> action) {
+        return submit(users.stream().map(user -> new Entry(user, action)).toList());
+    }
+
+    /**
+     * Get the number of actions waiting to be run
+     *
+     * @return the number of queued actions
+     */
+    public synchronized int getQueuedCount() {
+        return batches.stream().mapToInt(batch -> batch.entries.size()).sum();
+    }
+
+    @NotNull
+    private synchronized CompletableFuture<Integer> submit(@NotNull List<Entry> entries) {
+        final Batch batch = new Batch(new ArrayDeque<>(entries), new CompletableFuture<>());
+        if (entries.isEmpty()) {
+            batch.future.complete(0);
+            return batch.future;
+        }
+
+        batches.add(batch);
+        if (taskId == -1) {
+            taskId = plugin.runSyncRepeating(this::tick, 1L);
+        }
+        return batch.future;
+    }
+
+    // Run this tick's share of queued actions
+    private void tick() {
+        final List<Entry> due = new ArrayList<>();
+        final List<Batch> completed = new ArrayList<>();
+        synchronized (this) {
+            int budget = Math.max(1, plugin.getSettings().getBulkTeleportsPerTick());
+            while (budget > 0 && !batches.isEmpty()) {
+                final Batch batch = batches.peek();
+                final Entry entry = batch.entries.poll();
+                if (entry != null) {
+                    due.add(entry.in(batch));
+                    budget--;
+                }
+                if (batch.entries.isEmpty()) {
+                    completed.add(batches.poll());
+                }
+            }
+
+            if (batches.isEmpty()) {
+                plugin.cancelTask(taskId);
+                taskId = -1;
+            }
+        }
+
+        // Run actions outside the lock, as teleports may be slow
+        for (Entry entry : due) {
+            try {
+                if (entry.action.test(entry.user)) {
+                    entry.batch.succeeded++;
+                }
+            } finally {
+                if (entry.releasing != null) {
+                    final PreloadedChunks.ChunkKey destination = entry.releasing;
+                    plugin.runLater(() -> plugin.getManager().warmups().getPreloadedChunks().release(destination),
+                            CHUNK_RELEASE_DELAY);
+                }
+            }
+        }
+        completed.forEach(batch -> batch.future.complete(batch.succeeded));
+    }
+
+    private boolean executeTeleport(@NotNull OnlineUser teleporter, @NotNull Position target) {
+        try {
+            Teleport.builder(plugin)
+                    .teleporter(teleporter)
+                    .target(target)
+                    .toTeleport()
+                    .execute();
+            return true;
+        } catch (TeleportationException e) {
+            e.displayMessage(plugin.getConsole(), plugin);
+            return false;
+        }
+    }
+
+    // Returns if a position is on this server
+    private boolean isLocal(@NotNull Position position) {
+        return !plugin.getSettings().doCrossServer() || position.getServer().equals(plugin.getServerName());
+    }
+
+    // A queue of actions submitted together, and the future to complete once they have all been run
+    private static final class Batch {
+        private final Deque<Entry> entries;
+        private final CompletableFuture<Integer> future;
+        private int succeeded = 0;
+
+        private Batch(@NotNull Deque<Entry> entries, @NotNull CompletableFuture<Integer> future) {
+            this.entries = entries;
+            this.future = future;
+        }
+    }
+
+    /**
+     * An action to run for a user
+     *
+     * @param user      the user to run the action for
+     * @param action    the action, returning {@code true} if it succeeded
+     * @param releasing the destination chunk to release after running the action, if it is the last to need it
+     * @param batch     the batch the action belongs to, once it is due to run
+     */
+    private record Entry(@NotNull OnlineUser user, @NotNull Predicate<OnlineUser> action,
+                         @Nullable PreloadedChunks.ChunkKey releasing, @Nullable Batch batch) {
+
+        private Entry(@NotNull OnlineUser user, @NotNull Predicate<OnlineUser> action) {
+            this(user, action, null, null);
+        }
+
+        @NotNull
+        private Entry releasing(@NotNull PreloadedChunks.ChunkKey destination) {
+            return new Entry(user, action, destination, batch);
+        }
+
+        @NotNull
+        private Entry in(@NotNull Batch batch) {
+            return new Entry(user, action, releasing, batch);
+        }
+
+    }
+
+}
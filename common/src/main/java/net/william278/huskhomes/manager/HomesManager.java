@@ -26,6 +26,7 @@ import net.william278.huskhomes.network.Message;
 import net.william278.huskhomes.network.Payload;
 import net.william278.huskhomes.position.Home;
 import net.william278.huskhomes.position.Position;
+import net.william278.huskhomes.position.PositionIndex;
 import net.william278.huskhomes.position.PositionMeta;
 import net.william278.huskhomes.user.OnlineUser;
 import net.william278.huskhomes.user.SavedUser;
@@ -42,11 +43,14 @@ public class HomesManager {
 
     private final HuskHomes plugin;
     private final ConcurrentLinkedQueue<Home> publicHomes;
+    private final PositionIndex<Home> publicHomeIndex;
     private final ConcurrentHashMap<String, ConcurrentLinkedQueue<Home>> userHomes;
 
     protected HomesManager(@NotNull HuskHomes plugin) {
         this.plugin = plugin;
         this.publicHomes = new ConcurrentLinkedQueue<>(plugin.getDatabase().getPublicHomes());
+        this.publicHomeIndex = new PositionIndex<>();
+        this.publicHomes.forEach(publicHomeIndex::put);
         this.userHomes = new ConcurrentHashMap<>();
         plugin.runAsync(() -> plugin.getOnlineUsers()
                 .forEach(this::cacheUserHomes));
@@ -86,6 +90,30 @@ public class HomesManager {
                 .toList();
     }
 
+    /**
+     * Get cached public homes within a radius of a position, on the same server and in the same world
+     *
+     * @param center the position to search around
+     * @param radius the horizontal distance from the position to search within
+     * @param limit  the most homes to return
+     * @return the public homes found, nearest first
+     */
+    @NotNull
+    public List<Home> getNearbyPublicHomes(@NotNull Position center, double radius, int limit) {
+        return publicHomeIndex.getNearby(center, radius, limit);
+    }
+
+    /**
+     * Get the cached public home nearest a position, on the same server and in the same world
+     *
+     * @param center the position to search from
+     * @return the nearest public home, if there is one
+     */
+    @NotNull
+    public Optional<Home> getNearestPublicHome(@NotNull Position center) {
+        return publicHomeIndex.getNearest(center);
+    }
+
     public void cacheUserHomes(@NotNull User user) {
         userHomes.put(user.getUsername(), new ConcurrentLinkedQueue<>(plugin.getDatabase().getHomes(user)));
     }
@@ -97,10 +125,12 @@ public class HomesManager {
             return v;
         });
         if (publicHomes.remove(home) && !home.isPublic()) {
+            publicHomeIndex.remove(home.getUuid());
             plugin.getMapHook().ifPresent(hook -> hook.removeHome(home));
         }
         if (home.isPublic()) {
             publicHomes.add(home);
+            publicHomeIndex.put(home);
             plugin.getMapHook().ifPresent(hook -> hook.updateHome(home));
         }
 
@@ -115,6 +145,7 @@ public class HomesManager {
 
     public void unCacheHome(@NotNull UUID homeId, boolean propagate) {
         userHomes.values().forEach(homes -> homes.removeIf(home -> home.getUuid().equals(homeId)));
+        publicHomeIndex.remove(homeId);
         publicHomes.removeIf(home -> {
             if (home.getUuid().equals(homeId)) {
                 plugin.getMapHook().ifPresent(hook -> hook.removeHome(home));
@@ -134,12 +165,12 @@ public class HomesManager {
 
     private void propagateCacheUpdate(@NotNull UUID homeId) {
         if (plugin.getSettings().doCrossServer()) {
-            plugin.getOnlineUsers().stream().findAny().ifPresent(user -> Message.builder()
+            plugin.getMessenger().sendServerMessage(Message.builder()
                     .type(Message.Type.UPDATE_HOME)
                     .scope(Message.Scope.SERVER)
                     .target(Message.TARGET_ALL)
                     .payload(Payload.withString(homeId.toString()))
-                    .build().send(plugin.getMessenger(), user));
+                    .build());
         }
     }
 
@@ -220,6 +251,7 @@ public class HomesManager {
             return v;
         });
         publicHomes.removeIf(h -> h.getOwner().getUuid().equals(owner.getUuid()));
+        publicHomeIndex.removeIf(h -> h.getOwner().getUuid().equals(owner.getUuid()));
         plugin.getMapHook().ifPresent(hook -> hook.clearHomes(owner));
         plugin.getManager().propagateCacheUpdate();
         return deleted;
@@ -21,20 +21,73 @@ package net.william278.huskhomes.manager;
 
 import net.william278.huskhomes.HuskHomes;
 import net.william278.huskhomes.network.Message;
+import net.william278.huskhomes.random.AdmissionController;
+import net.william278.huskhomes.random.CandidateEvaluator;
+import net.william278.huskhomes.random.RandomPositionPool;
+import net.william278.huskhomes.random.SuccessGrid;
+import net.william278.huskhomes.teleport.TeleportMetrics;
+import net.william278.huskhomes.util.TickRateMonitor;
 import org.jetbrains.annotations.NotNull;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.logging.Level;
+
 public class Manager {
 
+    /**
+     * Ticks between saving the random teleport success grid
+     */
+    private static final long RTP_GRID_SAVE_PERIOD = 6000L;
+
+    /**
+     * Ticks between checking if queued random teleports can start
+     */
+    private static final long RTP_ADMISSION_PERIOD = 5L;
+
     private final HuskHomes plugin;
     private final HomesManager homes;
     private final WarpsManager warps;
     private final RequestsManager requests;
+    private final WarmupManager warmups;
+    private final BulkTeleportManager bulkTeleports;
+    private final PositionHistoryManager history;
+    private final NetworkRtpManager networkRtp;
+    private final RandomPositionPool randomPositions;
+    private final CandidateEvaluator rtpCandidates;
+    private final AdmissionController rtpAdmission;
+    private final SuccessGrid rtpGrid;
+    private final TeleportMetrics metrics;
+    private final TickRateMonitor tickRate;
 
     public Manager(@NotNull HuskHomes plugin) {
         this.plugin = plugin;
         this.homes = new HomesManager(plugin);
         this.warps = new WarpsManager(plugin);
         this.requests = new RequestsManager(plugin);
+        this.warmups = new WarmupManager(plugin);
+        this.bulkTeleports = new BulkTeleportManager(plugin);
+        this.history = new PositionHistoryManager(plugin);
+        this.rtpGrid = new SuccessGrid();
+        this.rtpCandidates = new CandidateEvaluator(candidate -> plugin.findSafeGroundLocation(candidate)
+                .whenComplete((safe, e) -> {
+                    if (e == null) {
+                        rtpGrid.record(candidate, safe.isPresent());
+                    }
+                }), () -> plugin.getSettings().getRtpMaxCandidatesInFlight());
+        this.tickRate = new TickRateMonitor();
+        this.rtpAdmission = new AdmissionController(tickRate::getTickRate, rtpCandidates::getInFlightCount,
+                () -> new AdmissionController.Limits(
+                        plugin.getSettings().getRtpThrottleTps(), plugin.getSettings().getRtpPauseTps(),
+                        plugin.getSettings().getRtpMaxConcurrentSearches(),
+                        plugin.getSettings().getRtpMaxQueuedRequests(),
+                        plugin.getSettings().getRtpMaxCandidatesInFlight()));
+        this.randomPositions = new RandomPositionPool(plugin, rtpAdmission);
+        this.networkRtp = new NetworkRtpManager(plugin);
+        this.metrics = new TeleportMetrics();
+        this.loadRtpGrid();
+        plugin.runSyncRepeating(() -> tickRate.tick(System.nanoTime()), 1L);
+        plugin.runAsyncRepeating(rtpAdmission::pump, RTP_ADMISSION_PERIOD);
     }
 
     @NotNull
@@ -52,14 +105,90 @@ public class Manager {
         return requests;
     }
 
+    @NotNull
+    public WarmupManager warmups() {
+        return warmups;
+    }
+
+    @NotNull
+    public BulkTeleportManager bulkTeleports() {
+        return bulkTeleports;
+    }
+
+    @NotNull
+    public PositionHistoryManager history() {
+        return history;
+    }
+
+    @NotNull
+    public RandomPositionPool randomPositions() {
+        return randomPositions;
+    }
+
+    @NotNull
+    public NetworkRtpManager networkRtp() {
+        return networkRtp;
+    }
+
+    @NotNull
+    public CandidateEvaluator rtpCandidates() {
+        return rtpCandidates;
+    }
+
+    @NotNull
+    public AdmissionController rtpAdmission() {
+        return rtpAdmission;
+    }
+
+    @NotNull
+    public SuccessGrid rtpGrid() {
+        return rtpGrid;
+    }
+
+    @NotNull
+    public TeleportMetrics metrics() {
+        return metrics;
+    }
+
+    @NotNull
+    public TickRateMonitor tickRate() {
+        return tickRate;
+    }
+
+    /**
+     * Save the random teleport success grid, if outcomes have been recorded since it was last saved
+     */
+    public void saveRtpGrid() {
+        try {
+            rtpGrid.save(getRtpGridFile(), plugin.getGson());
+        } catch (IOException e) {
+            plugin.log(Level.WARNING, "Failed to save the random teleport success grid", e);
+        }
+    }
+
+    // Load the random teleport success grid, and save it periodically
+    private void loadRtpGrid() {
+        try {
+            rtpGrid.load(getRtpGridFile(), plugin.getGson());
+        } catch (IOException e) {
+            plugin.log(Level.WARNING, "Failed to load the random teleport success grid", e);
+        }
+        plugin.runAsyncRepeating(this::saveRtpGrid, RTP_GRID_SAVE_PERIOD);
+    }
+
+    @NotNull
+    private File getRtpGridFile() {
+        return new File(plugin.getDataFolder(), "rtp_grid.json");
+    }
+
     // Update caches on all servers
     protected void propagateCacheUpdate() {
         if (plugin.getSettings().doCrossServer()) {
-            plugin.getOnlineUsers().stream().findAny().ifPresent(user -> Message.builder()
+            plugin.getMessenger().sendServerMessage(Message.builder()
                     .type(Message.Type.UPDATE_CACHES)
                     .scope(Message.Scope.SERVER)
                     .target(Message.TARGET_ALL)
-                    .build().send(plugin.getMessenger(), user));
+                    .build());
         }
     }
 }
@@ -0,0 +1,193 @@
+/*
+ * This file is part of HuskHomes, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.manager;
+
+import net.william278.huskhomes.HuskHomes;
+import net.william278.huskhomes.network.Broker;
+import net.william278.huskhomes.network.Message;
+import net.william278.huskhomes.network.Payload;
+import net.william278.huskhomes.network.ServerLoad;
+import net.william278.huskhomes.position.Position;
+import net.william278.huskhomes.position.World;
+import net.william278.huskhomes.random.AdmissionController;
+import net.william278.huskhomes.user.OnlineUser;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Predicate;
+
+/**
+ * Sends random teleports to the least busy server on the network, if cross-server random teleports are enabled.
+ * <p>
+ * Each server advertises its {@link ServerLoad} to the others every few seconds. When a player randomly teleports,
+ * the least busy server is chosen from those that have advertised (see {@link ServerLoadTable}). If that is another
+ * server, it is asked for a safe position, from its pool if it has one, and the player is sent there through the
+ * usual cross-server teleport.
+ */
+public class NetworkRtpManager {
+
+    /**
+     * Ticks between advertising this server's load
+     */
+    private static final long ADVERTISE_PERIOD = 100L;
+
+    /**
+     * Responses sent when a server could not provide a random position
+     */
+    private static final String BUSY = "BUSY";
+    private static final String NOT_FOUND = "NOT_FOUND";
+
+    private final HuskHomes plugin;
+    private final ServerLoadTable servers = new ServerLoadTable();
+
+    protected NetworkRtpManager(@NotNull HuskHomes plugin) {
+        this.plugin = plugin;
+        if (isEnabled()) {
+            // Start advertising once the message broker has had time to start
+            plugin.runLater(() -> plugin.runAsyncRepeating(this::advertise, ADVERTISE_PERIOD), ADVERTISE_PERIOD);
+        }
+    }
+
+    /**
+     * Get whether random teleports may be sent to other servers
+     *
+     * @return whether cross-server random teleports are enabled
+     */
+    public boolean isEnabled() {
+        return plugin.getSettings().doCrossServer() && plugin.getSettings().doCrossServerRtp();
+    }
+
+    /**
+     * Choose the least busy server, including this one, and a world on it to randomly teleport a player in
+     *
+     * @param eligibleWorld tests whether the player may be sent to a world, by name
+     * @return the chosen server and world, or empty if no server can currently take a random teleport
+     */
+    public Optional<ServerLoadTable.Target> chooseServer(@NotNull Predicate<String> eligibleWorld) {
+        return servers.choose(plugin.getServerName(), getLocalLoad(), plugin.getSettings()::isCrossServerRtpServer,
+                eligibleWorld, plugin.getSettings().getRtpPauseTps(), System.currentTimeMillis());
+    }
+
+    /**
+     * Ask another server for a safe random position in one of its worlds
+     *
+     * @param teleporter the player who will be teleported
+     * @param target     the server and world to find a position in
+     * @return a future completing with the position, or empty if the server could not find one. Completes
+     * exceptionally if the server was too busy, or did not respond in time
+     */
+    @NotNull
+    public CompletableFuture<Optional<Position>> requestPosition(@NotNull OnlineUser teleporter,
+                                                                 @NotNull ServerLoadTable.Target target) {
+        return plugin.getMessenger().sendRequest(Message.builder()
+                        .type(Message.Type.REQUEST_RANDOM_POSITION)
+                        .scope(Message.Scope.SERVER)
+                        .target(target.server())
+                        .payload(Payload.withString(target.world()))
+                        .build(), teleporter, plugin.getSettings().getCrossServerRtpTimeout())
+                .thenApply(payload -> {
+                    final Optional<Position> position = payload.getPosition();
+                    if (position.isPresent() || payload.getString().filter(NOT_FOUND::equals).isPresent()) {
+                        return position;
+                    }
+                    throw new RejectedExecutionException(target.server() + " was too busy to find a random position");
+                });
+    }
+
+    /**
+     * Find a safe random position for a player on another server, through this server's
+     * {@link AdmissionController}
+     *
+     * @param requester the name of the player the position is for
+     * @param worldName the name of the world to find a position in
+     * @return a future completing with the response payload to send back
+     */
+    @NotNull
+    public CompletableFuture<Payload> getRandomPosition(@NotNull String requester, @NotNull String worldName) {
+        final Optional<World> world = plugin.getWorlds().stream()
+                .filter(candidate -> candidate.getName().equals(worldName))
+                .filter(candidate -> !plugin.getSettings().isWorldRtpRestricted(candidate))
+                .findFirst();
+        if (world.isEmpty()) {
+            return CompletableFuture.completedFuture(Payload.withString(NOT_FOUND));
+        }
+
+        // The player is not on this server, so their request is identified by name
+        final UUID requesterId = UUID.nameUUIDFromBytes(requester.getBytes(StandardCharsets.UTF_8));
+        final AdmissionController.Ticket<Optional<Position>> ticket = plugin.getManager().rtpAdmission()
+                .submit(requesterId, () -> plugin.getManager().randomPositions().getRandomPosition(world.get()));
+        if (!ticket.isAccepted()) {
+            return CompletableFuture.completedFuture(Payload.withString(BUSY));
+        }
+        return ticket.result().handle((position, e) -> e != null ? Payload.withString(BUSY)
+                : position.map(Payload::withPosition).orElseGet(() -> Payload.withString(NOT_FOUND)));
+    }
+
+    /**
+     * Record the load another server has advertised
+     *
+     * @param server the name of the server
+     * @param load   the server's load
+     */
+    public void updateLoad(@NotNull String server, @NotNull ServerLoad load) {
+        servers.update(server, load, System.currentTimeMillis());
+    }
+
+    /**
+     * Get the number of other servers that have advertised their load recently
+     *
+     * @return the number of known servers
+     */
+    public int getServerCount() {
+        return servers.getServerCount(System.currentTimeMillis());
+    }
+
+    private void advertise() {
+        // Plugin messages need an online player to carry them
+        if (plugin.getSettings().getBrokerType() == Broker.Type.PLUGIN_MESSAGE && plugin.getOnlineUsers().isEmpty()) {
+            return;
+        }
+        plugin.getMessenger().sendServerMessage(Message.builder()
+                .type(Message.Type.SERVER_LOAD)
+                .scope(Message.Scope.SERVER)
+                .target(Message.TARGET_ALL)
+                .payload(Payload.withServerLoad(getLocalLoad()))
+                .build());
+    }
+
+    @NotNull
+    private ServerLoad getLocalLoad() {
+        final Map<String, Integer> worlds = new LinkedHashMap<>();
+        plugin.getWorlds().stream()
+                .filter(world -> !plugin.getSettings().isWorldRtpRestricted(world))
+                .forEach(world -> worlds.put(world.getName(),
+                        plugin.getManager().randomPositions().getPooledCount(world)));
+        final AdmissionController admission = plugin.getManager().rtpAdmission();
+        return ServerLoad.of(plugin.getOnlineUsers().size(), plugin.getManager().tickRate().getTickRate(),
+                admission.getRunningCount() + admission.getQueuedCount(), worlds);
+    }
+
+}
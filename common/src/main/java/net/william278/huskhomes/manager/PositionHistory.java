@@ -0,0 +1,120 @@
+/*
+ * This file is part of HuskHomes, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.manager;
+
+import net.william278.huskhomes.position.Position;
+import net.william278.huskhomes.user.User;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A fixed-size ring buffer of a user's previous positions, most recent first.
+ * <p>
+ * Positions added before the user's saved history has been loaded are kept, and the saved history is appended behind
+ * them when it is loaded through {@link #load(List)}.
+ */
+final class PositionHistory {
+
+    private final User user;
+    private final Position[] positions;
+    private int head = 0;
+    private int size = 0;
+    private boolean loaded = false;
+    private boolean dirty = false;
+
+    PositionHistory(@NotNull User user, int capacity) {
+        this.user = user;
+        this.positions = new Position[Math.max(1, capacity)];
+    }
+
+    @NotNull
+    User getUser() {
+        return user;
+    }
+
+    // Add a position as the most recent, overwriting the oldest if the buffer is full
+    synchronized void add(@NotNull Position position) {
+        positions[head] = position;
+        head = (head + 1) % positions.length;
+        size = Math.min(size + 1, positions.length);
+        dirty = true;
+    }
+
+    // Get a position by how recent it is, where 0 is the most recent
+    @Nullable
+    synchronized Position get(int index) {
+        if (index < 0 || index >= size) {
+            return null;
+        }
+        return positions[Math.floorMod(head - 1 - index, positions.length)];
+    }
+
+    @NotNull
+    synchronized List<Position> getPositions() {
+        final List<Position> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(get(i));
+        }
+        return list;
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    synchronized boolean isLoaded() {
+        return loaded;
+    }
+
+    // Append saved positions, most recent first, behind those added since the history was created
+    synchronized void load(@NotNull List<Position> saved) {
+        if (loaded) {
+            return;
+        }
+        loaded = true;
+        if (saved.isEmpty()) {
+            return;
+        }
+
+        final List<Position> merged = getPositions();
+        merged.addAll(saved);
+        final boolean added = dirty;
+        head = 0;
+        size = 0;
+        for (int i = Math.min(merged.size(), positions.length) - 1; i >= 0; i--) {
+            add(merged.get(i));
+        }
+        dirty = added;
+    }
+
+    // Get the positions to save if they have changed since they were last saved, marking them as saved
+    @Nullable
+    synchronized List<Position> takeChanges() {
+        if (!dirty) {
+            return null;
+        }
+        dirty = false;
+        return getPositions();
+    }
+
+}
@@ -0,0 +1,177 @@
+/*
+ * This file is part of HuskHomes, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.manager;
+
+import net.william278.huskhomes.HuskHomes;
+import net.william278.huskhomes.position.Position;
+import net.william278.huskhomes.user.User;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the {@code /back} position history of users in memory.
+ * <p>
+ * Recording a position only touches memory. A user's history is loaded from the database the first time it is read,
+ * and changed histories are saved in the background, when the user leaves, before they are sent to another server,
+ * and when the plugin is disabled. Users without a saved history start from their legacy last position.
+ */
+public class PositionHistoryManager {
+
+    /**
+     * Ticks between saving changed histories to the database
+     */
+    private static final long FLUSH_PERIOD = 600L;
+
+    private final HuskHomes plugin;
+    private final Map<UUID, PositionHistory> histories = new ConcurrentHashMap<>();
+    private int taskId = -1;
+
+    protected PositionHistoryManager(@NotNull HuskHomes plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Record a position as the most recent in a user's history. If the user is not online on this server, their
+     * history is saved to the database immediately
+     *
+     * @param user     the user to record the position of
+     * @param position the position to record
+     */
+    public void addPosition(@NotNull User user, @NotNull Position position) {
+        final PositionHistory cached = histories.get(user.getUuid());
+        if (cached == null && !isOnline(user)) {
+            final PositionHistory history = createHistory(user);
+            history.add(position);
+            flush(history);
+            return;
+        }
+
+        (cached != null ? cached : histories.computeIfAbsent(user.getUuid(), uuid -> createHistory(user)))
+                .add(position);
+        startFlushing();
+    }
+
+    /**
+     * Get a user's position history, loading it from the database if needed
+     *
+     * @param user the user to get the history of
+     * @return the user's previous positions, most recent first
+     */
+    @NotNull
+    public List<Position> getPositions(@NotNull User user) {
+        return getLoadedHistory(user).getPositions();
+    }
+
+    /**
+     * Get a position from a user's history, loading it from the database if needed
+     *
+     * @param user  the user to get the position of
+     * @param index how recent the position is, where {@code 1} is the most recent
+     * @return the position, if the user's history goes back that far
+     */
+    public Optional<Position> getPosition(@NotNull User user, int index) {
+        return Optional.ofNullable(getLoadedHistory(user).get(index - 1));
+    }
+
+    /**
+     * Save a user's history to the database now, if it has changed
+     *
+     * @param user the user to save the history of
+     */
+    public void flush(@NotNull User user) {
+        final PositionHistory history = histories.get(user.getUuid());
+        if (history != null) {
+            flush(history);
+        }
+    }
+
+    /**
+     * Save all changed histories to the database now
+     */
+    public void flushAll() {
+        histories.values().forEach(this::flush);
+    }
+
+    /**
+     * Save a user's history if it has changed and stop keeping it in memory, such as when they leave
+     *
+     * @param user the user to unload the history of
+     */
+    public void unload(@NotNull User user) {
+        final PositionHistory history = histories.remove(user.getUuid());
+        if (history != null) {
+            flush(history);
+        }
+    }
+
+    // Get a user's history, only keeping it in memory if they are online on this server
+    @NotNull
+    private PositionHistory getLoadedHistory(@NotNull User user) {
+        PositionHistory history = histories.get(user.getUuid());
+        if (history == null) {
+            history = isOnline(user)
+                    ? histories.computeIfAbsent(user.getUuid(), uuid -> createHistory(user))
+                    : createHistory(user);
+        }
+        load(history);
+        return history;
+    }
+
+    @NotNull
+    private PositionHistory createHistory(@NotNull User user) {
+        return new PositionHistory(user, plugin.getSettings().getBackCommandHistorySize());
+    }
+
+    private boolean isOnline(@NotNull User user) {
+        return plugin.getOnlineUsers().stream().anyMatch(online -> online.getUuid().equals(user.getUuid()));
+    }
+
+    // Load a history's saved positions, falling back to the user's legacy last position
+    private void load(@NotNull PositionHistory history) {
+        if (history.isLoaded()) {
+            return;
+        }
+        final List<Position> saved = plugin.getDatabase().getPositionHistory(history.getUser());
+        history.load(saved.isEmpty()
+                ? plugin.getDatabase().getLastPosition(history.getUser()).map(List::of).orElse(List.of())
+                : saved);
+    }
+
+    // Histories must be loaded before saving, so positions recorded before loading don't overwrite saved ones
+    private void flush(@NotNull PositionHistory history) {
+        load(history);
+        final List<Position> changes = history.takeChanges();
+        if (changes != null) {
+            plugin.getDatabase().setPositionHistory(history.getUser(), changes);
+        }
+    }
+
+    private synchronized void startFlushing() {
+        if (taskId == -1) {
+            taskId = plugin.runAsyncRepeating(this::flushAll, FLUSH_PERIOD);
+        }
+    }
+
+}
@@ -0,0 +1,175 @@
+/*
+ * This file is part of HuskHomes, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.manager;
+
+import net.william278.huskhomes.HuskHomes;
+import net.william278.huskhomes.position.Location;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Tracks the destination chunks being preloaded while teleports warm up.
+ * <p>
+ * Each chunk is loaded once, however many warmups are headed to it, and released once none are. On arrival, whether
+ * the destination chunk had finished loading is recorded.
+ */
+public class PreloadedChunks {
+
+    private final HuskHomes plugin;
+    private final Map<ChunkKey, PreloadedChunk> chunks = new HashMap<>();
+    private final LongAdder arrivals = new LongAdder();
+    private final LongAdder preloadedArrivals = new LongAdder();
+
+    protected PreloadedChunks(@NotNull HuskHomes plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Start preloading the chunk containing a location, if it is not already being preloaded
+     *
+     * @param location the location to preload the chunk of
+     * @return the chunk being preloaded, to be passed to {@link #release(ChunkKey)} once it is no longer needed
+     */
+    @NotNull
+    public synchronized ChunkKey acquire(@NotNull Location location) {
+        final ChunkKey key = ChunkKey.of(location);
+        final PreloadedChunk chunk = chunks.get(key);
+        if (chunk != null) {
+            chunk.references++;
+            return key;
+        }
+
+        chunks.put(key, new PreloadedChunk(location, plugin.preloadChunk(location)));
+        return key;
+    }
+
+    /**
+     * Get a future completing when a preloaded chunk has finished loading
+     *
+     * @param key the chunk to wait for
+     * @return a future completing with {@code true} if the chunk was loaded, or {@code false} if it failed to load or
+     * is not being preloaded
+     */
+    @NotNull
+    public synchronized CompletableFuture<Boolean> whenLoaded(@NotNull ChunkKey key) {
+        final PreloadedChunk chunk = chunks.get(key);
+        return chunk != null ? chunk.loaded : CompletableFuture.completedFuture(false);
+    }
+
+    /**
+     * Release a preloaded chunk, allowing it to unload once no other warmups need it
+     *
+     * @param key the chunk to release
+     */
+    public synchronized void release(@NotNull ChunkKey key) {
+        final PreloadedChunk chunk = chunks.get(key);
+        if (chunk == null || --chunk.references > 0) {
+            return;
+        }
+
+        // Wait for the chunk to finish loading, so it is not held again after being released. The chunk stays tracked
+        // until then, so a warmup acquiring it in the meantime reuses it rather than having its ticket released
+        chunk.loaded.whenComplete((success, e) -> releaseIfUnused(key, chunk));
+    }
+
+    // Release a chunk that has finished loading, unless it has been acquired again since
+    private synchronized void releaseIfUnused(@NotNull ChunkKey key, @NotNull PreloadedChunk chunk) {
+        if (chunk.references > 0 || !chunks.remove(key, chunk)) {
+            return;
+        }
+        plugin.releaseChunk(chunk.location);
+    }
+
+    /**
+     * Record a teleport arriving at a preloaded chunk
+     *
+     * @param key the chunk arrived at
+     */
+    public synchronized void recordArrival(@NotNull ChunkKey key) {
+        final PreloadedChunk chunk = chunks.get(key);
+        arrivals.increment();
+        if (chunk != null && chunk.loaded.getNow(false)) {
+            preloadedArrivals.increment();
+        }
+    }
+
+    /**
+     * Get the number of chunks currently being preloaded
+     *
+     * @return the number of preloaded chunks
+     */
+    public synchronized int getPreloadedChunkCount() {
+        return chunks.size();
+    }
+
+    /**
+     * Get the number of teleports that have arrived after a warmup
+     *
+     * @return the number of arrivals
+     */
+    public long getArrivalCount() {
+        return arrivals.sum();
+    }
+
+    /**
+     * Get the number of teleports that arrived at a chunk that had already finished preloading
+     *
+     * @return the number of arrivals at a loaded chunk
+     */
+    public long getPreloadedArrivalCount() {
+        return preloadedArrivals.sum();
+    }
+
+    /**
+     * Identifies a chunk in a world
+     *
+     * @param world  the UUID of the world
+     * @param chunkX the chunk x coordinate
+     * @param chunkZ the chunk z coordinate
+     */
+    public record ChunkKey(@NotNull UUID world, int chunkX, int chunkZ) {
+
+        @NotNull
+        private static ChunkKey of(@NotNull Location location) {
+            return new ChunkKey(location.getWorld().getUuid(),
+                    (int) Math.floor(location.getX()) >> 4,
+                    (int) Math.floor(location.getZ()) >> 4);
+        }
+
+    }
+
+    // A chunk being preloaded, and the number of warmups that need it
+    private static final class PreloadedChunk {
+        private final Location location;
+        private final CompletableFuture<Boolean> loaded;
+        private int references = 1;
+
+        private PreloadedChunk(@NotNull Location location, @NotNull CompletableFuture<Boolean> loaded) {
+            this.location = location;
+            this.loaded = loaded;
+        }
+    }
+
+}
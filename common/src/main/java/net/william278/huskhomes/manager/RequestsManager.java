@@ -35,20 +35,26 @@ import org.jetbrains.annotations.NotNull;
 
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Level;
 
 /**
  * Manages {@link TeleportRequest}s between players
+ * <p>
+ * Received requests are held in a {@link TeleportRequestStore}. While any are pending, expired requests are swept once
+ * a second, notifying the recipient and (if on this server) the requester.
  */
 public class RequestsManager {
 
     private final HuskHomes plugin;
 
-    // Map of user UUIDs to a queue of received teleport requests
-    private final Map<UUID, Deque<TeleportRequest>> requests;
+    // Received teleport requests, by recipient UUID and requester name
+    private final TeleportRequestStore requests;
+    private int sweepTaskId = -1;
 
     public RequestsManager(@NotNull HuskHomes plugin) {
         this.plugin = plugin;
-        this.requests = new HashMap<>();
+        this.requests = new TeleportRequestStore();
     }
 
     /**
@@ -62,26 +68,34 @@ public class RequestsManager {
     }
 
     /**
-     * Add a teleport request to a user's request queue
+     * Add a teleport request to a user's request queue, replacing any earlier request from the same requester. If the
+     * queue is full, the oldest request in it is dropped
      *
      * @param request   the {@link TeleportRequest} to add
      * @param recipient the {@link User} recipient of the request
      */
     public void addTeleportRequest(@NotNull TeleportRequest request, @NotNull User recipient) {
-        this.requests.computeIfAbsent(recipient.getUuid(), uuid -> new LinkedList<>()).addFirst(request);
+        this.requests.add(recipient.getUuid(), request, plugin.getSettings().getMaxPendingTeleportRequests());
+        this.startSweeping();
     }
 
     /**
-     * Remove {@link TeleportRequest}(s) sent by a requester, by name, from a recipient's queue
+     * Remove the {@link TeleportRequest} sent by a requester, by name, from a recipient's queue
      *
-     * @param requesterName the sender's username, whose requests should be removed
+     * @param requesterName the sender's username, whose request should be removed
      * @param recipient     the {@link User} recipient of the request
      */
     public void removeTeleportRequest(@NotNull String requesterName, @NotNull User recipient) {
-        this.requests.computeIfPresent(recipient.getUuid(), (uuid, requests) -> {
-            requests.removeIf(teleportRequest -> teleportRequest.getRequesterName().equalsIgnoreCase(requesterName));
-            return requests.isEmpty() ? null : requests;
-        });
+        this.requests.remove(recipient.getUuid(), requesterName);
+    }
+
+    /**
+     * Remove all the {@link TeleportRequest}s a user has received, such as when they leave
+     *
+     * @param recipient the {@link User} to remove the requests of
+     */
+    public void removeAllTeleportRequests(@NotNull User recipient) {
+        this.requests.removeAll(recipient.getUuid());
     }
 
     /**
@@ -91,48 +105,92 @@ public class RequestsManager {
      * @return the last received request, if present
      */
     public Optional<TeleportRequest> getLastTeleportRequest(@NotNull User recipient) {
-        return this.requests.getOrDefault(recipient.getUuid(), new LinkedList<>()).stream().findFirst();
+        return this.requests.getLast(recipient.getUuid());
     }
 
     /**
-     * Returns the last non-expired teleport request received from a requester.
-     * <ol>
-     * <li>If there are no unexpired requests sent by the requester, then the last expired request is returned.</li>
-     * <li>If there are no requests at all from the requester, then an empty optional is returned.</li>
-     * </ol>
+     * Returns the last teleport request received from a requester. The request may have expired if it has not yet been
+     * swept
      *
      * @param requesterName the name of the requester
      * @param recipient     the recipient {@link User}
-     * @return the last unexpired teleport request received from the requester, if present
+     * @return the last teleport request received from the requester, if present
      */
     public Optional<TeleportRequest> getTeleportRequest(@NotNull String requesterName, @NotNull User recipient) {
-        return this.requests.getOrDefault(recipient.getUuid(), new LinkedList<>()).stream()
-                .filter(request -> request.getRequesterName().equalsIgnoreCase(requesterName))
-                .filter(request -> !request.hasExpired())
-                .findFirst()
-                .or(() -> this.requests.getOrDefault(recipient.getUuid(), new LinkedList<>()).stream()
-                        .filter(request -> request.getRequesterName().equalsIgnoreCase(requesterName))
-                        .findFirst());
+        return this.requests.get(recipient.getUuid(), requesterName);
     }
 
-    public void sendTeleportAllRequest(@NotNull OnlineUser requester) {
-        final long expiry = Instant.now().getEpochSecond() + plugin.getSettings().getTeleportRequestExpiryTime();
-        final TeleportRequest request = new TeleportRequest(requester, TeleportRequest.Type.TPA_HERE, expiry);
-        for (OnlineUser onlineUser : plugin.getOnlineUsers()) {
-            if (onlineUser.equals(requester)) {
-                continue;
+    /**
+     * Get the number of teleport requests pending on this server
+     *
+     * @return the number of pending requests
+     */
+    public int getPendingRequestCount() {
+        return this.requests.size();
+    }
+
+    // Sweep expired requests once a second while there are any pending
+    private synchronized void startSweeping() {
+        if (sweepTaskId == -1) {
+            sweepTaskId = plugin.runAsyncRepeating(this::sweepExpiredRequests, 20L);
+        }
+    }
+
+    private void sweepExpiredRequests() {
+        try {
+            requests.removeExpired(Instant.now().getEpochSecond()).forEach(this::notifyExpired);
+        } catch (Throwable e) {
+            plugin.log(Level.WARNING, "Failed to sweep expired teleport requests", e);
+        }
+        synchronized (this) {
+            if (requests.isEmpty() && sweepTaskId != -1) {
+                plugin.cancelTask(sweepTaskId);
+                sweepTaskId = -1;
             }
-            request.setRecipientName(onlineUser.getUsername());
-            sendLocalTeleportRequest(request, onlineUser);
         }
+    }
+
+    // Let the recipient, and the requester if they are on this server, know a request has expired
+    private void notifyExpired(@NotNull TeleportRequestStore.Entry expired) {
+        final TeleportRequest request = expired.request();
+        plugin.getOnlineUsers().stream()
+                .filter(user -> user.getUuid().equals(expired.recipient()))
+                .findFirst()
+                .ifPresent(recipient -> plugin.getLocales()
+                        .getLocale("teleport_request_received_expired", request.getRequesterName())
+                        .ifPresent(recipient::sendMessage));
+        plugin.getOnlineUserExact(request.getRequesterName())
+                .ifPresent(requester -> plugin.getLocales()
+                        .getLocale("teleport_request_expired", request.getRecipientName())
+                        .ifPresent(requester::sendMessage));
+    }
 
+    /**
+     * Sends a teleport request asking every player to teleport to the requester. Requests to players on this server
+     * are sent over several ticks.
+     *
+     * @param requester The user making the request
+     * @return a future completing with the number of requests sent to players on this server, once all are sent
+     */
+    public CompletableFuture<Integer> sendTeleportAllRequest(@NotNull OnlineUser requester) {
+        final long expiry = Instant.now().getEpochSecond() + plugin.getSettings().getTeleportRequestExpiryTime();
         if (plugin.getSettings().doCrossServer()) {
             Message.builder()
                     .type(Message.Type.TELEPORT_REQUEST)
-                    .payload(Payload.withTeleportRequest(request))
+                    .payload(Payload.withTeleportRequest(
+                            new TeleportRequest(requester, TeleportRequest.Type.TPA_HERE, expiry)))
                     .target(Message.TARGET_ALL)
                     .build().send(plugin.getMessenger(), requester);
         }
+
+        // Send local requests over several ticks
+        final List<OnlineUser> recipients = plugin.getOnlineUsers().stream()
+                .filter(onlineUser -> !onlineUser.equals(requester))
+                .toList();
+        return plugin.getManager().bulkTeleports().schedule(recipients, recipient -> {
+            sendLocalTeleportRequest(new TeleportRequest(requester, TeleportRequest.Type.TPA_HERE, expiry), recipient);
+            return true;
+        });
     }
 
     /**
@@ -0,0 +1,156 @@
+/*
+ * This file is part of HuskHomes, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.manager;
+
+import net.william278.huskhomes.network.ServerLoad;
+import net.william278.huskhomes.util.TickRateMonitor;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * A thread-safe table of the load other servers on the network last advertised, used to choose the server to send a
+ * random teleport to.
+ * <p>
+ * Servers are compared by their players and pending random teleports, scaled up as their tick rate falls, so a lagging
+ * server counts as busier than its player count suggests. Ties go to the server with the most pooled positions. Each
+ * player sent to a server counts towards its load until it next advertises, so that a burst of random teleports is
+ * spread out rather than all being sent to whichever server was quietest a few seconds ago. Servers that have not
+ * advertised recently are forgotten.
+ */
+public class ServerLoadTable {
+
+    /**
+     * How long a server's advertised load is used for
+     */
+    static final long MAX_AGE_MILLIS = TimeUnit.SECONDS.toMillis(20);
+
+    private final Map<String, Entry> servers = new HashMap<>();
+
+    /**
+     * Record the load a server has advertised
+     *
+     * @param server the name of the server
+     * @param load   the server's load
+     * @param now    the current time, in milliseconds since the epoch
+     */
+    public synchronized void update(@NotNull String server, @NotNull ServerLoad load, long now) {
+        servers.put(server, new Entry(load, now));
+    }
+
+    /**
+     * Choose the least loaded server and world to send a random teleport to, counting it towards that server's load
+     *
+     * @param localServer   the name of this server
+     * @param localLoad     this server's current load
+     * @param eligible      tests whether a random teleport may be sent to a server
+     * @param eligibleWorld tests whether a random teleport may be sent to a world, by name
+     * @param minTickRate   servers below this tick rate are not chosen
+     * @param now           the current time, in milliseconds since the epoch
+     * @return the chosen server and world, or empty if no server can take the random teleport
+     */
+    public synchronized Optional<Target> choose(@NotNull String localServer, @NotNull ServerLoad localLoad,
+                                                @NotNull Predicate<String> eligible,
+                                                @NotNull Predicate<String> eligibleWorld,
+                                                double minTickRate, long now) {
+        servers.values().removeIf(entry -> now - entry.updatedAt > MAX_AGE_MILLIS);
+
+        String bestServer = null;
+        String bestWorld = null;
+        Entry best = null;
+        final Map<String, Entry> candidates = new TreeMap<>(servers);
+        candidates.put(localServer, new Entry(localLoad, now));
+        for (Map.Entry<String, Entry> candidate : candidates.entrySet()) {
+            final Entry entry = candidate.getValue();
+            if (!eligible.test(candidate.getKey()) || entry.load.getTickRate() < minTickRate) {
+                continue;
+            }
+            final Optional<String> world = getBestWorld(entry.load, eligibleWorld);
+            if (world.isEmpty()) {
+                continue;
+            }
+            if (best == null || entry.getScore() < best.getScore() || (entry.getScore() == best.getScore()
+                && entry.load.getPooledPositions() > best.load.getPooledPositions())) {
+                bestServer = candidate.getKey();
+                bestWorld = world.get();
+                best = entry;
+            }
+        }
+        if (best == null) {
+            return Optional.empty();
+        }
+
+        best.assigned++;
+        return Optional.of(new Target(bestServer, bestWorld));
+    }
+
+    /**
+     * Get the number of servers that have advertised their load recently
+     *
+     * @param now the current time, in milliseconds since the epoch
+     * @return the number of known servers
+     */
+    public synchronized int getServerCount(long now) {
+        return (int) servers.values().stream().filter(entry -> now - entry.updatedAt <= MAX_AGE_MILLIS).count();
+    }
+
+    // The eligible world with the most pooled positions, or the first listed if none have any
+    @NotNull
+    private static Optional<String> getBestWorld(@NotNull ServerLoad load, @NotNull Predicate<String> eligibleWorld) {
+        String bestWorld = null;
+        int mostPooled = -1;
+        for (Map.Entry<String, Integer> world : load.getRtpWorlds().entrySet()) {
+            if (eligibleWorld.test(world.getKey()) && world.getValue() > mostPooled) {
+                bestWorld = world.getKey();
+                mostPooled = world.getValue();
+            }
+        }
+        return Optional.ofNullable(bestWorld);
+    }
+
+    /**
+     * A server and world chosen to send a random teleport to
+     *
+     * @param server the name of the server
+     * @param world  the name of the world
+     */
+    public record Target(@NotNull String server, @NotNull String world) {
+    }
+
+    private static final class Entry {
+        private final ServerLoad load;
+        private final long updatedAt;
+        private int assigned;
+
+        private Entry(@NotNull ServerLoad load, long updatedAt) {
+            this.load = load;
+            this.updatedAt = updatedAt;
+        }
+
+        // Players per unit of spare tick capacity
+        private double getScore() {
+            final double capacity = Math.max(0.05, load.getTickRate() / TickRateMonitor.MAX_TICK_RATE);
+            return (load.getPlayers() + load.getPendingRtps() + assigned) / capacity;
+        }
+    }
+
+}
@@ -0,0 +1,182 @@
+/*
+ * This file is part of HuskHomes, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.manager;
+
+import net.william278.huskhomes.teleport.TeleportRequest;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+
+/**
+ * A thread-safe store of pending {@link TeleportRequest}s, indexed by recipient and by requester name.
+ * <p>
+ * Each recipient holds at most one request per requester; a newer request from the same requester replaces the older
+ * one. Each recipient's queue is bounded, dropping the oldest request once full. Requests are also kept in a queue
+ * ordered by expiry time, so expired requests can be swept without scanning every recipient.
+ */
+public class TeleportRequestStore {
+
+    // Recipient UUIDs mapped to their requests, keyed by lower-case requester name, oldest first
+    private final Map<UUID, LinkedHashMap<String, TeleportRequest>> requests = new HashMap<>();
+
+    // Requests ordered by expiry; entries for requests that have since been removed are skipped when swept
+    private final PriorityQueue<Entry> expiries = new PriorityQueue<>(
+            Comparator.comparingLong(entry -> entry.request().getExpiryTime()));
+
+    /**
+     * Add a request to a recipient's queue
+     *
+     * @param recipient   the UUID of the recipient
+     * @param request     the request to add
+     * @param maxRequests the most requests the recipient may have pending
+     * @return the oldest request, if it was dropped to make room
+     */
+    public synchronized Optional<TeleportRequest> add(@NotNull UUID recipient, @NotNull TeleportRequest request,
+                                                      int maxRequests) {
+        final LinkedHashMap<String, TeleportRequest> received = requests.computeIfAbsent(recipient,
+                uuid -> new LinkedHashMap<>());
+        final String requester = getKey(request.getRequesterName());
+        received.remove(requester);
+        received.put(requester, request);
+        expiries.add(new Entry(recipient, request));
+
+        if (received.size() <= Math.max(1, maxRequests)) {
+            return Optional.empty();
+        }
+        final Iterator<TeleportRequest> oldest = received.values().iterator();
+        final TeleportRequest dropped = oldest.next();
+        oldest.remove();
+        return Optional.of(dropped);
+    }
+
+    /**
+     * Get the most recently received request of a recipient
+     *
+     * @param recipient the UUID of the recipient
+     * @return the most recent request, if there is one
+     */
+    public synchronized Optional<TeleportRequest> getLast(@NotNull UUID recipient) {
+        final LinkedHashMap<String, TeleportRequest> received = requests.get(recipient);
+        if (received == null) {
+            return Optional.empty();
+        }
+        TeleportRequest last = null;
+        for (TeleportRequest request : received.values()) {
+            last = request;
+        }
+        return Optional.ofNullable(last);
+    }
+
+    /**
+     * Get the request a recipient received from a requester
+     *
+     * @param recipient     the UUID of the recipient
+     * @param requesterName the name of the requester, case-insensitive
+     * @return the request, if there is one
+     */
+    public synchronized Optional<TeleportRequest> get(@NotNull UUID recipient, @NotNull String requesterName) {
+        return Optional.ofNullable(requests.get(recipient)).map(received -> received.get(getKey(requesterName)));
+    }
+
+    /**
+     * Remove the request a recipient received from a requester
+     *
+     * @param recipient     the UUID of the recipient
+     * @param requesterName the name of the requester, case-insensitive
+     * @return the removed request, if there was one
+     */
+    public synchronized Optional<TeleportRequest> remove(@NotNull UUID recipient, @NotNull String requesterName) {
+        final LinkedHashMap<String, TeleportRequest> received = requests.get(recipient);
+        if (received == null) {
+            return Optional.empty();
+        }
+        final TeleportRequest removed = received.remove(getKey(requesterName));
+        if (received.isEmpty()) {
+            requests.remove(recipient);
+        }
+        return Optional.ofNullable(removed);
+    }
+
+    /**
+     * Remove all the requests a recipient has received
+     *
+     * @param recipient the UUID of the recipient
+     */
+    public synchronized void removeAll(@NotNull UUID recipient) {
+        requests.remove(recipient);
+    }
+
+    /**
+     * Remove all requests that expired before the given time
+     *
+     * @param epochSecond the current time, in seconds since the epoch
+     * @return the removed requests, in order of expiry
+     */
+    @NotNull
+    public synchronized List<Entry> removeExpired(long epochSecond) {
+        final List<Entry> expired = new ArrayList<>();
+        while (!expiries.isEmpty() && expiries.peek().request().getExpiryTime() < epochSecond) {
+            final Entry entry = expiries.poll();
+            final LinkedHashMap<String, TeleportRequest> received = requests.get(entry.recipient());
+            final String requester = getKey(entry.request().getRequesterName());
+            if (received != null && received.get(requester) == entry.request()) {
+                received.remove(requester);
+                if (received.isEmpty()) {
+                    requests.remove(entry.recipient());
+                }
+                expired.add(entry);
+            }
+        }
+        return expired;
+    }
+
+    /**
+     * Get the number of pending requests across all recipients
+     *
+     * @return the number of pending requests
+     */
+    public synchronized int size() {
+        return requests.values().stream().mapToInt(Map::size).sum();
+    }
+
+    /**
+     * Returns if there are no requests waiting to be swept, including requests already removed
+     *
+     * @return {@code true} if the expiry queue is empty
+     */
+    public synchronized boolean isEmpty() {
+        return expiries.isEmpty();
+    }
+
+    @NotNull
+    private static String getKey(@NotNull String requesterName) {
+        return requesterName.toLowerCase(Locale.ENGLISH);
+    }
+
+    /**
+     * A request, and the UUID of the user who received it
+     *
+     * @param recipient the UUID of the recipient
+     * @param request   the request
+     */
+    public record Entry(@NotNull UUID recipient, @NotNull TeleportRequest request) {
+    }
+
+}
@@ -0,0 +1,266 @@
+/*
+ * This file is part of HuskHomes, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.manager;
+
+import net.william278.huskhomes.HuskHomes;
+import net.william278.huskhomes.position.Position;
+import net.william278.huskhomes.teleport.TeleportMetrics;
+import net.william278.huskhomes.teleport.TimedTeleport;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drives all {@link TimedTeleport} warmups from a single hashed timer wheel ticking once per second.
+ * <p>
+ * Each warmup is placed in the wheel slot for the tick its warmup ends on, so starting and cancelling a warmup are
+ * constant-time operations, and each tick only has to complete the warmups in one slot. The wheel's repeating task
+ * is started when the first warmup begins and stopped once none remain.
+ * <p>
+ * Warmups are cancelled as soon as the platform listeners report the teleporter moving or taking damage, through
+ * {@link #handleMovement(UUID, double, double, double)} and {@link #handleDamage(UUID)}; ticking only displays the
+ * countdown.
+ * <p>
+ * While a teleport to a position on this server warms up, its destination chunk is preloaded, so the teleport does
+ * not stall on the chunk loading when the warmup completes. See {@link PreloadedChunks}.
+ */
+public class WarmupManager {
+
+    /**
+     * Number of slots in the wheel; warmups longer than this many seconds wait for further turns of the wheel
+     */
+    private static final int WHEEL_SIZE = 64;
+
+    /**
+     * Ticks to keep a destination chunk loaded after the teleport to it is executed, while the teleport completes
+     */
+    private static final long CHUNK_RELEASE_DELAY = 40L;
+
+    private final HuskHomes plugin;
+    private final PreloadedChunks preloadedChunks;
+
+    // Active warmups, keyed by the UUID of the teleporter
+    private final Map<UUID, Warmup> warmups;
+
+    // Warmups, bucketed by the tick they end on modulo the wheel size
+    private final List<Set<Warmup>> wheel;
+    private long currentTick = 0;
+    private int taskId = -1;
+
+    protected WarmupManager(@NotNull HuskHomes plugin) {
+        this.plugin = plugin;
+        this.preloadedChunks = new PreloadedChunks(plugin);
+        this.warmups = new ConcurrentHashMap<>();
+        this.wheel = new ArrayList<>(WHEEL_SIZE);
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            wheel.add(new HashSet<>());
+        }
+    }
+
+    /**
+     * Start a warmup, completing the timed teleport after the given number of seconds
+     *
+     * @param teleporter the UUID of the user warming up
+     * @param teleport   the timed teleport to tick and complete
+     * @param seconds    the warmup length, in seconds
+     * @return {@code true} if the warmup was started, or {@code false} if the user is already warming up
+     */
+    public synchronized boolean startWarmup(@NotNull UUID teleporter, @NotNull TimedTeleport teleport, int seconds) {
+        if (warmups.containsKey(teleporter)) {
+            return false;
+        }
+
+        // The wheel's next tick may come at any time within the next second, including straight away when the wheel
+        // is started, so the warmup ends a tick later to never finish early
+        final Warmup warmup = new Warmup(teleporter, teleport, currentTick + seconds + 1,
+                getLocalDestination(teleport).map(preloadedChunks::acquire).orElse(null));
+        warmups.put(teleporter, warmup);
+        getSlot(warmup.endTick).add(warmup);
+        if (warmup.destination != null) {
+            recordChunkLoad(teleport, warmup.destination);
+        }
+        if (taskId == -1) {
+            taskId = plugin.runAsyncRepeating(this::tick, 20L);
+        }
+        return true;
+    }
+
+    /**
+     * Cancel a user's warmup, if they are warming up
+     *
+     * @param teleporter the UUID of the user to cancel the warmup of
+     * @return {@code true} if a warmup was cancelled
+     */
+    public synchronized boolean cancelWarmup(@NotNull UUID teleporter) {
+        final Warmup warmup = warmups.remove(teleporter);
+        if (warmup == null) {
+            return false;
+        }
+        getSlot(warmup.endTick).remove(warmup);
+        if (warmup.destination != null) {
+            preloadedChunks.release(warmup.destination);
+        }
+        return true;
+    }
+
+    /**
+     * Returns if a user is currently warming up to teleport
+     *
+     * @param teleporter the UUID of the user to check
+     * @return {@code true} if the user is warming up
+     */
+    public boolean isWarmingUp(@NotNull UUID teleporter) {
+        return warmups.containsKey(teleporter);
+    }
+
+    /**
+     * Get the number of warmups currently in progress
+     *
+     * @return the number of active warmups
+     */
+    public int getActiveWarmupCount() {
+        return warmups.size();
+    }
+
+    /**
+     * Get the destination chunks preloaded for warmups in progress
+     *
+     * @return the preloaded chunks
+     */
+    @NotNull
+    public PreloadedChunks getPreloadedChunks() {
+        return preloadedChunks;
+    }
+
+    /**
+     * Handle a user moving, cancelling their warmup if they have moved too far from where it started
+     *
+     * @param teleporter the UUID of the user who moved
+     * @param x          the user's new x coordinate
+     * @param y          the user's new y coordinate
+     * @param z          the user's new z coordinate
+     */
+    public void handleMovement(@NotNull UUID teleporter, double x, double y, double z) {
+        final Warmup warmup = warmups.get(teleporter);
+        if (warmup != null && warmup.teleport.hasMovedFromStart(x, y, z) && cancelWarmup(teleporter)) {
+            warmup.teleport.displayCancelled(TimedTeleport.CancelReason.MOVEMENT);
+        }
+    }
+
+    /**
+     * Handle a user taking damage, cancelling their warmup
+     *
+     * @param teleporter the UUID of the user who took damage
+     */
+    public void handleDamage(@NotNull UUID teleporter) {
+        final Warmup warmup = warmups.get(teleporter);
+        if (warmup != null && cancelWarmup(teleporter)) {
+            warmup.teleport.displayCancelled(TimedTeleport.CancelReason.DAMAGE);
+        }
+    }
+
+    // Advance the wheel by one second, ticking warmups in progress and completing those that have ended
+    private void tick() {
+        final long tick;
+        final List<Warmup> active;
+        final List<Warmup> ended = new ArrayList<>();
+        synchronized (this) {
+            tick = ++currentTick;
+            final Iterator<Warmup> slot = getSlot(tick).iterator();
+            while (slot.hasNext()) {
+                final Warmup warmup = slot.next();
+                if (warmup.endTick <= tick) {
+                    slot.remove();
+                    warmups.remove(warmup.teleporter);
+                    ended.add(warmup);
+                }
+            }
+            active = new ArrayList<>(warmups.values());
+
+            if (warmups.isEmpty()) {
+                plugin.cancelTask(taskId);
+                taskId = -1;
+            }
+        }
+
+        // Tick warmups outside the lock, as completing a teleport can be slow
+        active.forEach(warmup -> {
+            if (warmups.get(warmup.teleporter) == warmup && !warmup.teleport.tick((int) (warmup.endTick - tick))) {
+                cancelWarmup(warmup.teleporter);
+            }
+        });
+        ended.forEach(this::complete);
+    }
+
+    // Execute a teleport whose warmup has ended, then release its destination chunk once it has had time to arrive
+    private void complete(@NotNull Warmup warmup) {
+        if (warmup.destination != null) {
+            preloadedChunks.recordArrival(warmup.destination);
+        }
+        warmup.teleport.tick(0);
+        if (warmup.destination != null) {
+            plugin.runLater(() -> preloadedChunks.release(warmup.destination), CHUNK_RELEASE_DELAY);
+        }
+    }
+
+    // Record how long the destination chunk of a teleport takes to preload, from the start of its warmup
+    private void recordChunkLoad(@NotNull TimedTeleport teleport, @NotNull PreloadedChunks.ChunkKey destination) {
+        final long startTime = System.nanoTime();
+        preloadedChunks.whenLoaded(destination).thenAccept(loaded -> {
+            if (loaded) {
+                plugin.getManager().metrics().record(teleport.getType(), TeleportMetrics.Phase.CHUNK_LOADED,
+                        System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+            }
+        });
+    }
+
+    // Get the destination of a teleport, if it is a position on this server
+    @NotNull
+    private Optional<Position> getLocalDestination(@NotNull TimedTeleport teleport) {
+        if (!(teleport.getTarget() instanceof Position position)) {
+            return Optional.empty();
+        }
+        if (plugin.getSettings().doCrossServer() && !position.getServer().equals(plugin.getServerName())) {
+            return Optional.empty();
+        }
+        return Optional.of(position);
+    }
+
+    @NotNull
+    private Set<Warmup> getSlot(long tick) {
+        return wheel.get((int) (tick % WHEEL_SIZE));
+    }
+
+    /**
+     * A warmup in progress
+     *
+     * @param teleporter  the UUID of the user warming up
+     * @param teleport    the timed teleport being warmed up
+     * @param endTick     the tick of the wheel on which the warmup ends
+     * @param destination the destination chunk being preloaded, if the teleport is to a position on this server
+     */
+    private record Warmup(@NotNull UUID teleporter, @NotNull TimedTeleport teleport, long endTick,
+                          @Nullable PreloadedChunks.ChunkKey destination) {
+    }
+
+}
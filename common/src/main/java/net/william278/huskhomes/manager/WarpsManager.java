@@ -25,6 +25,7 @@ import net.william278.huskhomes.hook.MapHook;
 import net.william278.huskhomes.network.Message;
 import net.william278.huskhomes.network.Payload;
 import net.william278.huskhomes.position.Position;
+import net.william278.huskhomes.position.PositionIndex;
 import net.william278.huskhomes.position.PositionMeta;
 import net.william278.huskhomes.position.Warp;
 import net.william278.huskhomes.user.CommandUser;
@@ -40,15 +41,19 @@ import java.util.concurrent.ConcurrentLinkedQueue;
 public class WarpsManager {
     private final HuskHomes plugin;
     private final ConcurrentLinkedQueue<Warp> warps;
+    private final PositionIndex<Warp> warpIndex;
 
     protected WarpsManager(@NotNull HuskHomes plugin) {
         this.plugin = plugin;
         this.warps = new ConcurrentLinkedQueue<>(plugin.getDatabase().getWarps());
+        this.warpIndex = new PositionIndex<>();
+        this.warps.forEach(warpIndex::put);
     }
 
     public void cacheWarp(@NotNull Warp warp, boolean propagate) {
         warps.remove(warp);
         warps.add(warp);
+        warpIndex.put(warp);
         plugin.getMapHook().ifPresent(hook -> hook.updateWarp(warp));
 
         plugin.getCommands().stream()
@@ -61,6 +66,7 @@ public class WarpsManager {
     }
 
     public void unCacheWarp(@NotNull UUID warpId, boolean propagate) {
+        warpIndex.remove(warpId);
         warps.removeIf(warp -> {
             if (warp.getUuid().equals(warpId)) {
                 plugin.getMapHook().ifPresent(hook -> hook.removeWarp(warp));
@@ -80,12 +86,12 @@ public class WarpsManager {
 
     private void propagateCacheUpdate(@NotNull UUID warpId) {
         if (plugin.getSettings().doCrossServer()) {
-            plugin.getOnlineUsers().stream().findAny().ifPresent(user -> Message.builder()
+            plugin.getMessenger().sendServerMessage(Message.builder()
                     .type(Message.Type.UPDATE_WARP)
                     .scope(Message.Scope.SERVER)
                     .target(Message.TARGET_ALL)
                     .payload(Payload.withString(warpId.toString()))
-                    .build().send(plugin.getMessenger(), user));
+                    .build());
         }
     }
 
@@ -101,6 +107,30 @@ public class WarpsManager {
         return warps.stream().map(Warp::getName).toList();
     }
 
+    /**
+     * Get cached warps within a radius of a position, on the same server and in the same world
+     *
+     * @param center the position to search around
+     * @param radius the horizontal distance from the position to search within
+     * @param limit  the most warps to return
+     * @return the warps found, nearest first
+     */
+    @NotNull
+    public List<Warp> getNearbyWarps(@NotNull Position center, double radius, int limit) {
+        return warpIndex.getNearby(center, radius, limit);
+    }
+
+    /**
+     * Get the cached warp nearest a position, on the same server and in the same world
+     *
+     * @param center the position to search from
+     * @return the nearest warp, if there is one
+     */
+    @NotNull
+    public Optional<Warp> getNearestWarp(@NotNull Position center) {
+        return warpIndex.getNearest(center);
+    }
+
     @NotNull
     public List<String> getUsableWarps(@NotNull CommandUser user) {
         if (!plugin.getSettings().doPermissionRestrictWarps() || user.hasPermission(Warp.getWildcardPermission())) {
@@ -154,6 +184,7 @@ public class WarpsManager {
     public int deleteAllWarps() {
         final int deleted = plugin.getDatabase().deleteAllWarps();
         warps.clear();
+        warpIndex.clear();
         plugin.getMapHook().ifPresent(MapHook::clearWarps);
         plugin.getManager().propagateCacheUpdate();
         return deleted;
@@ -25,15 +25,27 @@ import net.william278.huskhomes.position.Warp;
 import net.william278.huskhomes.teleport.Teleport;
 import net.william278.huskhomes.teleport.TeleportationException;
 import net.william278.huskhomes.user.OnlineUser;
+import net.william278.huskhomes.user.User;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
 
 public abstract class Broker {
 
     protected final HuskHomes plugin;
 
+    /**
+     * Requests awaiting a {@link Message.Type#RESPONSE}, keyed by the ID of the request message
+     */
+    private final Map<UUID, CompletableFuture<Payload>> pendingRequests = new ConcurrentHashMap<>();
+
     /**
      * Create a new broker
      *
@@ -56,30 +68,54 @@ public abstract class Broker {
         switch (message.getType()) {
             case TELEPORT_TO_POSITION -> message.getPayload()
                     .getPosition().ifPresent(position -> {
+                        // Spread teleports to every player (e.g. /tpall) over several ticks
+                        if (message.getTarget().equals(Message.TARGET_ALL)) {
+                            plugin.getManager().bulkTeleports().teleportAll(List.of(receiver), position);
+                            return;
+                        }
                         try {
                             Teleport.builder(plugin)
                                     .teleporter(receiver)
                                     .target(position)
                                     .toTeleport()
                                     .execute();
+                            this.reply(message, receiver, Payload.empty());
                         } catch (TeleportationException e) {
                             e.displayMessage(plugin.getConsole(), plugin);
+                            this.reply(message, receiver, Payload.withString(e.getType().name()));
                         }
                     });
-            case TELEPORT_TO_NETWORKED_POSITION -> Message.builder()
-                    .type(Message.Type.TELEPORT_TO_POSITION)
-                    .target(message.getSender())
-                    .payload(Payload.withPosition(receiver.getPosition()))
-                    .build().send(this, receiver);
+            case TELEPORT_TO_NETWORKED_POSITION -> this.reply(message, receiver,
+                    Payload.withPosition(receiver.getPosition()));
             case TELEPORT_TO_NETWORKED_USER -> message.getPayload()
-                    .getString().ifPresent(target -> Message.builder()
-                            .type(Message.Type.TELEPORT_TO_NETWORKED_POSITION)
-                            .target(target)
-                            .build().send(this, receiver));
+                    .getString().ifPresent(target -> {
+                        try {
+                            // If the target is on another server, reply once they have been looked up there
+                            Teleport.builder(plugin)
+                                    .teleporter(receiver)
+                                    .target(target)
+                                    .toTeleport()
+                                    .executeAwaitingLookup()
+                                    .whenComplete((ignored, e) -> this.reply(message, receiver, e == null
+                                            ? Payload.empty()
+                                            : Payload.withString(TeleportationException.Type.TARGET_NOT_FOUND.name())));
+                        } catch (TeleportationException e) {
+                            e.displayMessage(plugin.getConsole(), plugin);
+                            this.reply(message, receiver, Payload.withString(e.getType().name()));
+                        }
+                    });
             case TELEPORT_REQUEST -> message.getPayload()
                     .getTeleportRequest()
-                    .ifPresent(teleportRequest -> plugin.getManager().requests()
-                            .sendLocalTeleportRequest(teleportRequest, receiver));
+                    .ifPresent(teleportRequest -> {
+                        if (message.getTarget().equals(Message.TARGET_ALL)) {
+                            plugin.getManager().bulkTeleports().schedule(List.of(receiver), recipient -> {
+                                plugin.getManager().requests().sendLocalTeleportRequest(teleportRequest, recipient);
+                                return true;
+                            });
+                            return;
+                        }
+                        plugin.getManager().requests().sendLocalTeleportRequest(teleportRequest, receiver);
+                    });
             case TELEPORT_REQUEST_RESPONSE -> message.getPayload()
                     .getTeleportRequest()
                     .ifPresent(teleportRequest -> plugin.getManager().requests()
@@ -117,9 +153,125 @@ public abstract class Broker {
                 plugin.getManager().homes().updatePublicHomeCache();
                 plugin.getManager().warps().updateWarpCache();
             }
+            case SERVER_LOAD, REQUEST_RANDOM_POSITION -> handleServerMessage(message);
+            case RESPONSE -> message.getReplyTo()
+                    .map(pendingRequests::remove)
+                    .ifPresent(request -> request.complete(message.getPayload()));
+        }
+    }
+
+    /**
+     * Handle an inbound {@link Message} addressed to the server that can be handled without a receiving user, so that
+     * it is still handled while nobody is online (e.g. by an empty server that players may be sent to)
+     *
+     * @param message The message
+     */
+    private void handleServerMessage(@NotNull Message message) {
+        if (message.getSourceServer().equals(getServer())) {
+            return;
+        }
+        switch (message.getType()) {
+            case SERVER_LOAD -> message.getPayload()
+                    .getServerLoad()
+                    .ifPresent(load -> plugin.getManager().networkRtp().updateLoad(message.getSourceServer(), load));
+            case REQUEST_RANDOM_POSITION -> message.getPayload()
+                    .getString().ifPresent(world -> plugin.getManager().networkRtp()
+                            .getRandomPosition(message.getSender(), world)
+                            .thenAccept(payload -> sendServerMessage(Message.builder()
+                                    .type(Message.Type.RESPONSE)
+                                    .replyTo(message)
+                                    .payload(payload)
+                                    .build())));
+        }
+    }
+
+    /**
+     * Handle an inbound {@link Message} that was broadcast rather than received through a particular user,
+     * passing it to the users it is addressed to
+     *
+     * @param message The message
+     */
+    protected void handle(@NotNull Message message) {
+        try {
+            if (message.getScope() == Message.Scope.PLAYER) {
+                plugin.getOnlineUsers().stream()
+                        .filter(online -> message.getTarget().equals(Message.TARGET_ALL)
+                                          || online.getUsername().equals(message.getTarget()))
+                        .forEach(receiver -> handle(receiver, message));
+                return;
+            }
+
+            if (message.getTarget().equals(plugin.getServerName())
+                || message.getTarget().equals(Message.TARGET_ALL)) {
+                plugin.getOnlineUsers().stream()
+                        .findAny()
+                        .ifPresentOrElse(receiver -> handle(receiver, message), () -> handleServerMessage(message));
+            }
+        } catch (Exception e) {
+            plugin.log(Level.SEVERE, "Exception handling inbound " + message.getType() + " message", e);
         }
     }
 
+    /**
+     * Send a request message and await the {@link Payload} of its {@link Message.Type#RESPONSE}.
+     * <p>
+     * The returned future completes exceptionally with a {@link java.util.concurrent.TimeoutException} if no
+     * response is received within the configured request timeout.
+     *
+     * @param message the request message to send
+     * @param sender  the sender of the request
+     * @return a future completing with the response payload
+     */
+    @NotNull
+    public CompletableFuture<Payload> sendRequest(@NotNull Message message, @NotNull OnlineUser sender) {
+        return sendRequest(message, sender, plugin.getSettings().getCrossServerRequestTimeout());
+    }
+
+    /**
+     * Send a request message and await the {@link Payload} of its {@link Message.Type#RESPONSE}, for requests that
+     * may take the receiving server longer than usual to answer
+     *
+     * @param message the request message to send
+     * @param sender  the sender of the request
+     * @param timeout the number of seconds to wait for a response
+     * @return a future completing with the response payload
+     */
+    @NotNull
+    public CompletableFuture<Payload> sendRequest(@NotNull Message message, @NotNull OnlineUser sender, int timeout) {
+        final UUID requestId = message.getUuid();
+        final CompletableFuture<Payload> response = new CompletableFuture<>();
+        pendingRequests.put(requestId, response);
+        message.send(this, sender);
+
+        // Complete only once the request is no longer pending
+        return response.orTimeout(timeout, TimeUnit.SECONDS)
+                .whenComplete((payload, throwable) -> pendingRequests.remove(requestId));
+    }
+
+    /**
+     * Respond to a request message sent with {@link #sendRequest(Message, OnlineUser)}
+     *
+     * @param request the request to respond to
+     * @param sender  the user sending the response
+     * @param payload the response payload
+     */
+    protected void reply(@NotNull Message request, @NotNull OnlineUser sender, @NotNull Payload payload) {
+        Message.builder()
+                .type(Message.Type.RESPONSE)
+                .replyTo(request)
+                .payload(payload)
+                .build().send(this, sender);
+    }
+
+    /**
+     * Get the number of requests currently awaiting a response
+     *
+     * @return the number of pending requests
+     */
+    public int getPendingRequestCount() {
+        return pendingRequests.size();
+    }
+
     /**
      * Initialize the message broker
      *
@@ -135,6 +287,51 @@ public abstract class Broker {
      */
     protected abstract void send(@NotNull Message message, @NotNull OnlineUser sender);
 
+    /**
+     * Send a message that isn't sent on behalf of a particular user, such as a cache update.
+     * <p>
+     * Any online user is used to carry the message; if nobody is online, the message is handed to
+     * {@link #sendWithoutCarrier(Message)}
+     *
+     * @param message the message to send
+     */
+    public void sendServerMessage(@NotNull Message message) {
+        plugin.getOnlineUsers().stream().findAny().ifPresentOrElse(
+                carrier -> message.send(this, carrier),
+                () -> sendWithoutCarrier(message)
+        );
+    }
+
+    /**
+     * Send a message when there is no online user available to carry it
+     *
+     * @param message the message to send
+     */
+    protected abstract void sendWithoutCarrier(@NotNull Message message);
+
+    /**
+     * Store the cross-server {@link Teleport} a user is about to make, to be completed by the destination server
+     * when they arrive. Must be called before {@link #changeServer(OnlineUser, String)}
+     *
+     * @param user     the user being teleported
+     * @param teleport the teleport to complete on arrival
+     */
+    public void setCurrentTeleport(@NotNull User user, @NotNull Teleport teleport) {
+        plugin.getDatabase().setCurrentTeleport(user, teleport);
+    }
+
+    /**
+     * Get and clear the cross-server {@link Teleport} a user has arrived on this server to complete, if any
+     *
+     * @param user the user who joined the server
+     * @return the teleport to complete, if there is one
+     */
+    public Optional<Teleport> consumeCurrentTeleport(@NotNull OnlineUser user) {
+        final Optional<Teleport> teleport = plugin.getDatabase().getCurrentTeleport(user);
+        teleport.ifPresent(pending -> plugin.getDatabase().setCurrentTeleport(user, null));
+        return teleport;
+    }
+
     /**
      * Move an {@link OnlineUser} to a new server on the proxy network
      *
@@ -148,6 +345,14 @@ public abstract class Broker {
      */
     public abstract void close();
 
+    /**
+     * Fail any requests still awaiting a response
+     */
+    protected void cancelPendingRequests() {
+        pendingRequests.values().forEach(request -> request.cancel(false));
+        pendingRequests.clear();
+    }
+
     @NotNull
     protected String getSubChannelId() {
         final String version = plugin.getVersion().getMajor() + "." + plugin.getVersion().getMinor();
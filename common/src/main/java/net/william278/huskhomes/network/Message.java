@@ -23,7 +23,9 @@ import com.google.gson.annotations.Expose;
 import com.google.gson.annotations.SerializedName;
 import net.william278.huskhomes.user.OnlineUser;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import java.util.Optional;
 import java.util.UUID;
 
 /**
@@ -52,12 +54,18 @@ public class Message {
     @Expose
     @SerializedName("source_server")
     private String sourceServer;
+    @Nullable
+    @Expose
+    @SerializedName("reply_to")
+    private UUID replyTo;
 
-    private Message(@NotNull Type type, @NotNull Scope scope, @NotNull String target, @NotNull Payload payload) {
+    private Message(@NotNull Type type, @NotNull Scope scope, @NotNull String target, @NotNull Payload payload,
+                    @Nullable UUID replyTo) {
         this.type = type;
         this.scope = scope;
         this.target = target;
         this.payload = payload;
+        this.replyTo = replyTo;
         this.id = UUID.randomUUID();
     }
 
@@ -75,6 +83,19 @@ public class Message {
         broker.send(this, sender);
     }
 
+    /**
+     * Mark this message as being sent by the server itself, rather than on behalf of an online user
+     *
+     * @param broker the broker that will send the message
+     * @return this message
+     */
+    @NotNull
+    protected Message fromServer(@NotNull Broker broker) {
+        this.sender = broker.getServer();
+        this.sourceServer = broker.getServer();
+        return this;
+    }
+
     @NotNull
     public Type getType() {
         return type;
@@ -110,6 +131,15 @@ public class Message {
         return id;
     }
 
+    /**
+     * Get the ID of the request message this message is a response to, if it is a response
+     *
+     * @return the ID of the request being responded to
+     */
+    public Optional<UUID> getReplyTo() {
+        return Optional.ofNullable(replyTo);
+    }
+
     /**
      * Builder for {@link Message}s
      */
@@ -118,6 +148,7 @@ public class Message {
         private Scope scope = Scope.PLAYER;
         private Payload payload = Payload.empty();
         private String target;
+        private UUID replyTo;
 
         private Builder() {
         }
@@ -146,6 +177,20 @@ public class Message {
             return this;
         }
 
+        /**
+         * Mark the message as a response to a request, addressing it to the request's sender
+         *
+         * @param request the request being responded to
+         * @return the builder
+         */
+        @NotNull
+        public Builder replyTo(@NotNull Message request) {
+            this.replyTo = request.getUuid();
+            this.scope = Scope.PLAYER;
+            this.target = request.getSender();
+            return this;
+        }
+
         @NotNull
         public Message build() {
             if (type == null) {
@@ -154,7 +199,7 @@ public class Message {
             if (target == null) {
                 throw new IllegalStateException("Message target must be set");
             }
-            return new Message(type, scope, target, payload);
+            return new Message(type, scope, target, payload, replyTo);
         }
 
     }
@@ -173,6 +218,9 @@ public class Message {
         UPDATE_HOME,
         UPDATE_WARP,
         UPDATE_CACHES,
+        SERVER_LOAD,
+        REQUEST_RANDOM_POSITION,
+        RESPONSE,
     }
 
     public enum Scope {
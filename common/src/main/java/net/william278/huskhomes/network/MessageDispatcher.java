@@ -0,0 +1,117 @@
+/*
+ * This file is part of HuskHomes, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.network;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Dispatches inbound {@link Message} handling onto a pool of worker threads.
+ * <p>
+ * Each worker is single-threaded with a bounded queue, and tasks are assigned to a worker by hashing an
+ * ordering key, so tasks sharing a key (e.g. a target player, or a home/warp ID) run in the order they were
+ * dispatched. When a worker's queue is full, the task is dropped and counted as an overflow.
+ */
+public class MessageDispatcher {
+
+    private final ThreadPoolExecutor[] workers;
+    private final LongAdder dispatched = new LongAdder();
+    private final LongAdder overflowed = new LongAdder();
+
+    /**
+     * Create a new dispatcher
+     *
+     * @param name          the name prefix of the worker threads
+     * @param threads       the number of worker threads
+     * @param queueCapacity the maximum number of queued tasks per worker
+     */
+    public MessageDispatcher(@NotNull String name, int threads, int queueCapacity) {
+        this.workers = new ThreadPoolExecutor[Math.max(1, threads)];
+        for (int i = 0; i < workers.length; i++) {
+            final String threadName = name + "-" + i;
+            workers[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                    runnable -> {
+                        final Thread thread = new Thread(runnable, threadName);
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+        }
+    }
+
+    /**
+     * Queue a task to be run after all previously dispatched tasks with the same ordering key
+     *
+     * @param key  the ordering key
+     * @param task the task to run
+     * @return {@code true} if the task was queued, or {@code false} if the worker's queue was full
+     */
+    public boolean dispatch(@NotNull String key, @NotNull Runnable task) {
+        try {
+            workers[Math.floorMod(key.hashCode(), workers.length)].execute(task);
+            dispatched.increment();
+            return true;
+        } catch (RejectedExecutionException e) {
+            overflowed.increment();
+            return false;
+        }
+    }
+
+    /**
+     * Get the total number of tasks successfully queued
+     *
+     * @return the number of dispatched tasks
+     */
+    public long getDispatchedCount() {
+        return dispatched.sum();
+    }
+
+    /**
+     * Get the total number of tasks dropped because a worker queue was full
+     *
+     * @return the number of overflowed tasks
+     */
+    public long getOverflowCount() {
+        return overflowed.sum();
+    }
+
+    /**
+     * Get the number of tasks currently waiting across all worker queues
+     *
+     * @return the current queue depth
+     */
+    public int getQueueDepth() {
+        return Arrays.stream(workers).mapToInt(worker -> worker.getQueue().size()).sum();
+    }
+
+    /**
+     * Stop all workers, discarding any queued tasks
+     */
+    public void shutdown() {
+        Arrays.stream(workers).forEach(ThreadPoolExecutor::shutdownNow);
+    }
+
+}
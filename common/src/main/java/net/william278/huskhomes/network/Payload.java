@@ -52,6 +52,11 @@ public class Payload {
     @SerializedName("string_list")
     private List<String> stringList;
 
+    @Nullable
+    @Expose
+    @SerializedName("server_load")
+    private ServerLoad serverLoad;
+
     /**
      * Returns an empty cross-server message payload
      *
@@ -108,6 +113,19 @@ public class Payload {
         return payload;
     }
 
+    /**
+     * Returns a payload containing a {@link ServerLoad}
+     *
+     * @param serverLoad the server load to send
+     * @return a payload containing the server load
+     */
+    @NotNull
+    public static Payload withServerLoad(@NotNull ServerLoad serverLoad) {
+        final Payload payload = new Payload();
+        payload.serverLoad = serverLoad;
+        return payload;
+    }
+
     private Payload() {
     }
 
@@ -140,4 +158,11 @@ public class Payload {
         return Optional.ofNullable(stringList);
     }
 
+    /**
+     * A server load field
+     */
+    public Optional<ServerLoad> getServerLoad() {
+        return Optional.ofNullable(serverLoad);
+    }
+
 }
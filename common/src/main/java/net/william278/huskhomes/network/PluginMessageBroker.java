@@ -27,6 +27,10 @@ import net.william278.huskhomes.user.OnlineUser;
 import org.jetbrains.annotations.NotNull;
 
 import java.io.*;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.logging.Level;
 
 /**
@@ -46,6 +50,16 @@ public class PluginMessageBroker extends Broker {
      */
     public static final String BUNGEE_CHANNEL_ID = "BungeeCord";
 
+    /**
+     * The maximum number of messages held while waiting for a player to carry them
+     */
+    private static final int MAX_QUEUED_MESSAGES = 1000;
+
+    /**
+     * Messages waiting for a player to join to carry them, keyed by {@link #getCoalescingKey(Message)}
+     */
+    private final Map<String, Message> queuedMessages = new LinkedHashMap<>();
+
     public PluginMessageBroker(@NotNull HuskHomes plugin) {
         super(plugin);
     }
@@ -101,6 +115,60 @@ public class PluginMessageBroker extends Broker {
         sender.sendPluginMessage(BUNGEE_CHANNEL_ID, messageWriter.toByteArray());
     }
 
+    /**
+     * Queue a message until a player joins to carry it. Plugin messages need a connected player to be sent
+     * through the proxy; a newer message for the same entity replaces the older one still in the queue.
+     *
+     * @param message the message to queue
+     */
+    @Override
+    protected void sendWithoutCarrier(@NotNull Message message) {
+        synchronized (queuedMessages) {
+            final String key = getCoalescingKey(message);
+            queuedMessages.remove(key);
+            if (queuedMessages.size() >= MAX_QUEUED_MESSAGES) {
+                final String eldest = queuedMessages.keySet().iterator().next();
+                queuedMessages.remove(eldest);
+                plugin.log(Level.WARNING, "Outbound plugin message queue is full, dropped message " + eldest);
+            }
+            queuedMessages.put(key, message);
+        }
+    }
+
+    /**
+     * Send all queued messages, using a player who has joined the server to carry them
+     *
+     * @param carrier the player to send the queued messages through
+     */
+    public void flushQueuedMessages(@NotNull OnlineUser carrier) {
+        final List<Message> messages;
+        synchronized (queuedMessages) {
+            if (queuedMessages.isEmpty()) {
+                return;
+            }
+            messages = new ArrayList<>(queuedMessages.values());
+            queuedMessages.clear();
+        }
+        messages.forEach(message -> message.send(this, carrier));
+    }
+
+    /**
+     * Get the number of messages waiting for a player to carry them
+     *
+     * @return the number of queued messages
+     */
+    public int getQueuedMessageCount() {
+        synchronized (queuedMessages) {
+            return queuedMessages.size();
+        }
+    }
+
+    // Messages of the same type, to the same target, about the same entity supersede one another
+    @NotNull
+    private String getCoalescingKey(@NotNull Message message) {
+        return message.getType().name() + ":" + message.getTarget() + ":" + message.getPayload().getString().orElse("");
+    }
+
     @Override
     @SuppressWarnings("UnstableApiUsage")
     public void changeServer(@NotNull OnlineUser user, @NotNull String server) {
@@ -114,5 +182,6 @@ public class PluginMessageBroker extends Broker {
 
     @Override
     public void close() {
+        cancelPendingRequests();
     }
 }
\ No newline at end of file
@@ -19,14 +19,21 @@
 
 package net.william278.huskhomes.network;
 
+import com.google.gson.annotations.Expose;
 import net.william278.huskhomes.HuskHomes;
+import net.william278.huskhomes.position.Position;
+import net.william278.huskhomes.teleport.Teleport;
+import net.william278.huskhomes.teleport.TeleportationException;
 import net.william278.huskhomes.user.OnlineUser;
+import net.william278.huskhomes.user.User;
 import org.jetbrains.annotations.NotNull;
 import redis.clients.jedis.Jedis;
 import redis.clients.jedis.JedisPool;
 import redis.clients.jedis.JedisPoolConfig;
 import redis.clients.jedis.JedisPubSub;
+import redis.clients.jedis.exceptions.JedisException;
 
+import java.util.Optional;
 import java.util.logging.Level;
 
 /**
@@ -34,6 +41,7 @@ import java.util.logging.Level;
  */
 public class RedisBroker extends PluginMessageBroker {
     private JedisPool jedisPool;
+    private MessageDispatcher dispatcher;
 
     public RedisBroker(@NotNull HuskHomes plugin) {
         super(plugin);
@@ -51,6 +59,8 @@ public class RedisBroker extends PluginMessageBroker {
         this.jedisPool = password.isEmpty() ? new JedisPool(new JedisPoolConfig(), host, port, 0, useSSL)
                 : new JedisPool(new JedisPoolConfig(), host, port, 0, password, useSSL);
 
+        this.dispatcher = new MessageDispatcher(plugin.getKey("redis_worker").toString(),
+                plugin.getSettings().getRedisWorkerThreads(), plugin.getSettings().getRedisWorkerQueueSize());
         new Thread(getSubscriber(), plugin.getKey("redis_subscriber").toString()).start();
 
         plugin.log(Level.INFO, "Initialized Redis connection pool");
@@ -75,19 +85,10 @@ public class RedisBroker extends PluginMessageBroker {
                             return;
                         }
 
-                        if (message.getScope() == Message.Scope.PLAYER) {
-                            plugin.getOnlineUsers().stream()
-                                    .filter(online -> message.getTarget().equals(Message.TARGET_ALL)
-                                                      || online.getUsername().equals(message.getTarget()))
-                                    .forEach(receiver -> handle(receiver, message));
-                            return;
-                        }
-
-                        if (message.getTarget().equals(plugin.getServerName())
-                            || message.getTarget().equals(Message.TARGET_ALL)) {
-                            plugin.getOnlineUsers().stream()
-                                    .findAny()
-                                    .ifPresent(receiver -> handle(receiver, message));
+                        if (!dispatcher.dispatch(getOrderingKey(message), () -> handle(message))) {
+                            plugin.log(Level.WARNING, "Redis message worker queue is full, dropped "
+                                                      + message.getType() + " message (total dropped: "
+                                                      + dispatcher.getOverflowCount() + ")");
                         }
                     }
                 }, getSubChannelId());
@@ -95,8 +96,102 @@ public class RedisBroker extends PluginMessageBroker {
         };
     }
 
+    /**
+     * Get the key used to order the handling of a message; messages sharing a key are handled in the order
+     * they were received
+     *
+     * @param message the message
+     * @return the ordering key, being the ID of the home/warp being updated, the target player, or the source server
+     */
+    @NotNull
+    private String getOrderingKey(@NotNull Message message) {
+        return switch (message.getType()) {
+            case UPDATE_HOME, UPDATE_WARP -> message.getPayload().getString().orElse(message.getType().name());
+            default -> message.getScope() == Message.Scope.PLAYER ? message.getTarget() : message.getSourceServer();
+        };
+    }
+
+    /**
+     * Get the dispatcher handling inbound messages
+     *
+     * @return the message dispatcher
+     */
+    @NotNull
+    public MessageDispatcher getDispatcher() {
+        return dispatcher;
+    }
+
+    /**
+     * Store the pending teleport in Redis with a short TTL, falling back to the database if Redis can't be reached
+     */
+    @Override
+    public void setCurrentTeleport(@NotNull User user, @NotNull Teleport teleport) {
+        if (!plugin.getSettings().doRedisTeleportHandoff() || !(teleport.getTarget() instanceof Position target)) {
+            super.setCurrentTeleport(user, teleport);
+            return;
+        }
+
+        try (Jedis jedis = jedisPool.getResource()) {
+            jedis.setex(getTeleportKey(user), plugin.getSettings().getRedisTeleportHandoffTtl(),
+                    plugin.getGson().toJson(new PendingTeleport(target, teleport.getType())));
+        } catch (JedisException e) {
+            plugin.log(Level.WARNING, "Failed to store teleport handoff in Redis, using the database instead", e);
+            super.setCurrentTeleport(user, teleport);
+        }
+    }
+
+    /**
+     * Atomically get and delete the pending teleport from Redis, falling back to the database if Redis can't be
+     * reached or holds no teleport for the user (e.g. it was stored by a server with the handoff disabled)
+     */
+    @Override
+    public Optional<Teleport> consumeCurrentTeleport(@NotNull OnlineUser user) {
+        if (!plugin.getSettings().doRedisTeleportHandoff()) {
+            return super.consumeCurrentTeleport(user);
+        }
+
+        final String encodedTeleport;
+        try (Jedis jedis = jedisPool.getResource()) {
+            encodedTeleport = jedis.getDel(getTeleportKey(user));
+        } catch (JedisException e) {
+            plugin.log(Level.WARNING, "Failed to read teleport handoff from Redis, using the database instead", e);
+            return super.consumeCurrentTeleport(user);
+        }
+        if (encodedTeleport == null) {
+            return super.consumeCurrentTeleport(user);
+        }
+
+        final PendingTeleport pending = plugin.getGson().fromJson(encodedTeleport, PendingTeleport.class);
+        try {
+            return Optional.of(Teleport.builder(plugin)
+                    .teleporter(user)
+                    .target(pending.target)
+                    .type(Teleport.Type.getTeleportType(pending.type).orElse(Teleport.Type.TELEPORT))
+                    .updateLastPosition(false)
+                    .toTeleport());
+        } catch (TeleportationException e) {
+            e.displayMessage(user, plugin);
+            return Optional.empty();
+        }
+    }
+
+    @NotNull
+    private String getTeleportKey(@NotNull User user) {
+        return getSubChannelId() + "/teleport/" + user.getUuid();
+    }
+
     @Override
     protected void send(@NotNull Message message, @NotNull OnlineUser sender) {
+        this.publish(message);
+    }
+
+    // Redis doesn't need a player to carry messages, so messages are published straight away
+    @Override
+    protected void sendWithoutCarrier(@NotNull Message message) {
+        this.publish(message.fromServer(this));
+    }
+
+    private void publish(@NotNull Message message) {
         plugin.runAsync(() -> {
             try (Jedis jedis = jedisPool.getResource()) {
                 jedis.publish(getSubChannelId(), plugin.getGson().toJson(message));
@@ -107,9 +202,31 @@ public class RedisBroker extends PluginMessageBroker {
     @Override
     public void close() {
         super.close();
+        if (dispatcher != null) {
+            dispatcher.shutdown();
+        }
         if (jedisPool != null) {
             jedisPool.close();
         }
     }
 
+    /**
+     * A cross-server teleport waiting in Redis for the teleporter to arrive on the destination server
+     */
+    private static class PendingTeleport {
+        @Expose
+        private Position target;
+        @Expose
+        private int type;
+
+        private PendingTeleport(@NotNull Position target, @NotNull Teleport.Type type) {
+            this.target = target;
+            this.type = type.getTypeId();
+        }
+
+        @SuppressWarnings("unused")
+        private PendingTeleport() {
+        }
+    }
+
 }
\ No newline at end of file
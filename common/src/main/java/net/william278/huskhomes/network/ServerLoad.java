@@ -0,0 +1,103 @@
+/*
+ * This file is part of HuskHomes, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.network;
+
+import com.google.gson.annotations.Expose;
+import com.google.gson.annotations.SerializedName;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * How busy a server is, as advertised to the other servers on the network so that random teleports can be sent to
+ * the server best able to handle them
+ */
+public class ServerLoad {
+
+    @Expose
+    private int players;
+
+    @Expose
+    @SerializedName("tick_rate")
+    private double tickRate;
+
+    @Expose
+    @SerializedName("pending_rtps")
+    private int pendingRtps;
+
+    @Expose
+    @SerializedName("rtp_worlds")
+    private Map<String, Integer> rtpWorlds;
+
+    private ServerLoad(int players, double tickRate, int pendingRtps, @NotNull Map<String, Integer> rtpWorlds) {
+        this.players = players;
+        this.tickRate = tickRate;
+        this.pendingRtps = pendingRtps;
+        this.rtpWorlds = new LinkedHashMap<>(rtpWorlds);
+    }
+
+    @SuppressWarnings("unused")
+    private ServerLoad() {
+    }
+
+    /**
+     * Create a server load
+     *
+     * @param players     the number of players online
+     * @param tickRate    the server tick rate
+     * @param pendingRtps the number of random teleports being searched for or waiting to start
+     * @param rtpWorlds   the names of the worlds open to random teleports, mapped to how many positions are pooled
+     *                    in each
+     * @return the server load
+     */
+    @NotNull
+    public static ServerLoad of(int players, double tickRate, int pendingRtps,
+                                @NotNull Map<String, Integer> rtpWorlds) {
+        return new ServerLoad(players, tickRate, pendingRtps, rtpWorlds);
+    }
+
+    public int getPlayers() {
+        return players;
+    }
+
+    public double getTickRate() {
+        return tickRate;
+    }
+
+    public int getPendingRtps() {
+        return pendingRtps;
+    }
+
+    @NotNull
+    public Map<String, Integer> getRtpWorlds() {
+        return rtpWorlds == null ? Map.of() : rtpWorlds;
+    }
+
+    /**
+     * Get the total number of pooled random positions, across all worlds open to random teleports
+     *
+     * @return the number of pooled positions
+     */
+    public int getPooledPositions() {
+        return getRtpWorlds().values().stream().mapToInt(Integer::intValue).sum();
+    }
+
+}
@@ -0,0 +1,237 @@
+/*
+ * This file is part of HuskHomes, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.position;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * A spatial index of saved positions, so that the positions near a point can be found without scanning every position.
+ * <p>
+ * Positions are kept in a grid of square cells for each server and world. Distances are measured horizontally, on the
+ * x and z axes, as on a map. Positions are mutable, so the cell each one was indexed in is remembered; a position
+ * that has moved must be {@link #put(SavedPosition) put} again to be found at its new location.
+ *
+ * @param <T> the type of position indexed
+ */
+public class PositionIndex<T extends SavedPosition> {
+
+    /**
+     * The size of each cell, in blocks, as a power of two
+     */
+    public static final int CELL_SHIFT = 6;
+
+    private final Map<Region, Map<Long, List<T>>> regions = new HashMap<>();
+    private final Map<UUID, Entry<T>> entries = new HashMap<>();
+
+    /**
+     * Add a position to the index, or move it if it is already indexed
+     *
+     * @param position the position to index
+     */
+    public synchronized void put(@NotNull T position) {
+        remove(position.getUuid());
+        final Region region = Region.of(position);
+        final long cell = getCellAt(position.getX(), position.getZ());
+        regions.computeIfAbsent(region, r -> new HashMap<>())
+                .computeIfAbsent(cell, c -> new ArrayList<>())
+                .add(position);
+        entries.put(position.getUuid(), new Entry<>(position, region, cell));
+    }
+
+    /**
+     * Remove a position from the index
+     *
+     * @param uuid the UUID of the position to remove
+     * @return whether the position was indexed
+     */
+    public synchronized boolean remove(@NotNull UUID uuid) {
+        final Entry<T> entry = entries.remove(uuid);
+        if (entry == null) {
+            return false;
+        }
+
+        final Map<Long, List<T>> cells = regions.get(entry.region());
+        final List<T> cell = cells.get(entry.cell());
+        cell.removeIf(position -> position.getUuid().equals(uuid));
+        if (cell.isEmpty()) {
+            cells.remove(entry.cell());
+            if (cells.isEmpty()) {
+                regions.remove(entry.region());
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Remove every position matching a filter from the index
+     *
+     * @param filter the filter to match positions against
+     */
+    public synchronized void removeIf(@NotNull Predicate<T> filter) {
+        entries.values().stream()
+                .map(Entry::position)
+                .filter(filter)
+                .map(SavedPosition::getUuid)
+                .toList()
+                .forEach(this::remove);
+    }
+
+    /**
+     * Remove every position from the index
+     */
+    public synchronized void clear() {
+        regions.clear();
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Get the positions within a radius of a point, on the same server and in the same world
+     *
+     * @param center the point to search around
+     * @param radius the horizontal distance from the point to search within
+     * @param limit  the most positions to return
+     * @return the positions found, nearest first
+     */
+    @NotNull
+    public synchronized List<T> getNearby(@NotNull Position center, double radius, int limit) {
+        final List<T> found = getWithin(center, center.getX() - radius, center.getZ() - radius,
+                center.getX() + radius, center.getZ() + radius);
+        found.removeIf(position -> getDistanceSquared(center, position) > radius * radius);
+        found.sort(Comparator.comparingDouble(position -> getDistanceSquared(center, position)));
+        return found.size() > limit ? new ArrayList<>(found.subList(0, Math.max(0, limit))) : found;
+    }
+
+    /**
+     * Get the nearest position to a point, on the same server and in the same world
+     *
+     * @param center the point to search from
+     * @return the nearest position, if there are any on the server and world
+     */
+    @NotNull
+    public synchronized Optional<T> getNearest(@NotNull Position center) {
+        final Map<Long, List<T>> cells = regions.get(Region.of(center));
+        if (cells == null) {
+            return Optional.empty();
+        }
+
+        // Search rings of cells outwards, until no unsearched cell can hold a nearer position
+        final int centerX = (int) Math.floor(center.getX()) >> CELL_SHIFT;
+        final int centerZ = (int) Math.floor(center.getZ()) >> CELL_SHIFT;
+        T nearest = null;
+        double nearestDistance = Double.MAX_VALUE;
+        int searched = 0;
+        for (int ring = 0; searched < cells.size(); ring++) {
+            final double ringDistance = (double) Math.max(0, ring - 1) * (1 << CELL_SHIFT);
+            if (nearest != null && ringDistance * ringDistance >= nearestDistance) {
+                break;
+            }
+
+            // Once rings hold more cells than are occupied, checking every occupied cell is quicker
+            if (8L * ring > cells.size()) {
+                return cells.values().stream()
+                        .flatMap(List::stream)
+                        .min(Comparator.comparingDouble(position -> getDistanceSquared(center, position)));
+            }
+            for (int x = centerX - ring; x <= centerX + ring; x++) {
+                final boolean edge = x == centerX - ring || x == centerX + ring;
+                for (int z = centerZ - ring; z <= centerZ + ring; z += edge || ring == 0 ? 1 : ring * 2) {
+                    final List<T> cell = cells.get(getCell(x, z));
+                    if (cell == null) {
+                        continue;
+                    }
+                    searched++;
+                    for (T position : cell) {
+                        final double distance = getDistanceSquared(center, position);
+                        if (distance < nearestDistance) {
+                            nearest = position;
+                            nearestDistance = distance;
+                        }
+                    }
+                }
+            }
+        }
+        return Optional.ofNullable(nearest);
+    }
+
+    // Get the positions within an area, on the same server and in the same world as a point
+    @NotNull
+    private List<T> getWithin(@NotNull Position origin, double minX, double minZ, double maxX, double maxZ) {
+        final List<T> found = new ArrayList<>();
+        final Map<Long, List<T>> cells = regions.get(Region.of(origin));
+        if (cells == null) {
+            return found;
+        }
+
+        final int minCellX = (int) Math.floor(minX) >> CELL_SHIFT;
+        final int minCellZ = (int) Math.floor(minZ) >> CELL_SHIFT;
+        final int maxCellX = (int) Math.floor(maxX) >> CELL_SHIFT;
+        final int maxCellZ = (int) Math.floor(maxZ) >> CELL_SHIFT;
+        final Predicate<T> inArea = position -> position.getX() >= minX && position.getX() <= maxX
+                && position.getZ() >= minZ && position.getZ() <= maxZ;
+
+        // For large areas, checking every occupied cell is quicker than looking up every cell in the area
+        if ((long) (maxCellX - minCellX + 1) * (maxCellZ - minCellZ + 1) > cells.size()) {
+            cells.values().forEach(cell -> cell.stream().filter(inArea).forEach(found::add));
+            return found;
+        }
+        for (int x = minCellX; x <= maxCellX; x++) {
+            for (int z = minCellZ; z <= maxCellZ; z++) {
+                final List<T> cell = cells.get(getCell(x, z));
+                if (cell != null) {
+                    cell.stream().filter(inArea).forEach(found::add);
+                }
+            }
+        }
+        return found;
+    }
+
+    private static double getDistanceSquared(@NotNull Position center, @NotNull Position position) {
+        final double dx = position.getX() - center.getX();
+        final double dz = position.getZ() - center.getZ();
+        return dx * dx + dz * dz;
+    }
+
+    private static long getCellAt(double x, double z) {
+        return getCell((int) Math.floor(x) >> CELL_SHIFT, (int) Math.floor(z) >> CELL_SHIFT);
+    }
+
+    private static long getCell(int cellX, int cellZ) {
+        return ((long) cellX << 32) | (cellZ & 0xFFFFFFFFL);
+    }
+
+    // The server and world a position is on
+    private record Region(@NotNull String server, @NotNull String world) {
+        @NotNull
+        private static Region of(@NotNull Position position) {
+            return new Region(position.getServer(), position.getWorld().getName());
+        }
+    }
+
+    private record Entry<T>(@NotNull T position, @NotNull Region region, long cell) {
+    }
+
+}
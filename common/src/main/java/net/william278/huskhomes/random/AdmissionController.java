@@ -0,0 +1,266 @@
+/*
+ * This file is part of HuskHomes, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.random;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.DoubleSupplier;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Decides when random teleport searches may start, based on how well the server is keeping up.
+ * <p>
+ * While the tick rate is healthy, up to a number of searches run at once. Below the throttling tick rate only one
+ * runs at a time, and below the pausing tick rate none start at all. Searches also wait while the chunk loads they
+ * share are saturated. Requests that cannot start straight away are queued, first come first served, with at most one
+ * request per player; requests are turned away if the queue is full or the server is struggling, and queued requests
+ * give up if they wait too long.
+ */
+public class AdmissionController {
+
+    /**
+     * How long a request may wait in the queue before it is turned away
+     */
+    static final long MAX_WAIT_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+    private final DoubleSupplier tickRate;
+    private final IntSupplier chunkLoads;
+    private final Supplier<Limits> limits;
+    private final LongSupplier clock;
+    private final Deque<Request<?>> queue = new ArrayDeque<>();
+    private final Set<UUID> pending = new HashSet<>();
+    private int running;
+
+    /**
+     * Create an admission controller
+     *
+     * @param tickRate   supplies the server tick rate
+     * @param chunkLoads supplies the number of random teleport chunk loads in flight
+     * @param limits     supplies the limits to admit requests within
+     */
+    public AdmissionController(@NotNull DoubleSupplier tickRate, @NotNull IntSupplier chunkLoads,
+                               @NotNull Supplier<Limits> limits) {
+        this(tickRate, chunkLoads, limits, System::currentTimeMillis);
+    }
+
+    AdmissionController(@NotNull DoubleSupplier tickRate, @NotNull IntSupplier chunkLoads,
+                        @NotNull Supplier<Limits> limits, @NotNull LongSupplier clock) {
+        this.tickRate = tickRate;
+        this.chunkLoads = chunkLoads;
+        this.limits = limits;
+        this.clock = clock;
+    }
+
+    /**
+     * Submit a request to run a random teleport search for a player
+     *
+     * @param requester the player the search is for
+     * @param search    starts the search
+     * @param <T>       the type of the search result
+     * @return a ticket saying whether the search was started, queued or turned away. If it was queued and waits too
+     * long, the ticket's result completes exceptionally with a {@link TimeoutException}
+     */
+    @NotNull
+    public <T> Ticket<T> submit(@NotNull UUID requester, @NotNull Supplier<CompletableFuture<T>> search) {
+        final Request<T> request = new Request<>(requester, search, new CompletableFuture<>(), clock.getAsLong());
+        final Ticket<T> ticket;
+        synchronized (this) {
+            final Limits current = limits.get();
+            if (!pending.add(requester)) {
+                return new Ticket<>(Status.ALREADY_PENDING, 0, CompletableFuture.failedFuture(
+                        new IllegalStateException("A random teleport is already pending for " + requester)));
+            }
+            if (queue.isEmpty() && canStart(current)) {
+                running++;
+                ticket = new Ticket<>(Status.STARTED, 0, request.result());
+            } else if (queue.size() >= current.maxQueued() || tickRate.getAsDouble() < current.pauseTickRate()) {
+                pending.remove(requester);
+                return new Ticket<>(Status.REJECTED, 0, CompletableFuture.failedFuture(
+                        new IllegalStateException("The server is too busy to start a random teleport")));
+            } else {
+                queue.addLast(request);
+                return new Ticket<>(Status.QUEUED, queue.size(), request.result());
+            }
+        }
+        start(request);
+        return ticket;
+    }
+
+    /**
+     * Start queued requests that can now run, and turn away those that have waited too long. Called whenever a search
+     * finishes, and should also be called periodically to notice the tick rate recovering
+     */
+    public void pump() {
+        final List<Request<?>> expired = new ArrayList<>();
+        final List<Request<?>> started = new ArrayList<>();
+        synchronized (this) {
+            final long now = clock.getAsLong();
+            while (!queue.isEmpty() && now - queue.peekFirst().queuedAt() > MAX_WAIT_MILLIS) {
+                final Request<?> request = queue.pollFirst();
+                pending.remove(request.requester());
+                expired.add(request);
+            }
+
+            final Limits current = limits.get();
+            while (!queue.isEmpty() && canStart(current)) {
+                running++;
+                started.add(queue.pollFirst());
+            }
+        }
+        expired.forEach(request -> request.result().completeExceptionally(
+                new TimeoutException("Waited too long for a random teleport to start")));
+        started.forEach(this::start);
+    }
+
+    /**
+     * Get whether random teleports are being held back, because requests are queued or the tick rate is too low to
+     * run searches at full speed. Background work, like refilling position pools, should wait while this is true
+     *
+     * @return whether random teleports are being throttled
+     */
+    public boolean isThrottled() {
+        synchronized (this) {
+            if (!queue.isEmpty()) {
+                return true;
+            }
+        }
+        return tickRate.getAsDouble() < limits.get().throttleTickRate();
+    }
+
+    /**
+     * Get the number of requests waiting to start
+     *
+     * @return the queue depth
+     */
+    public synchronized int getQueuedCount() {
+        return queue.size();
+    }
+
+    /**
+     * Get the number of searches running
+     *
+     * @return the number of running searches
+     */
+    public synchronized int getRunningCount() {
+        return running;
+    }
+
+    // Whether another search may start, given the tick rate and the chunk loads in flight
+    private boolean canStart(@NotNull Limits current) {
+        final double rate = tickRate.getAsDouble();
+        final int maxRunning = rate >= current.throttleTickRate() ? current.maxSearches()
+                : rate >= current.pauseTickRate() ? 1 : 0;
+        return running < maxRunning && chunkLoads.getAsInt() < current.maxChunkLoads();
+    }
+
+    private <T> void start(@NotNull Request<T> request) {
+        final CompletableFuture<T> search;
+        try {
+            search = request.search().get();
+        } catch (Throwable e) {
+            finish(request);
+            request.result().completeExceptionally(e);
+            pump();
+            return;
+        }
+        search.whenComplete((value, e) -> {
+            finish(request);
+            if (e != null) {
+                request.result().completeExceptionally(e);
+            } else {
+                request.result().complete(value);
+            }
+            pump();
+        });
+    }
+
+    private synchronized void finish(@NotNull Request<?> request) {
+        running--;
+        pending.remove(request.requester());
+    }
+
+    /**
+     * The outcome of submitting a request
+     */
+    public enum Status {
+        /**
+         * The search was started straight away
+         */
+        STARTED,
+        /**
+         * The search was queued, and will start once the server can take it
+         */
+        QUEUED,
+        /**
+         * The server is too busy, so the request was turned away
+         */
+        REJECTED,
+        /**
+         * The player already has a request queued or running, so the request was turned away
+         */
+        ALREADY_PENDING
+    }
+
+    /**
+     * A submitted request
+     *
+     * @param status   whether the request was started, queued or turned away
+     * @param position the request's position in the queue, starting at 1, if it was queued
+     * @param result   a future completing with the search result. Completes exceptionally if the request was turned
+     *                 away, or with a {@link TimeoutException} if it waited in the queue for too long
+     * @param <T>      the type of the search result
+     */
+    public record Ticket<T>(@NotNull Status status, int position, @NotNull CompletableFuture<T> result) {
+
+        /**
+         * Get whether the request was accepted, either starting straight away or being queued
+         *
+         * @return whether the request was accepted
+         */
+        public boolean isAccepted() {
+            return status == Status.STARTED || status == Status.QUEUED;
+        }
+
+    }
+
+    /**
+     * The limits requests are admitted within
+     *
+     * @param throttleTickRate below this tick rate, only one search runs at a time
+     * @param pauseTickRate    below this tick rate, no searches start and new requests are turned away
+     * @param maxSearches      the most searches that may run at once while the tick rate is healthy
+     * @param maxQueued        the most requests that may wait to start
+     * @param maxChunkLoads    no searches start while this many chunk loads are in flight
+     */
+    public record Limits(double throttleTickRate, double pauseTickRate, int maxSearches, int maxQueued,
+                         int maxChunkLoads) {
+    }
+
+    private record Request<T>(@NotNull UUID requester, @NotNull Supplier<CompletableFuture<T>> search,
+                              @NotNull CompletableFuture<T> result, long queuedAt) {
+    }
+
+}
@@ -0,0 +1,249 @@
+/*
+ * This file is part of HuskHomes, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.random;
+
+import net.william278.huskhomes.position.Location;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Evaluates random teleport candidate locations concurrently, without blocking any threads.
+ * <p>
+ * Each search checks up to a number of candidates at once, and completes with the first candidate found to be safe;
+ * no further candidates are started once one has been found. Across all searches, the number of candidates being
+ * checked at once is limited, since checking a candidate can mean loading or generating a chunk. Searches that would
+ * exceed the limit wait, in the order they started, for candidates from other searches to finish.
+ * <p>
+ * A candidate holds its slot until the resolver's future completes, even once its search has finished, since the
+ * chunk load behind it carries on regardless.
+ */
+public class CandidateEvaluator {
+
+    private final Function<Location, CompletableFuture<Optional<Location>>> resolver;
+    private final IntSupplier maxInFlight;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Queue<Search> waiting = new ConcurrentLinkedQueue<>();
+    private final LongAdder successes = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder successfulAttempts = new LongAdder();
+    private final LongAdder successfulChunkLoads = new LongAdder();
+
+    /**
+     * Create a candidate evaluator
+     *
+     * @param resolver    resolves a candidate to a safe location near it, if there is one
+     * @param maxInFlight supplies the most candidates that may be resolved at once, across all searches
+     */
+    public CandidateEvaluator(@NotNull Function<Location, CompletableFuture<Optional<Location>>> resolver,
+                              @NotNull IntSupplier maxInFlight) {
+        this.resolver = resolver;
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * Search for a safe location among generated candidates
+     *
+     * @param candidates  generates candidate locations
+     * @param maxAttempts the most candidates to check
+     * @param fanOut      the most candidates to check at once
+     * @return a future completing with the first safe location found, or empty if every candidate was unsafe
+     */
+    @NotNull
+    public CompletableFuture<Optional<Location>> search(@NotNull Supplier<Location> candidates, int maxAttempts,
+                                                        int fanOut) {
+        final Search search = new Search(candidates, Math.max(1, maxAttempts), Math.max(1, fanOut));
+        search.launch();
+        return search.result;
+    }
+
+    /**
+     * Get the number of candidates currently being checked, across all searches
+     *
+     * @return the number of candidates in flight
+     */
+    public int getInFlightCount() {
+        return inFlight.get();
+    }
+
+    /**
+     * Get the number of searches waiting for other searches' candidates to finish
+     *
+     * @return the number of waiting searches
+     */
+    public int getWaitingCount() {
+        return waiting.size();
+    }
+
+    /**
+     * Get statistics on how many candidates searches have checked
+     *
+     * @return the search statistics
+     */
+    @NotNull
+    public SearchStats getStats() {
+        return new SearchStats(successes.sum(), failures.sum(), successfulAttempts.sum(), successfulChunkLoads.sum());
+    }
+
+    /**
+     * Reset the search statistics
+     */
+    public void resetStats() {
+        successes.reset();
+        failures.reset();
+        successfulAttempts.reset();
+        successfulChunkLoads.reset();
+    }
+
+    private boolean tryAcquire() {
+        final int limit = Math.max(1, maxInFlight.getAsInt());
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    // Release a candidate slot, and give waiting searches the chance to use it
+    private void release() {
+        inFlight.decrementAndGet();
+        launchWaiting();
+    }
+
+    // Resolve a candidate, treating a resolver that throws as failing the candidate so its slot is still released
+    @NotNull
+    private CompletableFuture<Optional<Location>> resolve(@NotNull Location candidate) {
+        try {
+            return resolver.apply(candidate);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private void launchWaiting() {
+        Search next;
+        while (inFlight.get() < Math.max(1, maxInFlight.getAsInt()) && (next = waiting.poll()) != null) {
+            next.launch();
+        }
+    }
+
+    /**
+     * Statistics on how many candidates searches have checked
+     *
+     * @param successes          the number of searches that found a safe location
+     * @param failures           the number of searches that gave up without finding one
+     * @param successfulAttempts the total candidates checked by searches that found a safe location
+     * @param successfulChunks   the total distinct chunks loaded by searches that found a safe location
+     */
+    public record SearchStats(long successes, long failures, long successfulAttempts, long successfulChunks) {
+
+        public double getMeanAttempts() {
+            return successes == 0 ? 0 : successfulAttempts / (double) successes;
+        }
+
+        public double getMeanChunkLoads() {
+            return successes == 0 ? 0 : successfulChunks / (double) successes;
+        }
+
+    }
+
+    /**
+     * A search for a safe location
+     */
+    private final class Search {
+
+        private final CompletableFuture<Optional<Location>> result = new CompletableFuture<>();
+        private final Supplier<Location> candidates;
+        private final int maxAttempts;
+        private final int fanOut;
+        private final Set<Long> chunks = new HashSet<>();
+        private int started = 0;
+        private int running = 0;
+        private boolean queued = false;
+
+        private Search(@NotNull Supplier<Location> candidates, int maxAttempts, int fanOut) {
+            this.candidates = candidates;
+            this.maxAttempts = maxAttempts;
+            this.fanOut = fanOut;
+        }
+
+        // Start as many candidates as the fan-out and the global limit allow
+        private void launch() {
+            while (true) {
+                final Location candidate;
+                synchronized (this) {
+                    queued = false;
+                    if (result.isDone() || running >= fanOut || started >= maxAttempts) {
+                        return;
+                    }
+                    if (!tryAcquire()) {
+                        queued = true;
+                        waiting.add(this);
+                        break;
+                    }
+                    started++;
+                    running++;
+                    candidate = candidates.get();
+                    chunks.add(((long) ((int) Math.floor(candidate.getX()) >> 4) << 32)
+                               | (((int) Math.floor(candidate.getZ()) >> 4) & 0xFFFFFFFFL));
+                }
+                resolve(candidate).whenComplete((location, e) -> complete(e == null ? location : Optional.empty()));
+            }
+
+            // A slot may have been released between failing to acquire one and joining the queue
+            launchWaiting();
+        }
+
+        // Record a finished candidate, which may still complete after the search has finished
+        private void complete(@NotNull Optional<Location> location) {
+            final boolean relaunch;
+            synchronized (this) {
+                running--;
+                if (location.isPresent() && result.complete(location)) {
+                    successes.increment();
+                    successfulAttempts.add(started);
+                    successfulChunkLoads.add(chunks.size());
+                } else if (started >= maxAttempts && running == 0 && result.complete(Optional.empty())) {
+                    failures.increment();
+                }
+                relaunch = !result.isDone() && !queued;
+            }
+            release();
+            if (relaunch) {
+                launch();
+            }
+        }
+
+    }
+
+}
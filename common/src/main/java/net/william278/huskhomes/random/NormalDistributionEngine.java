@@ -20,31 +20,26 @@
 package net.william278.huskhomes.random;
 
 import net.william278.huskhomes.HuskHomes;
+import net.william278.huskhomes.config.Settings;
 import net.william278.huskhomes.position.Location;
 import net.william278.huskhomes.position.Position;
 import net.william278.huskhomes.position.World;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.Optional;
-import java.util.Random;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * A random teleport engine that uses a Gaussian normal distribution to generate random positions.
  */
 public final class NormalDistributionEngine extends RandomTeleportEngine {
 
-    private final int radius;
-    private final int spawnRadius;
-    private final float mean;
-    private final float standardDeviation;
+    // Samples to draw before giving up on the truncated distribution and falling back to an even spread
+    private static final int MAX_SAMPLES = 1000;
 
     public NormalDistributionEngine(@NotNull HuskHomes plugin) {
         super(plugin, "Normal Distribution");
-        this.radius = plugin.getSettings().getRtpRadius();
-        this.spawnRadius = plugin.getSettings().getRtpSpawnRadius();
-        this.mean = plugin.getSettings().getRtpDistributionMean();
-        this.standardDeviation = plugin.getSettings().getRtpDistributionStandardDeviation();
     }
 
     /**
@@ -58,12 +53,13 @@ public final class NormalDistributionEngine extends RandomTeleportEngine {
     public static Location generateLocation(@NotNull Location origin, float mean, float standardDeviation,
                                             float spawnRadius, float maxRadius) {
         // Generate random values
-        final float radius = getDistributedRadius(mean, standardDeviation, spawnRadius, maxRadius);
-        final float angle = getRandomAngle();
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        final double radius = getDistributedRadius(random, mean, standardDeviation, spawnRadius, maxRadius);
+        final double angle = random.nextDouble(2 * Math.PI);
 
         // Calculate corresponding x and z
-        final float z = (float) (radius * Math.cos(angle));
-        final float x = (float) (radius * Math.sin(angle));
+        final double z = radius * Math.cos(angle);
+        final double x = radius * Math.sin(angle);
 
         return Location.at(
                 Math.round(origin.getX()) + x,
@@ -73,55 +69,31 @@ public final class NormalDistributionEngine extends RandomTeleportEngine {
         );
     }
 
-    /**
-     * Generate a safe ground-level {@link Location} through a randomized normally-distributed radius and random angle
-     *
-     * @param world The world to generate the location in
-     * @return A generated location
-     */
-    private CompletableFuture<Optional<Location>> generateSafeLocation(@NotNull World world) {
-        return plugin.findSafeGroundLocation(generateLocation(
-                getCenterPoint(world), mean, standardDeviation, spawnRadius, radius
-        ));
-    }
-
     /**
      * Generates a normally distributed radius between the spawnRadius and the maximum radius value,
      * using the provided standard deviation and mean.
      *
      * @return the generated radius
      */
-    private static float getDistributedRadius(float mean, float standardDeviation,
-                                              float spawnRadius, float maxRadius) {
-        double value = (new Random().nextGaussian() * mean + standardDeviation) * maxRadius;
-        if (value < spawnRadius || value > maxRadius) {
-            return getDistributedRadius(mean, standardDeviation, spawnRadius, maxRadius);
+    private static double getDistributedRadius(@NotNull ThreadLocalRandom random, float mean, float standardDeviation,
+                                               float spawnRadius, float maxRadius) {
+        for (int i = 0; i < MAX_SAMPLES; i++) {
+            final double value = (random.nextGaussian() * mean + standardDeviation) * maxRadius;
+            if (value >= spawnRadius && value <= maxRadius) {
+                return value;
+            }
         }
-        return (float) value;
-    }
-
-    /**
-     * Generates a random angle in the range [0, 360]
-     *
-     * @return a random angle in the range [0, 360]
-     */
-    private static float getRandomAngle() {
-        return (float) (Math.random() * 360);
+        return UniformDiskEngine.getUniformRadius(random, spawnRadius, maxRadius);
     }
 
     @Override
     public CompletableFuture<Optional<Position>> getRandomPosition(@NotNull World world, @NotNull String[] args) {
-        return plugin.supplyAsync(() -> {
-            Optional<Location> location = generateSafeLocation(world).join();
-            int attempts = 0;
-            while (location.isEmpty()) {
-                location = generateSafeLocation(world).join();
-                if (attempts >= maxAttempts) {
-                    return Optional.empty();
-                }
-                attempts++;
-            }
-            return location.map(resolved -> Position.at(resolved, plugin.getServerName()));
-        });
+        final Position center = getCenterPoint(world);
+        final Settings settings = plugin.getSettings();
+        final float mean = settings.getRtpDistributionMean();
+        final float standardDeviation = settings.getRtpDistributionStandardDeviation();
+        final int spawnRadius = settings.getRtpSpawnRadius();
+        final int radius = settings.getRtpRadius();
+        return findSafePosition(() -> generateLocation(center, mean, standardDeviation, spawnRadius, radius));
     }
 }
@@ -0,0 +1,97 @@
+/*
+ * This file is part of HuskHomes, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.random;
+
+import net.william278.huskhomes.HuskHomes;
+import net.william278.huskhomes.position.Position;
+import net.william278.huskhomes.position.World;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+
+/**
+ * A random teleport engine that hands each world to the engine configured for it, from a registry of engines by id.
+ * <p>
+ * The built-in engines are {@code normal}, {@code uniform}, {@code square} and {@code region}; others can be
+ * registered through the API. Worlds configured with an unknown engine use the {@code normal} engine.
+ */
+public final class PerWorldEngine extends RandomTeleportEngine {
+
+    public static final String DEFAULT_ENGINE = "normal";
+
+    private final Map<String, RandomTeleportEngine> engines = new ConcurrentHashMap<>();
+    private final Set<String> unknownEngines = ConcurrentHashMap.newKeySet();
+
+    public PerWorldEngine(@NotNull HuskHomes plugin) {
+        super(plugin, "Per World");
+        register(DEFAULT_ENGINE, new NormalDistributionEngine(plugin));
+        register("uniform", new UniformDiskEngine(plugin));
+        register("square", new SquareEngine(plugin));
+        register("region", new RegionEngine(plugin));
+    }
+
+    /**
+     * Register an engine, so it can be configured for worlds by its id. Replaces any engine with the same id
+     *
+     * @param id     The id of the engine
+     * @param engine The engine
+     */
+    public void register(@NotNull String id, @NotNull RandomTeleportEngine engine) {
+        engines.put(id.toLowerCase(Locale.ENGLISH), engine);
+    }
+
+    /**
+     * Get the ids of the registered engines
+     *
+     * @return the engine ids
+     */
+    @NotNull
+    public Set<String> getEngineIds() {
+        return Collections.unmodifiableSet(engines.keySet());
+    }
+
+    /**
+     * Get the engine configured for a world
+     *
+     * @param world The world
+     * @return the engine to generate random positions in the world with
+     */
+    @NotNull
+    public RandomTeleportEngine getEngine(@NotNull World world) {
+        final String id = plugin.getSettings().getRtpEngine(world);
+        final RandomTeleportEngine engine = engines.get(id);
+        if (engine != null) {
+            return engine;
+        }
+        if (unknownEngines.add(id)) {
+            plugin.log(Level.WARNING, "Unknown random teleport engine \"" + id + "\" for world " + world.getName()
+                                      + ", using the " + DEFAULT_ENGINE + " engine instead");
+        }
+        return engines.get(DEFAULT_ENGINE);
+    }
+
+    @Override
+    public CompletableFuture<Optional<Position>> getRandomPosition(@NotNull World world, @NotNull String[] args) {
+        return getEngine(world).getRandomPosition(world, args);
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * This file is part of HuskHomes, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.random;
+
+import net.william278.huskhomes.HuskHomes;
+import net.william278.huskhomes.position.Location;
+import net.william278.huskhomes.position.Position;
+import net.william278.huskhomes.position.World;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+
+/**
+ * Keeps a bounded pool of pre-generated random positions for each world that allows random teleports, so that
+ * {@code /rtp} can usually use a ready position rather than searching for one while the player waits.
+ * <p>
+ * Pools are refilled in the background by the current {@link RandomTeleportEngine}, one position per world at a time,
+ * and only while no player is waiting on the engine and the {@link AdmissionController} is not throttling random
+ * teleports. A position is checked again before it is used, as the blocks around it may have changed since it was
+ * generated, and is discarded if it is no longer safe or has been pooled for too long.
+ */
+public class RandomPositionPool {
+
+    /**
+     * Ticks between checking if any pools need refilling
+     */
+    private static final long REFILL_PERIOD = 20L;
+
+    /**
+     * How long a pooled position may be used for before it is discarded
+     */
+    private static final long MAX_AGE_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    private final HuskHomes plugin;
+    private final AdmissionController admission;
+    private final Map<UUID, Deque<PooledPosition>> pools = new ConcurrentHashMap<>();
+    private final Set<UUID> refilling = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    public RandomPositionPool(@NotNull HuskHomes plugin, @NotNull AdmissionController admission) {
+        this.plugin = plugin;
+        this.admission = admission;
+        plugin.runAsyncRepeating(this::refill, REFILL_PERIOD);
+    }
+
+    /**
+     * Get a safe random position in a world, using a pooled position if one is still safe, or otherwise generating a
+     * new position with the current {@link RandomTeleportEngine}
+     *
+     * @param world the world to get a random position in
+     * @return a future completing with the position, or empty if one could not be found
+     */
+    @NotNull
+    public CompletableFuture<Optional<Position>> getRandomPosition(@NotNull World world) {
+        final Optional<PooledPosition> pooled = poll(world);
+        if (pooled.isEmpty()) {
+            return generate(world);
+        }
+
+        // Check the pooled position is still safe, trying the next one if not
+        return plugin.findSafeGroundLocation(pooled.get().position()).thenCompose(safe -> safe.isPresent()
+                ? CompletableFuture.completedFuture(safe.map(location -> Position.at(location, plugin.getServerName())))
+                : getRandomPosition(world));
+    }
+
+    /**
+     * Get the number of positions pooled for a world
+     *
+     * @param world the world to check
+     * @return the number of pooled positions
+     */
+    public int getPooledCount(@NotNull World world) {
+        final Deque<PooledPosition> pool = pools.get(world.getUuid());
+        if (pool == null) {
+            return 0;
+        }
+        synchronized (pool) {
+            return pool.size();
+        }
+    }
+
+    /**
+     * Get the number of positions pooled across all worlds
+     *
+     * @return the total number of pooled positions
+     */
+    public int getPooledCount() {
+        return plugin.getWorlds().stream().mapToInt(this::getPooledCount).sum();
+    }
+
+    /**
+     * Discard all pooled positions
+     */
+    public void invalidateAll() {
+        pools.clear();
+    }
+
+    // Generate a position for a waiting player, pausing refilling until it completes
+    @NotNull
+    private CompletableFuture<Optional<Position>> generate(@NotNull World world) {
+        waiting.incrementAndGet();
+        return plugin.getRandomTeleportEngine().getRandomPosition(world, new String[0])
+                .whenComplete((position, e) -> waiting.decrementAndGet());
+    }
+
+    // Take the oldest position from a world's pool that has not expired
+    private Optional<PooledPosition> poll(@NotNull World world) {
+        final Deque<PooledPosition> pool = pools.get(world.getUuid());
+        if (pool == null) {
+            return Optional.empty();
+        }
+        final long now = System.currentTimeMillis();
+        synchronized (pool) {
+            PooledPosition pooled;
+            while ((pooled = pool.pollFirst()) != null) {
+                if (now - pooled.createdAt() <= MAX_AGE_MILLIS) {
+                    return Optional.of(pooled);
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    // Start generating a position for each world with room in its pool, unless players are waiting or the server is busy
+    private void refill() {
+        // The pool size is read on each run, so pooling can be turned on or resized by reloading the config
+        final int size = plugin.getSettings().getRtpPoolSize();
+        if (size <= 0 || waiting.get() > 0 || admission.isThrottled()) {
+            return;
+        }
+
+        for (World world : plugin.getWorlds()) {
+            if (plugin.getSettings().isWorldRtpRestricted(world) || getPooledCount(world) >= size
+                || !refilling.add(world.getUuid())) {
+                continue;
+            }
+
+            plugin.getRandomTeleportEngine().getRandomPosition(world, new String[0])
+                    .whenComplete((position, e) -> {
+                        refilling.remove(world.getUuid());
+                        if (e != null) {
+                            plugin.log(Level.WARNING, "Failed to generate a random position in " + world.getName(), e);
+                            return;
+                        }
+                        position.ifPresent(generated -> add(world, generated, size));
+                    });
+        }
+    }
+
+    private void add(@NotNull World world, @NotNull Location location, int size) {
+        final Deque<PooledPosition> pool = pools.computeIfAbsent(world.getUuid(), uuid -> new ArrayDeque<>());
+        synchronized (pool) {
+            if (pool.size() < size) {
+                pool.addLast(new PooledPosition(location, System.currentTimeMillis()));
+            }
+        }
+    }
+
+    /**
+     * A pooled position, and when it was generated
+     *
+     * @param position  the safe position
+     * @param createdAt the time the position was generated, in milliseconds since the epoch
+     */
+    private record PooledPosition(@NotNull Location position, long createdAt) {
+    }
+
+}
@@ -20,12 +20,14 @@
 package net.william278.huskhomes.random;
 
 import net.william278.huskhomes.HuskHomes;
+import net.william278.huskhomes.position.Location;
 import net.william278.huskhomes.position.Position;
 import net.william278.huskhomes.position.World;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 /**
  * Represents an engine for generating random position targets
@@ -73,6 +75,25 @@ public abstract class RandomTeleportEngine {
                 .orElse(Position.at(0d, 128d, 0d, world, plugin.getServerName()));
     }
 
+    /**
+     * Find a safe position among generated candidate locations, checking up to {@link #maxAttempts} candidates, several
+     * at a time. The first safe position found is used. If enabled, candidates in areas where few have been safe are
+     * skipped more often, using the {@link SuccessGrid}
+     *
+     * @param candidates Generates candidate locations
+     * @return The first safe position found, or {@link Optional#empty()} if every candidate was unsafe
+     * @see CandidateEvaluator
+     */
+    @NotNull
+    protected CompletableFuture<Optional<Position>> findSafePosition(@NotNull Supplier<Location> candidates) {
+        final SuccessGrid grid = plugin.getManager().rtpGrid();
+        final Supplier<Location> sampler = plugin.getSettings().doRtpAdaptiveSampling()
+                ? () -> grid.sample(candidates) : candidates;
+        return plugin.getManager().rtpCandidates()
+                .search(sampler, (int) maxAttempts, plugin.getSettings().getRtpCandidatesPerSearch())
+                .thenApply(location -> location.map(resolved -> Position.at(resolved, plugin.getServerName())));
+    }
+
     /**
      * Gets a random position in the {@link World}, or {@link Optional#empty()} if no position could be found in
      * the configured number of attempts
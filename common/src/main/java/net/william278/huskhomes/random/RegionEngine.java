@@ -0,0 +1,116 @@
+/*
+ * This file is part of HuskHomes, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.random;
+
+import net.william278.huskhomes.HuskHomes;
+import net.william278.huskhomes.position.Location;
+import net.william278.huskhomes.position.Position;
+import net.william278.huskhomes.position.World;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.logging.Level;
+
+/**
+ * A random teleport engine that spreads positions evenly over a rectangular region configured for each world.
+ * Worlds without a valid region fall back to the {@link SquareEngine square} about the center.
+ */
+public final class RegionEngine extends RandomTeleportEngine {
+
+    private final Set<String> invalidRegions = ConcurrentHashMap.newKeySet();
+
+    public RegionEngine(@NotNull HuskHomes plugin) {
+        super(plugin, "Region");
+    }
+
+    /**
+     * Generate a {@link Location} spread evenly over a region
+     *
+     * @param world  The world to generate the location in
+     * @param region The region to generate the location in
+     * @return A generated location
+     */
+    @NotNull
+    public static Location generateLocation(@NotNull World world, @NotNull Region region) {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        return Location.at(
+                region.minX() + random.nextDouble() * (region.maxX() - region.minX()),
+                128d,
+                region.minZ() + random.nextDouble() * (region.maxZ() - region.minZ()),
+                world
+        );
+    }
+
+    @Override
+    public CompletableFuture<Optional<Position>> getRandomPosition(@NotNull World world, @NotNull String[] args) {
+        final Optional<String> configured = plugin.getSettings().getRtpRegion(world);
+        final Optional<Region> region = configured.flatMap(Region::parse);
+        if (region.isPresent()) {
+            return findSafePosition(() -> generateLocation(world, region.get()));
+        }
+
+        configured.filter(invalidRegions::add).ifPresent(invalid -> plugin.log(Level.WARNING,
+                "Invalid random teleport region for world " + world.getName() + ": \"" + invalid
+                + "\" (expected min_x,min_z,max_x,max_z)"));
+        final Position center = getCenterPoint(world);
+        final int spawnRadius = plugin.getSettings().getRtpSpawnRadius();
+        final int radius = plugin.getSettings().getRtpRadius();
+        return findSafePosition(() -> SquareEngine.generateLocation(center, spawnRadius, radius));
+    }
+
+    /**
+     * A rectangular region of a world
+     *
+     * @param minX the lowest x coordinate
+     * @param minZ the lowest z coordinate
+     * @param maxX the highest x coordinate
+     * @param maxZ the highest z coordinate
+     */
+    public record Region(double minX, double minZ, double maxX, double maxZ) {
+
+        /**
+         * Parse a region from a string of its corners, in the form {@code min_x,min_z,max_x,max_z}
+         *
+         * @param region The region string
+         * @return The region, if it could be parsed
+         */
+        @NotNull
+        public static Optional<Region> parse(@NotNull String region) {
+            final String[] bounds = region.split(",");
+            if (bounds.length != 4) {
+                return Optional.empty();
+            }
+            try {
+                final double x1 = Double.parseDouble(bounds[0].trim());
+                final double z1 = Double.parseDouble(bounds[1].trim());
+                final double x2 = Double.parseDouble(bounds[2].trim());
+                final double z2 = Double.parseDouble(bounds[3].trim());
+                return Optional.of(new Region(Math.min(x1, x2), Math.min(z1, z2), Math.max(x1, x2), Math.max(z1, z2)));
+            } catch (NumberFormatException e) {
+                return Optional.empty();
+            }
+        }
+
+    }
+}
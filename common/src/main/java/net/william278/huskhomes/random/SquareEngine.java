@@ -0,0 +1,95 @@
+/*
+ * This file is part of HuskHomes, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.random;
+
+import net.william278.huskhomes.HuskHomes;
+import net.william278.huskhomes.config.Settings;
+import net.william278.huskhomes.position.Location;
+import net.william278.huskhomes.position.Position;
+import net.william278.huskhomes.position.World;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A random teleport engine that spreads positions evenly over a square about the center, outside a smaller square
+ * about spawn. The square matches the shape of a world border centered on the same point.
+ */
+public final class SquareEngine extends RandomTeleportEngine {
+
+    public SquareEngine(@NotNull HuskHomes plugin) {
+        super(plugin, "Square");
+    }
+
+    /**
+     * Generate a {@link Location} spread evenly over the square reaching the maximum radius from the origin position,
+     * outside the square reaching the spawn radius from it.
+     *
+     * @param origin The origin position
+     * @return A generated location
+     */
+    @NotNull
+    public static Location generateLocation(@NotNull Location origin, float spawnRadius, float maxRadius) {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        final double max = Math.max(1, maxRadius);
+        final double min = Math.max(0, Math.min(spawnRadius, max - 1));
+
+        // Pick one of the four equal strips around the inner square, then a point within that strip
+        final double along = random.nextDouble(-max, min);
+        final double across = random.nextDouble(min, max);
+        final double x;
+        final double z;
+        switch (random.nextInt(4)) {
+            case 0 -> {
+                x = along;
+                z = across;
+            }
+            case 1 -> {
+                x = across;
+                z = -along;
+            }
+            case 2 -> {
+                x = -along;
+                z = -across;
+            }
+            default -> {
+                x = -across;
+                z = along;
+            }
+        }
+        return Location.at(
+                Math.round(origin.getX()) + x,
+                128d,
+                Math.round(origin.getZ()) + z,
+                origin.getWorld()
+        );
+    }
+
+    @Override
+    public CompletableFuture<Optional<Position>> getRandomPosition(@NotNull World world, @NotNull String[] args) {
+        final Position center = getCenterPoint(world);
+        final Settings settings = plugin.getSettings();
+        final int spawnRadius = settings.getRtpSpawnRadius();
+        final int radius = settings.getRtpRadius();
+        return findSafePosition(() -> generateLocation(center, spawnRadius, radius));
+    }
+}
@@ -0,0 +1,228 @@
+/*
+ * This file is part of HuskHomes, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.random;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+import net.william278.huskhomes.position.Location;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.*;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Records whether random teleport candidates turned out to be safe, in a coarse grid of cells for each world, and
+ * uses those outcomes to avoid sampling candidates in areas where they are rarely safe, such as oceans.
+ * <p>
+ * Candidates are drawn from an engine's own sampler, and kept with a probability given by the success rate of their
+ * cell; unexplored cells are always kept. This preserves the shape of the engine's distribution, scaled down in
+ * poor cells. Outcomes are counted with a cap, halving older counts, so that cells adapt if the terrain changes.
+ */
+public class SuccessGrid {
+
+    /**
+     * The size of each cell, in blocks, as a power of two
+     */
+    public static final int CELL_SHIFT = 9;
+
+    /**
+     * The lowest probability of keeping a candidate, so that no cell is ruled out entirely
+     */
+    static final double MIN_WEIGHT = 0.05;
+
+    /**
+     * Candidates to draw before keeping one regardless of its cell
+     */
+    static final int MAX_SAMPLES = 16;
+
+    /**
+     * The most outcomes to count for a cell, before halving its counts
+     */
+    static final int MAX_OUTCOMES = 64;
+
+    private static final Type FILE_TYPE = new TypeToken<Map<String, Map<String, int[]>>>() {
+    }.getType();
+
+    private final Map<UUID, Map<Long, AtomicLong>> worlds = new ConcurrentHashMap<>();
+    private volatile boolean dirty = false;
+
+    /**
+     * Record whether a candidate was safe
+     *
+     * @param candidate the candidate location
+     * @param safe      whether a safe location was found for the candidate
+     */
+    public void record(@NotNull Location candidate, boolean safe) {
+        final AtomicLong cell = worlds.computeIfAbsent(candidate.getWorld().getUuid(), uuid -> new ConcurrentHashMap<>())
+                .computeIfAbsent(getCellKey(candidate), key -> new AtomicLong());
+        cell.updateAndGet(counts -> {
+            int successes = high(counts) + (safe ? 1 : 0);
+            int failures = low(counts) + (safe ? 0 : 1);
+            if (successes + failures > MAX_OUTCOMES) {
+                successes /= 2;
+                failures /= 2;
+            }
+            return pack(successes, failures);
+        });
+        dirty = true;
+    }
+
+    /**
+     * Get the probability of keeping a candidate at a location, from the success rate of its cell
+     *
+     * @param location the location
+     * @return the weight of the location, from {@link #MIN_WEIGHT} to {@code 1}
+     */
+    public double getWeight(@NotNull Location location) {
+        final Map<Long, AtomicLong> cells = worlds.get(location.getWorld().getUuid());
+        final AtomicLong cell = cells == null ? null : cells.get(getCellKey(location));
+        if (cell == null) {
+            return 1;
+        }
+
+        // Count an extra success, so unexplored cells are kept and one failure does not rule a cell out
+        final long counts = cell.get();
+        final int successes = high(counts);
+        final int failures = low(counts);
+        return Math.max(MIN_WEIGHT, (successes + 1d) / (successes + failures + 1d));
+    }
+
+    /**
+     * Draw a candidate from a sampler, redrawing candidates in cells where candidates are rarely safe
+     *
+     * @param sampler the engine's candidate sampler
+     * @return the candidate to check
+     */
+    @NotNull
+    public Location sample(@NotNull Supplier<Location> sampler) {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        Location candidate = sampler.get();
+        for (int i = 1; i < MAX_SAMPLES && random.nextDouble() >= getWeight(candidate); i++) {
+            candidate = sampler.get();
+        }
+        return candidate;
+    }
+
+    /**
+     * Load recorded outcomes from a file, if it exists
+     *
+     * @param file the file to load from
+     * @param gson the gson instance to parse the file with
+     * @throws IOException if the file could not be read or parsed
+     */
+    public void load(@NotNull File file, @NotNull Gson gson) throws IOException {
+        if (!file.exists()) {
+            return;
+        }
+        try (Reader reader = new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8)) {
+            final Map<String, Map<String, int[]>> saved = gson.fromJson(reader, FILE_TYPE);
+            if (saved == null) {
+                return;
+            }
+            saved.forEach((world, cells) -> {
+                final Map<Long, AtomicLong> loaded = worlds.computeIfAbsent(UUID.fromString(world),
+                        uuid -> new ConcurrentHashMap<>());
+                cells.forEach((key, counts) -> {
+                    final String[] coordinates = key.split(",");
+                    if (coordinates.length == 2 && counts.length == 2) {
+                        loaded.putIfAbsent(pack(Integer.parseInt(coordinates[0]), Integer.parseInt(coordinates[1])),
+                                new AtomicLong(pack(Math.min(counts[0], MAX_OUTCOMES),
+                                        Math.min(counts[1], MAX_OUTCOMES))));
+                    }
+                });
+            });
+        } catch (JsonParseException | IllegalArgumentException e) {
+            throw new IOException("Invalid random teleport grid file: " + file.getName(), e);
+        }
+    }
+
+    /**
+     * Save the recorded outcomes to a file, if any have been recorded since the last save
+     *
+     * @param file the file to save to
+     * @param gson the gson instance to write the file with
+     * @throws IOException if the file could not be written
+     */
+    public void save(@NotNull File file, @NotNull Gson gson) throws IOException {
+        if (!dirty) {
+            return;
+        }
+        dirty = false;
+
+        final Map<String, Map<String, int[]>> saved = new HashMap<>();
+        worlds.forEach((world, cells) -> {
+            final Map<String, int[]> counts = new HashMap<>();
+            cells.forEach((key, cell) -> {
+                final long value = cell.get();
+                counts.put(high(key) + "," + low(key),
+                        new int[]{high(value), low(value)});
+            });
+            saved.put(world.toString(), counts);
+        });
+
+        // Write to a temporary file first, so a crash while saving does not lose the previous grid
+        final File temp = new File(file.getParentFile(), file.getName() + ".tmp");
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(temp), StandardCharsets.UTF_8)) {
+            gson.toJson(saved, FILE_TYPE, writer);
+        } catch (IOException e) {
+            dirty = true;
+            throw e;
+        }
+        Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Get the number of cells with recorded outcomes, across all worlds
+     *
+     * @return the number of cells
+     */
+    public int getCellCount() {
+        return worlds.values().stream().mapToInt(Map::size).sum();
+    }
+
+    // Cell coordinates (x, z) and outcome counts (successes, failures) are both packed as two ints in a long
+    private static long getCellKey(@NotNull Location location) {
+        return pack((int) Math.floor(location.getX()) >> CELL_SHIFT, (int) Math.floor(location.getZ()) >> CELL_SHIFT);
+    }
+
+    private static long pack(int high, int low) {
+        return ((long) high << 32) | (low & 0xFFFFFFFFL);
+    }
+
+    private static int high(long packed) {
+        return (int) (packed >> 32);
+    }
+
+    private static int low(long packed) {
+        return (int) packed;
+    }
+
+}
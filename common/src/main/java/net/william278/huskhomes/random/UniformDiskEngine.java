@@ -0,0 +1,82 @@
+/*
+ * This file is part of HuskHomes, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.random;
+
+import net.william278.huskhomes.HuskHomes;
+import net.william278.huskhomes.config.Settings;
+import net.william278.huskhomes.position.Location;
+import net.william278.huskhomes.position.Position;
+import net.william278.huskhomes.position.World;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A random teleport engine that spreads positions evenly over the area between the spawn radius and the radius.
+ */
+public final class UniformDiskEngine extends RandomTeleportEngine {
+
+    public UniformDiskEngine(@NotNull HuskHomes plugin) {
+        super(plugin, "Uniform Disk");
+    }
+
+    /**
+     * Generate a {@link Location} spread evenly over the ring between the spawn radius and maximum radius about the
+     * origin position.
+     *
+     * @param origin The origin position
+     * @return A generated location
+     */
+    @NotNull
+    public static Location generateLocation(@NotNull Location origin, float spawnRadius, float maxRadius) {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        final double radius = getUniformRadius(random, spawnRadius, maxRadius);
+        final double angle = random.nextDouble(2 * Math.PI);
+        return Location.at(
+                Math.round(origin.getX()) + radius * Math.sin(angle),
+                128d,
+                Math.round(origin.getZ()) + radius * Math.cos(angle),
+                origin.getWorld()
+        );
+    }
+
+    /**
+     * Generates a radius between the spawn radius and maximum radius, weighted so that the positions it gives are
+     * spread evenly over the area of the ring between them.
+     *
+     * @return the generated radius
+     */
+    static double getUniformRadius(@NotNull ThreadLocalRandom random, float spawnRadius, float maxRadius) {
+        final double min = Math.min(spawnRadius, maxRadius);
+        final double max = Math.max(spawnRadius, maxRadius);
+        return Math.sqrt(min * min + random.nextDouble() * (max * max - min * min));
+    }
+
+    @Override
+    public CompletableFuture<Optional<Position>> getRandomPosition(@NotNull World world, @NotNull String[] args) {
+        final Position center = getCenterPoint(world);
+        final Settings settings = plugin.getSettings();
+        final int spawnRadius = settings.getRtpSpawnRadius();
+        final int radius = settings.getRtpRadius();
+        return findSafePosition(() -> generateLocation(center, spawnRadius, radius));
+    }
+}
@@ -34,6 +34,7 @@ import org.jetbrains.annotations.NotNull;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Represents the process of a {@link Teleportable} being teleported to a {@link Target}.
@@ -50,6 +51,7 @@ public class Teleport {
     protected final List<EconomyHook.Action> economyActions;
     private final boolean async;
     protected final boolean updateLastPosition;
+    protected final TeleportMetrics.Timer timer;
 
     protected Teleport(@NotNull OnlineUser executor, @NotNull Teleportable teleporter, @NotNull Target target,
                        @NotNull Type type, boolean updateLastPosition, @NotNull List<EconomyHook.Action> actions,
@@ -64,6 +66,20 @@ public class Teleport {
         this.updateLastPosition = updateLastPosition && plugin.getCommand(BackCommand.class)
                 .map(command -> executor.hasPermission(command.getPermission()))
                 .orElse(false);
+        this.timer = plugin.getManager().metrics().startTimer(type);
+    }
+
+    // The same teleport, with a target user on another server resolved to their position
+    private Teleport(@NotNull Teleport teleport, @NotNull Position target) {
+        this.plugin = teleport.plugin;
+        this.executor = teleport.executor;
+        this.teleporter = teleport.teleporter;
+        this.target = target;
+        this.type = teleport.type;
+        this.economyActions = teleport.economyActions;
+        this.async = teleport.async;
+        this.updateLastPosition = teleport.updateLastPosition;
+        this.timer = teleport.timer;
     }
 
     @NotNull
@@ -72,6 +88,25 @@ public class Teleport {
     }
 
     public void execute() throws TeleportationException {
+        executeAwaitingLookup().exceptionally(e -> {
+            new TeleportationException(TeleportationException.Type.TARGET_NOT_FOUND)
+                    .displayMessage(executor, plugin, ((Username) target).name());
+            return null;
+        });
+    }
+
+    /**
+     * Execute the teleport, as with {@link #execute()}, for a caller that must report back how it went.
+     * <p>
+     * If the target is a user on another server, their position is looked up before the teleport carries on; the
+     * returned future completes once it has, or exceptionally with a {@link TeleportationException} if the target
+     * could not be found. Otherwise, the future completes as soon as the teleport has been started.
+     *
+     * @return a future completing once any lookup of the target has finished
+     * @throws TeleportationException if the teleport could not be started
+     */
+    @NotNull
+    public CompletableFuture<Void> executeAwaitingLookup() throws TeleportationException {
         final Optional<OnlineUser> localTeleporter = resolveLocalTeleporter();
 
         // Validate economy actions
@@ -85,23 +120,36 @@ public class Teleport {
             }
 
             fireEvent((event) -> {
+                timer.mark(TeleportMetrics.Phase.EVENT_FIRED);
                 executeEconomyActions();
+                timer.mark(TeleportMetrics.Phase.ECONOMY_CHECKED);
+                final Message.Builder message = Message.builder().target(teleporter.name());
                 if (target instanceof Username username) {
-                    Message.builder()
-                            .type(Message.Type.TELEPORT_TO_NETWORKED_USER)
-                            .target(teleporter.name())
-                            .payload(Payload.withString(username.name()))
-                            .build().send(plugin.getMessenger(), executor);
-                    return;
+                    message.type(Message.Type.TELEPORT_TO_NETWORKED_USER)
+                            .payload(Payload.withString(username.name()));
+                } else {
+                    message.type(Message.Type.TELEPORT_TO_POSITION)
+                            .payload(Payload.withPosition((Position) target));
                 }
 
-                Message.builder()
-                        .type(Message.Type.TELEPORT_TO_POSITION)
-                        .target(teleporter.name())
-                        .payload(Payload.withPosition((Position) target))
-                        .build().send(plugin.getMessenger(), executor);
+                // Notify the executor if the teleport failed on the other server, or it could not be reached.
+                // Teleports to a user there may first have to look them up on a third server, so wait for longer
+                final int timeout = plugin.getSettings().getCrossServerRequestTimeout();
+                plugin.getMessenger().sendRequest(message.build(), executor,
+                                target instanceof Username ? timeout * 2 : timeout)
+                        .thenAccept(response -> response.getString()
+                                .map(TeleportationException.Type::valueOf)
+                                .ifPresent(type -> new TeleportationException(type).displayMessage(executor, plugin,
+                                        type == TeleportationException.Type.TARGET_NOT_FOUND
+                                        && target instanceof Username username
+                                                ? username.name() : teleporter.name())))
+                        .exceptionally(e -> {
+                            new TeleportationException(TeleportationException.Type.TELEPORTER_NOT_FOUND)
+                                    .displayMessage(executor, plugin, teleporter.name());
+                            return null;
+                        });
             });
-            return;
+            return CompletableFuture.completedFuture(null);
         }
 
         // Teleport a local user
@@ -111,9 +159,12 @@ public class Teleport {
                     ? Optional.of(executor) : username.findLocally(plugin);
             if (localTarget.isPresent()) {
                 fireEvent((event) -> {
+                    timer.mark(TeleportMetrics.Phase.EVENT_FIRED);
                     executeEconomyActions();
+                    timer.mark(TeleportMetrics.Phase.ECONOMY_CHECKED);
                     if (updateLastPosition) {
-                        plugin.getDatabase().setLastPosition(teleporter, teleporter.getPosition());
+                        plugin.getManager().history().addPosition(teleporter, teleporter.getPosition());
+                        timer.mark(TeleportMetrics.Phase.DATABASE_WRITTEN);
                     }
 
                     try {
@@ -122,46 +173,77 @@ public class Teleport {
                         e.displayMessage(teleporter, plugin);
                         return;
                     }
+                    timer.complete(TeleportMetrics.Phase.ARRIVED);
                     this.displayTeleportingComplete(teleporter);
                 });
-                return;
+                return CompletableFuture.completedFuture(null);
             }
 
             if (plugin.getSettings().doCrossServer()) {
+                final CompletableFuture<Void> lookup = new CompletableFuture<>();
                 fireEvent((event) -> {
+                    timer.mark(TeleportMetrics.Phase.EVENT_FIRED);
                     executeEconomyActions();
-                    Message.builder()
-                            .type(Message.Type.TELEPORT_TO_NETWORKED_POSITION)
-                            .target(username.name())
-                            .build().send(plugin.getMessenger(), executor);
-                });
-                return;
+                    timer.mark(TeleportMetrics.Phase.ECONOMY_CHECKED);
+
+                    // Look up the target's position on their server, then carry on with the teleport to it
+                    plugin.getMessenger().sendRequest(Message.builder()
+                                    .type(Message.Type.TELEPORT_TO_NETWORKED_POSITION)
+                                    .target(username.name())
+                                    .build(), executor)
+                            .thenAccept(response -> response.getPosition().ifPresentOrElse(position -> {
+                                teleportToPosition(teleporter, position);
+                                lookup.complete(null);
+                            }, () -> lookup.completeExceptionally(
+                                    new TeleportationException(TeleportationException.Type.TARGET_NOT_FOUND))))
+                            .exceptionally(e -> {
+                                lookup.completeExceptionally(
+                                        new TeleportationException(TeleportationException.Type.TARGET_NOT_FOUND));
+                                return null;
+                            });
+                }, () -> lookup.complete(null));
+                return lookup;
             }
 
             throw new TeleportationException(TeleportationException.Type.TARGET_NOT_FOUND);
         }
 
         fireEvent((event) -> {
+            timer.mark(TeleportMetrics.Phase.EVENT_FIRED);
             executeEconomyActions();
-            if (updateLastPosition) {
-                plugin.getDatabase().setLastPosition(teleporter, teleporter.getPosition());
-            }
+            timer.mark(TeleportMetrics.Phase.ECONOMY_CHECKED);
+            teleportToPosition(teleporter, (Position) this.target);
+        });
+        return CompletableFuture.completedFuture(null);
+    }
 
-            final Position target = (Position) this.target;
-            if (!plugin.getSettings().doCrossServer() || target.getServer().equals(plugin.getServerName())) {
-                try {
-                    teleporter.teleportLocally(target, async);
-                } catch (TeleportationException e) {
-                    e.displayMessage(teleporter, plugin);
-                    return;
-                }
-                this.displayTeleportingComplete(teleporter);
+    // Carry out the teleport of a local user to a position, once the event has been fired and the economy actions
+    // taken, handing it over to the destination server if the position is on another server
+    private void teleportToPosition(@NotNull OnlineUser teleporter, @NotNull Position target) {
+        if (updateLastPosition) {
+            plugin.getManager().history().addPosition(teleporter, teleporter.getPosition());
+            timer.mark(TeleportMetrics.Phase.DATABASE_WRITTEN);
+        }
+
+        if (!plugin.getSettings().doCrossServer() || target.getServer().equals(plugin.getServerName())) {
+            try {
+                teleporter.teleportLocally(target, async);
+            } catch (TeleportationException e) {
+                e.displayMessage(teleporter, plugin);
                 return;
             }
+            timer.complete(TeleportMetrics.Phase.ARRIVED);
+            this.displayTeleportingComplete(teleporter);
+            return;
+        }
 
-            plugin.getDatabase().setCurrentTeleport(teleporter, this);
-            plugin.getMessenger().changeServer(teleporter, target.getServer());
-        });
+        // Save the teleporter's history before they leave, so it is up-to-date on the destination server
+        plugin.getManager().history().flush(teleporter);
+        plugin.getMessenger().setCurrentTeleport(teleporter,
+                target == this.target ? this : new Teleport(this, target));
+        timer.mark(TeleportMetrics.Phase.DATABASE_WRITTEN);
+        plugin.getMessenger().changeServer(teleporter, target.getServer());
+        timer.complete(TeleportMetrics.Phase.SERVER_SWITCHED);
     }
 
     @NotNull
@@ -184,6 +266,18 @@ public class Teleport {
         plugin.fireEvent(plugin.getTeleportEvent(this), afterFired);
     }
 
+    // Fire the teleport event, running the given callback instead if it is cancelled
+    private void fireEvent(@NotNull ThrowingConsumer<ITeleportEvent> afterFired, @NotNull Runnable ifCancelled) {
+        final ITeleportEvent event = plugin.getTeleportEvent(this);
+        plugin.runSync(() -> {
+            if (plugin.fireIsCancelled(event)) {
+                ifCancelled.run();
+                return;
+            }
+            plugin.runAsync(() -> afterFired.accept(event));
+        });
+    }
+
     // Check economy actions
     protected void validateEconomyActions() throws TeleportationException {
         if (economyActions.stream()
@@ -0,0 +1,191 @@
+/*
+ * This file is part of HuskHomes, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.teleport;
+
+import net.william278.huskhomes.util.LatencyHistogram;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records how long each phase of a {@link Teleport} takes, aggregated into a {@link LatencyHistogram} per
+ * {@link Teleport.Type} and {@link Phase}.
+ * <p>
+ * Each teleport carries a {@link Timer}, started when the teleport is created (i.e. when the command is received).
+ * Most phases record the time since the previous phase, so together they break down where the time went.
+ *
+ * @see net.william278.huskhomes.manager.Manager#metrics()
+ */
+public class TeleportMetrics {
+
+    private final Map<Teleport.Type, Map<Phase, LatencyHistogram>> histograms = new EnumMap<>(Teleport.Type.class);
+
+    public TeleportMetrics() {
+        for (Teleport.Type type : Teleport.Type.values()) {
+            final Map<Phase, LatencyHistogram> phases = new EnumMap<>(Phase.class);
+            for (Phase phase : Phase.values()) {
+                phases.put(phase, new LatencyHistogram());
+            }
+            histograms.put(type, phases);
+        }
+    }
+
+    /**
+     * Start timing a teleport
+     *
+     * @param type the type of teleport
+     * @return the timer for the teleport
+     */
+    @NotNull
+    public Timer startTimer(@NotNull Teleport.Type type) {
+        return new Timer(type);
+    }
+
+    /**
+     * Record the duration of a teleport phase
+     *
+     * @param type     the type of teleport
+     * @param phase    the phase
+     * @param duration the duration of the phase
+     * @param unit     the unit of the duration
+     */
+    public void record(@NotNull Teleport.Type type, @NotNull Phase phase, long duration, @NotNull TimeUnit unit) {
+        getHistogram(type, phase).record(duration, unit);
+    }
+
+    /**
+     * Get the histogram of durations recorded for a teleport phase
+     *
+     * @param type  the type of teleport
+     * @param phase the phase
+     * @return the histogram, in microseconds
+     */
+    @NotNull
+    public LatencyHistogram getHistogram(@NotNull Teleport.Type type, @NotNull Phase phase) {
+        return histograms.get(type).get(phase);
+    }
+
+    /**
+     * Clear all recorded timings
+     */
+    public void reset() {
+        histograms.values().forEach(phases -> phases.values().forEach(LatencyHistogram::reset));
+    }
+
+    /**
+     * The phases of a teleport that are timed
+     */
+    public enum Phase {
+        /**
+         * From the teleport being created until its warmup completes. Only recorded for timed teleports
+         */
+        WARMUP,
+        /**
+         * From the end of the previous phase until the teleport event has been fired and not cancelled
+         */
+        EVENT_FIRED,
+        /**
+         * Time taken to take payment for the teleport
+         */
+        ECONOMY_CHECKED,
+        /**
+         * Time taken to record the teleporter's last position, and for cross-server teleports to save their position
+         * history and pending teleport
+         */
+        DATABASE_WRITTEN,
+        /**
+         * From the start of a warmup until the destination chunk has been preloaded. Only recorded for timed teleports
+         */
+        CHUNK_LOADED,
+        /**
+         * Time taken to move the teleporter on this server. On platforms that teleport asynchronously, this covers
+         * dispatching the teleport
+         */
+        ARRIVED,
+        /**
+         * Time taken to send the teleporter to another server
+         */
+        SERVER_SWITCHED,
+        /**
+         * On the destination server of a cross-server teleport, from the teleporter joining until their pending
+         * teleport has been picked up and executed
+         */
+        INBOUND_PICKED_UP,
+        /**
+         * From the teleport being created until it arrived or the teleporter was sent to another server
+         */
+        TOTAL;
+
+        @NotNull
+        public String getName() {
+            return name().toLowerCase();
+        }
+    }
+
+    /**
+     * Times the phases of a single teleport
+     */
+    public final class Timer {
+
+        private final Teleport.Type type;
+        private final long startTime;
+        private long lastTime;
+
+        private Timer(@NotNull Teleport.Type type) {
+            this.type = type;
+            this.startTime = System.nanoTime();
+            this.lastTime = startTime;
+        }
+
+        /**
+         * Record the time since the previous phase (or the start of the teleport) as the given phase
+         *
+         * @param phase the phase that just completed
+         */
+        public synchronized void mark(@NotNull Phase phase) {
+            final long now = System.nanoTime();
+            record(type, phase, now - lastTime, TimeUnit.NANOSECONDS);
+            lastTime = now;
+        }
+
+        /**
+         * Record the final phase of the teleport, and the total time taken
+         *
+         * @param phase the final phase
+         */
+        public synchronized void complete(@NotNull Phase phase) {
+            mark(phase);
+            record(type, Phase.TOTAL, lastTime - startTime, TimeUnit.NANOSECONDS);
+        }
+
+        /**
+         * Get the time elapsed since the teleport started
+         *
+         * @return the elapsed time, in nanoseconds
+         */
+        public long getElapsedNanos() {
+            return System.nanoTime() - startTime;
+        }
+
+    }
+
+}
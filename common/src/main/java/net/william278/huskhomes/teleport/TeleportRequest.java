@@ -75,6 +75,13 @@ public class TeleportRequest {
         return Instant.now().isAfter(Instant.ofEpochSecond(expiryTime));
     }
 
+    /**
+     * The time the request expires at, in seconds since the epoch
+     */
+    public long getExpiryTime() {
+        return expiryTime;
+    }
+
     /**
      * The name of the request recipient
      */
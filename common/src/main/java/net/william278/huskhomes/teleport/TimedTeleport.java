@@ -28,7 +28,6 @@ import net.william278.huskhomes.user.OnlineUser;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.List;
-import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Represents a {@link Teleport} that has an associated warmup time; the teleport will not be performed until the
@@ -41,7 +40,6 @@ public class TimedTeleport extends Teleport {
     public static final String BYPASS_PERMISSION = "huskhomes.bypass_teleport_warmup";
     private final OnlineUser teleporter;
     private final Position startLocation;
-    private final double startHealth;
     private int timeLeft;
 
     protected TimedTeleport(@NotNull OnlineUser executor, @NotNull OnlineUser teleporter, @NotNull Target target,
@@ -49,7 +47,6 @@ public class TimedTeleport extends Teleport {
                             @NotNull List<EconomyHook.Action> actions, @NotNull HuskHomes plugin) {
         super(teleporter, executor, target, type, updateLastPosition, actions, plugin);
         this.startLocation = teleporter.getPosition();
-        this.startHealth = teleporter.getHealth();
         this.timeLeft = Math.max(warmupTime, 0);
         this.teleporter = teleporter;
     }
@@ -79,84 +76,50 @@ public class TimedTeleport extends Teleport {
         this.process();
     }
 
-    // Execute the warmup, fire the event, then execute the teleport if warmup completes normally
+    // Fire the event, then start the warmup; the teleport is executed if the warmup completes normally
     private void process() {
         plugin.fireEvent(plugin.getTeleportWarmupEvent(this, timeLeft), (event) -> {
-            plugin.getCurrentlyOnWarmup().add(teleporter.getUuid());
+            if (!plugin.getManager().warmups().startWarmup(teleporter.getUuid(), this, timeLeft)) {
+                new TeleportationException(TeleportationException.Type.ALREADY_WARMING_UP)
+                        .displayMessage(teleporter, plugin);
+                return;
+            }
             plugin.getLocales().getLocale("teleporting_warmup_start", Integer.toString(timeLeft))
                     .ifPresent(teleporter::sendMessage);
-
-            // Run the warmup
-            final AtomicInteger warmupTaskId = new AtomicInteger();
-            final Runnable countdownRunnable = (() -> {
-                // Display a countdown action bar message
-                if (timeLeft > 0) {
-                    plugin.getSettings().getSoundEffect(Settings.SoundEffectAction.TELEPORTATION_WARMUP)
-                            .ifPresent(teleporter::playSound);
-                    plugin.getLocales().getLocale("teleporting_action_bar_warmup", Integer.toString(timeLeft))
-                            .ifPresent(this::sendStatusMessage);
-                } else {
-                    plugin.getLocales().getLocale("teleporting_action_bar_processing")
-                            .ifPresent(this::sendStatusMessage);
-                    try {
-                        super.execute();
-                    } catch (TeleportationException e) {
-                        e.displayMessage(teleporter, plugin);
-                    }
-                }
-
-                // Tick (decrement) the timed teleport timer and end it if done
-                if (tickAndGetIfDone()) {
-                    plugin.getCurrentlyOnWarmup().remove(teleporter.getUuid());
-                    plugin.cancelTask(warmupTaskId.get());
-                }
-            });
-            warmupTaskId.set(plugin.runAsyncRepeating(countdownRunnable, 20L));
         });
     }
 
     /**
-     * Ticks a timed teleport, decrementing the time left until the teleport is complete
+     * Ticks a timed teleport once per second while it warms up, displaying the countdown, and executes the teleport
+     * once no time is left. Called by the {@link net.william278.huskhomes.manager.WarmupManager}
      * <p>
-     * A timed teleport will be canceled if certain criteria are met:
-     * <ul>
-     *     <li>The player has left the server</li>
-     *     <li>The plugin is disabling</li>
-     *     <li>The player has moved beyond the movement threshold from when the warmup started</li>
-     *     <li>The player has taken damage (though they may heal, have status ailments or lose/gain hunger)</li>
-     * </ul>
+     * Cancellation when the teleporter moves or takes damage is handled as those events happen; see
+     * {@link #hasMovedFromStart(double, double, double)} and {@link #displayCancelled(CancelReason)}
      *
-     * @return {@code true} if the warmup is complete, {@code false} otherwise
+     * @param secondsLeft the number of seconds left in the warmup
+     * @return {@code true} if the warmup should continue, {@code false} if it is complete
      */
-    private boolean tickAndGetIfDone() {
-        if (timeLeft <= 0) {
-            return true;
-        }
+    public boolean tick(int secondsLeft) {
+        this.timeLeft = Math.max(secondsLeft, 0);
 
-        // Cancel the timed teleport if the player takes damage
-        if (hasTeleporterTakenDamage()) {
-            plugin.getLocales().getLocale("teleporting_cancelled_damage")
-                    .ifPresent(teleporter::sendMessage);
-            plugin.getLocales().getLocale("teleporting_action_bar_cancelled")
-                    .ifPresent(this::sendStatusMessage);
-            plugin.getSettings().getSoundEffect(Settings.SoundEffectAction.TELEPORTATION_CANCELLED)
+        // Display a countdown action bar message
+        if (timeLeft > 0) {
+            plugin.getSettings().getSoundEffect(Settings.SoundEffectAction.TELEPORTATION_WARMUP)
                     .ifPresent(teleporter::playSound);
-            return true;
-        }
-
-        // Cancel the timed teleport if the player moves
-        if (hasTeleporterMoved()) {
-            plugin.getLocales().getLocale("teleporting_cancelled_movement")
-                    .ifPresent(teleporter::sendMessage);
-            plugin.getLocales().getLocale("teleporting_action_bar_cancelled")
+            plugin.getLocales().getLocale("teleporting_action_bar_warmup", Integer.toString(timeLeft))
                     .ifPresent(this::sendStatusMessage);
-            plugin.getSettings().getSoundEffect(Settings.SoundEffectAction.TELEPORTATION_CANCELLED)
-                    .ifPresent(teleporter::playSound);
             return true;
         }
 
-        // Decrement the countdown timer
-        timeLeft--;
+        // Execute the teleport
+        timer.mark(TeleportMetrics.Phase.WARMUP);
+        plugin.getLocales().getLocale("teleporting_action_bar_processing")
+                .ifPresent(this::sendStatusMessage);
+        try {
+            super.execute();
+        } catch (TeleportationException e) {
+            e.displayMessage(teleporter, plugin);
+        }
         return false;
     }
 
@@ -164,16 +127,59 @@ public class TimedTeleport extends Teleport {
         teleporter.sendMessage(message, plugin.getSettings().getTeleportWarmupDisplay());
     }
 
-    private boolean hasTeleporterMoved() {
+    /**
+     * Returns if the given coordinates are beyond the movement threshold from where the teleporter started warming up
+     *
+     * @param x the teleporter's new x coordinate
+     * @param y the teleporter's new y coordinate
+     * @param z the teleporter's new z coordinate
+     * @return {@code true} if the teleporter has moved too far for the warmup to continue
+     */
+    public boolean hasMovedFromStart(double x, double y, double z) {
         final double maxMovementDistance = 0.1d;
-        double movementDistance = Math.abs(startLocation.getX() - teleporter.getPosition().getX()) +
-                                  Math.abs(startLocation.getY() - teleporter.getPosition().getY()) +
-                                  Math.abs(startLocation.getZ() - teleporter.getPosition().getZ());
+        final double movementDistance = Math.abs(startLocation.getX() - x) +
+                                        Math.abs(startLocation.getY() - y) +
+                                        Math.abs(startLocation.getZ() - z);
         return movementDistance > maxMovementDistance;
     }
 
-    private boolean hasTeleporterTakenDamage() {
-        return teleporter.getHealth() < startHealth;
+    /**
+     * Notify the teleporter that their warmup has been cancelled
+     *
+     * @param reason the reason the warmup was cancelled
+     */
+    public void displayCancelled(@NotNull CancelReason reason) {
+        plugin.getLocales().getLocale(reason.getLocaleKey())
+                .ifPresent(teleporter::sendMessage);
+        plugin.getLocales().getLocale("teleporting_action_bar_cancelled")
+                .ifPresent(this::sendStatusMessage);
+        plugin.getSettings().getSoundEffect(Settings.SoundEffectAction.TELEPORTATION_CANCELLED)
+                .ifPresent(teleporter::playSound);
+    }
+
+    /**
+     * Reasons a warmup can be cancelled
+     */
+    public enum CancelReason {
+        /**
+         * The teleporter has taken damage (though they may heal, have status ailments or lose/gain hunger)
+         */
+        DAMAGE("teleporting_cancelled_damage"),
+        /**
+         * The teleporter has moved beyond the movement threshold from when the warmup started
+         */
+        MOVEMENT("teleporting_cancelled_movement");
+
+        private final String localeKey;
+
+        CancelReason(@NotNull String localeKey) {
+            this.localeKey = localeKey;
+        }
+
+        @NotNull
+        public String getLocaleKey() {
+            return localeKey;
+        }
     }
 
 }
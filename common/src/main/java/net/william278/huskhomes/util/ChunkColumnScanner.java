@@ -0,0 +1,129 @@
+/*
+ * This file is part of HuskHomes, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.util;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Scans every column of a loaded chunk for the best safe place to stand, so that a single chunk load is likely to
+ * yield a landing spot even if the exact column asked for is unsafe.
+ * <p>
+ * Columns are ranked by how close they are to the column asked for, and by how level the ground around them is;
+ * their safety is only checked in that order, until a safe column is found.
+ */
+public final class ChunkColumnScanner {
+
+    public static final int CHUNK_SIZE = 16;
+
+    // How much each side of a column with a step of more than one block counts against it, in squared blocks
+    private static final int UNEVEN_SIDE_PENALTY = 32;
+
+    private ChunkColumnScanner() {
+    }
+
+    /**
+     * Find the best safe column in a chunk
+     *
+     * @param originX the chunk-relative x coordinate of the column asked for, from 0 to 15
+     * @param originZ the chunk-relative z coordinate of the column asked for, from 0 to 15
+     * @param heights gives the ground y coordinate of each column, from the chunk's heightmap
+     * @param safety  checks if a column is safe to stand on, given its ground y coordinate
+     * @return the best safe column, if there is one
+     */
+    @NotNull
+    public static Optional<Column> findBestColumn(int originX, int originZ, @NotNull ColumnHeights heights,
+                                                  @NotNull ColumnSafety safety) {
+        final int[] groundY = new int[CHUNK_SIZE * CHUNK_SIZE];
+        for (int i = 0; i < groundY.length; i++) {
+            groundY[i] = heights.getGroundY(i & 0xF, i >> 4);
+        }
+
+        // Pack each column's score above its index, so sorting orders columns best-first
+        final int[] ranked = new int[groundY.length];
+        for (int i = 0; i < groundY.length; i++) {
+            ranked[i] = (getScore(i, originX & 0xF, originZ & 0xF, groundY) << 8) | i;
+        }
+        Arrays.sort(ranked);
+
+        for (int entry : ranked) {
+            final int index = entry & 0xFF;
+            final int x = index & 0xF;
+            final int z = index >> 4;
+            if (safety.isSafe(x, groundY[index], z)) {
+                return Optional.of(new Column(x, groundY[index], z));
+            }
+        }
+        return Optional.empty();
+    }
+
+    // Lower is better
+    private static int getScore(int index, int originX, int originZ, int[] groundY) {
+        final int x = index & 0xF;
+        final int z = index >> 4;
+        final int dX = x - originX;
+        final int dZ = z - originZ;
+        return dX * dX + dZ * dZ + UNEVEN_SIDE_PENALTY * (isUneven(groundY, index, x - 1, z)
+                + isUneven(groundY, index, x + 1, z)
+                + isUneven(groundY, index, x, z - 1)
+                + isUneven(groundY, index, x, z + 1));
+    }
+
+    // Neighbouring columns outside the chunk are unknown, and are not counted against a column
+    private static int isUneven(int[] groundY, int index, int x, int z) {
+        if (x < 0 || x >= CHUNK_SIZE || z < 0 || z >= CHUNK_SIZE) {
+            return 0;
+        }
+        return Math.abs(groundY[index] - groundY[(z << 4) | x]) > 1 ? 1 : 0;
+    }
+
+    /**
+     * A column in a chunk
+     *
+     * @param x       the chunk-relative x coordinate, from 0 to 15
+     * @param groundY the y coordinate of the block to stand on
+     * @param z       the chunk-relative z coordinate, from 0 to 15
+     */
+    public record Column(int x, int groundY, int z) {
+    }
+
+    /**
+     * Gives the ground height of chunk columns
+     */
+    @FunctionalInterface
+    public interface ColumnHeights {
+
+        int getGroundY(int x, int z);
+
+    }
+
+    /**
+     * Checks if chunk columns are safe to stand on
+     */
+    @FunctionalInterface
+    public interface ColumnSafety {
+
+        boolean isSafe(int x, int groundY, int z);
+
+    }
+
+}
@@ -0,0 +1,50 @@
+/*
+ * This file is part of HuskHomes, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.util;
+
+import net.william278.huskhomes.position.Location;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Loads chunks ahead of teleports, so that a teleport does not have to wait on its destination chunk loading
+ */
+public interface ChunkPreloader {
+
+    /**
+     * Start loading the chunk containing the specified {@link Location} asynchronously, and keep it loaded until
+     * {@link #releaseChunk(Location)} is called for it
+     *
+     * @param location a {@link Location} in the chunk to load
+     * @return a {@link CompletableFuture} that will complete with {@code true} once the chunk has loaded, or
+     * {@code false} if it could not be loaded
+     */
+    CompletableFuture<Boolean> preloadChunk(@NotNull Location location);
+
+    /**
+     * Allow the chunk containing the specified {@link Location}, previously loaded with
+     * {@link #preloadChunk(Location)}, to unload again
+     *
+     * @param location a {@link Location} in the chunk to release
+     */
+    void releaseChunk(@NotNull Location location);
+
+}
@@ -0,0 +1,156 @@
+/*
+ * This file is part of HuskHomes, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A thread-safe histogram of latencies, with a fixed relative precision in the style of an HDR histogram.
+ * <p>
+ * Values are recorded in microseconds into log-linear buckets: each power of two is split into
+ * {@code 2^(PRECISION_BITS - 1)} equally sized buckets, so any recorded value is reported within about 3% of its
+ * true value, using a small, fixed amount of memory. Values above {@link #MAX_VALUE} are recorded as the maximum.
+ */
+public class LatencyHistogram {
+
+    /**
+     * Number of bits of precision kept for each value
+     */
+    private static final int PRECISION_BITS = 6;
+    private static final int SUB_BUCKETS = 1 << PRECISION_BITS;
+    private static final int HALF_SUB_BUCKETS = SUB_BUCKETS / 2;
+
+    /**
+     * Largest value that can be recorded, in microseconds (about 71 minutes)
+     */
+    public static final long MAX_VALUE = (1L << 32) - 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(getBucketIndex(MAX_VALUE) + 1);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Record a latency
+     *
+     * @param duration the latency
+     * @param unit     the unit of the latency
+     */
+    public void record(long duration, TimeUnit unit) {
+        record(unit.toMicros(duration));
+    }
+
+    /**
+     * Record a latency
+     *
+     * @param micros the latency, in microseconds
+     */
+    public void record(long micros) {
+        final long value = Math.min(Math.max(micros, 0), MAX_VALUE);
+        counts.incrementAndGet(getBucketIndex(value));
+        count.increment();
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    /**
+     * Get the number of recorded latencies
+     *
+     * @return the number of recorded values
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Get the mean recorded latency
+     *
+     * @return the mean, in microseconds, or {@code 0} if nothing has been recorded
+     */
+    public double getMean() {
+        final long recorded = count.sum();
+        return recorded == 0 ? 0 : (double) sum.sum() / recorded;
+    }
+
+    /**
+     * Get the largest recorded latency
+     *
+     * @return the maximum, in microseconds
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Get the latency at a percentile of recorded values
+     *
+     * @param percentile the percentile, between {@code 0} and {@code 100}
+     * @return the highest latency equivalent to the value at the percentile, in microseconds, or {@code 0} if nothing
+     * has been recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+        final long recorded = count.sum();
+        if (recorded == 0) {
+            return 0;
+        }
+
+        final long target = Math.max(1, (long) Math.ceil(Math.min(Math.max(percentile, 0), 100) / 100d * recorded));
+        long seen = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            seen += counts.get(i);
+            if (seen >= target) {
+                return Math.min(getHighestValueInBucket(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    /**
+     * Clear all recorded values
+     */
+    public void reset() {
+        for (int i = 0; i < counts.length(); i++) {
+            counts.set(i, 0);
+        }
+        count.reset();
+        sum.reset();
+        max.reset();
+    }
+
+    // Values below SUB_BUCKETS map to themselves; larger values keep their top PRECISION_BITS bits
+    private static int getBucketIndex(long value) {
+        final int magnitude = Math.max(0, 64 - Long.numberOfLeadingZeros(value) - PRECISION_BITS);
+        final int subBucket = (int) (value >>> magnitude);
+        return magnitude == 0 ? subBucket : magnitude * HALF_SUB_BUCKETS + subBucket;
+    }
+
+    private static long getHighestValueInBucket(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        final int magnitude = index / HALF_SUB_BUCKETS - 1;
+        final long subBucket = index - (long) magnitude * HALF_SUB_BUCKETS;
+        return ((subBucket + 1) << magnitude) - 1;
+    }
+
+}
@@ -0,0 +1,38 @@
+/*
+ * This file is part of HuskHomes, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Allocates the IDs of tasks scheduled through a {@link TaskRunner}
+ */
+final class TaskIds {
+
+    private static final AtomicInteger NEXT_ID = new AtomicInteger();
+
+    private TaskIds() {
+    }
+
+    static int next() {
+        return NEXT_ID.getAndIncrement();
+    }
+
+}
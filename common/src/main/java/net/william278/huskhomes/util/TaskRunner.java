@@ -36,6 +36,8 @@ public interface TaskRunner {
 
     int runAsyncRepeating(@NotNull Runnable runnable, long delay);
 
+    int runSyncRepeating(@NotNull Runnable runnable, long period);
+
     void runLater(@NotNull Runnable runnable, long delay);
 
     void cancelTask(int taskId);
@@ -46,11 +48,7 @@ public interface TaskRunner {
     ConcurrentHashMap<Integer, ?> getTasks();
 
     default int getNextTaskId() {
-        int taskId = 0;
-        while (getTasks().containsKey(taskId)) {
-            taskId++;
-        }
-        return taskId;
+        return TaskIds.next();
     }
 
     @NotNull
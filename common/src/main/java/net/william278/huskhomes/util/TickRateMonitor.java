@@ -0,0 +1,91 @@
+/*
+ * This file is part of HuskHomes, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.util;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Estimates the server tick rate from the times at which recent ticks ran, as recorded by a task run every tick.
+ * <p>
+ * The estimate covers the last few seconds of ticks. It also falls while a tick is overrunning, so that a server which
+ * has stopped ticking altogether is not reported as healthy because its last few ticks were.
+ */
+public class TickRateMonitor {
+
+    /**
+     * The tick rate of a server that is keeping up
+     */
+    public static final double MAX_TICK_RATE = 20d;
+
+    /**
+     * How many ticks the estimate covers; five seconds of ticks at full speed
+     */
+    private static final int WINDOW = 100;
+
+    private static final long TICK_NANOS = TimeUnit.SECONDS.toNanos(1) / (long) MAX_TICK_RATE;
+
+    private final long[] tickTimes;
+    private int next;
+    private int count;
+
+    public TickRateMonitor() {
+        this(WINDOW);
+    }
+
+    TickRateMonitor(int window) {
+        this.tickTimes = new long[Math.max(2, window)];
+    }
+
+    /**
+     * Record that a tick has run. Should be called once per tick, from the server thread
+     *
+     * @param nanoTime the time of the tick, from {@link System#nanoTime()}
+     */
+    public synchronized void tick(long nanoTime) {
+        tickTimes[next] = nanoTime;
+        next = (next + 1) % tickTimes.length;
+        count = Math.min(count + 1, tickTimes.length);
+    }
+
+    /**
+     * Get the estimated tick rate
+     *
+     * @return the ticks per second, up to {@link #MAX_TICK_RATE}
+     */
+    public double getTickRate() {
+        return getTickRate(System.nanoTime());
+    }
+
+    synchronized double getTickRate(long now) {
+        if (count < 2) {
+            return MAX_TICK_RATE;
+        }
+
+        // Count time since the last tick only once the next one is overdue
+        final long oldest = tickTimes[(next - count + tickTimes.length) % tickTimes.length];
+        final long newest = tickTimes[(next - 1 + tickTimes.length) % tickTimes.length];
+        final long elapsed = Math.max(newest - oldest, now - oldest - TICK_NANOS);
+        if (elapsed <= 0) {
+            return MAX_TICK_RATE;
+        }
+        return Math.min(MAX_TICK_RATE, (count - 1) * (double) TimeUnit.SECONDS.toNanos(1) / elapsed);
+    }
+
+}
@@ -23,8 +23,11 @@ import net.kyori.adventure.key.Key;
 import net.william278.annotaml.YamlFile;
 import net.william278.annotaml.YamlKey;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @YamlFile(header = """
         ┏━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━┓
@@ -36,6 +39,10 @@ public class UnsafeBlocks {
     @YamlKey("unsafe_blocks")
     public List<String> unsafeBlocks;
 
+    // The namespaced keys of the unsafe blocks, compiled from the list on first use
+    @Nullable
+    private volatile Set<String> unsafeKeys;
+
     /**
      * Returns if the block, by provided identifier, is unsafe
      *
@@ -43,10 +50,29 @@ public class UnsafeBlocks {
      * @return {@code true} if the block is on the unsafe blocks list, {@code false} otherwise
      */
     public boolean isUnsafe(@NotNull String blockId) {
-        if (!blockId.startsWith(Key.MINECRAFT_NAMESPACE + ":")) {
-            blockId = Key.MINECRAFT_NAMESPACE + ":" + blockId;
+        return getUnsafeKeys().contains(getNamespacedKey(blockId));
+    }
+
+    /**
+     * Get the namespaced keys of the unsafe blocks, for platforms to compile into lookups by their block types
+     *
+     * @return the set of unsafe block keys (e.g. {@code minecraft:lava})
+     */
+    @NotNull
+    public Set<String> getUnsafeKeys() {
+        Set<String> keys = unsafeKeys;
+        if (keys == null) {
+            keys = unsafeBlocks == null ? Set.of() : unsafeBlocks.stream()
+                    .map(UnsafeBlocks::getNamespacedKey)
+                    .collect(Collectors.toUnmodifiableSet());
+            unsafeKeys = keys;
         }
-        return unsafeBlocks.contains(blockId);
+        return keys;
+    }
+
+    @NotNull
+    private static String getNamespacedKey(@NotNull String blockId) {
+        return blockId.indexOf(':') < 0 ? Key.MINECRAFT_NAMESPACE + ":" + blockId : blockId;
     }
 
     @SuppressWarnings("unused")
@@ -90,5 +90,16 @@ CREATE TABLE IF NOT EXISTS `%warps_table%`
 
     PRIMARY KEY (`uuid`),
     FOREIGN KEY (`saved_position_id`) REFERENCES `%saved_positions_table%` (`id`) ON DELETE CASCADE ON UPDATE NO ACTION
+) CHARACTER SET utf8
+  COLLATE utf8_unicode_ci;
+
+# Create the /back position history table if it does not exist
+CREATE TABLE IF NOT EXISTS `%position_history_table%`
+(
+    `player_uuid` char(36)   NOT NULL UNIQUE,
+    `history`     mediumtext NOT NULL,
+
+    PRIMARY KEY (`player_uuid`),
+    FOREIGN KEY (`player_uuid`) REFERENCES `%players_table%` (`uuid`) ON DELETE CASCADE ON UPDATE CASCADE
 ) CHARACTER SET utf8
   COLLATE utf8_unicode_ci;
\ No newline at end of file
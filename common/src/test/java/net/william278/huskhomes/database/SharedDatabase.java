@@ -0,0 +1,248 @@
+/*
+ * This file is part of HuskHomes, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.database;
+
+import net.william278.huskhomes.HuskHomes;
+import net.william278.huskhomes.position.Home;
+import net.william278.huskhomes.position.Position;
+import net.william278.huskhomes.position.SavedPosition;
+import net.william278.huskhomes.position.Warp;
+import net.william278.huskhomes.teleport.Teleport;
+import net.william278.huskhomes.teleport.TeleportationException;
+import net.william278.huskhomes.user.OnlineUser;
+import net.william278.huskhomes.user.SavedUser;
+import net.william278.huskhomes.user.User;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.sql.Connection;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An in-memory {@link Database}, shared by every server in a test cluster like a MySQL database would be
+ */
+public class SharedDatabase extends Database {
+
+    private final Storage storage;
+
+    public SharedDatabase(@NotNull HuskHomes plugin, @NotNull Storage storage) {
+        super(plugin);
+        this.storage = storage;
+    }
+
+    @Override
+    public void initialize() {
+    }
+
+    @Override
+    protected int setPosition(@NotNull Position position, @NotNull Connection connection) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    protected void updatePosition(int positionId, @NotNull Position position, @NotNull Connection connection) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    protected int setSavedPosition(@NotNull SavedPosition position, @NotNull Connection connection) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    protected void updateSavedPosition(int savedPositionId, @NotNull SavedPosition savedPosition,
+                                       @NotNull Connection connection) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void ensureUser(@NotNull User user) {
+    }
+
+    @Override
+    public Optional<SavedUser> getUserDataByName(@NotNull String name) {
+        return Optional.empty();
+    }
+
+    @Override
+    public Optional<SavedUser> getUserData(@NotNull UUID uuid) {
+        return Optional.empty();
+    }
+
+    @Override
+    public List<Home> getHomes(@NotNull User user) {
+        return storage.homes.values().stream()
+                .filter(home -> home.getOwner().getUuid().equals(user.getUuid()))
+                .toList();
+    }
+
+    @Override
+    public List<Warp> getWarps() {
+        return List.copyOf(storage.warps.values());
+    }
+
+    @Override
+    public List<Home> getPublicHomes() {
+        return storage.homes.values().stream().filter(Home::isPublic).toList();
+    }
+
+    @Override
+    public Optional<Home> getHome(@NotNull User user, @NotNull String homeName, boolean caseInsensitive) {
+        return getHomes(user).stream()
+                .filter(home -> caseInsensitive ? home.getName().equalsIgnoreCase(homeName)
+                        : home.getName().equals(homeName))
+                .findFirst();
+    }
+
+    @Override
+    public Optional<Home> getHome(@NotNull UUID uuid) {
+        return Optional.ofNullable(storage.homes.get(uuid));
+    }
+
+    @Override
+    public Optional<Warp> getWarp(@NotNull String warpName, boolean caseInsensitive) {
+        return storage.warps.values().stream()
+                .filter(warp -> caseInsensitive ? warp.getName().equalsIgnoreCase(warpName)
+                        : warp.getName().equals(warpName))
+                .findFirst();
+    }
+
+    @Override
+    public Optional<Warp> getWarp(@NotNull UUID uuid) {
+        return Optional.ofNullable(storage.warps.get(uuid));
+    }
+
+    // Like the SQL databases, store only the destination and rebuild the teleport on the reading server
+    @Override
+    public Optional<Teleport> getCurrentTeleport(@NotNull OnlineUser onlineUser) {
+        final Position destination = storage.teleports.get(onlineUser.getUuid());
+        if (destination == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(Teleport.builder(plugin)
+                    .teleporter(onlineUser)
+                    .target(destination)
+                    .updateLastPosition(false)
+                    .toTeleport());
+        } catch (TeleportationException e) {
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public void updateUserData(@NotNull SavedUser savedUser) {
+    }
+
+    @Override
+    public void setCurrentTeleport(@NotNull User user, @Nullable Teleport teleport) {
+        if (teleport == null) {
+            storage.teleports.remove(user.getUuid());
+        } else if (teleport.getTarget() instanceof Position destination) {
+            storage.teleports.put(user.getUuid(), destination);
+        }
+    }
+
+    @Override
+    public Optional<Position> getLastPosition(@NotNull User user) {
+        return Optional.empty();
+    }
+
+    @Override
+    public void setLastPosition(@NotNull User user, @NotNull Position position) {
+    }
+
+    @Override
+    public List<Position> getPositionHistory(@NotNull User user) {
+        return List.of();
+    }
+
+    @Override
+    public void setPositionHistory(@NotNull User user, @NotNull List<Position> positions) {
+    }
+
+    @Override
+    public Optional<Position> getOfflinePosition(@NotNull User user) {
+        return Optional.empty();
+    }
+
+    @Override
+    public void setOfflinePosition(@NotNull User user, @NotNull Position position) {
+    }
+
+    @Override
+    public Optional<Position> getRespawnPosition(@NotNull User user) {
+        return Optional.empty();
+    }
+
+    @Override
+    public void setRespawnPosition(@NotNull User user, @Nullable Position position) {
+    }
+
+    @Override
+    public void saveHome(@NotNull Home home) {
+        storage.homes.put(home.getUuid(), home);
+    }
+
+    @Override
+    public void saveWarp(@NotNull Warp warp) {
+        storage.warps.put(warp.getUuid(), warp);
+    }
+
+    @Override
+    public void deleteHome(@NotNull UUID uuid) {
+        storage.homes.remove(uuid);
+    }
+
+    @Override
+    public int deleteAllHomes(@NotNull User user) {
+        final List<Home> homes = getHomes(user);
+        homes.forEach(home -> storage.homes.remove(home.getUuid()));
+        return homes.size();
+    }
+
+    @Override
+    public void deleteWarp(@NotNull UUID uuid) {
+        storage.warps.remove(uuid);
+    }
+
+    @Override
+    public int deleteAllWarps() {
+        final int warps = storage.warps.size();
+        storage.warps.clear();
+        return warps;
+    }
+
+    @Override
+    public void terminate() {
+    }
+
+    /**
+     * The data shared between the servers in a cluster
+     */
+    public record Storage(@NotNull Map<UUID, Home> homes, @NotNull Map<UUID, Warp> warps,
+                           @NotNull Map<UUID, Position> teleports) {
+        public Storage() {
+            this(new ConcurrentHashMap<>(), new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
+        }
+    }
+
+}
@@ -0,0 +1,128 @@
+/*
+ * This file is part of HuskHomes, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.hook;
+
+import net.william278.huskhomes.position.Home;
+import net.william278.huskhomes.position.PositionMeta;
+import net.william278.huskhomes.position.World;
+import net.william278.huskhomes.user.User;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+@DisplayName("Map Marker Cluster Tests")
+public class MarkerClustersTests {
+
+    private static final World WORLD = World.from("world", UUID.randomUUID());
+    private static final User OWNER = User.of(UUID.randomUUID(), "William278");
+
+    @DisplayName("Test Dense Cells Become Clusters")
+    @Test
+    public void testClustering() {
+        final MarkerClusters clusters = new MarkerClusters(3);
+        final MarkerUpdates updates = new MarkerUpdates();
+        updates.updateHome(home("a", 1, 1));
+        updates.updateHome(home("b", 2, 2));
+        List<MarkerClusters.Change> changes = clusters.apply(updates.drain(100));
+
+        // One cell in each zoom band, below the threshold
+        Assertions.assertEquals(2, changes.size());
+        changes.forEach(change -> {
+            Assertions.assertFalse(change.isClustered());
+            Assertions.assertEquals(2, change.after().size());
+        });
+
+        final Home third = home("c", 3, 3);
+        updates.updateHome(third);
+        changes = clusters.apply(updates.drain(100));
+        changes.forEach(change -> {
+            Assertions.assertTrue(change.isClustered());
+            Assertions.assertEquals(3, change.after().size());
+            Assertions.assertEquals(2, change.getRemovedHomes().size());
+        });
+
+        updates.removeHome(third);
+        changes = clusters.apply(updates.drain(100));
+        changes.forEach(change -> {
+            Assertions.assertTrue(change.isClusterRemoved());
+            Assertions.assertEquals(2, change.after().size());
+        });
+    }
+
+    @DisplayName("Test Only Changed Cells Are Redrawn")
+    @Test
+    public void testIncremental() {
+        final MarkerClusters clusters = new MarkerClusters(3);
+        final MarkerUpdates updates = new MarkerUpdates();
+        final Home home = home("a", 10, 10);
+        updates.updateHome(home);
+        updates.updateHome(home("b", 5000, 5000));
+        clusters.apply(updates.drain(100));
+
+        // Moving a home redraws the cells it left and entered
+        home.update(net.william278.huskhomes.position.Position.at(100, 64, 10, WORLD, "server"));
+        updates.updateHome(home);
+        final List<MarkerClusters.Change> changes = clusters.apply(updates.drain(100));
+        final List<MarkerClusters.Change> near = changes.stream()
+                .filter(change -> change.band() == MarkerClusters.Band.NEAR)
+                .toList();
+        Assertions.assertEquals(2, near.size());
+        Assertions.assertEquals(List.of(home), near.get(0).getRemovedHomes());
+        Assertions.assertTrue(near.get(0).after().isEmpty());
+        Assertions.assertEquals(List.of(home), near.get(1).after());
+
+        // In the far band, the home stays in the same cell
+        Assertions.assertEquals(1, changes.size() - near.size());
+        Assertions.assertTrue(changes.stream().noneMatch(change -> change.after().stream()
+                .anyMatch(other -> other.getName().equals("b"))));
+    }
+
+    @DisplayName("Test Clearing An Owner's Homes")
+    @Test
+    public void testClear() {
+        final MarkerClusters clusters = new MarkerClusters(0);
+        Assertions.assertEquals(List.of(MarkerClusters.Band.ALL), clusters.getBands());
+
+        final MarkerUpdates updates = new MarkerUpdates();
+        final Home other = Home.from(0, 64, 0, 0, 0, WORLD, "server", PositionMeta.create("other", ""),
+                UUID.randomUUID(), User.of(UUID.randomUUID(), "Other"), true);
+        for (int i = 0; i < 50; i++) {
+            updates.updateHome(home("home" + i, i, i));
+        }
+        updates.updateHome(other);
+        clusters.apply(updates.drain(100));
+
+        updates.clearHomes(OWNER);
+        final List<MarkerClusters.Change> changes = clusters.apply(updates.drain(100));
+        Assertions.assertEquals(1, changes.size());
+        Assertions.assertFalse(changes.get(0).isClustered());
+        Assertions.assertEquals(50, changes.get(0).getRemovedHomes().size());
+        Assertions.assertEquals(List.of(other), changes.get(0).after());
+    }
+
+    private static Home home(String name, double x, double z) {
+        return Home.from(x, 64, z, 0, 0, WORLD, "server", PositionMeta.create(name, ""), UUID.randomUUID(),
+                OWNER, true);
+    }
+
+}
@@ -0,0 +1,116 @@
+/*
+ * This file is part of HuskHomes, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.hook;
+
+import net.william278.huskhomes.position.*;
+import net.william278.huskhomes.user.User;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+@DisplayName("Map Marker Update Tests")
+public class MarkerUpdatesTests {
+
+    private static final World WORLD = World.from("world", UUID.randomUUID());
+    private static final User OWNER = User.of(UUID.randomUUID(), "William278");
+
+    @DisplayName("Test Changes To A Marker Are Coalesced")
+    @Test
+    public void testCoalescing() {
+        final MarkerUpdates updates = new MarkerUpdates();
+        final Home home = home(OWNER, "home", 0);
+        final Home moved = home(OWNER, home.getUuid(), "home", 100);
+        final Warp warp = warp("spawn");
+        updates.updateHome(home);
+        updates.updateHome(moved);
+        updates.updateWarp(warp);
+        updates.removeWarp(warp);
+        Assertions.assertEquals(2, updates.size());
+
+        final MarkerUpdates.Batch batch = updates.drain(100);
+        Assertions.assertEquals(1, batch.updatedHomes().size());
+        Assertions.assertEquals(100, batch.updatedHomes().get(0).getX());
+        Assertions.assertEquals(List.of(warp), batch.removedWarps());
+        Assertions.assertTrue(batch.updatedWarps().isEmpty());
+        Assertions.assertTrue(updates.isEmpty());
+    }
+
+    @DisplayName("Test Changes Are Drained In Limited Batches")
+    @Test
+    public void testBatching() {
+        final MarkerUpdates updates = new MarkerUpdates();
+        for (int i = 0; i < 10; i++) {
+            updates.updateHome(home(OWNER, "home" + i, i));
+        }
+        updates.updateWarp(warp("spawn"));
+
+        final MarkerUpdates.Batch first = updates.drain(6);
+        Assertions.assertEquals(6, first.updatedHomes().size());
+        Assertions.assertEquals("home0", first.updatedHomes().get(0).getName());
+        Assertions.assertFalse(first.hasWarpChanges());
+
+        final MarkerUpdates.Batch second = updates.drain(6);
+        Assertions.assertEquals(4, second.updatedHomes().size());
+        Assertions.assertEquals(1, second.updatedWarps().size());
+        Assertions.assertTrue(updates.isEmpty());
+        Assertions.assertTrue(updates.drain(6).isEmpty());
+    }
+
+    @DisplayName("Test Clears Discard The Changes They Cover")
+    @Test
+    public void testClears() {
+        final MarkerUpdates updates = new MarkerUpdates();
+        final User other = User.of(UUID.randomUUID(), "Other");
+        updates.updateHome(home(OWNER, "home", 0));
+        updates.updateHome(home(other, "home", 0));
+        updates.updateWarp(warp("spawn"));
+        updates.clearHomes(OWNER);
+        updates.clearWarps();
+
+        // Changes made after a clear are kept
+        final Warp shop = warp("shop");
+        updates.updateWarp(shop);
+
+        final MarkerUpdates.Batch batch = updates.drain(100);
+        Assertions.assertEquals(Set.of(OWNER.getUuid()), batch.clearedHomeOwners());
+        Assertions.assertTrue(batch.clearWarps());
+        Assertions.assertEquals(1, batch.updatedHomes().size());
+        Assertions.assertEquals(other, batch.updatedHomes().get(0).getOwner());
+        Assertions.assertEquals(List.of(shop), batch.updatedWarps());
+        Assertions.assertTrue(updates.isEmpty());
+    }
+
+    private static Home home(User owner, String name, double x) {
+        return home(owner, UUID.randomUUID(), name, x);
+    }
+
+    private static Home home(User owner, UUID uuid, String name, double x) {
+        return Home.from(x, 64, 0, 0, 0, WORLD, "server", PositionMeta.create(name, ""), uuid, owner, true);
+    }
+
+    private static Warp warp(String name) {
+        return Warp.from(Position.at(0, 64, 0, WORLD, "server"), PositionMeta.create(name, ""));
+    }
+
+}
@@ -0,0 +1,92 @@
+/*
+ * This file is part of HuskHomes, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.manager;
+
+import net.william278.huskhomes.position.Position;
+import net.william278.huskhomes.position.World;
+import net.william278.huskhomes.user.User;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+@DisplayName("Position History Tests")
+public class PositionHistoryTests {
+
+    private static final User USER = User.of(UUID.randomUUID(), "TestUser");
+    private static final World WORLD = World.from("world", UUID.randomUUID());
+
+    @DisplayName("Test Most Recent Positions Are Kept")
+    @Test
+    public void testRingBuffer() {
+        final PositionHistory history = new PositionHistory(USER, 3);
+        Assertions.assertNull(history.get(0));
+
+        for (int i = 1; i <= 5; i++) {
+            history.add(at(i));
+        }
+        Assertions.assertEquals(3, history.size());
+        Assertions.assertEquals(List.of(5d, 4d, 3d), getXs(history.getPositions()));
+        Assertions.assertEquals(5d, history.get(0).getX());
+        Assertions.assertNull(history.get(3));
+    }
+
+    @DisplayName("Test Saved Positions Load Behind Recent Ones")
+    @Test
+    public void testLoadMerge() {
+        final PositionHistory history = new PositionHistory(USER, 4);
+        history.add(at(10));
+        history.add(at(11));
+        history.load(List.of(at(3), at(2), at(1)));
+
+        Assertions.assertTrue(history.isLoaded());
+        Assertions.assertEquals(List.of(11d, 10d, 3d, 2d), getXs(history.getPositions()));
+
+        // Loading again has no effect
+        history.load(List.of(at(99)));
+        Assertions.assertEquals(List.of(11d, 10d, 3d, 2d), getXs(history.getPositions()));
+    }
+
+    @DisplayName("Test Only Changed Histories Are Saved")
+    @Test
+    public void testChanges() {
+        final PositionHistory history = new PositionHistory(USER, 2);
+        history.load(List.of(at(1)));
+        Assertions.assertNull(history.takeChanges());
+
+        history.add(at(2));
+        Assertions.assertEquals(List.of(2d, 1d), getXs(history.takeChanges()));
+        Assertions.assertNull(history.takeChanges());
+    }
+
+    @NotNull
+    private static Position at(double x) {
+        return Position.at(x, 64, 0, 0, 0, WORLD, "server");
+    }
+
+    @NotNull
+    private static List<Double> getXs(@NotNull List<Position> positions) {
+        return positions.stream().map(Position::getX).toList();
+    }
+
+}
@@ -0,0 +1,95 @@
+/*
+ * This file is part of HuskHomes, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.manager;
+
+import net.william278.huskhomes.HuskHomes;
+import net.william278.huskhomes.position.Location;
+import net.william278.huskhomes.position.World;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+@DisplayName("Preloaded Chunks Tests")
+public class PreloadedChunksTests {
+
+    private static final Location LOCATION = Location.at(8, 64, 8, World.from("world", UUID.randomUUID()));
+
+    // Chunk loads started by the plugin, completed by hand, and the chunks it was asked to release
+    private final List<CompletableFuture<Boolean>> loads = new ArrayList<>();
+    private final List<Location> released = new ArrayList<>();
+    private PreloadedChunks chunks;
+
+    @BeforeEach
+    public void createChunks() {
+        loads.clear();
+        released.clear();
+        final HuskHomes plugin = (HuskHomes) Proxy.newProxyInstance(HuskHomes.class.getClassLoader(),
+                new Class<?>[]{HuskHomes.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "preloadChunk" -> {
+                        final CompletableFuture<Boolean> load = new CompletableFuture<>();
+                        loads.add(load);
+                        yield load;
+                    }
+                    case "releaseChunk" -> released.add((Location) args[0]);
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+        chunks = new PreloadedChunks(plugin);
+    }
+
+    @Test
+    @DisplayName("Test Chunks Are Released Once Loaded")
+    public void testReleaseAfterLoading() {
+        final PreloadedChunks.ChunkKey key = chunks.acquire(LOCATION);
+        chunks.release(key);
+        Assertions.assertTrue(released.isEmpty());
+
+        loads.get(0).complete(true);
+        Assertions.assertEquals(List.of(LOCATION), released);
+        Assertions.assertEquals(0, chunks.getPreloadedChunkCount());
+    }
+
+    @Test
+    @DisplayName("Test Chunks Acquired Again While Loading Are Not Released")
+    public void testAcquireWhileReleasing() {
+        final PreloadedChunks.ChunkKey key = chunks.acquire(LOCATION);
+        chunks.release(key);
+        Assertions.assertEquals(key, chunks.acquire(LOCATION));
+
+        // The pending release must not drop the chunk out from under the warmup that acquired it again
+        loads.get(0).complete(true);
+        Assertions.assertEquals(1, loads.size());
+        Assertions.assertTrue(released.isEmpty());
+        Assertions.assertTrue(chunks.whenLoaded(key).join());
+
+        chunks.release(key);
+        Assertions.assertEquals(List.of(LOCATION), released);
+        Assertions.assertEquals(0, chunks.getPreloadedChunkCount());
+    }
+
+}
@@ -0,0 +1,142 @@
+/*
+ * This file is part of HuskHomes, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.manager;
+
+import net.william278.huskhomes.network.ServerLoad;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+@DisplayName("Server Load Table Tests")
+public class ServerLoadTableTests {
+
+    private static final String LOCAL = "lobby";
+    private static final ServerLoad NO_RTP_WORLDS = ServerLoad.of(40, 20, 0, Map.of());
+
+    @DisplayName("Test The Least Loaded Server Is Chosen")
+    @Test
+    public void testLeastLoaded() {
+        final ServerLoadTable table = new ServerLoadTable();
+        table.update("wild1", load(30, 20, 0), 0);
+        table.update("wild2", load(10, 20, 0), 0);
+        table.update("wild3", load(10, 20, 5), 0);
+
+        Assertions.assertEquals(Optional.of(new ServerLoadTable.Target("wild2", "world")),
+                table.choose(LOCAL, NO_RTP_WORLDS, server -> true, world -> true, 15, 0));
+    }
+
+    @DisplayName("Test Lagging Servers Count As Busier")
+    @Test
+    public void testTickRate() {
+        final ServerLoadTable table = new ServerLoadTable();
+        table.update("wild1", load(10, 10, 0), 0);
+        table.update("wild2", load(15, 20, 0), 0);
+        Assertions.assertEquals("wild2", choose(table, 5).orElseThrow().server());
+
+        // Servers below the minimum tick rate are never chosen
+        table.update("wild1", load(10, 18, 0), 0);
+        table.update("wild2", load(0, 14, 0), 0);
+        Assertions.assertEquals("wild1", choose(table, 15).orElseThrow().server());
+    }
+
+    @DisplayName("Test Bursts Are Spread Across Servers")
+    @Test
+    public void testSpreadsBursts() {
+        final ServerLoadTable table = new ServerLoadTable();
+        table.update("wild1", load(10, 20, 0), 0);
+        table.update("wild2", load(12, 20, 0), 0);
+
+        int wild1 = 0;
+        for (int i = 0; i < 10; i++) {
+            if (choose(table, 15).orElseThrow().server().equals("wild1")) {
+                wild1++;
+            }
+        }
+        Assertions.assertEquals(6, wild1);
+
+        // Assignments are forgotten when a server advertises again
+        table.update("wild2", load(12, 20, 0), 0);
+        Assertions.assertEquals("wild2", choose(table, 15).orElseThrow().server());
+    }
+
+    @DisplayName("Test Ineligible And Stale Servers Are Skipped")
+    @Test
+    public void testEligibility() {
+        final ServerLoadTable table = new ServerLoadTable();
+        table.update("wild1", load(10, 20, 0), 0);
+        table.update("wild2", load(0, 20, 0), 0);
+        Assertions.assertEquals("wild1", table.choose(LOCAL, NO_RTP_WORLDS, server -> !server.equals("wild2"),
+                world -> true, 15, 0).orElseThrow().server());
+
+        table.update("wild1", load(10, 20, 0), ServerLoadTable.MAX_AGE_MILLIS);
+        Assertions.assertEquals("wild1", choose(table, 15, ServerLoadTable.MAX_AGE_MILLIS + 1).orElseThrow().server());
+        Assertions.assertEquals(1, table.getServerCount(ServerLoadTable.MAX_AGE_MILLIS + 1));
+        Assertions.assertTrue(choose(table, 15, ServerLoadTable.MAX_AGE_MILLIS * 3).isEmpty());
+    }
+
+    @DisplayName("Test The Local Server And Pooled Worlds Are Preferred On Ties")
+    @Test
+    public void testTies() {
+        final ServerLoadTable table = new ServerLoadTable();
+        final Map<String, Integer> worlds = new LinkedHashMap<>();
+        worlds.put("world", 0);
+        worlds.put("world_wild", 4);
+        table.update("wild1", ServerLoad.of(5, 20, 0, worlds), 0);
+        table.update("wild2", load(5, 20, 0), 0);
+
+        Assertions.assertEquals(new ServerLoadTable.Target("wild1", "world_wild"), choose(table, 15).orElseThrow());
+        Assertions.assertEquals(LOCAL, table.choose(LOCAL, load(0, 20, 0), server -> true, world -> true, 15, 0)
+                .orElseThrow().server());
+    }
+
+    @DisplayName("Test Only Eligible Worlds Are Chosen")
+    @Test
+    public void testEligibleWorlds() {
+        final ServerLoadTable table = new ServerLoadTable();
+        final Map<String, Integer> worlds = new LinkedHashMap<>();
+        worlds.put("world", 0);
+        worlds.put("world_wild", 4);
+        table.update("wild1", ServerLoad.of(5, 20, 0, worlds), 0);
+        table.update("wild2", ServerLoad.of(0, 20, 0, Map.of("world_nether", 0)), 0);
+
+        // Servers without an eligible world are skipped, even if they are less busy
+        Assertions.assertEquals(new ServerLoadTable.Target("wild1", "world"), table.choose(LOCAL, NO_RTP_WORLDS,
+                server -> true, world -> world.equals("world"), 15, 0).orElseThrow());
+        Assertions.assertTrue(table.choose(LOCAL, NO_RTP_WORLDS, server -> true, world -> world.equals("world_end"),
+                15, 0).isEmpty());
+    }
+
+    private static Optional<ServerLoadTable.Target> choose(ServerLoadTable table, double minTickRate) {
+        return choose(table, minTickRate, 0);
+    }
+
+    private static Optional<ServerLoadTable.Target> choose(ServerLoadTable table, double minTickRate, long now) {
+        return table.choose(LOCAL, NO_RTP_WORLDS, server -> true, world -> true, minTickRate, now);
+    }
+
+    private static ServerLoad load(int players, double tickRate, int pendingRtps) {
+        return ServerLoad.of(players, tickRate, pendingRtps, Map.of("world", 0));
+    }
+
+}
@@ -0,0 +1,178 @@
+/*
+ * This file is part of HuskHomes, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.manager;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import net.william278.huskhomes.teleport.TeleportRequest;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@DisplayName("Teleport Request Store Tests")
+public class TeleportRequestStoreTests {
+
+    private static final Gson GSON = new Gson();
+    private static final int MAX_REQUESTS = 5;
+
+    @DisplayName("Test Requests Are Indexed By Requester")
+    @Test
+    public void testIndexing() {
+        final TeleportRequestStore store = new TeleportRequestStore();
+        final UUID recipient = UUID.randomUUID();
+        final TeleportRequest first = request("Alice", 100);
+        final TeleportRequest second = request("Bob", 100);
+        final TeleportRequest replacement = request("alice", 100);
+
+        store.add(recipient, first, MAX_REQUESTS);
+        store.add(recipient, second, MAX_REQUESTS);
+        Assertions.assertSame(second, store.getLast(recipient).orElseThrow());
+        Assertions.assertSame(first, store.get(recipient, "ALICE").orElseThrow());
+
+        // A newer request from the same requester replaces the older one
+        store.add(recipient, replacement, MAX_REQUESTS);
+        Assertions.assertEquals(2, store.size());
+        Assertions.assertSame(replacement, store.getLast(recipient).orElseThrow());
+        Assertions.assertSame(replacement, store.get(recipient, "Alice").orElseThrow());
+
+        Assertions.assertSame(second, store.remove(recipient, "bob").orElseThrow());
+        Assertions.assertTrue(store.get(recipient, "Bob").isEmpty());
+        store.removeAll(recipient);
+        Assertions.assertTrue(store.getLast(recipient).isEmpty());
+        Assertions.assertEquals(0, store.size());
+    }
+
+    @DisplayName("Test Recipient Queues Are Bounded")
+    @Test
+    public void testBounded() {
+        final TeleportRequestStore store = new TeleportRequestStore();
+        final UUID recipient = UUID.randomUUID();
+        final TeleportRequest oldest = request("Requester0", 100);
+        store.add(recipient, oldest, MAX_REQUESTS);
+        for (int i = 1; i < MAX_REQUESTS; i++) {
+            Assertions.assertTrue(store.add(recipient, request("Requester" + i, 100), MAX_REQUESTS).isEmpty());
+        }
+
+        Assertions.assertSame(oldest, store.add(recipient, request("Newest", 100), MAX_REQUESTS).orElseThrow());
+        Assertions.assertEquals(MAX_REQUESTS, store.size());
+        Assertions.assertTrue(store.get(recipient, "Requester0").isEmpty());
+    }
+
+    @DisplayName("Test Expired Requests Are Swept In Order")
+    @Test
+    public void testExpiry() {
+        final TeleportRequestStore store = new TeleportRequestStore();
+        final UUID recipient = UUID.randomUUID();
+        final TeleportRequest late = request("Late", 30);
+        final TeleportRequest early = request("Early", 10);
+        store.add(recipient, late, MAX_REQUESTS);
+        store.add(recipient, early, MAX_REQUESTS);
+        store.add(recipient, request("Removed", 5), MAX_REQUESTS);
+        store.remove(recipient, "Removed");
+
+        Assertions.assertTrue(store.removeExpired(10).isEmpty());
+        Assertions.assertEquals(List.of(early), getRequests(store.removeExpired(20)));
+        Assertions.assertFalse(store.isEmpty());
+        Assertions.assertEquals(List.of(late), getRequests(store.removeExpired(31)));
+        Assertions.assertTrue(store.isEmpty());
+        Assertions.assertEquals(0, store.size());
+    }
+
+    @DisplayName("Test Concurrent Access")
+    @Test
+    public void testConcurrentAccess() throws InterruptedException, ExecutionException, TimeoutException {
+        final TeleportRequestStore store = new TeleportRequestStore();
+        final List<UUID> recipients = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            recipients.add(UUID.randomUUID());
+        }
+
+        final int threads = 8;
+        final int operations = 20_000;
+        final ExecutorService executor = Executors.newFixedThreadPool(threads + 1);
+        final Set<TeleportRequest> swept = ConcurrentHashMap.newKeySet();
+        final AtomicBoolean running = new AtomicBoolean(true);
+        try {
+            // Sweep continuously while the other threads add, read and remove requests
+            final Future<?> sweeper = executor.submit(() -> {
+                long time = 0;
+                while (running.get()) {
+                    store.removeExpired(time++ % 1_000).forEach(entry ->
+                            Assertions.assertTrue(swept.add(entry.request()), "Request swept twice"));
+                }
+            });
+
+            final List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                final long seed = t;
+                workers.add(executor.submit(() -> {
+                    final Random random = new Random(seed);
+                    for (int i = 0; i < operations; i++) {
+                        final UUID recipient = recipients.get(random.nextInt(recipients.size()));
+                        final String requester = "Requester" + random.nextInt(12);
+                        switch (random.nextInt(4)) {
+                            case 0, 1 -> store.add(recipient, request(requester, random.nextInt(1_000)), MAX_REQUESTS);
+                            case 2 -> store.get(recipient, requester).ifPresent(request -> Assertions
+                                    .assertTrue(request.getRequesterName().equalsIgnoreCase(requester)));
+                            default -> store.remove(recipient, requester);
+                        }
+                        store.getLast(recipient);
+                    }
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get(60, TimeUnit.SECONDS);
+            }
+            running.set(false);
+            sweeper.get(60, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Every remaining request is within its recipient's bound, and sweeping everything empties the store
+        Assertions.assertTrue(store.size() <= recipients.size() * MAX_REQUESTS);
+        store.removeExpired(Long.MAX_VALUE).forEach(entry ->
+                Assertions.assertTrue(swept.add(entry.request()), "Request swept twice"));
+        Assertions.assertTrue(store.isEmpty());
+        Assertions.assertEquals(0, store.size());
+        recipients.forEach(recipient -> Assertions.assertTrue(store.getLast(recipient).isEmpty()));
+    }
+
+    @NotNull
+    private static TeleportRequest request(@NotNull String requester, long expiryTime) {
+        final JsonObject json = new JsonObject();
+        json.addProperty("requester_name", requester);
+        json.addProperty("expiry_time", expiryTime);
+        json.addProperty("type", TeleportRequest.Type.TPA.name());
+        json.addProperty("status", TeleportRequest.Status.PENDING.name());
+        return GSON.fromJson(json, TeleportRequest.class);
+    }
+
+    @NotNull
+    private static List<TeleportRequest> getRequests(@NotNull List<TeleportRequestStore.Entry> entries) {
+        return entries.stream().map(TeleportRequestStore.Entry::request).toList();
+    }
+
+}
@@ -0,0 +1,171 @@
+/*
+ * This file is part of HuskHomes, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.manager;
+
+import net.william278.annotaml.Annotaml;
+import net.william278.huskhomes.HuskHomes;
+import net.william278.huskhomes.config.Settings;
+import net.william278.huskhomes.database.SharedDatabase;
+import net.william278.huskhomes.teleport.Target;
+import net.william278.huskhomes.teleport.Teleport;
+import net.william278.huskhomes.teleport.TimedTeleport;
+import net.william278.huskhomes.user.TestUser;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+@DisplayName("Warmup Manager Tests")
+public class WarmupManagerTests {
+
+    // Repeating tasks scheduled by the plugin, which the tests run by hand in place of the scheduler
+    private final Map<Integer, Runnable> tasks = new HashMap<>();
+    private HuskHomes plugin;
+    private Manager manager;
+
+    @BeforeEach
+    public void createPlugin() throws Exception {
+        final Settings settings = Annotaml.create(Settings.class, new ByteArrayInputStream(
+                "cross_server:\n  enabled: false\n".getBytes(StandardCharsets.UTF_8))).get();
+        final File dataFolder = new File(System.getProperty("java.io.tmpdir"), "huskhomes-warmups");
+        final SharedDatabase[] database = new SharedDatabase[1];
+        final InvocationHandler handler = (proxy, method, args) -> switch (method.getName()) {
+            case "getSettings" -> settings;
+            case "getDatabase" -> database[0];
+            case "getManager" -> manager;
+            case "getOnlineUsers", "getHooks", "getCommands" -> List.of();
+            case "getDataFolder" -> dataFolder;
+            case "runAsyncRepeating" -> {
+                tasks.put(tasks.size() + 1, (Runnable) args[0]);
+                yield tasks.size();
+            }
+            case "cancelTask" -> tasks.remove((Integer) args[0]);
+            case "runAsync" -> {
+                ((Runnable) args[0]).run();
+                yield null;
+            }
+            case "runSyncRepeating" -> 0;
+            case "runLater", "log" -> null;
+            case "hashCode" -> System.identityHashCode(proxy);
+            case "equals" -> proxy == args[0];
+            default -> {
+                if (method.isDefault()) {
+                    yield InvocationHandler.invokeDefault(proxy, method, args);
+                }
+                throw new UnsupportedOperationException(method.getName());
+            }
+        };
+        plugin = (HuskHomes) Proxy.newProxyInstance(HuskHomes.class.getClassLoader(),
+                new Class<?>[]{HuskHomes.class}, handler);
+        database[0] = new SharedDatabase(plugin, new SharedDatabase.Storage());
+        manager = new Manager(plugin);
+        tasks.clear();
+    }
+
+    @DisplayName("Test Warmups Never Finish Early On An Idle Wheel")
+    @ParameterizedTest(name = "{0} Second Warmup")
+    @ValueSource(ints = {1, 2, 3, 5})
+    public void testIdleWheel(int seconds) {
+        final TestTeleport teleport = new TestTeleport("idle", plugin);
+        Assertions.assertTrue(manager.warmups().startWarmup(teleport.getTeleporterUuid(), teleport, seconds));
+        final Runnable wheel = getWheel();
+
+        // The wheel's first tick comes straight away, so it ticks once more than the warmup has seconds
+        for (int tick = 0; tick < seconds; tick++) {
+            wheel.run();
+            Assertions.assertFalse(teleport.isExecuted(), "Finished after " + tick + " seconds");
+        }
+        wheel.run();
+        Assertions.assertTrue(teleport.isExecuted());
+        Assertions.assertFalse(manager.warmups().isWarmingUp(teleport.getTeleporterUuid()));
+        Assertions.assertTrue(tasks.isEmpty());
+    }
+
+    @DisplayName("Test Warmups Never Finish Early On A Running Wheel")
+    @ParameterizedTest(name = "{0} Second Warmup")
+    @ValueSource(ints = {1, 2, 3, 5})
+    public void testRunningWheel(int seconds) {
+        final TestTeleport first = new TestTeleport("first", plugin);
+        manager.warmups().startWarmup(first.getTeleporterUuid(), first, 60);
+        final Runnable wheel = getWheel();
+        wheel.run();
+
+        // Started just before the wheel's next tick, so each tick is less than a second after the one before
+        final TestTeleport teleport = new TestTeleport("running", plugin);
+        Assertions.assertTrue(manager.warmups().startWarmup(teleport.getTeleporterUuid(), teleport, seconds));
+        for (int tick = 0; tick < seconds; tick++) {
+            wheel.run();
+            Assertions.assertFalse(teleport.isExecuted(), "Finished within " + (tick + 1) + " seconds");
+        }
+        wheel.run();
+        Assertions.assertTrue(teleport.isExecuted());
+        Assertions.assertTrue(manager.warmups().isWarmingUp(first.getTeleporterUuid()));
+    }
+
+    @NotNull
+    private Runnable getWheel() {
+        Assertions.assertEquals(1, tasks.size());
+        return tasks.values().iterator().next();
+    }
+
+    /**
+     * A timed teleport which records when it would be executed, rather than executing
+     */
+    private static class TestTeleport extends TimedTeleport {
+
+        private boolean executed;
+
+        private TestTeleport(@NotNull String username, @NotNull HuskHomes plugin) {
+            this(new TestUser(username, "server"), plugin);
+        }
+
+        private TestTeleport(@NotNull TestUser teleporter, @NotNull HuskHomes plugin) {
+            super(teleporter, teleporter, Target.username("target"), Teleport.Type.TELEPORT, 60, false,
+                    List.of(), plugin);
+        }
+
+        @Override
+        public boolean tick(int secondsLeft) {
+            Assertions.assertFalse(executed, "Ticked after being executed");
+            executed = secondsLeft <= 0;
+            return !executed;
+        }
+
+        private boolean isExecuted() {
+            return executed;
+        }
+
+        @NotNull
+        private UUID getTeleporterUuid() {
+            return ((TestUser) getTeleporter()).getUuid();
+        }
+
+    }
+
+}
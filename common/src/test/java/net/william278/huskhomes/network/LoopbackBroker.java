@@ -0,0 +1,259 @@
+/*
+ * This file is part of HuskHomes, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.network;
+
+import net.william278.huskhomes.HuskHomes;
+import net.william278.huskhomes.user.OnlineUser;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.logging.Level;
+
+/**
+ * An in-memory message broker connecting several {@link HuskHomes} instances running in the same JVM through a
+ * shared {@link Network}, for exercising cross-server behaviour in tests without a proxy or Redis.
+ * <p>
+ * Like Redis, messages are broadcast to every connected broker as JSON and routed to their recipients on arrival.
+ * The network can simulate latency and message loss.
+ */
+public class LoopbackBroker extends Broker {
+
+    private final Network network;
+
+    /**
+     * Create a new loopback broker
+     *
+     * @param plugin  the HuskHomes plugin instance
+     * @param network the network to connect to
+     */
+    public LoopbackBroker(@NotNull HuskHomes plugin, @NotNull Network network) {
+        super(plugin);
+        this.network = network;
+    }
+
+    @Override
+    public void initialize() throws IllegalStateException {
+        network.connect(this);
+    }
+
+    @Override
+    protected void send(@NotNull Message message, @NotNull OnlineUser sender) {
+        network.publish(plugin.getGson().toJson(message));
+    }
+
+    @Override
+    protected void sendWithoutCarrier(@NotNull Message message) {
+        network.publish(plugin.getGson().toJson(message.fromServer(this)));
+    }
+
+    // Decode and handle a message delivered by the network
+    private void receive(@NotNull String encodedMessage) {
+        final Message message;
+        try {
+            message = plugin.getGson().fromJson(encodedMessage, Message.class);
+        } catch (Exception e) {
+            plugin.log(Level.WARNING, "Failed to decode loopback message: " + e.getMessage());
+            return;
+        }
+        network.delivered.increment();
+        handle(message);
+    }
+
+    @Override
+    public void changeServer(@NotNull OnlineUser user, @NotNull String server) {
+        network.serverChangeHandler.accept(user, server);
+    }
+
+    @Override
+    public void close() {
+        network.disconnect(this);
+        cancelPendingRequests();
+    }
+
+    /**
+     * A simulated network that {@link LoopbackBroker}s publish messages to
+     *
+     * @see Network#builder()
+     */
+    public static class Network {
+
+        private final Set<LoopbackBroker> brokers = new CopyOnWriteArraySet<>();
+        private final ScheduledExecutorService deliveryExecutor;
+        private final long latency;
+        private final long jitter;
+        private final double lossRate;
+        private final BiConsumer<OnlineUser, String> serverChangeHandler;
+        private final LongAdder published = new LongAdder();
+        private final LongAdder delivered = new LongAdder();
+        private final LongAdder lost = new LongAdder();
+
+        private Network(long latency, long jitter, double lossRate,
+                        @NotNull BiConsumer<OnlineUser, String> serverChangeHandler) {
+            this.latency = latency;
+            this.jitter = jitter;
+            this.lossRate = lossRate;
+            this.serverChangeHandler = serverChangeHandler;
+            this.deliveryExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                final Thread thread = new Thread(runnable, "huskhomes-loopback-network");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        @NotNull
+        public static Builder builder() {
+            return new Builder();
+        }
+
+        private void connect(@NotNull LoopbackBroker broker) {
+            brokers.add(broker);
+        }
+
+        private void disconnect(@NotNull LoopbackBroker broker) {
+            brokers.remove(broker);
+        }
+
+        // Deliver a message to every connected broker, after the simulated latency
+        private void publish(@NotNull String encodedMessage) {
+            published.increment();
+            for (LoopbackBroker broker : brokers) {
+                final ThreadLocalRandom random = ThreadLocalRandom.current();
+                if (lossRate > 0 && random.nextDouble() < lossRate) {
+                    lost.increment();
+                    continue;
+                }
+
+                final long delay = latency + (jitter > 0 ? random.nextLong(jitter + 1) : 0);
+                deliveryExecutor.schedule(() -> broker.receive(encodedMessage), delay, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        /**
+         * Get the number of messages published to the network
+         *
+         * @return the number of published messages
+         */
+        public long getPublishedCount() {
+            return published.sum();
+        }
+
+        /**
+         * Get the number of times a message was delivered to a broker
+         *
+         * @return the number of deliveries
+         */
+        public long getDeliveredCount() {
+            return delivered.sum();
+        }
+
+        /**
+         * Get the number of times a message was lost before reaching a broker
+         *
+         * @return the number of lost deliveries
+         */
+        public long getLostCount() {
+            return lost.sum();
+        }
+
+        /**
+         * Stop delivering messages
+         */
+        public void close() {
+            deliveryExecutor.shutdownNow();
+            brokers.clear();
+        }
+
+        /**
+         * Builder for {@link Network}s
+         */
+        public static class Builder {
+            private long latency = 0;
+            private long jitter = 0;
+            private double lossRate = 0;
+            private BiConsumer<OnlineUser, String> serverChangeHandler = (user, server) -> {
+            };
+
+            private Builder() {
+            }
+
+            /**
+             * Set the delay before a message is delivered
+             *
+             * @param latency the latency, in milliseconds
+             * @return the builder
+             */
+            @NotNull
+            public Builder latency(long latency) {
+                this.latency = Math.max(0, latency);
+                return this;
+            }
+
+            /**
+             * Set the maximum random extra delay added to each delivery. Jitter may reorder messages.
+             *
+             * @param jitter the maximum jitter, in milliseconds
+             * @return the builder
+             */
+            @NotNull
+            public Builder jitter(long jitter) {
+                this.jitter = Math.max(0, jitter);
+                return this;
+            }
+
+            /**
+             * Set the chance of a message being lost on its way to each broker
+             *
+             * @param lossRate the loss rate, between {@code 0} and {@code 1}
+             * @return the builder
+             */
+            @NotNull
+            public Builder lossRate(double lossRate) {
+                this.lossRate = Math.min(1, Math.max(0, lossRate));
+                return this;
+            }
+
+            /**
+             * Set the handler called when a broker is asked to move a user to another server
+             *
+             * @param serverChangeHandler the handler, accepting the user and the name of the server
+             * @return the builder
+             */
+            @NotNull
+            public Builder onServerChange(@NotNull BiConsumer<OnlineUser, String> serverChangeHandler) {
+                this.serverChangeHandler = serverChangeHandler;
+                return this;
+            }
+
+            @NotNull
+            public Network build() {
+                return new Network(latency, jitter, lossRate, serverChangeHandler);
+            }
+        }
+
+    }
+
+}
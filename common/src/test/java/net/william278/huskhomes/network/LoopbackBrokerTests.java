@@ -0,0 +1,358 @@
+/*
+ * This file is part of HuskHomes, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.network;
+
+import net.william278.annotaml.Annotaml;
+import net.william278.huskhomes.HuskHomes;
+import net.william278.huskhomes.config.Settings;
+import net.william278.huskhomes.database.SharedDatabase;
+import net.william278.huskhomes.manager.Manager;
+import net.william278.huskhomes.position.*;
+import net.william278.huskhomes.teleport.Teleport;
+import net.william278.huskhomes.user.OnlineUser;
+import net.william278.huskhomes.user.TestUser;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+@DisplayName("Loopback Broker Tests")
+public class LoopbackBrokerTests {
+
+    private LoopbackBroker.Network network;
+
+    @AfterEach
+    public void closeNetwork() {
+        if (network != null) {
+            network.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Test Player Lists Converge Across Servers")
+    public void testPlayerListConvergence() throws InterruptedException {
+        network = LoopbackBroker.Network.builder().latency(5).jitter(5).build();
+        final List<TestServer> servers = TestServer.createCluster(network, 3, 2);
+
+        servers.forEach(TestServer::broadcastPlayerList);
+        Assertions.assertTrue(TestServer.awaitConvergence(servers, server -> servers.stream()
+                .filter(other -> other != server)
+                .allMatch(other -> server.globalPlayerList.getOrDefault(other.name, List.of())
+                        .size() == other.users.size())));
+        Assertions.assertEquals(3, network.getPublishedCount());
+
+        // Each server also receives (and ignores) its own broadcast, which may land after convergence
+        final long deadline = System.currentTimeMillis() + 5000;
+        while (network.getDeliveredCount() < 9 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        Assertions.assertEquals(9, network.getDeliveredCount());
+    }
+
+    @Test
+    @DisplayName("Test Public Home Caches Converge Across Servers")
+    public void testHomeCacheConvergence() throws InterruptedException {
+        network = LoopbackBroker.Network.builder().latency(5).jitter(5).build();
+        final List<TestServer> servers = TestServer.createCluster(network, 3, 1);
+        final TestServer origin = servers.get(0);
+        final Home home = Home.from(8, 64, 8, 0, 0, TestServer.WORLD, origin.name, PositionMeta.create("base", ""),
+                UUID.randomUUID(), origin.users.get(0), true);
+
+        origin.database.saveHome(home);
+        origin.manager.homes().cacheHome(home, true);
+        Assertions.assertTrue(TestServer.awaitConvergence(servers, server -> server.manager.homes()
+                .getPublicHomeNames().contains(home.getIdentifier())));
+        Assertions.assertEquals(1, network.getPublishedCount());
+
+        origin.database.deleteHome(home.getUuid());
+        origin.manager.homes().unCacheHome(home.getUuid(), true);
+        Assertions.assertTrue(TestServer.awaitConvergence(servers, server -> server.manager.homes()
+                .getPublicHomeNames().isEmpty()));
+        Assertions.assertEquals(2, network.getPublishedCount());
+    }
+
+    @Test
+    @DisplayName("Test Warp Caches Converge Across Servers")
+    public void testWarpCacheConvergence() throws InterruptedException {
+        network = LoopbackBroker.Network.builder().latency(5).jitter(5).build();
+        final List<TestServer> servers = TestServer.createCluster(network, 3, 1);
+        final TestServer origin = servers.get(0);
+        final Warp warp = Warp.from(Position.at(8, 64, 8, TestServer.WORLD, origin.name),
+                PositionMeta.create("spawn", ""));
+
+        origin.database.saveWarp(warp);
+        origin.manager.warps().cacheWarp(warp, true);
+        Assertions.assertTrue(TestServer.awaitConvergence(servers, server -> server.manager.warps()
+                .getWarps().contains(warp.getName())));
+        Assertions.assertEquals(1, network.getPublishedCount());
+
+        origin.database.deleteWarp(warp.getUuid());
+        origin.manager.warps().unCacheWarp(warp.getUuid(), true);
+        Assertions.assertTrue(TestServer.awaitConvergence(servers, server -> server.manager.warps()
+                .getWarps().isEmpty()));
+        Assertions.assertEquals(2, network.getPublishedCount());
+    }
+
+    @Test
+    @DisplayName("Test Request Receives Remote Response")
+    public void testRequestResponse() throws Exception {
+        network = LoopbackBroker.Network.builder().latency(20).build();
+        final List<TestServer> servers = TestServer.createCluster(network, 2, 1);
+        final TestServer origin = servers.get(0);
+        final TestUser target = servers.get(1).users.get(0);
+
+        final long startTime = System.nanoTime();
+        final Payload response = origin.broker.sendRequest(Message.builder()
+                        .type(Message.Type.TELEPORT_TO_NETWORKED_POSITION)
+                        .target(target.getUsername())
+                        .build(), origin.users.get(0))
+                .get(5, TimeUnit.SECONDS);
+        final long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+
+        Assertions.assertTrue(response.getPosition().isPresent());
+        Assertions.assertEquals(target.getPosition().getServer(), response.getPosition().get().getServer());
+        Assertions.assertTrue(elapsedMillis >= 40, "Round trip should take at least twice the latency");
+        Assertions.assertEquals(0, origin.broker.getPendingRequestCount());
+        Assertions.assertEquals(2, network.getPublishedCount());
+    }
+
+    @Test
+    @DisplayName("Test Networked Teleport To A Player Completes On Their Server")
+    public void testNetworkedTeleport() throws Exception {
+        final CompletableFuture<String> serverChange = new CompletableFuture<>();
+        network = LoopbackBroker.Network.builder()
+                .latency(5)
+                .onServerChange((user, server) -> serverChange.complete(server))
+                .build();
+        final List<TestServer> servers = TestServer.createCluster(network, 2, 1);
+        final TestServer origin = servers.get(0);
+        final TestServer destination = servers.get(1);
+        final TestUser teleporter = origin.users.get(0);
+        final TestUser target = destination.users.get(0);
+
+        Teleport.builder(origin.plugin)
+                .teleporter(teleporter)
+                .target(target.getUsername())
+                .toTeleport()
+                .execute();
+        Assertions.assertEquals(destination.name, serverChange.get(5, TimeUnit.SECONDS));
+
+        // Looking up the target takes a request and its response, and the teleport event is fired once
+        Assertions.assertEquals(2, network.getPublishedCount());
+        Assertions.assertEquals(1, origin.teleportEvents.get());
+        Assertions.assertEquals(0, destination.teleportEvents.get());
+
+        // The destination completes the teleport to the target's position when the teleporter joins, exactly once
+        final TestUser arrived = new TestUser(teleporter.getUsername(), destination.name);
+        final Optional<Teleport> teleport = destination.broker.consumeCurrentTeleport(arrived);
+        Assertions.assertTrue(teleport.isPresent());
+        Assertions.assertInstanceOf(Position.class, teleport.get().getTarget());
+        final Position position = (Position) teleport.get().getTarget();
+        Assertions.assertEquals(destination.name, position.getServer());
+        Assertions.assertEquals(target.getPosition().getX(), position.getX());
+        Assertions.assertEquals(target.getPosition().getZ(), position.getZ());
+        Assertions.assertTrue(destination.broker.consumeCurrentTeleport(arrived).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test Networked Teleport Of A Remote Player To A Player On A Third Server")
+    public void testRemoteNetworkedTeleport() throws Exception {
+        final CompletableFuture<String> serverChange = new CompletableFuture<>();
+        network = LoopbackBroker.Network.builder()
+                .latency(5)
+                .onServerChange((user, server) -> serverChange.complete(server))
+                .build();
+        final List<TestServer> servers = TestServer.createCluster(network, 3, 1);
+        final TestServer origin = servers.get(0);
+        final TestServer source = servers.get(1);
+        final TestServer destination = servers.get(2);
+
+        Teleport.builder(origin.plugin)
+                .executor(origin.users.get(0))
+                .teleporter(source.users.get(0).getUsername())
+                .target(destination.users.get(0).getUsername())
+                .toTeleport()
+                .execute();
+        Assertions.assertEquals(destination.name, serverChange.get(5, TimeUnit.SECONDS));
+
+        // The teleporter's server replies only once it has looked up the target: two requests and two responses
+        Assertions.assertTrue(TestServer.awaitConvergence(servers,
+                server -> server.broker.getPendingRequestCount() == 0));
+        Assertions.assertEquals(4, network.getPublishedCount());
+        Assertions.assertEquals(1, origin.teleportEvents.get());
+        Assertions.assertEquals(1, source.teleportEvents.get());
+        Assertions.assertEquals(0, destination.teleportEvents.get());
+        Assertions.assertTrue(destination.broker.consumeCurrentTeleport(
+                new TestUser(source.users.get(0).getUsername(), destination.name)).isPresent());
+    }
+
+    @Test
+    @DisplayName("Test Request Times Out When Messages Are Lost")
+    public void testRequestTimeout() {
+        network = LoopbackBroker.Network.builder().lossRate(1).build();
+        final List<TestServer> servers = TestServer.createCluster(network, 2, 1);
+        final TestServer origin = servers.get(0);
+
+        final CompletableFuture<Payload> response = origin.broker.sendRequest(Message.builder()
+                .type(Message.Type.TELEPORT_TO_NETWORKED_POSITION)
+                .target(servers.get(1).users.get(0).getUsername())
+                .build(), origin.users.get(0));
+        final ExecutionException exception = Assertions.assertThrows(ExecutionException.class,
+                () -> response.get(5, TimeUnit.SECONDS));
+        Assertions.assertInstanceOf(TimeoutException.class, exception.getCause());
+        Assertions.assertEquals(0, origin.broker.getPendingRequestCount());
+        Assertions.assertEquals(2, network.getLostCount());
+    }
+
+    /**
+     * A minimal {@link HuskHomes} server connected to a {@link LoopbackBroker.Network}, sharing a database with the
+     * other servers in its cluster
+     */
+    private static class TestServer {
+
+        private static final World WORLD = World.from("world", UUID.nameUUIDFromBytes("world".getBytes()));
+        private static final String CONFIG = """
+                cross_server:
+                  enabled: true
+                  request_timeout: 1
+                """;
+
+        private final String name;
+        private final List<TestUser> users = new ArrayList<>();
+        private final Map<String, List<String>> globalPlayerList = new ConcurrentHashMap<>();
+        private final AtomicInteger teleportEvents = new AtomicInteger();
+        private final HuskHomes plugin;
+        private final SharedDatabase database;
+        private final LoopbackBroker broker;
+        private final Manager manager;
+
+        private TestServer(@NotNull String name, @NotNull LoopbackBroker.Network network,
+                           @NotNull SharedDatabase.Storage storage, @NotNull Settings settings) {
+            this.name = name;
+            this.plugin = createPlugin(settings);
+            this.database = new SharedDatabase(plugin, storage);
+            this.broker = new LoopbackBroker(plugin, network);
+            this.manager = new Manager(plugin);
+            this.broker.initialize();
+        }
+
+        @NotNull
+        private static List<TestServer> createCluster(@NotNull LoopbackBroker.Network network,
+                                                      int servers, int usersPerServer) {
+            final Settings settings = loadSettings();
+            final SharedDatabase.Storage storage = new SharedDatabase.Storage();
+            final List<TestServer> cluster = new ArrayList<>();
+            for (int i = 0; i < servers; i++) {
+                final TestServer server = new TestServer("server" + i, network, storage, settings);
+                for (int j = 0; j < usersPerServer; j++) {
+                    server.users.add(new TestUser("server" + i + "_user" + j, server.name));
+                }
+                cluster.add(server);
+            }
+            return cluster;
+        }
+
+        @NotNull
+        private static Settings loadSettings() {
+            try (InputStream config = new ByteArrayInputStream(CONFIG.getBytes(StandardCharsets.UTF_8))) {
+                return Annotaml.create(Settings.class, config).get();
+            } catch (IOException | InvocationTargetException | InstantiationException | IllegalAccessException e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        // Wait until a condition holds on every server
+        private static boolean awaitConvergence(@NotNull List<TestServer> servers,
+                                                @NotNull Predicate<TestServer> condition) throws InterruptedException {
+            final long deadline = System.currentTimeMillis() + 5000;
+            while (System.currentTimeMillis() < deadline) {
+                if (servers.stream().allMatch(condition)) {
+                    return true;
+                }
+                Thread.sleep(5);
+            }
+            return false;
+        }
+
+        private void broadcastPlayerList() {
+            Message.builder()
+                    .type(Message.Type.PLAYER_LIST)
+                    .scope(Message.Scope.SERVER)
+                    .target(Message.TARGET_ALL)
+                    .payload(Payload.withStringList(users.stream().map(OnlineUser::getUsername).toList()))
+                    .build().send(broker, users.get(0));
+        }
+
+        @NotNull
+        private HuskHomes createPlugin(@NotNull Settings settings) {
+            final File dataFolder = new File(System.getProperty("java.io.tmpdir"), "huskhomes-loopback-" + name);
+            final InvocationHandler handler = (proxy, method, args) -> switch (method.getName()) {
+                case "getServerName" -> name;
+                case "getPlugin" -> proxy;
+                case "getOnlineUsers" -> List.copyOf(users);
+                case "getGlobalPlayerList" -> globalPlayerList;
+                case "getSettings" -> settings;
+                case "getDatabase" -> database;
+                case "getMessenger" -> broker;
+                case "getManager" -> manager;
+                case "getHooks", "getCommands" -> List.of();
+                case "getDataFolder" -> dataFolder;
+                case "runSync", "runAsync" -> {
+                    ((Runnable) args[0]).run();
+                    yield null;
+                }
+                case "runAsyncRepeating", "runSyncRepeating" -> 0;
+                case "getTeleportEvent" -> null;
+                case "fireIsCancelled" -> {
+                    teleportEvents.incrementAndGet();
+                    yield false;
+                }
+                case "runLater", "log" -> null;
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "equals" -> proxy == args[0];
+                case "toString" -> "TestServer[" + name + "]";
+                default -> {
+                    if (method.isDefault()) {
+                        yield InvocationHandler.invokeDefault(proxy, method, args);
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                }
+            };
+            return (HuskHomes) Proxy.newProxyInstance(HuskHomes.class.getClassLoader(),
+                    new Class<?>[]{HuskHomes.class}, handler);
+        }
+
+    }
+
+}
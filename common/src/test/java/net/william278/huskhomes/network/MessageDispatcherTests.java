@@ -0,0 +1,100 @@
+/*
+ * This file is part of HuskHomes, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.network;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+@DisplayName("Message Dispatcher Tests")
+public class MessageDispatcherTests {
+
+    @Test
+    @DisplayName("Test Tasks With The Same Key Run In Order")
+    public void testPerKeyOrdering() throws InterruptedException {
+        final MessageDispatcher dispatcher = new MessageDispatcher("test_worker", 4, 1024);
+        final int keys = 8;
+        final int tasksPerKey = 100;
+        final Map<String, List<Integer>> results = new HashMap<>();
+        for (int k = 0; k < keys; k++) {
+            results.put("key" + k, Collections.synchronizedList(new ArrayList<>()));
+        }
+
+        final CountDownLatch latch = new CountDownLatch(keys * tasksPerKey);
+        for (int i = 0; i < tasksPerKey; i++) {
+            for (int k = 0; k < keys; k++) {
+                final String key = "key" + k;
+                final int sequence = i;
+                Assertions.assertTrue(dispatcher.dispatch(key, () -> {
+                    results.get(key).add(sequence);
+                    latch.countDown();
+                }));
+            }
+        }
+
+        Assertions.assertTrue(latch.await(10, TimeUnit.SECONDS));
+        results.values().forEach(sequence -> {
+            Assertions.assertEquals(tasksPerKey, sequence.size());
+            for (int i = 0; i < tasksPerKey; i++) {
+                Assertions.assertEquals(i, sequence.get(i));
+            }
+        });
+        Assertions.assertEquals((long) keys * tasksPerKey, dispatcher.getDispatchedCount());
+        dispatcher.shutdown();
+    }
+
+    @Test
+    @DisplayName("Test Overflowing Tasks Are Dropped And Counted")
+    public void testOverflow() throws InterruptedException {
+        final MessageDispatcher dispatcher = new MessageDispatcher("test_worker", 1, 2);
+        final CountDownLatch blocker = new CountDownLatch(1);
+        final CountDownLatch started = new CountDownLatch(1);
+        Assertions.assertTrue(dispatcher.dispatch("key", () -> {
+            started.countDown();
+            try {
+                blocker.await();
+            } catch (InterruptedException ignored) {
+            }
+        }));
+        Assertions.assertTrue(started.await(10, TimeUnit.SECONDS));
+
+        // Two tasks fill the queue, the third overflows
+        Assertions.assertTrue(dispatcher.dispatch("key", () -> {
+        }));
+        Assertions.assertTrue(dispatcher.dispatch("key", () -> {
+        }));
+        Assertions.assertFalse(dispatcher.dispatch("key", () -> {
+        }));
+        Assertions.assertEquals(1, dispatcher.getOverflowCount());
+        Assertions.assertEquals(2, dispatcher.getQueueDepth());
+
+        blocker.countDown();
+        dispatcher.shutdown();
+    }
+
+}
@@ -31,6 +31,7 @@ import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Stream;
 
@@ -66,6 +67,13 @@ public class MessageSerializationTests {
                     .payload(Payload.withPosition(
                             Position.at(63.25, 127.43, -32, 180f, -94.3f,
                                     World.from("TestWorld", UUID.randomUUID()), "TestServer")))
+                    .build(),
+            Message.builder()
+                    .type(Message.Type.SERVER_LOAD)
+                    .scope(Message.Scope.SERVER)
+                    .target(Message.TARGET_ALL)
+                    .payload(Payload.withServerLoad(ServerLoad.of(12, 19.5, 2,
+                            Map.of("TestWorld", 3))))
                     .build()
     );
 
@@ -86,6 +94,8 @@ public class MessageSerializationTests {
         Assertions.assertEquals(message.getPayload().getString().isPresent(), deserializedMessage.getPayload().getString().isPresent());
         Assertions.assertEquals(message.getPayload().getStringList().isPresent(), deserializedMessage.getPayload().getStringList().isPresent());
         Assertions.assertEquals(message.getPayload().getStringList().isPresent(), deserializedMessage.getPayload().getStringList().isPresent());
+        Assertions.assertEquals(message.getPayload().getServerLoad().map(ServerLoad::getRtpWorlds),
+                deserializedMessage.getPayload().getServerLoad().map(ServerLoad::getRtpWorlds));
     }
 
     @NotNull
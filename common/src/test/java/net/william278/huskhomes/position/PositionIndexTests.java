@@ -0,0 +1,125 @@
+/*
+ * This file is part of HuskHomes, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.position;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+@DisplayName("Position Index Tests")
+public class PositionIndexTests {
+
+    private static final World WORLD = World.from("world", UUID.randomUUID());
+    private static final World NETHER = World.from("world_nether", UUID.randomUUID());
+    private static final String SERVER = "server";
+
+    @DisplayName("Test Nearby Positions Are Found Nearest First")
+    @Test
+    public void testNearby() {
+        final PositionIndex<Warp> index = new PositionIndex<>();
+        final Warp near = warp("near", 10, 10, WORLD, SERVER);
+        final Warp nearer = warp("nearer", -3, 2, WORLD, SERVER);
+        index.put(near);
+        index.put(nearer);
+        index.put(warp("far", 500, 0, WORLD, SERVER));
+        index.put(warp("nether", 0, 0, NETHER, SERVER));
+        index.put(warp("elsewhere", 0, 0, WORLD, "other"));
+
+        final Position center = Position.at(0, 64, 0, WORLD, SERVER);
+        Assertions.assertEquals(List.of(nearer, near), index.getNearby(center, 100, 10));
+        Assertions.assertEquals(List.of(nearer), index.getNearby(center, 100, 1));
+        Assertions.assertEquals(3, index.getNearby(center, 10_000_000, 10).size());
+    }
+
+    @DisplayName("Test The Nearest Position Is Found")
+    @Test
+    public void testNearest() {
+        final PositionIndex<Warp> index = new PositionIndex<>();
+        final Position center = Position.at(100, 64, 100, WORLD, SERVER);
+        Assertions.assertTrue(index.getNearest(center).isEmpty());
+
+        // Compare against a full scan, including positions across cell boundaries and far away
+        final Random random = new Random(278);
+        final List<Warp> warps = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            final double range = i < 100 ? 300 : 200_000;
+            final Warp warp = warp("warp" + i, (random.nextDouble() - 0.5) * range,
+                    (random.nextDouble() - 0.5) * range, WORLD, SERVER);
+            warps.add(warp);
+            index.put(warp);
+        }
+        for (int i = 0; i < 50; i++) {
+            final Position from = Position.at((random.nextDouble() - 0.5) * 400_000, 64,
+                    (random.nextDouble() - 0.5) * 400_000, WORLD, SERVER);
+            final Warp expected = warps.stream().min(Comparator.comparingDouble(warp -> distance(from, warp)))
+                    .orElseThrow();
+            Assertions.assertEquals(expected, index.getNearest(from).orElseThrow());
+        }
+    }
+
+    @DisplayName("Test Nearby Searches Span Cell Boundaries")
+    @Test
+    public void testNearbyAcrossCells() {
+        final PositionIndex<Warp> index = new PositionIndex<>();
+        final Warp inside = warp("inside", 64, -64, WORLD, SERVER);
+        index.put(inside);
+        index.put(warp("outside", 200, -64, WORLD, SERVER));
+
+        // Positions in the corners of the searched cells are only found if they are within the radius
+        final Position origin = Position.at(0, 64, 0, WORLD, SERVER);
+        Assertions.assertEquals(List.of(inside), index.getNearby(origin, 91, 10));
+        Assertions.assertTrue(index.getNearby(origin, 90, 10).isEmpty());
+        Assertions.assertTrue(index.getNearby(Position.at(400, 64, 400, WORLD, SERVER), 100, 10).isEmpty());
+    }
+
+    @DisplayName("Test Moved And Removed Positions Are Reindexed")
+    @Test
+    public void testUpdates() {
+        final PositionIndex<Warp> index = new PositionIndex<>();
+        final Warp warp = warp("spawn", 0, 0, WORLD, SERVER);
+        index.put(warp);
+
+        // Positions move in place, so the index must find the old cell to remove them from
+        warp.update(Position.at(5000, 64, 5000, WORLD, SERVER));
+        index.put(warp);
+        Assertions.assertEquals(1, index.size());
+        final Position origin = Position.at(0, 64, 0, WORLD, SERVER);
+        Assertions.assertTrue(index.getNearby(origin, 100, 10).isEmpty());
+        Assertions.assertEquals(List.of(warp), index.getNearby(Position.at(5000, 64, 5000, WORLD, SERVER), 1, 10));
+
+        index.put(warp("shop", 10, 10, WORLD, SERVER));
+        index.removeIf(position -> position.getName().equals("shop"));
+        Assertions.assertTrue(index.remove(warp.getUuid()));
+        Assertions.assertFalse(index.remove(warp.getUuid()));
+        Assertions.assertEquals(0, index.size());
+        Assertions.assertTrue(index.getNearest(origin).isEmpty());
+    }
+
+    private static double distance(Position from, Position to) {
+        return Math.hypot(to.getX() - from.getX(), to.getZ() - from.getZ());
+    }
+
+    private static Warp warp(String name, double x, double z, World world, String server) {
+        return Warp.from(Position.at(x, 64, z, world, server), PositionMeta.create(name, ""));
+    }
+
+}
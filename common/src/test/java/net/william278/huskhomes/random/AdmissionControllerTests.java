@@ -0,0 +1,176 @@
+/*
+ * This file is part of HuskHomes, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.random;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+@DisplayName("RTP Admission Controller Tests")
+public class AdmissionControllerTests {
+
+    private static final AdmissionController.Limits LIMITS = new AdmissionController.Limits(
+            18, 15, 2, 3, 10
+    );
+
+    private final AtomicReference<Double> tickRate = new AtomicReference<>(20d);
+    private final AtomicInteger chunkLoads = new AtomicInteger();
+    private final AtomicLong clock = new AtomicLong();
+    private final List<CompletableFuture<String>> searches = new ArrayList<>();
+    private final AdmissionController controller = new AdmissionController(
+            tickRate::get, chunkLoads::get, () -> LIMITS, clock::get
+    );
+
+    @DisplayName("Test Searches Queue In Order Once The Limit Is Reached")
+    @Test
+    public void testFairQueue() {
+        Assertions.assertEquals(AdmissionController.Status.STARTED, submit().status());
+        Assertions.assertEquals(AdmissionController.Status.STARTED, submit().status());
+        final AdmissionController.Ticket<String> first = submit();
+        final AdmissionController.Ticket<String> second = submit();
+        Assertions.assertEquals(AdmissionController.Status.QUEUED, first.status());
+        Assertions.assertEquals(1, first.position());
+        Assertions.assertEquals(2, second.position());
+        Assertions.assertEquals(2, searches.size());
+
+        // Finishing a search starts the request queued first
+        searches.get(0).complete("done");
+        Assertions.assertEquals(3, searches.size());
+        Assertions.assertEquals(1, controller.getQueuedCount());
+        searches.get(2).complete("first");
+        Assertions.assertEquals("first", first.result().join());
+        Assertions.assertEquals(2, controller.getRunningCount());
+    }
+
+    @DisplayName("Test Requests Are Turned Away When The Queue Is Full")
+    @Test
+    public void testQueueFull() {
+        for (int i = 0; i < LIMITS.maxSearches() + LIMITS.maxQueued(); i++) {
+            Assertions.assertTrue(submit().isAccepted());
+        }
+        final AdmissionController.Ticket<String> rejected = submit();
+        Assertions.assertEquals(AdmissionController.Status.REJECTED, rejected.status());
+        Assertions.assertTrue(rejected.result().isCompletedExceptionally());
+    }
+
+    @DisplayName("Test Players Can Only Have One Request Pending")
+    @Test
+    public void testOnePerPlayer() {
+        final UUID player = UUID.randomUUID();
+        Assertions.assertEquals(AdmissionController.Status.STARTED, submit(player).status());
+        Assertions.assertEquals(AdmissionController.Status.ALREADY_PENDING, submit(player).status());
+
+        searches.get(0).complete("done");
+        Assertions.assertEquals(AdmissionController.Status.STARTED, submit(player).status());
+    }
+
+    @DisplayName("Test A Low Tick Rate Throttles, Then Pauses, Searches")
+    @Test
+    public void testTickRate() {
+        tickRate.set(17d);
+        Assertions.assertTrue(controller.isThrottled());
+        Assertions.assertEquals(AdmissionController.Status.STARTED, submit().status());
+        final AdmissionController.Ticket<String> queued = submit();
+        Assertions.assertEquals(AdmissionController.Status.QUEUED, queued.status());
+
+        // While paused, queued requests wait and new ones are turned away
+        tickRate.set(10d);
+        searches.get(0).complete("done");
+        Assertions.assertEquals(1, searches.size());
+        Assertions.assertEquals(AdmissionController.Status.REJECTED, submit().status());
+
+        // Queued requests start once the tick rate recovers
+        tickRate.set(20d);
+        controller.pump();
+        Assertions.assertEquals(2, searches.size());
+        Assertions.assertEquals(0, controller.getQueuedCount());
+        Assertions.assertFalse(controller.isThrottled());
+    }
+
+    @DisplayName("Test Searches Wait While Chunk Loads Are Saturated")
+    @Test
+    public void testChunkLoads() {
+        chunkLoads.set(LIMITS.maxChunkLoads());
+        Assertions.assertEquals(AdmissionController.Status.QUEUED, submit().status());
+        Assertions.assertTrue(searches.isEmpty());
+
+        chunkLoads.set(0);
+        controller.pump();
+        Assertions.assertEquals(1, searches.size());
+    }
+
+    @DisplayName("Test Queued Requests Time Out")
+    @Test
+    public void testTimeout() {
+        tickRate.set(16d);
+        submit();
+        final AdmissionController.Ticket<String> queued = submit();
+
+        clock.addAndGet(AdmissionController.MAX_WAIT_MILLIS + 1);
+        controller.pump();
+        final CompletionException e = Assertions.assertThrows(CompletionException.class, () -> queued.result().join());
+        Assertions.assertInstanceOf(TimeoutException.class, e.getCause());
+        Assertions.assertEquals(0, controller.getQueuedCount());
+        Assertions.assertEquals(1, searches.size());
+    }
+
+    @DisplayName("Test Failed Searches Free Their Slot")
+    @Test
+    public void testFailedSearch() {
+        final AdmissionController.Ticket<String> failing = controller.submit(UUID.randomUUID(), () -> {
+            throw new IllegalStateException("No engine");
+        });
+        Assertions.assertTrue(failing.result().isCompletedExceptionally());
+        Assertions.assertEquals(0, controller.getRunningCount());
+
+        final AdmissionController.Ticket<String> ticket = submit();
+        searches.get(0).completeExceptionally(new IllegalStateException("Failed"));
+        Assertions.assertTrue(ticket.result().isCompletedExceptionally());
+        Assertions.assertEquals(0, controller.getRunningCount());
+    }
+
+    private AdmissionController.Ticket<String> submit() {
+        return submit(UUID.randomUUID());
+    }
+
+    private AdmissionController.Ticket<String> submit(UUID player) {
+        return controller.submit(player, search());
+    }
+
+    private Supplier<CompletableFuture<String>> search() {
+        return () -> {
+            final CompletableFuture<String> search = new CompletableFuture<>();
+            searches.add(search);
+            return search;
+        };
+    }
+
+}
@@ -0,0 +1,231 @@
+/*
+ * This file is part of HuskHomes, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.random;
+
+import net.william278.huskhomes.position.Location;
+import net.william278.huskhomes.position.World;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+@DisplayName("RTP Candidate Evaluator Tests")
+public class CandidateEvaluatorTests {
+
+    private static final World WORLD = World.from("world", UUID.randomUUID());
+
+    @DisplayName("Test Candidates Are Checked Up To The Fan-Out")
+    @Test
+    public void testFanOut() {
+        final FakeResolver resolver = new FakeResolver();
+        final CandidateEvaluator evaluator = new CandidateEvaluator(resolver::resolve, () -> 100);
+        final CompletableFuture<Optional<Location>> result = evaluator.search(candidates(), 10, 3);
+        Assertions.assertEquals(3, resolver.pending.size());
+        Assertions.assertEquals(3, evaluator.getInFlightCount());
+
+        // An unsafe candidate is replaced with a new one
+        resolver.resolve(0, false);
+        Assertions.assertEquals(4, resolver.pending.size());
+        Assertions.assertEquals(3, evaluator.getInFlightCount());
+        Assertions.assertFalse(result.isDone());
+    }
+
+    @DisplayName("Test The First Safe Candidate Wins")
+    @Test
+    public void testFirstSafeWins() {
+        final FakeResolver resolver = new FakeResolver();
+        final CandidateEvaluator evaluator = new CandidateEvaluator(resolver::resolve, () -> 100);
+        final CompletableFuture<Optional<Location>> result = evaluator.search(candidates(), 10, 3);
+
+        resolver.resolve(1, true);
+        Assertions.assertTrue(result.isDone());
+        Assertions.assertEquals(1.0, result.join().orElseThrow().getX());
+
+        // No more candidates are started, but the others keep their slots until their checks finish
+        Assertions.assertEquals(3, resolver.pending.size());
+        Assertions.assertEquals(2, evaluator.getInFlightCount());
+        resolver.resolve(0, true);
+        resolver.resolve(2, false);
+        Assertions.assertEquals(1.0, result.join().orElseThrow().getX());
+        Assertions.assertEquals(3, resolver.pending.size());
+        Assertions.assertEquals(0, evaluator.getInFlightCount());
+    }
+
+    @DisplayName("Test Searches Give Up After The Max Attempts")
+    @Test
+    public void testMaxAttempts() {
+        final FakeResolver resolver = new FakeResolver();
+        final CandidateEvaluator evaluator = new CandidateEvaluator(resolver::resolve, () -> 100);
+        final CompletableFuture<Optional<Location>> result = evaluator.search(candidates(), 5, 2);
+        for (int i = 0; i < 5; i++) {
+            Assertions.assertFalse(result.isDone());
+            resolver.resolve(i, false);
+        }
+
+        Assertions.assertEquals(5, resolver.pending.size());
+        Assertions.assertTrue(result.isDone());
+        Assertions.assertTrue(result.join().isEmpty());
+        Assertions.assertEquals(0, evaluator.getInFlightCount());
+    }
+
+    @DisplayName("Test Attempts And Chunk Loads Are Counted")
+    @Test
+    public void testStats() {
+        final FakeResolver resolver = new FakeResolver();
+        final CandidateEvaluator evaluator = new CandidateEvaluator(resolver::resolve, () -> 100);
+
+        // Candidates one block apart share chunks, so four attempts load only one chunk
+        final CompletableFuture<Optional<Location>> found = evaluator.search(candidates(), 10, 4);
+        resolver.resolve(3, true);
+        Assertions.assertTrue(found.isDone());
+        final CompletableFuture<Optional<Location>> failed = evaluator.search(candidates(), 1, 1);
+        resolver.resolve(4, false);
+        Assertions.assertTrue(failed.join().isEmpty());
+
+        final CandidateEvaluator.SearchStats stats = evaluator.getStats();
+        Assertions.assertEquals(1, stats.successes());
+        Assertions.assertEquals(1, stats.failures());
+        Assertions.assertEquals(4, stats.getMeanAttempts());
+        Assertions.assertEquals(1, stats.getMeanChunkLoads());
+
+        evaluator.resetStats();
+        Assertions.assertEquals(0, evaluator.getStats().successes());
+    }
+
+    @DisplayName("Test Failed Candidates Count As Unsafe")
+    @Test
+    public void testFailedCandidates() {
+        final FakeResolver resolver = new FakeResolver();
+        final CandidateEvaluator evaluator = new CandidateEvaluator(resolver::resolve, () -> 100);
+        final CompletableFuture<Optional<Location>> result = evaluator.search(candidates(), 1, 1);
+        resolver.pending.get(0).completeExceptionally(new IllegalStateException("Chunk failed to load"));
+        Assertions.assertTrue(result.join().isEmpty());
+        Assertions.assertEquals(0, evaluator.getInFlightCount());
+    }
+
+    @DisplayName("Test Resolvers That Throw Release Their Slots")
+    @Test
+    public void testThrowingResolver() {
+        final CandidateEvaluator evaluator = new CandidateEvaluator(candidate -> {
+            throw new IllegalStateException("World is not loaded");
+        }, () -> 100);
+        final CompletableFuture<Optional<Location>> result = evaluator.search(candidates(), 3, 2);
+        Assertions.assertTrue(result.join().isEmpty());
+        Assertions.assertEquals(0, evaluator.getInFlightCount());
+    }
+
+    @DisplayName("Test The Global Limit Is Shared Between Searches")
+    @Test
+    public void testGlobalLimit() {
+        final FakeResolver resolver = new FakeResolver();
+        final CandidateEvaluator evaluator = new CandidateEvaluator(resolver::resolve, () -> 4);
+        final CompletableFuture<Optional<Location>> first = evaluator.search(candidates(), 10, 3);
+        final CompletableFuture<Optional<Location>> second = evaluator.search(candidates(), 10, 3);
+        Assertions.assertEquals(4, resolver.pending.size());
+        Assertions.assertEquals(4, evaluator.getInFlightCount());
+        Assertions.assertEquals(1, evaluator.getWaitingCount());
+
+        // When the first search finishes, the waiting search only takes the slots its candidates free
+        resolver.resolve(0, true);
+        Assertions.assertTrue(first.isDone());
+        Assertions.assertEquals(5, resolver.pending.size());
+        Assertions.assertEquals(4, evaluator.getInFlightCount());
+        Assertions.assertEquals(1, evaluator.getWaitingCount());
+
+        resolver.resolve(1, false);
+        resolver.resolve(2, true);
+        Assertions.assertEquals(6, resolver.pending.size());
+        Assertions.assertEquals(3, evaluator.getInFlightCount());
+        Assertions.assertEquals(0, evaluator.getWaitingCount());
+        Assertions.assertFalse(second.isDone());
+
+        resolver.resolve(5, true);
+        Assertions.assertSame(resolver.candidates.get(5), second.join().orElseThrow());
+        Assertions.assertEquals(2, evaluator.getInFlightCount());
+        resolver.resolve(3, false);
+        resolver.resolve(4, false);
+        Assertions.assertEquals(0, evaluator.getInFlightCount());
+    }
+
+    @DisplayName("Test Concurrent Searches Stay Within The Global Limit")
+    @Test
+    public void testConcurrentSearches() throws InterruptedException {
+        final int limit = 6;
+        final CandidateEvaluator[] evaluator = new CandidateEvaluator[1];
+        final int[] maxSeen = new int[1];
+        evaluator[0] = new CandidateEvaluator(candidate -> CompletableFuture.supplyAsync(() -> {
+            synchronized (maxSeen) {
+                maxSeen[0] = Math.max(maxSeen[0], evaluator[0].getInFlightCount());
+            }
+            return candidate.getX() % 7 == 0 ? Optional.of(candidate) : Optional.empty();
+        }), () -> limit);
+
+        final List<CompletableFuture<Optional<Location>>> searches = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            searches.add(evaluator[0].search(candidates(), 20, 4));
+        }
+        searches.forEach(search -> Assertions.assertDoesNotThrow(() -> search.get(10, TimeUnit.SECONDS)));
+        Assertions.assertTrue(maxSeen[0] <= limit);
+
+        // Candidates still in flight when their search finished release their slots once checked
+        final long deadline = System.currentTimeMillis() + 10000;
+        while (evaluator[0].getInFlightCount() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Assertions.assertEquals(0, evaluator[0].getInFlightCount());
+        Assertions.assertEquals(0, evaluator[0].getWaitingCount());
+    }
+
+    // Generates candidates at increasing x coordinates
+    @NotNull
+    private static Supplier<Location> candidates() {
+        final int[] next = new int[1];
+        return () -> Location.at(next[0]++, 64, 0, WORLD);
+    }
+
+    // Resolves candidates only when told to
+    private static final class FakeResolver {
+
+        private final List<CompletableFuture<Optional<Location>>> pending = new ArrayList<>();
+        private final List<Location> candidates = new ArrayList<>();
+
+        @NotNull
+        private CompletableFuture<Optional<Location>> resolve(@NotNull Location candidate) {
+            final CompletableFuture<Optional<Location>> future = new CompletableFuture<>();
+            pending.add(future);
+            candidates.add(candidate);
+            return future;
+        }
+
+        private void resolve(int index, boolean safe) {
+            pending.get(index).complete(safe ? Optional.of(candidates.get(index)) : Optional.empty());
+        }
+
+    }
+
+}
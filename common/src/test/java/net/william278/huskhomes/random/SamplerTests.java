@@ -0,0 +1,149 @@
+/*
+ * This file is part of HuskHomes, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.random;
+
+import net.william278.huskhomes.position.Location;
+import net.william278.huskhomes.position.World;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+@DisplayName("Random Teleport Sampler Tests")
+public class SamplerTests {
+
+    private final static float MEAN = 0.75f;
+    private final static float STANDARD_DEVIATION = 2f;
+    private final static float SPAWN_RADIUS = 500f;
+    private final static float MAX_RADIUS = 3000f;
+    private final static int SAMPLES = 20000;
+    private final static World WORLD = World.from("TestWorld", UUID.randomUUID());
+    private final static Location ORIGIN = Location.at(0, 0, 0, 0, 0, WORLD);
+
+    @Test
+    @DisplayName("Test Normal Distribution Points Within Radii")
+    public void testNormalDistributionRange() {
+        for (Location location : sample(() -> NormalDistributionEngine.generateLocation(
+                ORIGIN, MEAN, STANDARD_DEVIATION, SPAWN_RADIUS, MAX_RADIUS))) {
+            final double radius = getRadius(location);
+            Assertions.assertTrue(radius >= SPAWN_RADIUS - 1e-3 && radius <= MAX_RADIUS + 1e-3);
+        }
+    }
+
+    @Test
+    @DisplayName("Test Normal Distribution Falls Back When Truncated Away")
+    public void testNormalDistributionFallback() {
+        // No samples of this distribution land between the radii, so it must not loop or recurse forever
+        for (Location location : sample(() -> NormalDistributionEngine.generateLocation(
+                ORIGIN, 0.001f, 100f, SPAWN_RADIUS, MAX_RADIUS))) {
+            final double radius = getRadius(location);
+            Assertions.assertTrue(radius >= SPAWN_RADIUS - 1e-3 && radius <= MAX_RADIUS + 1e-3);
+        }
+    }
+
+    @Test
+    @DisplayName("Test Uniform Disk Points Spread Evenly By Area")
+    public void testUniformDisk() {
+        final List<Location> locations = sample(() -> UniformDiskEngine.generateLocation(
+                ORIGIN, SPAWN_RADIUS, MAX_RADIUS));
+        final double middle = 2000;
+        int inner = 0;
+        for (Location location : locations) {
+            final double radius = getRadius(location);
+            Assertions.assertTrue(radius >= SPAWN_RADIUS - 1e-3 && radius <= MAX_RADIUS + 1e-3);
+            if (radius < middle) {
+                inner++;
+            }
+        }
+
+        // The share of points within the middle radius should match the share of the ring's area within it
+        final double expected = (middle * middle - SPAWN_RADIUS * SPAWN_RADIUS)
+                                / (MAX_RADIUS * MAX_RADIUS - SPAWN_RADIUS * SPAWN_RADIUS);
+        Assertions.assertEquals(expected, inner / (double) SAMPLES, 0.02);
+        assertCentered(locations, 0, 0, MAX_RADIUS);
+    }
+
+    @Test
+    @DisplayName("Test Square Points Spread Evenly Outside Spawn")
+    public void testSquare() {
+        final List<Location> locations = sample(() -> SquareEngine.generateLocation(
+                ORIGIN, SPAWN_RADIUS, MAX_RADIUS));
+        final int[] quadrants = new int[4];
+        for (Location location : locations) {
+            final double x = Math.abs(location.getX());
+            final double z = Math.abs(location.getZ());
+            Assertions.assertTrue(x <= MAX_RADIUS && z <= MAX_RADIUS);
+            Assertions.assertTrue(x >= SPAWN_RADIUS || z >= SPAWN_RADIUS);
+            quadrants[(location.getX() < 0 ? 0 : 1) + (location.getZ() < 0 ? 0 : 2)]++;
+        }
+        for (int quadrant : quadrants) {
+            Assertions.assertEquals(0.25, quadrant / (double) SAMPLES, 0.02);
+        }
+        assertCentered(locations, 0, 0, MAX_RADIUS);
+    }
+
+    @Test
+    @DisplayName("Test Region Points Within Region")
+    public void testRegion() {
+        final RegionEngine.Region region = RegionEngine.Region.parse(" 1000, -200,-3000,800").orElseThrow();
+        Assertions.assertEquals(new RegionEngine.Region(-3000, -200, 1000, 800), region);
+        final List<Location> locations = sample(() -> RegionEngine.generateLocation(WORLD, region));
+        for (Location location : locations) {
+            Assertions.assertTrue(location.getX() >= region.minX() && location.getX() <= region.maxX());
+            Assertions.assertTrue(location.getZ() >= region.minZ() && location.getZ() <= region.maxZ());
+        }
+        assertCentered(locations, -1000, 300, 4000);
+    }
+
+    @Test
+    @DisplayName("Test Invalid Regions Are Rejected")
+    public void testInvalidRegions() {
+        Assertions.assertTrue(RegionEngine.Region.parse("").isEmpty());
+        Assertions.assertTrue(RegionEngine.Region.parse("0,0,100").isEmpty());
+        Assertions.assertTrue(RegionEngine.Region.parse("0,0,100,one hundred").isEmpty());
+    }
+
+    // Assert the mean position is near the expected center, relative to the size of the area sampled
+    private static void assertCentered(@NotNull List<Location> locations, double x, double z, double size) {
+        final double meanX = locations.stream().mapToDouble(Location::getX).average().orElseThrow();
+        final double meanZ = locations.stream().mapToDouble(Location::getZ).average().orElseThrow();
+        Assertions.assertEquals(x, meanX, size * 0.03);
+        Assertions.assertEquals(z, meanZ, size * 0.03);
+    }
+
+    private static double getRadius(@NotNull Location location) {
+        return Math.hypot(location.getX(), location.getZ());
+    }
+
+    @NotNull
+    private static List<Location> sample(@NotNull Supplier<Location> sampler) {
+        final List<Location> locations = new ArrayList<>(SAMPLES);
+        for (int i = 0; i < SAMPLES; i++) {
+            locations.add(sampler.get());
+        }
+        return locations;
+    }
+
+}
@@ -0,0 +1,145 @@
+/*
+ * This file is part of HuskHomes, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.random;
+
+import com.google.gson.Gson;
+import net.william278.huskhomes.position.Location;
+import net.william278.huskhomes.position.World;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+@DisplayName("RTP Success Grid Tests")
+public class SuccessGridTests {
+
+    private static final World WORLD = World.from("world", UUID.randomUUID());
+    private static final World OTHER_WORLD = World.from("world_nether", UUID.randomUUID());
+    private static final int CELL_SIZE = 1 << SuccessGrid.CELL_SHIFT;
+
+    @DisplayName("Test Weights Follow Cell Success Rates")
+    @Test
+    public void testWeights() {
+        final SuccessGrid grid = new SuccessGrid();
+        final Location ocean = Location.at(100, 64, 100, WORLD);
+        Assertions.assertEquals(1, grid.getWeight(ocean));
+
+        grid.record(ocean, false);
+        Assertions.assertEquals(0.5, grid.getWeight(ocean), 1e-9);
+        for (int i = 0; i < 50; i++) {
+            grid.record(Location.at(CELL_SIZE - 1, 64, 10, WORLD), false);
+        }
+        Assertions.assertEquals(SuccessGrid.MIN_WEIGHT, grid.getWeight(ocean), 1e-9);
+
+        // Other cells and worlds are unaffected
+        Assertions.assertEquals(1, grid.getWeight(Location.at(CELL_SIZE, 64, 100, WORLD)));
+        Assertions.assertEquals(1, grid.getWeight(Location.at(-1, 64, 100, WORLD)));
+        Assertions.assertEquals(1, grid.getWeight(Location.at(100, 64, 100, OTHER_WORLD)));
+
+        final Location land = Location.at(-5000, 64, 3000, WORLD);
+        for (int i = 0; i < 10; i++) {
+            grid.record(land, true);
+        }
+        Assertions.assertEquals(1, grid.getWeight(land));
+        Assertions.assertEquals(2, grid.getCellCount());
+    }
+
+    @DisplayName("Test Outcome Counts Are Capped")
+    @Test
+    public void testDecay() {
+        final SuccessGrid grid = new SuccessGrid();
+        final Location location = Location.at(0, 64, 0, WORLD);
+        for (int i = 0; i < 1000; i++) {
+            grid.record(location, false);
+        }
+
+        // Once the terrain becomes safe, the cell recovers quickly rather than after 1000 successes
+        for (int i = 0; i < SuccessGrid.MAX_OUTCOMES; i++) {
+            grid.record(location, true);
+        }
+        Assertions.assertTrue(grid.getWeight(location) > 0.6);
+    }
+
+    @DisplayName("Test Sampling Avoids Poor Cells")
+    @Test
+    public void testSampling() {
+        final SuccessGrid grid = new SuccessGrid();
+        final Supplier<Location> sampler = () -> Location.at(
+                ThreadLocalRandom.current().nextDouble(-CELL_SIZE, CELL_SIZE), 64, 10, WORLD);
+
+        // The cells at negative x are ocean
+        for (int i = 0; i < 50; i++) {
+            grid.record(Location.at(-10, 64, 10, WORLD), false);
+            grid.record(Location.at(10, 64, 10, WORLD), true);
+        }
+
+        final int samples = 20000;
+        int ocean = 0;
+        int lowerLand = 0;
+        for (int i = 0; i < samples; i++) {
+            final Location sample = grid.sample(sampler);
+            if (sample.getX() < 0) {
+                ocean++;
+            } else if (sample.getX() < CELL_SIZE / 2d) {
+                lowerLand++;
+            }
+        }
+
+        // Ocean samples are mostly skipped, and the distribution over land keeps its shape
+        final double expectedOcean = SuccessGrid.MIN_WEIGHT / (1 + SuccessGrid.MIN_WEIGHT);
+        Assertions.assertEquals(expectedOcean, ocean / (double) samples, 0.02);
+        Assertions.assertEquals(0.5, lowerLand / (double) (samples - ocean), 0.02);
+    }
+
+    @DisplayName("Test Grid Saves And Loads")
+    @Test
+    public void testPersistence(@TempDir File folder) throws IOException {
+        final Gson gson = new Gson();
+        final File file = new File(folder, "rtp_grid.json");
+        final SuccessGrid grid = new SuccessGrid();
+        final Location ocean = Location.at(-700, 64, 1200, WORLD);
+        final Location land = Location.at(300, 64, -40, OTHER_WORLD);
+        grid.record(ocean, false);
+        grid.record(ocean, false);
+        grid.record(ocean, true);
+        grid.record(land, true);
+        grid.save(file, gson);
+        Assertions.assertTrue(file.exists());
+
+        final SuccessGrid loaded = new SuccessGrid();
+        loaded.load(file, gson);
+        Assertions.assertEquals(grid.getWeight(ocean), loaded.getWeight(ocean), 1e-9);
+        Assertions.assertEquals(grid.getWeight(land), loaded.getWeight(land), 1e-9);
+        Assertions.assertEquals(2, loaded.getCellCount());
+
+        // Missing files are ignored, and invalid ones are reported
+        new SuccessGrid().load(new File(folder, "missing.json"), gson);
+        Files.writeString(file.toPath(), "{\"not-a-uuid\": {\"0,0\": [1, 2]}}");
+        Assertions.assertThrows(IOException.class, () -> new SuccessGrid().load(file, gson));
+    }
+
+}
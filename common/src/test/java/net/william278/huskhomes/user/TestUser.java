@@ -0,0 +1,94 @@
+/*
+ * This file is part of HuskHomes, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.user;
+
+import net.kyori.adventure.audience.Audience;
+import net.william278.huskhomes.position.Location;
+import net.william278.huskhomes.position.Position;
+import net.william278.huskhomes.position.World;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * A stationary player, who has every permission
+ */
+public class TestUser extends OnlineUser {
+
+    private final Position position;
+
+    public TestUser(@NotNull String username, @NotNull String server) {
+        super(UUID.nameUUIDFromBytes(username.getBytes()), username);
+        this.position = Position.at(0, 64, 0, 0, 0, World.from("world", UUID.randomUUID()), server);
+    }
+
+    @Override
+    public Position getPosition() {
+        return position;
+    }
+
+    @Override
+    public Optional<Position> getBedSpawnPosition() {
+        return Optional.empty();
+    }
+
+    @Override
+    public double getHealth() {
+        return 20;
+    }
+
+    @Override
+    public boolean hasPermission(@NotNull String node) {
+        return true;
+    }
+
+    @Override
+    @NotNull
+    public Map<String, Boolean> getPermissions() {
+        return Map.of();
+    }
+
+    @Override
+    @NotNull
+    public Audience getAudience() {
+        return Audience.empty();
+    }
+
+    @Override
+    public void teleportLocally(@NotNull Location location, boolean asynchronous) {
+    }
+
+    @Override
+    public void sendPluginMessage(@NotNull String channel, byte[] message) {
+    }
+
+    @Override
+    public boolean isMoving() {
+        return false;
+    }
+
+    @Override
+    public boolean isVanished() {
+        return false;
+    }
+
+}
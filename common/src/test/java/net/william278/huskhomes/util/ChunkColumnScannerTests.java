@@ -0,0 +1,90 @@
+/*
+ * This file is part of HuskHomes, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+@DisplayName("Chunk Column Scanner Tests")
+public class ChunkColumnScannerTests {
+
+    @DisplayName("Test The Column Asked For Is Used If Safe")
+    @Test
+    public void testOriginColumn() {
+        final AtomicInteger checks = new AtomicInteger();
+        final ChunkColumnScanner.Column column = ChunkColumnScanner.findBestColumn(5, 9,
+                (x, z) -> 64,
+                (x, y, z) -> {
+                    checks.incrementAndGet();
+                    return true;
+                }).orElseThrow();
+        Assertions.assertEquals(new ChunkColumnScanner.Column(5, 64, 9), column);
+        Assertions.assertEquals(1, checks.get());
+    }
+
+    @DisplayName("Test The Nearest Safe Column Is Found")
+    @Test
+    public void testNearestSafeColumn() {
+        final ChunkColumnScanner.Column column = ChunkColumnScanner.findBestColumn(2, 2,
+                (x, z) -> 70,
+                (x, y, z) -> x >= 8).orElseThrow();
+        Assertions.assertEquals(8, column.x());
+        Assertions.assertEquals(2, column.z());
+    }
+
+    @DisplayName("Test Level Columns Are Preferred")
+    @Test
+    public void testLevelColumnsPreferred() {
+        // The column asked for sits on a pillar, so a nearby column on level ground is better
+        final ChunkColumnScanner.Column column = ChunkColumnScanner.findBestColumn(8, 8,
+                (x, z) -> x == 8 && z == 8 ? 90 : 64,
+                (x, y, z) -> true).orElseThrow();
+        Assertions.assertNotEquals(new ChunkColumnScanner.Column(8, 90, 8), column);
+        Assertions.assertEquals(64, column.groundY());
+        Assertions.assertTrue(Math.abs(column.x() - 8) + Math.abs(column.z() - 8) <= 2);
+    }
+
+    @DisplayName("Test Coordinates Outside The Chunk Are Wrapped")
+    @Test
+    public void testWrappedOrigin() {
+        final ChunkColumnScanner.Column column = ChunkColumnScanner.findBestColumn(-3, 37,
+                (x, z) -> 64,
+                (x, y, z) -> true).orElseThrow();
+        Assertions.assertEquals(13, column.x());
+        Assertions.assertEquals(5, column.z());
+    }
+
+    @DisplayName("Test Every Column Is Checked Before Giving Up")
+    @Test
+    public void testNoSafeColumn() {
+        final AtomicInteger checks = new AtomicInteger();
+        Assertions.assertTrue(ChunkColumnScanner.findBestColumn(0, 0,
+                (x, z) -> 64,
+                (x, y, z) -> {
+                    checks.incrementAndGet();
+                    return false;
+                }).isEmpty());
+        Assertions.assertEquals(ChunkColumnScanner.CHUNK_SIZE * ChunkColumnScanner.CHUNK_SIZE, checks.get());
+    }
+
+}
@@ -0,0 +1,80 @@
+/*
+ * This file is part of HuskHomes, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+@DisplayName("Latency Histogram Tests")
+public class LatencyHistogramTests {
+
+    @DisplayName("Test Recorded Values Are Reported Precisely")
+    @ParameterizedTest(name = "Value: {0}µs")
+    @ValueSource(longs = {0, 1, 63, 64, 65, 127, 128, 1_000, 49_999, 1_234_567, LatencyHistogram.MAX_VALUE})
+    public void testValuePrecision(long value) {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(value);
+        histogram.record(LatencyHistogram.MAX_VALUE);
+
+        final long reported = histogram.getValueAtPercentile(50);
+        Assertions.assertTrue(reported >= value, "Reported " + reported + " below " + value);
+        Assertions.assertTrue(reported <= value + value / 32, "Reported " + reported + " too far above " + value);
+    }
+
+    @DisplayName("Test Percentiles Of Uniform Values")
+    @Test
+    public void testPercentiles() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        final Random random = new Random(278);
+        IntStream.range(0, 100_000).forEach(i -> histogram.record(random.nextInt(100_000)));
+
+        Assertions.assertEquals(100_000, histogram.getCount());
+        Assertions.assertEquals(50_000, histogram.getValueAtPercentile(50), 2_000);
+        Assertions.assertEquals(95_000, histogram.getValueAtPercentile(95), 3_500);
+        Assertions.assertEquals(50_000, histogram.getMean(), 1_000);
+        Assertions.assertEquals(histogram.getMax(), histogram.getValueAtPercentile(100));
+    }
+
+    @DisplayName("Test Units, Clamping And Reset")
+    @Test
+    public void testUnitsAndReset() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(2, TimeUnit.MILLISECONDS);
+        histogram.record(-5);
+        histogram.record(Long.MAX_VALUE);
+
+        Assertions.assertEquals(3, histogram.getCount());
+        Assertions.assertEquals(0, histogram.getValueAtPercentile(0));
+        Assertions.assertEquals(LatencyHistogram.MAX_VALUE, histogram.getMax());
+
+        histogram.reset();
+        Assertions.assertEquals(0, histogram.getCount());
+        Assertions.assertEquals(0, histogram.getMax());
+        Assertions.assertEquals(0, histogram.getValueAtPercentile(99));
+    }
+
+}
@@ -0,0 +1,71 @@
+/*
+ * This file is part of HuskHomes, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+@DisplayName("Tick Rate Monitor Tests")
+public class TickRateMonitorTests {
+
+    private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @DisplayName("Test A Server Keeping Up Reports Full Speed")
+    @Test
+    public void testFullSpeed() {
+        final TickRateMonitor monitor = new TickRateMonitor(20);
+        Assertions.assertEquals(TickRateMonitor.MAX_TICK_RATE, monitor.getTickRate(0));
+
+        final long last = tick(monitor, 0, 40, 45 * MILLIS);
+        Assertions.assertEquals(TickRateMonitor.MAX_TICK_RATE, monitor.getTickRate(last + 10 * MILLIS));
+    }
+
+    @DisplayName("Test Slow Ticks Lower The Tick Rate")
+    @Test
+    public void testSlowTicks() {
+        final TickRateMonitor monitor = new TickRateMonitor(20);
+        final long last = tick(monitor, 0, 40, 100 * MILLIS);
+        Assertions.assertEquals(10d, monitor.getTickRate(last), 0.01);
+    }
+
+    @DisplayName("Test A Stalled Tick Lowers The Tick Rate")
+    @Test
+    public void testStall() {
+        final TickRateMonitor monitor = new TickRateMonitor(20);
+        final long last = tick(monitor, 0, 20, 50 * MILLIS);
+        Assertions.assertEquals(TickRateMonitor.MAX_TICK_RATE, monitor.getTickRate(last + 50 * MILLIS), 0.01);
+
+        // 19 tick intervals spread over 950ms of ticking plus a 2s stall
+        Assertions.assertEquals(19d / 2.95, monitor.getTickRate(last + 2050 * MILLIS), 0.01);
+    }
+
+    private static long tick(TickRateMonitor monitor, long start, int ticks, long interval) {
+        long time = start;
+        for (int i = 0; i < ticks; i++) {
+            time = start + i * interval;
+            monitor.tick(time);
+        }
+        return time;
+    }
+
+}
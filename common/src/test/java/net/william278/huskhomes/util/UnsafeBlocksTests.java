@@ -0,0 +1,87 @@
+/*
+ * This file is part of HuskHomes, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.util;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+@DisplayName("Unsafe Blocks Tests")
+public class UnsafeBlocksTests {
+
+    @DisplayName("Test Unsafe Blocks Are Matched With Or Without Namespace")
+    @Test
+    public void testNamespaces() {
+        final UnsafeBlocks blocks = create(List.of("minecraft:lava", "fire", "othermod:acid"));
+        Assertions.assertTrue(blocks.isUnsafe("minecraft:lava"));
+        Assertions.assertTrue(blocks.isUnsafe("lava"));
+        Assertions.assertTrue(blocks.isUnsafe("minecraft:fire"));
+        Assertions.assertTrue(blocks.isUnsafe("othermod:acid"));
+        Assertions.assertFalse(blocks.isUnsafe("acid"));
+        Assertions.assertFalse(blocks.isUnsafe("minecraft:stone"));
+        Assertions.assertEquals(Set.of("minecraft:lava", "minecraft:fire", "othermod:acid"), blocks.getUnsafeKeys());
+    }
+
+    @DisplayName("Test The Bundled Unsafe Blocks Are Compiled")
+    @Test
+    public void testBundledBlocks() throws IOException {
+        final List<String> bundled = readBundledBlocks();
+        Assertions.assertFalse(bundled.isEmpty());
+        final UnsafeBlocks blocks = create(bundled);
+        for (String block : bundled) {
+            Assertions.assertTrue(blocks.isUnsafe(block));
+        }
+        Assertions.assertTrue(blocks.isUnsafe("water"));
+        Assertions.assertFalse(blocks.isUnsafe("minecraft:grass_block"));
+    }
+
+    @NotNull
+    private static UnsafeBlocks create(@NotNull List<String> unsafe) {
+        final UnsafeBlocks blocks = new UnsafeBlocks();
+        blocks.unsafeBlocks = unsafe;
+        return blocks;
+    }
+
+    // Read the list of unsafe blocks bundled with the plugin
+    @NotNull
+    private static List<String> readBundledBlocks() throws IOException {
+        final List<String> blocks = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(Objects.requireNonNull(
+                UnsafeBlocksTests.class.getClassLoader().getResourceAsStream("safety/unsafe_blocks.yml")),
+                StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.startsWith("- ")) {
+                    blocks.add(line.substring(2).replace("'", ""));
+                }
+            }
+        }
+        return blocks;
+    }
+
+}
@@ -23,11 +23,13 @@ import io.netty.buffer.ByteBufUtil;
 import net.fabricmc.api.DedicatedServerModInitializer;
 import net.fabricmc.fabric.api.command.v2.CommandRegistrationCallback;
 import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
 import net.fabricmc.fabric.api.networking.v1.PacketSender;
 import net.fabricmc.fabric.api.networking.v1.ServerPlayNetworking;
 import net.fabricmc.loader.api.FabricLoader;
 import net.fabricmc.loader.api.ModContainer;
 import net.kyori.adventure.platform.fabric.FabricServerAudiences;
+import net.minecraft.block.Block;
 import net.minecraft.network.PacketByteBuf;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.network.ServerPlayNetworkHandler;
@@ -55,13 +57,14 @@ import net.william278.huskhomes.network.PluginMessageBroker;
 import net.william278.huskhomes.network.RedisBroker;
 import net.william278.huskhomes.position.Location;
 import net.william278.huskhomes.position.World;
-import net.william278.huskhomes.random.NormalDistributionEngine;
+import net.william278.huskhomes.random.PerWorldEngine;
 import net.william278.huskhomes.random.RandomTeleportEngine;
 import net.william278.huskhomes.user.ConsoleUser;
 import net.william278.huskhomes.user.FabricUser;
 import net.william278.huskhomes.user.OnlineUser;
 import net.william278.huskhomes.user.SavedUser;
 import net.william278.huskhomes.util.FabricSafetyResolver;
+import net.william278.huskhomes.util.FabricScheduler;
 import net.william278.huskhomes.util.FabricTaskRunner;
 import net.william278.huskhomes.util.UnsafeBlocks;
 import net.william278.huskhomes.util.Validator;
@@ -77,13 +80,14 @@ import java.io.InputStream;
 import java.lang.reflect.InvocationTargetException;
 import java.nio.file.Files;
 import java.util.*;
-import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
 import java.util.logging.Level;
 import java.util.stream.Collectors;
 
 public class FabricHuskHomes implements DedicatedServerModInitializer, HuskHomes,
-        FabricTaskRunner, FabricEventDispatcher, FabricSafetyResolver, ServerPlayNetworking.PlayChannelHandler {
+        FabricTaskRunner, FabricEventDispatcher, FabricSafetyResolver, FabricChunkPreloader,
+        ServerPlayNetworking.PlayChannelHandler {
 
     public static final Logger LOGGER = LoggerFactory.getLogger("HuskHomes");
     private static FabricHuskHomes instance;
@@ -96,7 +100,8 @@ public class FabricHuskHomes implements DedicatedServerModInitializer, HuskHomes
     private final ModContainer modContainer = FabricLoader.getInstance()
             .getModContainer("huskhomes").orElseThrow(() -> new RuntimeException("Failed to get Mod Container"));
     private MinecraftServer minecraftServer;
-    private ConcurrentHashMap<Integer, CompletableFuture<?>> tasks;
+    private FabricScheduler scheduler;
+    private ConcurrentHashMap<Integer, Future<?>> tasks;
     private Map<String, Boolean> permissions;
     private Set<SavedUser> savedUsers;
     private Settings settings;
@@ -108,10 +113,10 @@ public class FabricHuskHomes implements DedicatedServerModInitializer, HuskHomes
     private RandomTeleportEngine randomTeleportEngine;
     private Spawn serverSpawn;
     private UnsafeBlocks unsafeBlocks;
+    private volatile Set<Block> unsafeBlockTypes;
     private List<Hook> hooks;
     private List<Command> commands;
     private Map<String, List<String>> globalPlayerList;
-    private Set<UUID> currentlyOnWarmup;
     private Server server;
     @Nullable
     private Broker broker;
@@ -123,11 +128,11 @@ public class FabricHuskHomes implements DedicatedServerModInitializer, HuskHomes
         instance = this;
 
         // Get plugin version from mod container
+        this.scheduler = new FabricScheduler(this, Math.max(2, Runtime.getRuntime().availableProcessors() / 2));
         this.tasks = new ConcurrentHashMap<>();
         this.permissions = new HashMap<>();
         this.savedUsers = new HashSet<>();
         this.globalPlayerList = new HashMap<>();
-        this.currentlyOnWarmup = new HashSet<>();
         this.validator = new Validator(this);
 
         // Load settings and locales
@@ -145,6 +150,7 @@ public class FabricHuskHomes implements DedicatedServerModInitializer, HuskHomes
             this.onEnable();
         });
         ServerLifecycleEvents.SERVER_STOPPING.register(server -> this.onDisable());
+        ServerTickEvents.START_SERVER_TICK.register(server -> scheduler.tick());
     }
 
     private void onEnable() {
@@ -175,7 +181,7 @@ public class FabricHuskHomes implements DedicatedServerModInitializer, HuskHomes
             });
         }
 
-        setRandomTeleportEngine(new NormalDistributionEngine(this));
+        setRandomTeleportEngine(new PerWorldEngine(this));
 
         // Register plugin hooks (Economy, Maps, Plan)
         initialize("hooks", (plugin) -> {
@@ -199,6 +205,11 @@ public class FabricHuskHomes implements DedicatedServerModInitializer, HuskHomes
         if (this.eventListener != null) {
             this.eventListener.handlePluginDisable();
         }
+
+        // Let queued tasks finish before the database and broker are closed
+        cancelAllTasks();
+        scheduler.shutdown();
+
         if (database != null) {
             database.terminate();
         }
@@ -209,7 +220,6 @@ public class FabricHuskHomes implements DedicatedServerModInitializer, HuskHomes
             audiences.close();
             audiences = null;
         }
-        cancelAllTasks();
     }
 
     @Override
@@ -278,6 +288,7 @@ public class FabricHuskHomes implements DedicatedServerModInitializer, HuskHomes
     @Override
     public void setUnsafeBlocks(@NotNull UnsafeBlocks unsafeBlocks) {
         this.unsafeBlocks = unsafeBlocks;
+        this.unsafeBlockTypes = null;
     }
 
     @NotNull
@@ -286,6 +297,18 @@ public class FabricHuskHomes implements DedicatedServerModInitializer, HuskHomes
         return unsafeBlocks;
     }
 
+    // Compiled on first use, once every mod has registered its blocks
+    @NotNull
+    @Override
+    public Set<Block> getUnsafeBlockTypes() {
+        Set<Block> blockTypes = unsafeBlockTypes;
+        if (blockTypes == null) {
+            blockTypes = FabricSafetyResolver.compileUnsafeBlockTypes(unsafeBlocks);
+            unsafeBlockTypes = blockTypes;
+        }
+        return blockTypes;
+    }
+
     @Override
     @NotNull
     public Database getDatabase() {
@@ -424,12 +447,6 @@ public class FabricHuskHomes implements DedicatedServerModInitializer, HuskHomes
         return globalPlayerList;
     }
 
-    @Override
-    @NotNull
-    public Set<UUID> getCurrentlyOnWarmup() {
-        return currentlyOnWarmup;
-    }
-
     @Override
     public void registerMetrics(int metricsId) {
         // No metrics for Fabric
@@ -481,7 +498,13 @@ public class FabricHuskHomes implements DedicatedServerModInitializer, HuskHomes
 
     @Override
     @NotNull
-    public ConcurrentHashMap<Integer, CompletableFuture<?>> getTasks() {
+    public FabricScheduler getScheduler() {
+        return scheduler;
+    }
+
+    @Override
+    @NotNull
+    public ConcurrentHashMap<Integer, Future<?>> getTasks() {
         return tasks;
     }
 
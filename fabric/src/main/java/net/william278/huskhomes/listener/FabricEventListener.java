@@ -20,6 +20,7 @@
 package net.william278.huskhomes.listener;
 
 import net.fabricmc.fabric.api.entity.event.v1.ServerLivingEntityEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
 import net.fabricmc.fabric.api.entity.event.v1.ServerPlayerEvents;
 import net.fabricmc.fabric.api.networking.v1.ServerPlayConnectionEvents;
 import net.minecraft.server.network.ServerPlayerEntity;
@@ -29,6 +30,7 @@ import org.jetbrains.annotations.NotNull;
 
 // Note that the teleport event and update player respawn position events are not handled on Fabric.
 // The "update last position on teleport event" and "global respawn" features are not supported on Fabric.
+// Fabric API has no player move event, so the positions of players warming up are checked at the end of each tick.
 public class FabricEventListener extends EventListener {
 
     public FabricEventListener(@NotNull FabricHuskHomes plugin) {
@@ -59,6 +61,24 @@ public class FabricEventListener extends EventListener {
         ServerPlayerEvents.AFTER_RESPAWN.register((oldPlayer, newPlayer, alive) -> handlePlayerRespawn(
                 FabricUser.adapt(plugin, newPlayer)
         ));
+
+        // Damage event
+        ServerLivingEntityEvents.ALLOW_DAMAGE.register((entity, source, amount) -> {
+            if (entity instanceof ServerPlayerEntity player) {
+                handlePlayerDamage(player.getUuid());
+            }
+            return true;
+        });
+
+        // Movement of players warming up
+        ServerTickEvents.END_SERVER_TICK.register(server -> {
+            if (plugin.getManager().warmups().getActiveWarmupCount() == 0) {
+                return;
+            }
+            for (ServerPlayerEntity player : server.getPlayerManager().getPlayerList()) {
+                handlePlayerMove(player.getUuid(), player.getX(), player.getY(), player.getZ());
+            }
+        });
     }
 
 }
@@ -0,0 +1,102 @@
+/*
+ * This file is part of HuskHomes, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.util;
+
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.world.ChunkTicketType;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.math.ChunkPos;
+import net.william278.huskhomes.FabricHuskHomes;
+import net.william278.huskhomes.position.Location;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+public interface FabricChunkPreloader extends ChunkPreloader {
+
+    ChunkTicketType<ChunkPos> PRELOAD_TICKET = ChunkTicketType.create("huskhomes_preload",
+            Comparator.comparingLong(ChunkPos::toLong));
+
+    /**
+     * Number of ticks to wait for a preloaded chunk to load before giving up on it
+     */
+    int MAX_LOAD_TICKS = 600;
+
+    @Override
+    default CompletableFuture<Boolean> preloadChunk(@NotNull Location location) {
+        final CompletableFuture<Boolean> loaded = new CompletableFuture<>();
+        getPlugin().runSync(() -> {
+            final Optional<ServerWorld> world = getServerWorld(location);
+            if (world.isEmpty()) {
+                loaded.complete(false);
+                return;
+            }
+
+            // Adding a ticket makes the server load the chunk in the background over the following ticks
+            final ChunkPos pos = getChunkPos(location);
+            world.get().getChunkManager().addTicket(PRELOAD_TICKET, pos, 1, pos);
+            awaitChunkLoad(world.get(), pos, loaded, 0);
+        });
+        return loaded;
+    }
+
+    @Override
+    default void releaseChunk(@NotNull Location location) {
+        getPlugin().runSync(() -> getServerWorld(location).ifPresent(world -> {
+            final ChunkPos pos = getChunkPos(location);
+            world.getChunkManager().removeTicket(PRELOAD_TICKET, pos, 1, pos);
+        }));
+    }
+
+    // Check once a tick until the chunk has loaded
+    private void awaitChunkLoad(@NotNull ServerWorld world, @NotNull ChunkPos pos,
+                                @NotNull CompletableFuture<Boolean> loaded, int ticks) {
+        if (world.getChunkManager().isChunkLoaded(pos.x, pos.z)) {
+            loaded.complete(true);
+            return;
+        }
+        if (ticks >= MAX_LOAD_TICKS) {
+            loaded.complete(false);
+            return;
+        }
+        getPlugin().runSync(() -> awaitChunkLoad(world, pos, loaded, ticks + 1));
+    }
+
+    @NotNull
+    private Optional<ServerWorld> getServerWorld(@NotNull Location location) {
+        final MinecraftServer server = getPlugin().getMinecraftServer();
+        final Identifier worldId = Identifier.tryParse(location.getWorld().getName());
+        return server.getWorldRegistryKeys().stream()
+                .filter(key -> key.getValue().equals(worldId)).findFirst()
+                .map(server::getWorld);
+    }
+
+    @NotNull
+    private ChunkPos getChunkPos(@NotNull Location location) {
+        return new ChunkPos((int) Math.floor(location.getX()) >> 4, (int) Math.floor(location.getZ()) >> 4);
+    }
+
+    @NotNull
+    FabricHuskHomes getPlugin();
+
+}
@@ -19,90 +19,171 @@
 
 package net.william278.huskhomes.util;
 
+import net.minecraft.block.Block;
 import net.minecraft.block.BlockState;
 import net.minecraft.block.Material;
 import net.minecraft.registry.Registries;
 import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.world.ChunkTicketType;
 import net.minecraft.server.world.ServerWorld;
 import net.minecraft.util.Identifier;
 import net.minecraft.util.math.BlockPos;
-import net.minecraft.util.math.Direction;
-import net.minecraft.world.BlockView;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.Heightmap;
+import net.minecraft.world.border.WorldBorder;
+import net.minecraft.world.chunk.WorldChunk;
 import net.william278.huskhomes.FabricHuskHomes;
 import net.william278.huskhomes.position.Location;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.Optional;
+import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 public interface FabricSafetyResolver extends SafetyResolver {
 
+    ChunkTicketType<ChunkPos> SAFETY_TICKET = ChunkTicketType.create("huskhomes_safety",
+            Comparator.comparingLong(ChunkPos::toLong));
+
+    /**
+     * Number of ticks to wait for a chunk to load before giving up on finding a safe location in it
+     */
+    int MAX_LOAD_TICKS = 600;
+
     @Override
     default CompletableFuture<Optional<Location>> findSafeGroundLocation(@NotNull Location location) {
-        final MinecraftServer server = ((FabricHuskHomes) getPlugin()).getMinecraftServer();
-        final Identifier worldId = Identifier.tryParse(location.getWorld().getName());
-
-        // Ensure the location is on a valid world
-        final Optional<ServerWorld> locationWorld = server.getWorldRegistryKeys().stream()
-                .filter(key -> key.getValue().equals(worldId)).findFirst()
-                .map(server::getWorld);
-        if (locationWorld.isEmpty()) {
-            return CompletableFuture.completedFuture(Optional.empty());
-        }
+        final CompletableFuture<Optional<Location>> safe = new CompletableFuture<>();
+        getPlugin().runSync(() -> {
+            final MinecraftServer server = ((FabricHuskHomes) getPlugin()).getMinecraftServer();
+            final Identifier worldId = Identifier.tryParse(location.getWorld().getName());
 
-        // Ensure the location is within the world border
-        final ServerWorld world = locationWorld.get();
-        if (!world.getWorldBorder().contains(location.getX(), location.getZ())) {
-            return CompletableFuture.completedFuture(Optional.empty());
-        }
+            // Ensure the location is on a valid world
+            final Optional<ServerWorld> locationWorld = server.getWorldRegistryKeys().stream()
+                    .filter(key -> key.getValue().equals(worldId)).findFirst()
+                    .map(server::getWorld);
+            if (locationWorld.isEmpty()) {
+                safe.complete(Optional.empty());
+                return;
+            }
+
+            // Ensure the location is within the world border
+            final ServerWorld world = locationWorld.get();
+            if (!world.getWorldBorder().contains(location.getX(), location.getZ())) {
+                safe.complete(Optional.empty());
+                return;
+            }
+
+            // Load the chunk in the background with a ticket, then search it for the best safe location
+            final ChunkPos pos = new ChunkPos(
+                    (int) Math.floor(location.getX()) >> 4, (int) Math.floor(location.getZ()) >> 4);
+            world.getChunkManager().addTicket(SAFETY_TICKET, pos, 1, pos);
+            awaitChunkLoad(world, pos, 0, loaded -> {
+                try {
+                    safe.complete(loaded
+                            ? findSafeLocationIn(location, world.getChunk(pos.x, pos.z), world)
+                            : Optional.empty());
+                } catch (Throwable e) {
+                    safe.completeExceptionally(e);
+                } finally {
+                    world.getChunkManager().removeTicket(SAFETY_TICKET, pos, 1, pos);
+                }
+            });
+        });
+        return safe;
+    }
 
-        return CompletableFuture.completedFuture(findSafeLocationNear(location, world));
+    // Check once a tick until the chunk has loaded, or the wait has timed out
+    private void awaitChunkLoad(@NotNull ServerWorld world, @NotNull ChunkPos pos, int ticks,
+                                @NotNull Consumer<Boolean> callback) {
+        if (world.getChunkManager().isChunkLoaded(pos.x, pos.z)) {
+            callback.accept(true);
+            return;
+        }
+        if (ticks >= MAX_LOAD_TICKS) {
+            callback.accept(false);
+            return;
+        }
+        getPlugin().runSync(() -> awaitChunkLoad(world, pos, ticks + 1, callback));
     }
 
     /**
-     * Search for a safe ground location near the given location
+     * Search every column of a loaded chunk for the best safe ground location, preferring columns near the given
+     * location. Must be called on the server thread
      *
      * @param location The location to search around
-     * @return An optional safe location, within 4 blocks of the given location
+     * @param chunk    The loaded chunk containing the location
+     * @param world    The world the chunk is in
+     * @return An optional safe location, within the same chunk as the given location
      */
-    private Optional<Location> findSafeLocationNear(@NotNull Location location, @NotNull ServerWorld world) {
-        final BlockPos.Mutable blockPos = new BlockPos.Mutable(location.getX(), location.getY(), location.getZ());
-        for (int x = -SEARCH_RADIUS; x <= SEARCH_RADIUS; x++) {
-            for (int z = -SEARCH_RADIUS; z <= SEARCH_RADIUS; z++) {
-                blockPos.set(location.getX() + x, location.getY(), location.getZ() + z);
-                final int highestY = getHighestYAt(world, blockPos.getX(), blockPos.getY(), blockPos.getZ());
-                final BlockState blockState = world.getBlockState(blockPos.withY(highestY));
-
-                final Material material = blockState.getMaterial();
-                final Identifier blockId = Registries.BLOCK.getId(blockState.getBlock());
-                if (!material.isLiquid() && material != Material.FIRE && isBlockSafe(blockId.toString())) {
-                    return Optional.of(Location.at(
-                            blockPos.getX() + 0.5,
-                            highestY + 1,
-                            blockPos.getZ() + 0.5,
-                            location.getWorld()
-                    ));
-                }
-            }
-        }
-        return Optional.empty();
+    private Optional<Location> findSafeLocationIn(@NotNull Location location, @NotNull WorldChunk chunk,
+                                                  @NotNull ServerWorld world) {
+        final int bottomY = world.getBottomY();
+        final int topY = world.getTopY();
+        final int blockX = chunk.getPos().getStartX();
+        final int blockZ = chunk.getPos().getStartZ();
+        final WorldBorder border = world.getWorldBorder();
+        final BlockPos.Mutable cursor = new BlockPos.Mutable();
+        return ChunkColumnScanner.findBestColumn(
+                        (int) Math.floor(location.getX()),
+                        (int) Math.floor(location.getZ()),
+                        (x, z) -> chunk.sampleHeightmap(Heightmap.Type.MOTION_BLOCKING, x, z),
+                        (x, y, z) -> y > bottomY && y + 2 < topY
+                                     && border.contains(blockX + x, blockZ + z)
+                                     && isSafeGround(chunk.getBlockState(cursor.set(blockX + x, y, blockZ + z)))
+                                     && isPassable(chunk.getBlockState(cursor.move(0, 1, 0)))
+                                     && isPassable(chunk.getBlockState(cursor.move(0, 1, 0))))
+                .map(column -> Location.at(
+                        blockX + column.x() + 0.5d,
+                        column.groundY() + 1,
+                        blockZ + column.z() + 0.5d,
+                        location.getWorld()
+                ));
+    }
+
+    private boolean isSafeGround(@NotNull BlockState state) {
+        final Material material = state.getMaterial();
+        return !material.isLiquid() && material != Material.FIRE && isBlockSafe(state.getBlock());
+    }
+
+    private boolean isPassable(@NotNull BlockState state) {
+        return state.isAir() || (!state.getMaterial().blocksMovement() && state.getFluidState().isEmpty()
+                                 && isBlockSafe(state.getBlock()));
     }
 
     /**
-     * Get the highest Y value at the given X and Z coordinates
+     * Returns if the block is safe
      *
-     * @param blockView The block view to search
-     * @param x         The X coordinate
-     * @param y         The Y coordinate
-     * @param z         The Z coordinate
-     * @return The highest Y value at the given X and Z coordinates
+     * @param block The block
+     * @return {@code true} if the block is not an unsafe block, {@code false} otherwise
      */
-    private int getHighestYAt(@NotNull BlockView blockView, int x, int y, int z) {
-        final BlockPos.Mutable cursor = new BlockPos.Mutable(x, y, z);
-        while (blockView.getBlockState(cursor).isAir() && cursor.getY() > blockView.getBottomY()) {
-            cursor.move(Direction.DOWN);
+    default boolean isBlockSafe(@NotNull Block block) {
+        return !getUnsafeBlockTypes().contains(block);
+    }
+
+    /**
+     * Get the set of unsafe blocks, compiled from the {@link UnsafeBlocks} on first use
+     *
+     * @return the unsafe blocks
+     */
+    @NotNull
+    Set<Block> getUnsafeBlockTypes();
+
+    /**
+     * Compile the unsafe blocks into a set of registered blocks, compared by identity
+     *
+     * @param unsafeBlocks The unsafe blocks
+     * @return the unsafe blocks
+     */
+    @NotNull
+    static Set<Block> compileUnsafeBlockTypes(@NotNull UnsafeBlocks unsafeBlocks) {
+        final Set<Block> blocks = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (String key : unsafeBlocks.getUnsafeKeys()) {
+            final Identifier blockId = Identifier.tryParse(key);
+            if (blockId != null) {
+                Registries.BLOCK.getOrEmpty(blockId).ifPresent(blocks::add);
+            }
         }
-        return cursor.getY();
+        return blocks;
     }
 
 }
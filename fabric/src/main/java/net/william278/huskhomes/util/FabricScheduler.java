@@ -0,0 +1,214 @@
+/*
+ * This file is part of HuskHomes, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.util;
+
+import net.william278.huskhomes.HuskHomes;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+
+/**
+ * Schedules HuskHomes tasks on Fabric, which unlike Bukkit and Sponge has no plugin scheduler of its own.
+ * <p>
+ * Delayed and repeating tasks share a single timer thread, which hands each task off to a pool of worker threads
+ * so that blocking (e.g. database) work never holds up the timer or the server thread. Synchronous tasks are queued
+ * and run on the server thread at the start of the next server tick, through {@link #tick()}.
+ * <p>
+ * Once the scheduler has been shut down, asynchronous tasks are run on the calling thread.
+ */
+public class FabricScheduler {
+
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 5;
+
+    private final HuskHomes plugin;
+    private final ScheduledExecutorService timer;
+    private final ExecutorService workers;
+    private final Queue<Runnable> syncTasks = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Create a new scheduler
+     *
+     * @param plugin        the HuskHomes plugin instance
+     * @param workerThreads the number of worker threads to run asynchronous tasks on
+     */
+    public FabricScheduler(@NotNull HuskHomes plugin, int workerThreads) {
+        this.plugin = plugin;
+        this.timer = Executors.newSingleThreadScheduledExecutor(createThreadFactory("HuskHomes-Timer"));
+        this.workers = Executors.newFixedThreadPool(Math.max(1, workerThreads),
+                createThreadFactory("HuskHomes-Worker"));
+    }
+
+    /**
+     * Run a task on a worker thread
+     *
+     * @param runnable the task to run
+     */
+    public void runAsync(@NotNull Runnable runnable) {
+        try {
+            workers.execute(runnable);
+        } catch (RejectedExecutionException e) {
+            runnable.run();
+        }
+    }
+
+    /**
+     * Supply a value on a worker thread
+     *
+     * @param supplier the supplier to run
+     * @param <T>      the type of the supplied value
+     * @return a future completing with the supplied value
+     */
+    @NotNull
+    public <T> CompletableFuture<T> supplyAsync(@NotNull Supplier<T> supplier) {
+        return CompletableFuture.supplyAsync(supplier, this::runAsync);
+    }
+
+    /**
+     * Queue a task to run on the server thread at the start of the next tick
+     *
+     * @param runnable the task to run
+     */
+    public void runSync(@NotNull Runnable runnable) {
+        syncTasks.add(runnable);
+    }
+
+    /**
+     * Run a task on a worker thread after a delay
+     *
+     * @param runnable the task to run
+     * @param delay    the delay, in ticks
+     * @return the scheduled task, which can be cancelled
+     */
+    @NotNull
+    public ScheduledFuture<?> runLater(@NotNull Runnable runnable, long delay) {
+        return timer.schedule(() -> runAsync(runnable), toMillis(delay), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Run a task on a worker thread repeatedly, starting immediately. A run is skipped if the previous run of the
+     * task has not yet finished
+     *
+     * @param runnable the task to run
+     * @param period   the time between runs, in ticks
+     * @return the scheduled task, which can be cancelled
+     */
+    @NotNull
+    public ScheduledFuture<?> runRepeating(@NotNull Runnable runnable, long period) {
+        final AtomicInteger running = new AtomicInteger();
+        return timer.scheduleAtFixedRate(() -> {
+            if (running.compareAndSet(0, 1)) {
+                runAsync(() -> {
+                    try {
+                        runnable.run();
+                    } finally {
+                        running.set(0);
+                    }
+                });
+            }
+        }, 0, Math.max(1, toMillis(period)), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Run a task on the server thread repeatedly, starting at the next tick. Unlike {@link #runRepeating}, the period
+     * is counted in server ticks rather than wall-clock time, so runs slow down with the server
+     *
+     * @param runnable the task to run
+     * @param period   the number of ticks between runs
+     * @return a future which stops the task when cancelled
+     */
+    @NotNull
+    public Future<?> runSyncRepeating(@NotNull Runnable runnable, long period) {
+        final CompletableFuture<Void> handle = new CompletableFuture<>();
+        final long interval = Math.max(1, period);
+        runSync(new Runnable() {
+            private long ticks;
+
+            @Override
+            public void run() {
+                if (handle.isDone()) {
+                    return;
+                }
+                try {
+                    if (ticks++ % interval == 0) {
+                        runnable.run();
+                    }
+                } finally {
+                    runSync(this);
+                }
+            }
+        });
+        return handle;
+    }
+
+    /**
+     * Run the synchronous tasks queued before this tick. Must be called on the server thread once per tick
+     */
+    public void tick() {
+        // Tasks queued by the tasks run here wait for the next tick
+        for (int i = syncTasks.size(); i > 0; i--) {
+            final Runnable runnable = syncTasks.poll();
+            if (runnable == null) {
+                break;
+            }
+            try {
+                runnable.run();
+            } catch (Throwable e) {
+                plugin.log(Level.SEVERE, "Exception running a synchronous task", e);
+            }
+        }
+    }
+
+    /**
+     * Stop the scheduler, cancelling delayed and repeating tasks. Asynchronous tasks already running or queued are
+     * given a few seconds to finish, then remaining synchronous tasks are run. Must be called on the server thread
+     */
+    public void shutdown() {
+        timer.shutdownNow();
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                workers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        tick();
+    }
+
+    private static long toMillis(long ticks) {
+        return Math.max(0, ticks) * 50;
+    }
+
+    @NotNull
+    private static ThreadFactory createThreadFactory(@NotNull String name) {
+        final AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            final Thread thread = new Thread(runnable, name + "-" + count.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+}
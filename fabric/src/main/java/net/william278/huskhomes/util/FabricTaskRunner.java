@@ -22,75 +22,67 @@ package net.william278.huskhomes.util;
 import net.william278.huskhomes.FabricHuskHomes;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.concurrent.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
 import java.util.function.Supplier;
 
 public interface FabricTaskRunner extends TaskRunner {
 
-
     @Override
     default void runAsync(@NotNull Runnable runnable) {
-        CompletableFuture.runAsync(runnable, getPlugin().getMinecraftServer());
+        getScheduler().runAsync(runnable);
     }
 
     @Override
     default <T> CompletableFuture<T> supplyAsync(@NotNull Supplier<T> supplier) {
-        return CompletableFuture.supplyAsync(supplier, getPlugin().getMinecraftServer());
+        return getScheduler().supplyAsync(supplier);
     }
 
     @Override
     default void runSync(@NotNull Runnable runnable) {
-        getPlugin().getMinecraftServer().executeSync(runnable);
+        getScheduler().runSync(runnable);
     }
 
     @Override
     default int runAsyncRepeating(@NotNull Runnable runnable, long delay) {
         final int taskId = getNextTaskId();
-        final CompletableFuture<?> future = new CompletableFuture<>();
-
-        final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
-        executor.scheduleAtFixedRate(() -> {
-            if (future.isCancelled()) {
-                executor.shutdown();
-                return;
-            }
-            runnable.run();
-        }, 0, delay * 50, TimeUnit.MILLISECONDS);
-
-        getTasks().put(taskId, future);
+        getTasks().put(taskId, getScheduler().runRepeating(runnable, delay));
+        return taskId;
+    }
+
+    @Override
+    default int runSyncRepeating(@NotNull Runnable runnable, long period) {
+        final int taskId = getNextTaskId();
+        getTasks().put(taskId, getScheduler().runSyncRepeating(runnable, period));
         return taskId;
     }
 
     @Override
     default void runLater(@NotNull Runnable runnable, long delay) {
-        CompletableFuture.runAsync(() -> {
-            try {
-                Thread.sleep(delay * 50);
-            } catch (InterruptedException e) {
-                e.printStackTrace();
-                return;
-            }
-            runnable.run();
-        }, getPlugin().getMinecraftServer());
+        getScheduler().runLater(runnable, delay);
     }
 
     @Override
     default void cancelTask(int taskId) {
-        if (getTasks().containsKey(taskId)) {
-            getTasks().get(taskId).cancel(true);
-            getTasks().remove(taskId);
+        final Future<?> task = getTasks().remove(taskId);
+        if (task != null) {
+            task.cancel(false);
         }
     }
 
     @Override
     default void cancelAllTasks() {
-        getTasks().values().forEach(task -> task.cancel(true));
+        getTasks().values().forEach(task -> task.cancel(false));
         getTasks().clear();
     }
 
+    @NotNull
+    FabricScheduler getScheduler();
+
     @NotNull
     @Override
-    ConcurrentHashMap<Integer, CompletableFuture<?>> getTasks();
+    ConcurrentHashMap<Integer, Future<?>> getTasks();
 
     @Override
     @NotNull
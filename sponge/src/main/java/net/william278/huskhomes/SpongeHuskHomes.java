@@ -41,12 +41,13 @@ import net.william278.huskhomes.network.PluginMessageBroker;
 import net.william278.huskhomes.network.RedisBroker;
 import net.william278.huskhomes.position.Location;
 import net.william278.huskhomes.position.World;
-import net.william278.huskhomes.random.NormalDistributionEngine;
+import net.william278.huskhomes.random.PerWorldEngine;
 import net.william278.huskhomes.random.RandomTeleportEngine;
 import net.william278.huskhomes.user.ConsoleUser;
 import net.william278.huskhomes.user.OnlineUser;
 import net.william278.huskhomes.user.SavedUser;
 import net.william278.huskhomes.user.SpongeUser;
+import net.william278.huskhomes.util.SpongeChunkPreloader;
 import net.william278.huskhomes.util.SpongeSafetyResolver;
 import net.william278.huskhomes.util.SpongeTaskRunner;
 import net.william278.huskhomes.util.UnsafeBlocks;
@@ -57,6 +58,7 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.spongepowered.api.Game;
 import org.spongepowered.api.ResourceKey;
+import org.spongepowered.api.block.BlockType;
 import org.spongepowered.api.command.Command.Raw;
 import org.spongepowered.api.config.ConfigDir;
 import org.spongepowered.api.event.Listener;
@@ -69,6 +71,7 @@ import org.spongepowered.api.network.channel.ChannelBuf;
 import org.spongepowered.api.network.channel.raw.RawDataChannel;
 import org.spongepowered.api.network.channel.raw.play.RawPlayDataChannel;
 import org.spongepowered.api.network.channel.raw.play.RawPlayDataHandler;
+import org.spongepowered.api.world.server.TicketType;
 import org.spongepowered.math.vector.Vector3i;
 import org.spongepowered.plugin.PluginContainer;
 import org.spongepowered.plugin.builtin.jvm.Plugin;
@@ -85,7 +88,8 @@ import java.util.logging.Level;
 import java.util.stream.Collectors;
 
 @Plugin("huskhomes")
-public class SpongeHuskHomes implements HuskHomes, SpongeTaskRunner, SpongeSafetyResolver, SpongeEventDispatcher, RawPlayDataHandler<EngineConnection> {
+public class SpongeHuskHomes implements HuskHomes, SpongeTaskRunner, SpongeSafetyResolver, SpongeChunkPreloader,
+        SpongeEventDispatcher, RawPlayDataHandler<EngineConnection> {
 
     /**
      * Metrics ID for <a href="https://bstats.org/plugin/sponge/HuskHomes/18423">HuskHomes on Sponge</a>.
@@ -120,14 +124,16 @@ public class SpongeHuskHomes implements HuskHomes, SpongeTaskRunner, SpongeSafet
     private RandomTeleportEngine randomTeleportEngine;
     private Spawn serverSpawn;
     private UnsafeBlocks unsafeBlocks;
+    private volatile Set<BlockType> unsafeBlockTypes;
     private List<Hook> hooks;
     private List<SpongeCommand> commands;
     private Map<String, List<String>> globalPlayerList;
-    private Set<UUID> currentlyOnWarmup;
     private Server server;
     @Nullable
     private Broker broker;
     private RawPlayDataChannel channel;
+    private TicketType<Vector3i> preloadTicketType;
+    private SpongeEventListener eventListener;
 
     @Listener
     public void onConstructPlugin(final ConstructPluginEvent event) {
@@ -137,7 +143,6 @@ public class SpongeHuskHomes implements HuskHomes, SpongeTaskRunner, SpongeSafet
         this.tasks = new ConcurrentHashMap<>();
         this.savedUsers = new HashSet<>();
         this.globalPlayerList = new HashMap<>();
-        this.currentlyOnWarmup = new HashSet<>();
         this.validator = new Validator(this);
 
         // Load settings and locales
@@ -178,10 +183,10 @@ public class SpongeHuskHomes implements HuskHomes, SpongeTaskRunner, SpongeSafet
         this.manager = new Manager(this);
 
         // Setup RTP engine
-        setRandomTeleportEngine(new NormalDistributionEngine(this));
+        setRandomTeleportEngine(new PerWorldEngine(this));
 
         // Register events
-        initialize("events", (plugin) -> new SpongeEventListener(this));
+        initialize("events", (plugin) -> this.eventListener = new SpongeEventListener(this));
 
         // Register permissions
         initialize("permissions", (plugin) -> registerPermissions());
@@ -204,6 +209,9 @@ public class SpongeHuskHomes implements HuskHomes, SpongeTaskRunner, SpongeSafet
 
     @Listener
     public void onShutdown(final StoppingEngineEvent<org.spongepowered.api.Server> event) {
+        if (this.eventListener != null) {
+            this.eventListener.handlePluginDisable();
+        }
         if (database != null) {
             database.terminate();
         }
@@ -284,6 +292,7 @@ public class SpongeHuskHomes implements HuskHomes, SpongeTaskRunner, SpongeSafet
     @Override
     public void setUnsafeBlocks(@NotNull UnsafeBlocks unsafeBlocks) {
         this.unsafeBlocks = unsafeBlocks;
+        this.unsafeBlockTypes = null;
     }
 
     @NotNull
@@ -292,6 +301,18 @@ public class SpongeHuskHomes implements HuskHomes, SpongeTaskRunner, SpongeSafet
         return unsafeBlocks;
     }
 
+    // Compiled on first use, once the block type registry is available
+    @NotNull
+    @Override
+    public Set<BlockType> getUnsafeBlockTypes() {
+        Set<BlockType> blockTypes = unsafeBlockTypes;
+        if (blockTypes == null) {
+            blockTypes = SpongeSafetyResolver.compileUnsafeBlockTypes(unsafeBlocks);
+            unsafeBlockTypes = blockTypes;
+        }
+        return blockTypes;
+    }
+
     @NotNull
     @Override
     public Database getDatabase() {
@@ -434,12 +455,6 @@ public class SpongeHuskHomes implements HuskHomes, SpongeTaskRunner, SpongeSafet
         return globalPlayerList;
     }
 
-    @NotNull
-    @Override
-    public Set<UUID> getCurrentlyOnWarmup() {
-        return currentlyOnWarmup;
-    }
-
     @Override
     public void registerMetrics(int metricsId) {
         if (!getVersion().getMetadata().isBlank()) {
@@ -522,6 +537,15 @@ public class SpongeHuskHomes implements HuskHomes, SpongeTaskRunner, SpongeSafet
         return tasks;
     }
 
+    @Override
+    @NotNull
+    public TicketType<Vector3i> getPreloadTicketType() {
+        if (preloadTicketType == null) {
+            preloadTicketType = SpongeChunkPreloader.createPreloadTicketType();
+        }
+        return preloadTicketType;
+    }
+
     @NotNull
     @Override
     public SpongeHuskHomes getPlugin() {
@@ -29,9 +29,11 @@ import org.spongepowered.api.block.BlockTypes;
 import org.spongepowered.api.entity.living.player.server.ServerPlayer;
 import org.spongepowered.api.event.EventContextKeys;
 import org.spongepowered.api.event.Listener;
+import org.spongepowered.api.event.Order;
 import org.spongepowered.api.event.block.InteractBlockEvent;
 import org.spongepowered.api.event.cause.entity.MovementType;
 import org.spongepowered.api.event.cause.entity.MovementTypes;
+import org.spongepowered.api.event.entity.DamageEntityEvent;
 import org.spongepowered.api.event.entity.DestructEntityEvent;
 import org.spongepowered.api.event.entity.MoveEntityEvent;
 import org.spongepowered.api.event.entity.living.player.RespawnPlayerEvent;
@@ -81,6 +83,21 @@ public class SpongeEventListener extends EventListener {
         }
     }
 
+    @Listener(order = Order.POST)
+    public void onPlayerMove(final MoveEntityEvent event) {
+        if (event.entity() instanceof ServerPlayer player) {
+            super.handlePlayerMove(player.uniqueId(), event.destinationPosition().x(),
+                    event.destinationPosition().y(), event.destinationPosition().z());
+        }
+    }
+
+    @Listener(order = Order.POST)
+    public void onPlayerDamage(final DamageEntityEvent event) {
+        if (event.entity() instanceof ServerPlayer player) {
+            super.handlePlayerDamage(player.uniqueId());
+        }
+    }
+
     @Listener
     @SuppressWarnings("unchecked")
     public void onPlayerUpdateRespawnLocation(InteractBlockEvent.Secondary event) {
@@ -0,0 +1,83 @@
+/*
+ * This file is part of HuskHomes, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.util;
+
+import net.william278.huskhomes.SpongeHuskHomes;
+import net.william278.huskhomes.position.Location;
+import org.jetbrains.annotations.NotNull;
+import org.spongepowered.api.world.server.ChunkManager;
+import org.spongepowered.api.world.server.ServerLocation;
+import org.spongepowered.api.world.server.TicketType;
+import org.spongepowered.math.vector.Vector3i;
+
+import java.util.Comparator;
+import java.util.concurrent.CompletableFuture;
+
+public interface SpongeChunkPreloader extends ChunkPreloader {
+
+    @Override
+    default CompletableFuture<Boolean> preloadChunk(@NotNull Location location) {
+        final CompletableFuture<Boolean> loaded = new CompletableFuture<>();
+        getPlugin().runSync(() -> SpongeAdapter.adaptLocation(location).ifPresentOrElse(
+                serverLocation -> serverLocation.world().chunkManager()
+                        .requestTicket(getPreloadTicketType(), serverLocation.chunkPosition(),
+                                serverLocation.chunkPosition(), 1)
+                        .whenComplete((ticket, e) -> loaded.complete(e == null && ticket.isPresent())),
+                () -> loaded.complete(false)));
+        return loaded;
+    }
+
+    @Override
+    default void releaseChunk(@NotNull Location location) {
+        getPlugin().runSync(() -> SpongeAdapter.adaptLocation(location).ifPresent(serverLocation -> {
+            final ChunkManager chunkManager = serverLocation.world().chunkManager();
+            final Vector3i chunkPosition = serverLocation.chunkPosition();
+            chunkManager.findTickets(getPreloadTicketType()).stream()
+                    .filter(ticket -> ticket.value().equals(chunkPosition))
+                    .forEach(chunkManager::releaseTicket);
+        }));
+    }
+
+    /**
+     * Get the ticket type used to hold preloaded chunks
+     *
+     * @return the preload ticket type
+     */
+    @NotNull
+    TicketType<Vector3i> getPreloadTicketType();
+
+    @NotNull
+    SpongeHuskHomes getPlugin();
+
+    /**
+     * Create the ticket type used to hold preloaded chunks. Tickets of this type never expire, and must be released
+     *
+     * @return the new ticket type
+     */
+    @NotNull
+    static TicketType<Vector3i> createPreloadTicketType() {
+        return TicketType.<Vector3i>builder()
+                .name("huskhomes_preload")
+                .comparator(Comparator.comparing(Vector3i::x).thenComparing(Vector3i::z))
+                .neverExpires()
+                .build();
+    }
+
+}
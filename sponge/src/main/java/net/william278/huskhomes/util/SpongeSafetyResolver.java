@@ -22,14 +22,19 @@ package net.william278.huskhomes.util;
 import net.william278.huskhomes.position.Location;
 import net.william278.huskhomes.position.World;
 import org.jetbrains.annotations.NotNull;
+import org.spongepowered.api.ResourceKey;
 import org.spongepowered.api.block.BlockState;
+import org.spongepowered.api.block.BlockType;
 import org.spongepowered.api.registry.RegistryTypes;
 import org.spongepowered.api.world.border.WorldBorder;
 import org.spongepowered.api.world.server.ServerLocation;
 import org.spongepowered.math.vector.Vector2d;
 import org.spongepowered.math.vector.Vector3i;
 
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 
 public interface SpongeSafetyResolver extends SafetyResolver {
@@ -62,7 +67,7 @@ public interface SpongeSafetyResolver extends SafetyResolver {
             for (int z = -SEARCH_RADIUS; z <= SEARCH_RADIUS; z++) {
                 final Vector3i cursor = location.asHighestLocation().blockPosition().add(x, 0, z);
                 final BlockState blockState = location.world().block(cursor);
-                if (isBlockSafe(blockState.type().key(RegistryTypes.BLOCK_TYPE).asString())) {
+                if (isBlockSafe(blockState.type())) {
                     return Optional.of(Location.at(
                             cursor.x() + 0.5,
                             cursor.y() + 1,
@@ -75,6 +80,39 @@ public interface SpongeSafetyResolver extends SafetyResolver {
         return Optional.empty();
     }
 
+    /**
+     * Returns if the block type is safe
+     *
+     * @param blockType The block type
+     * @return {@code true} if the block type is not an unsafe block, {@code false} otherwise
+     */
+    default boolean isBlockSafe(@NotNull BlockType blockType) {
+        return !getUnsafeBlockTypes().contains(blockType);
+    }
+
+    /**
+     * Get the set of unsafe block types, compiled from the {@link UnsafeBlocks} on first use
+     *
+     * @return the unsafe block types
+     */
+    @NotNull
+    Set<BlockType> getUnsafeBlockTypes();
+
+    /**
+     * Compile the unsafe blocks into a set of registered block types, compared by identity
+     *
+     * @param unsafeBlocks The unsafe blocks
+     * @return the unsafe block types
+     */
+    @NotNull
+    static Set<BlockType> compileUnsafeBlockTypes(@NotNull UnsafeBlocks unsafeBlocks) {
+        final Set<BlockType> blockTypes = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (String key : unsafeBlocks.getUnsafeKeys()) {
+            RegistryTypes.BLOCK_TYPE.get().findValue(ResourceKey.resolve(key)).ifPresent(blockTypes::add);
+        }
+        return blockTypes;
+    }
+
     private boolean isInBorder(WorldBorder border, Vector3i position) {
         final Vector2d center = border.center();
         final double radius = border.diameter() / 2;
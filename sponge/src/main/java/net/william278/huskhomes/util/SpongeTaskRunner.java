@@ -75,6 +75,21 @@ public interface SpongeTaskRunner extends TaskRunner {
         return taskId;
     }
 
+    @Override
+    default int runSyncRepeating(@NotNull Runnable runnable, long period) {
+        final int taskId = getNextTaskId();
+        final CancellableRunnable task = wrap(runnable);
+        getTasks().put(taskId, task);
+        getPlugin().getGame().server().scheduler()
+                .submit(Task.builder()
+                        .plugin(getPlugin().getPluginContainer())
+                        .execute(task)
+                        .interval(Ticks.of(Math.max(1, period)))
+                        .build());
+
+        return taskId;
+    }
+
     @Override
     default void runLater(@NotNull Runnable runnable, long delay) {
         getPlugin().getGame().server().scheduler()